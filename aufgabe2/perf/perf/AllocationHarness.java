@@ -0,0 +1,148 @@
+package perf;
+
+import db.DBTable;
+import db.WhereParameter;
+import db.alloc.AllocationProfile;
+import db.alloc.AllocationProfiler;
+import db.alloc.AllocationSite;
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import db.value.BooleanValue;
+import db.value.DoubleValue;
+import db.value.StringValue;
+import db.value.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Führt jede Tabellenoperation unter Java Flight Recorder aus und gibt aus, wie viele Bytes und Objekte sie pro
+ * bearbeiteter Zeile alloziert und an welchen Stellen ({@code ant alloc}).
+ * <p>
+ * Jede Operation wird vor dem Profilieren {@value #WARMUP_RUNS}-mal ungemessen ausgeführt, damit der JIT-Compiler
+ * vermeidbare Allokationen bereits entfernt hat.
+ */
+public final class AllocationHarness {
+
+    /**
+     * Anzahl der ungemessenen Ausführungen vor dem Profilieren
+     */
+    private static final int WARMUP_RUNS = 5;
+
+    /**
+     * Anzahl der ausgegebenen Allokationsstellen pro Operation
+     */
+    private static final int TOP_SITES = 8;
+
+    /**
+     * Anzahl der Teesorten pro Kategorie
+     */
+    private static final int TEAS_PER_CATEGORY = 100;
+
+    /**
+     * Anzahl der Zugriffe über den Primärschlüssel pro Ausführung, höchstens die Anzahl der Zeilen
+     */
+    private static final int LOOKUPS = 100_000;
+
+    /**
+     * Herkunftsländer der Teesorten
+     */
+    private static final List<String> COUNTRIES = List.of("China", "Indien", "Japan", "Kenia");
+
+    /**
+     * Konstruktor
+     */
+    private AllocationHarness() {
+    }
+
+    /**
+     * Profiliert alle Operationen.
+     *
+     * @param args Anzahl der Teesorten
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("usage: AllocationHarness <rows>");
+            System.exit(1);
+        }
+        int numOfTeas = Integer.parseInt(args[0]);
+        int numOfCategories = Math.max(numOfTeas / TEAS_PER_CATEGORY, 1);
+        DBTable categories = new DBTable("Kategorie", "ID", List.of("ID", "Beschreibung", "EnthaeltKoffein"));
+        for (int i = 0; i < numOfCategories; i++) {
+            categories.appendRow(List.of(new DoubleValue(i), new StringValue("Kategorie " + i),
+                    new BooleanValue(i % 2 == 0)));
+        }
+        DBTable teas = teaTable(numOfTeas, numOfCategories);
+        List<WhereParameter> firstHalf = List.of(new WhereParameter("ID", new DoubleLessThanPredicate(numOfTeas / 2)));
+        int lookups = Math.min(LOOKUPS, numOfTeas);
+
+        List<AllocationProfile> profiles = new ArrayList<>();
+        profiles.add(profile("appendRow", () -> teaTable(numOfTeas, numOfCategories).getNumOfRows()));
+        profiles.add(profile("getRowByPrimaryKey", () -> {
+            for (int i = 0; i < lookups; i++) {
+                teas.getRowByPrimaryKey(new DoubleValue(i));
+            }
+            return lookups;
+        }));
+        profiles.add(profile("select", () -> teas.select(List.of("Name", "ID"), firstHalf, "Auswahl")
+                .getNumOfRows()));
+        profiles.add(profile("select ohne Bedingung", () -> teas.select(List.of("Name", "ID"), List.of(), "Projektion")
+                .getNumOfRows()));
+        profiles.add(profile("update", () -> {
+            teas.update("Name", new StringValue("Tee"), firstHalf);
+            return numOfTeas / 2;
+        }));
+        profiles.add(profile("equijoin", () -> teas.equijoin(categories, "KategorieID", "Join").getNumOfRows()));
+        profiles.add(profile("toString", () -> teas.toString().isEmpty() ? 0 : numOfTeas));
+        profiles.add(profile("removeRows", () -> {
+            DBTable copy = teas.copy("Kopie");
+            copy.removeRows(new WhereParameter("Herkunftsland", new EqualsPredicate(new StringValue("China"))));
+            return numOfTeas;
+        }));
+
+        for (AllocationProfile profile : profiles) {
+            System.out.printf(Locale.ROOT, "%-22s %,12.1f B/Zeile %,10.2f Objekte/Zeile%n", profile.getOperator(),
+                    profile.bytesPerRow(), profile.objectsPerRow());
+            for (AllocationSite site : profile.getSites().subList(0, Math.min(TOP_SITES, profile.getSites().size()))) {
+                System.out.printf(Locale.ROOT, "    %,12.1f B/Zeile %,8.2f Objekte/Zeile  %s (%s)%n",
+                        (double) site.bytes() / Math.max(profile.getRows(), 1),
+                        (double) site.objects() / Math.max(profile.getRows(), 1), site.site(), site.objectClass());
+            }
+        }
+    }
+
+    /**
+     * Führt eine Operation mehrfach ungemessen aus und profiliert anschließend eine Ausführung.
+     *
+     * @param operator  Bezeichnung der Operation
+     * @param operation Operation, die die Anzahl der bearbeiteten Zeilen liefert
+     *
+     * @return Profil der Operation
+     */
+    private static AllocationProfile profile(String operator, LongSupplier operation) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            operation.getAsLong();
+        }
+        return AllocationProfiler.profile(operator, operation);
+    }
+
+    /**
+     * Erzeugt die Tabelle der Teesorten.
+     *
+     * @param numOfTeas       Anzahl der Teesorten
+     * @param numOfCategories Anzahl der Kategorien
+     *
+     * @return Tabelle mit ID, Name, Herkunftsland und KategorieID
+     */
+    private static DBTable teaTable(int numOfTeas, int numOfCategories) {
+        DBTable teas = new DBTable("Teesorten", "ID", List.of("ID", "Name", "Herkunftsland", "KategorieID"));
+        for (int i = 0; i < numOfTeas; i++) {
+            List<Value> row = List.of(new DoubleValue(i), new StringValue("Tee " + i),
+                    new StringValue(COUNTRIES.get(i % COUNTRIES.size())), new DoubleValue(i % numOfCategories));
+            teas.appendRow(row);
+        }
+        return teas;
+    }
+}
@@ -0,0 +1,101 @@
+package perf;
+
+import java.util.Arrays;
+
+/**
+ * Messreihe einer Last der {@link PerformanceSuite}. Jede Messung ist die Dauer eines Vorgangs, der eine Anzahl von
+ * Einheiten (Zeilen oder Operationen) bearbeitet hat.
+ */
+final class Measurement {
+
+    /**
+     * Anfangskapazität der Messreihe
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Nanosekunden pro Sekunde
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Nanosekunden pro Mikrosekunde
+     */
+    private static final double NANOS_PER_MICRO = 1e3;
+
+    /**
+     * Prozent eines Ganzen
+     */
+    private static final double PERCENT = 100;
+
+    /**
+     * Dauern der Vorgänge in Nanosekunden, nur die ersten size Einträge sind belegt
+     */
+    private long[] samples;
+
+    /**
+     * Anzahl der Messungen
+     */
+    private int size;
+
+    /**
+     * Gesamtdauer aller Vorgänge in Nanosekunden
+     */
+    private long totalNanos;
+
+    /**
+     * Anzahl der bearbeiteten Einheiten aller Vorgänge
+     */
+    private long units;
+
+    /**
+     * Konstruktor
+     */
+    Measurement() {
+        this.samples = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Fügt die Messung eines Vorgangs hinzu.
+     *
+     * @param nanos     Dauer des Vorgangs in Nanosekunden
+     * @param unitCount Anzahl der bearbeiteten Einheiten
+     */
+    void add(long nanos, long unitCount) {
+        if (this.size == this.samples.length) {
+            this.samples = Arrays.copyOf(this.samples, this.size * 2);
+        }
+        this.samples[this.size] = nanos;
+        this.size++;
+        this.totalNanos += nanos;
+        this.units += unitCount;
+    }
+
+    /**
+     * Liefert den Durchsatz aller Vorgänge.
+     *
+     * @return bearbeitete Einheiten pro Sekunde
+     */
+    double throughput() {
+        return this.totalNanos == 0 ? 0 : this.units * NANOS_PER_SECOND / this.totalNanos;
+    }
+
+    /**
+     * Liefert das übergebene Perzentil der Dauern der Vorgänge (Nearest-Rank-Methode).
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Messungen und f(N) = N * log(N).
+     *
+     * @param percentile Perzentil zwischen 0 und 100
+     *
+     * @return Dauer in Mikrosekunden
+     *
+     * @pre Es wurde mindestens eine Messung hinzugefügt
+     */
+    double percentileMicros(double percentile) {
+        assert this.size > 0 : "no samples";
+        long[] sorted = Arrays.copyOf(this.samples, this.size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / PERCENT * this.size);
+        return sorted[Math.max(rank - 1, 0)] / NANOS_PER_MICRO;
+    }
+}
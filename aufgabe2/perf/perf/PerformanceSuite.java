@@ -0,0 +1,419 @@
+package perf;
+
+import db.DB;
+import db.DBTable;
+import db.WhereParameter;
+import db.predicate.DoubleGreaterThanPredicate;
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import db.value.BooleanValue;
+import db.value.DoubleValue;
+import db.value.StringValue;
+import db.value.Value;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+/**
+ * End-to-End-Leistungstest der Datenbank, der als Ant-Target ({@code ant perf}) läuft.
+ * <p>
+ * Für jede Größe wird das Schema aus Kategorie und Teesorten mit der angegebenen Anzahl an Teesorten erzeugt und eine
+ * gemischte Last ausgeführt: Einfügen, Zugriffe über den Primärschlüssel, Selektionen mit Bedingungen,
+ * Aktualisierungen, Joins und das Erzeugen der Stringrepräsentation. Für jede Last werden Durchsatz und die Perzentile
+ * 50, 95 und 99 der Dauer eines Vorgangs erfasst, für jede Größe der höchste Speicherbedarf des Heaps. Der Durchsatz
+ * zählt beim Einfügen, bei Joins und bei der Stringrepräsentation Zeilen pro Sekunde, sonst Operationen pro Sekunde;
+ * ein Vorgang beim Einfügen umfasst {@value #INGEST_BATCH} Zeilen.
+ * <p>
+ * Vor den Messungen läuft die Last einmal ungemessen auf {@value #WARMUP_TEAS} Teesorten, damit die kleinen Größen
+ * nicht die Übersetzung durch den JIT-Compiler messen. Schnelle Lasten werden bei kleinen Größen entsprechend öfter
+ * wiederholt. Die Ergebnisse werden als Properties-Datei geschrieben und mit einer eingecheckten Baseline verglichen.
+ * Weicht der Durchsatz, der Median der Dauer oder der Speicherbedarf um mehr als die Toleranz in die schlechtere
+ * Richtung ab, endet das Programm mit dem Status 1 und das Target schlägt fehl. Dauern und Speicherbedarf gelten erst
+ * als Verschlechterung, wenn sie zusätzlich eine absolute Rauschgrenze überschreiten. Die Perzentile 95 und 99 werden
+ * nur ausgegeben, da einzelne Pausen der Speicherbereinigung sie bestimmen. Werte, die in der Baseline fehlen,
+ * werden nicht verglichen. Da die Werte vom Rechner abhängen, wird die Baseline auf dem Rechner erzeugt, auf dem
+ * verglichen wird ({@code -Dperf.updateBaseline=true}).
+ */
+public final class PerformanceSuite {
+
+    /**
+     * Anzahl der Teesorten pro Kategorie
+     */
+    private static final int TEAS_PER_CATEGORY = 100;
+
+    /**
+     * Anzahl unterschiedlicher Namen von Teesorten
+     */
+    private static final int NAME_VARIETY = 10_000;
+
+    /**
+     * Herkunftsländer der Teesorten
+     */
+    private static final List<String> COUNTRIES = List.of("China", "Indien", "Japan", "Kenia", "Sri Lanka",
+            "Südafrika", "Nepal", "Taiwan");
+
+    /**
+     * Anzahl der Zeilen, die pro gemessenem Vorgang eingefügt werden
+     */
+    private static final int INGEST_BATCH = 1_000;
+
+    /**
+     * Anzahl der Zugriffe über den Primärschlüssel
+     */
+    private static final int LOOKUPS = 20_000;
+
+    /**
+     * Mindestanzahl der gemessenen Selektionen, Aktualisierungen und Stringrepräsentationen
+     */
+    private static final int QUERY_RUNS = 10;
+
+    /**
+     * Mindestanzahl der gemessenen Joins
+     */
+    private static final int JOIN_RUNS = 3;
+
+    /**
+     * Anzahl der Zeilen, die eine wiederholte Last mindestens durchläuft, damit die Perzentile bei kleinen Größen
+     * nicht von einzelnen Ausreißern bestimmt werden
+     */
+    private static final int ROWS_PER_WORKLOAD = 1_000_000;
+
+    /**
+     * Anteil der Zeilen in Promille, die selektiert, aktualisiert und dargestellt werden
+     */
+    private static final int SELECTIVITY_PER_MILLE = 10;
+
+    /**
+     * Promille eines Ganzen
+     */
+    private static final int PER_MILLE = 1_000;
+
+    /**
+     * Startwert des Zufallsgenerators
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Gemessene Perzentile
+     */
+    private static final int[] PERCENTILES = {50, 95, 99};
+
+    /**
+     * Rauschgrenze für Dauern in Mikrosekunden, etwa eine Zeitscheibe des Betriebssystems
+     */
+    private static final double LATENCY_NOISE_MICROS = 1_000;
+
+    /**
+     * Schlüsselendung des Medians, des einzigen Perzentils, das mit der Baseline verglichen wird
+     */
+    private static final String MEDIAN_KEY = ".p50Micros";
+
+    /**
+     * Rauschgrenze für den Speicherbedarf in MiB
+     */
+    private static final double HEAP_NOISE_MB = 32;
+
+    /**
+     * Bytes pro MiB
+     */
+    private static final double BYTES_PER_MB = 1024 * 1024;
+
+    /**
+     * Anzahl der Teesorten des Aufwärmlaufs, der vor den Messungen den JIT-Compiler aufwärmt
+     */
+    private static final int WARMUP_TEAS = 100_000;
+
+    /**
+     * Anzahl der erwarteten Programmargumente
+     */
+    private static final int NUM_OF_ARGS = 5;
+
+    /**
+     * Zufallsgenerator für Zugriffe und Bedingungen
+     */
+    private final Random random;
+
+    /**
+     * Ergebnisse nach ihrem Schlüssel
+     */
+    private final Map<String, Double> results;
+
+    /**
+     * Konstruktor
+     */
+    private PerformanceSuite() {
+        this.random = new Random(SEED);
+        this.results = new TreeMap<>();
+    }
+
+    /**
+     * Führt den Leistungstest aus.
+     *
+     * @param args Pfad der Baseline, Pfad der Ergebnisdatei, Toleranz als Anteil (etwa 0.5), Größen durch Kommas
+     *             getrennt und "true", wenn die Baseline durch die Ergebnisse ersetzt werden soll
+     */
+    public static void main(String[] args) {
+        if (args.length != NUM_OF_ARGS) {
+            System.err.println("usage: PerformanceSuite <baseline> <result> <tolerance> <scales> <updateBaseline>");
+            System.exit(1);
+        }
+        Path baseline = Path.of(args[0]);
+        Path result = Path.of(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+        boolean updateBaseline = Boolean.parseBoolean(args[NUM_OF_ARGS - 1]);
+
+        System.out.println("warm-up");
+        new PerformanceSuite().run(WARMUP_TEAS);
+        System.out.println("measurement");
+        PerformanceSuite suite = new PerformanceSuite();
+        for (String scale : args[NUM_OF_ARGS - 2].split(",")) {
+            suite.run(Integer.parseInt(scale.trim()));
+        }
+        store(suite.results, result);
+        if (updateBaseline) {
+            store(suite.results, baseline);
+            System.out.println("baseline written to " + baseline);
+            return;
+        }
+
+        List<String> regressions = compare(load(baseline), suite.results, tolerance);
+        for (String regression : regressions) {
+            System.out.println("REGRESSION " + regression);
+        }
+        if (!regressions.isEmpty()) {
+            System.exit(1);
+        }
+        System.out.println("no regressions against " + baseline);
+    }
+
+    /**
+     * Erzeugt das Schema mit der übergebenen Anzahl an Teesorten und führt alle Lasten darauf aus.
+     *
+     * @param numOfTeas Anzahl der Teesorten
+     */
+    private void run(int numOfTeas) {
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+
+        DB db = new DB("TeeDB");
+        int numOfCategories = Math.max(numOfTeas / TEAS_PER_CATEGORY, 1);
+        DBTable categories = new DBTable("Kategorie", "ID", List.of("ID", "Beschreibung", "EnthaeltKoffein"));
+        for (int i = 0; i < numOfCategories; i++) {
+            categories.appendRow(List.of(new DoubleValue(i), new StringValue("Kategorie " + i),
+                    new BooleanValue(i % 2 == 0)));
+        }
+        db.addTable(categories);
+        DBTable teas = new DBTable("Teesorten", "ID", List.of("ID", "Name", "Herkunftsland", "KategorieID"));
+        db.addTable(teas);
+
+        Measurement ingest = new Measurement();
+        for (int start = 0; start < numOfTeas; start += INGEST_BATCH) {
+            int end = Math.min(start + INGEST_BATCH, numOfTeas);
+            long begin = System.nanoTime();
+            for (int i = start; i < end; i++) {
+                teas.appendRow(this.teaRow(i, numOfCategories));
+            }
+            ingest.add(System.nanoTime() - begin, end - start);
+        }
+        this.record(numOfTeas, "ingest", ingest);
+
+        Measurement lookups = new Measurement();
+        for (int i = 0; i < LOOKUPS; i++) {
+            Value primaryKey = new DoubleValue(this.random.nextInt(numOfTeas));
+            long begin = System.nanoTime();
+            teas.getRowByPrimaryKey(primaryKey);
+            lookups.add(System.nanoTime() - begin, 1);
+        }
+        this.record(numOfTeas, "lookup", lookups);
+
+        double bound = (double) numOfTeas * SELECTIVITY_PER_MILLE / PER_MILLE;
+        int queryRuns = Math.max(QUERY_RUNS, ROWS_PER_WORKLOAD / numOfTeas);
+        int joinRuns = Math.max(JOIN_RUNS, ROWS_PER_WORKLOAD / numOfTeas);
+        this.record(numOfTeas, "select", this.repeat(queryRuns, () -> {
+            teas.select(List.of("ID", "Name"),
+                    List.of(new WhereParameter("Herkunftsland", new EqualsPredicate(new StringValue(this.country()))),
+                            new WhereParameter("ID", new DoubleLessThanPredicate(bound))), "Auswahl");
+            return 1;
+        }));
+        this.record(numOfTeas, "update", this.repeat(queryRuns, () -> {
+            teas.update("Name", new StringValue("Tee " + this.random.nextInt(NAME_VARIETY)),
+                    List.of(new WhereParameter("Herkunftsland", new EqualsPredicate(new StringValue(this.country()))),
+                            new WhereParameter("ID", new DoubleGreaterThanPredicate(numOfTeas - bound))));
+            return 1;
+        }));
+        this.record(numOfTeas, "join", this.repeat(joinRuns,
+                () -> teas.equijoin(categories, "KategorieID", "Join").getNumOfRows()));
+        DBTable rendered = teas.select(null, List.of(new WhereParameter("ID", new DoubleLessThanPredicate(bound))),
+                "Ausschnitt");
+        int renderRuns = Math.max(QUERY_RUNS, ROWS_PER_WORKLOAD / Math.max(rendered.getNumOfRows(), 1));
+        this.record(numOfTeas, "render", this.repeat(renderRuns, () -> {
+            rendered.toString();
+            return rendered.getNumOfRows();
+        }));
+
+        long peakBytes = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakBytes += pool.getPeakUsage().getUsed();
+        }
+        this.results.put(numOfTeas + ".peakHeapMB", peakBytes / BYTES_PER_MB);
+        System.out.printf(Locale.ROOT, "%,d rows: peak heap %.1f MB%n", numOfTeas, peakBytes / BYTES_PER_MB);
+    }
+
+    /**
+     * Erzeugt die Zeile einer Teesorte.
+     *
+     * @param id              Primärschlüssel
+     * @param numOfCategories Anzahl der Kategorien
+     *
+     * @return Zeile mit ID, Name, Herkunftsland und KategorieID
+     */
+    private List<Value> teaRow(int id, int numOfCategories) {
+        return List.of(new DoubleValue(id), new StringValue("Tee " + id % NAME_VARIETY),
+                new StringValue(COUNTRIES.get(id % COUNTRIES.size())), new DoubleValue(id % numOfCategories));
+    }
+
+    /**
+     * Liefert ein zufälliges Herkunftsland.
+     *
+     * @return Herkunftsland
+     */
+    private String country() {
+        return COUNTRIES.get(this.random.nextInt(COUNTRIES.size()));
+    }
+
+    /**
+     * Führt einen Vorgang nach einer Speicherbereinigung und einem ungemessenen Aufwärmlauf mehrfach aus und misst jede
+     * Ausführung.
+     *
+     * @param runs      Anzahl der gemessenen Ausführungen
+     * @param operation Vorgang, der die Anzahl der bearbeiteten Einheiten liefert
+     *
+     * @return Messreihe
+     */
+    private Measurement repeat(int runs, LongSupplier operation) {
+        System.gc();
+        operation.getAsLong();
+        Measurement measurement = new Measurement();
+        for (int i = 0; i < runs; i++) {
+            long begin = System.nanoTime();
+            long units = operation.getAsLong();
+            measurement.add(System.nanoTime() - begin, units);
+        }
+        return measurement;
+    }
+
+    /**
+     * Übernimmt Durchsatz und Perzentile einer Messreihe in die Ergebnisse und gibt sie aus.
+     *
+     * @param numOfTeas   Anzahl der Teesorten
+     * @param workload    Bezeichnung der Last
+     * @param measurement Messreihe
+     */
+    private void record(int numOfTeas, String workload, Measurement measurement) {
+        String prefix = numOfTeas + "." + workload + ".";
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%,d rows: %-7s %,14.1f/s", numOfTeas,
+                workload, measurement.throughput()));
+        this.results.put(prefix + "throughput", measurement.throughput());
+        for (int percentile : PERCENTILES) {
+            double micros = measurement.percentileMicros(percentile);
+            this.results.put(prefix + "p" + percentile + "Micros", micros);
+            line.append(String.format(Locale.ROOT, "  p%d %,12.1f us", percentile, micros));
+        }
+        System.out.println(line);
+    }
+
+    /**
+     * Vergleicht Durchsatz, Median und Speicherbedarf der Ergebnisse mit einer Baseline.
+     *
+     * @param baseline  Werte der Baseline
+     * @param results   gemessene Werte
+     * @param tolerance erlaubte relative Verschlechterung
+     *
+     * @return Beschreibungen aller Verschlechterungen
+     */
+    private static List<String> compare(Map<String, Double> baseline, Map<String, Double> results, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Double> expected : baseline.entrySet()) {
+            String key = expected.getKey();
+            Double actual = results.get(key);
+            if (actual == null || key.endsWith("Micros") && !key.endsWith(MEDIAN_KEY)) {
+                continue;
+            }
+            double base = expected.getValue();
+            boolean regressed;
+            if (key.endsWith(".throughput")) {
+                regressed = actual < base * (1 - tolerance);
+            } else {
+                double noise = key.endsWith("MB") ? HEAP_NOISE_MB : LATENCY_NOISE_MICROS;
+                regressed = actual > base * (1 + tolerance) && actual - base > noise;
+            }
+            if (regressed) {
+                regressions.add(String.format(Locale.ROOT, "%s: %.1f (baseline %.1f)", key, actual, base));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Liest Werte aus einer Properties-Datei.
+     *
+     * @param file Datei
+     *
+     * @return Werte nach ihrem Schlüssel, leer, wenn die Datei nicht existiert
+     */
+    private static Map<String, Double> load(Path file) {
+        Map<String, Double> values = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return values;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, Double.parseDouble(properties.getProperty(key)));
+        }
+        return values;
+    }
+
+    /**
+     * Schreibt Werte sortiert nach ihrem Schlüssel als Properties-Datei.
+     *
+     * @param values Werte nach ihrem Schlüssel
+     * @param file   Datei
+     */
+    private static void store(Map<String, Double> values, Path file) {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# Ergebnisse von perf.PerformanceSuite\n");
+            for (Map.Entry<String, Double> value : values.entrySet()) {
+                writer.write(String.format(Locale.ROOT, "%s=%.1f%n", value.getKey(), value.getValue()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package db.storage;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vektorisierte Implementierung der Vergleichsoperationen mit der Vector API (jdk.incubator.vector).
+ * <p>
+ * Jeder Schleifendurchlauf vergleicht so viele Werte, wie in ein Register der bevorzugten Breite passen, und schreibt
+ * die Vergleichsmaske als Bits in die Bitmap. Da die Anzahl der Lanes 64 teilt, liegt jede Maske vollständig in einem
+ * Wort. Der Rest des Arrays wird skalar verglichen.
+ * <p>
+ * Diese Klasse wird nur mit {@code ant -Dvector=true} übersetzt und von {@link DoubleKernel#create()} per Reflection
+ * geladen.
+ */
+final class VectorDoubleKernel implements DoubleKernel {
+
+    /**
+     * Bevorzugte Vektorbreite der Plattform
+     */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void greaterThan(double[] values, int size, double bound, long[] words) {
+        int bulk = SPECIES.loopBound(size);
+        for (int i = 0; i < bulk; i += SPECIES.length()) {
+            VectorMask<Double> mask = DoubleVector.fromArray(SPECIES, values, i).compare(VectorOperators.GT, bound);
+            words[i >>> DoubleColumn.WORD_SHIFT] |= mask.toLong() << i;
+        }
+        for (int i = bulk; i < size; i++) {
+            words[i >>> DoubleColumn.WORD_SHIFT] |= (values[i] > bound ? 1L : 0L) << i;
+        }
+    }
+
+    @Override
+    public void lessThan(double[] values, int size, double bound, long[] words) {
+        int bulk = SPECIES.loopBound(size);
+        for (int i = 0; i < bulk; i += SPECIES.length()) {
+            VectorMask<Double> mask = DoubleVector.fromArray(SPECIES, values, i).compare(VectorOperators.LT, bound);
+            words[i >>> DoubleColumn.WORD_SHIFT] |= mask.toLong() << i;
+        }
+        for (int i = bulk; i < size; i++) {
+            words[i >>> DoubleColumn.WORD_SHIFT] |= (values[i] < bound ? 1L : 0L) << i;
+        }
+    }
+
+    @Override
+    public void equalTo(double[] values, int size, double value, long[] words) {
+        int bulk = SPECIES.loopBound(size);
+        for (int i = 0; i < bulk; i += SPECIES.length()) {
+            VectorMask<Double> mask = DoubleVector.fromArray(SPECIES, values, i).compare(VectorOperators.EQ, value);
+            words[i >>> DoubleColumn.WORD_SHIFT] |= mask.toLong() << i;
+        }
+        this.equalToTail(values, bulk, size, value, words);
+    }
+
+    @Override
+    public void between(double[] values, int size, double lower, double upper, long[] words) {
+        int bulk = SPECIES.loopBound(size);
+        for (int i = 0; i < bulk; i += SPECIES.length()) {
+            DoubleVector vector = DoubleVector.fromArray(SPECIES, values, i);
+            VectorMask<Double> mask = vector.compare(VectorOperators.GE, lower)
+                    .and(vector.compare(VectorOperators.LE, upper));
+            words[i >>> DoubleColumn.WORD_SHIFT] |= mask.toLong() << i;
+        }
+        for (int i = bulk; i < size; i++) {
+            words[i >>> DoubleColumn.WORD_SHIFT] |= (values[i] >= lower & values[i] <= upper ? 1L : 0L) << i;
+        }
+    }
+
+    @Override
+    public void in(double[] values, int size, double[] compareValues, long[] words) {
+        int bulk = SPECIES.loopBound(size);
+        for (int i = 0; i < bulk; i += SPECIES.length()) {
+            DoubleVector vector = DoubleVector.fromArray(SPECIES, values, i);
+            long bits = 0;
+            for (double compareValue : compareValues) {
+                bits |= vector.compare(VectorOperators.EQ, compareValue).toLong();
+            }
+            words[i >>> DoubleColumn.WORD_SHIFT] |= bits << i;
+        }
+        for (double compareValue : compareValues) {
+            this.equalToTail(values, bulk, size, compareValue, words);
+        }
+    }
+
+    /**
+     * Markiert die Werte ab from, die keinen ganzen Vektor mehr füllen und gleich value sind.
+     *
+     * @param values Werte
+     * @param from   erste Position, die noch nicht verglichen wurde
+     * @param size   Anzahl der belegten Werte
+     * @param value  Vergleichswert
+     * @param words  Bitmap
+     */
+    private void equalToTail(double[] values, int from, int size, double value, long[] words) {
+        for (int i = from; i < size; i++) {
+            words[i >>> DoubleColumn.WORD_SHIFT] |= (values[i] == value ? 1L : 0L) << i;
+        }
+    }
+}
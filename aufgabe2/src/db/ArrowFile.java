@@ -0,0 +1,1041 @@
+package db;
+
+import db.arrow.FlatBufferBuilder;
+import db.arrow.FlatBufferTable;
+import db.arrow.MappedBooleanColumn;
+import db.arrow.MappedDoubleColumn;
+import db.arrow.MappedStringColumn;
+import db.storage.Column;
+import db.storage.ValueColumn;
+import db.value.BooleanValue;
+import db.value.DoubleValue;
+import db.value.NullValue;
+import db.value.StringValue;
+import db.value.Value;
+import util.Util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schreibt Tabellen im IPC-Format von Apache Arrow (Metadatenversion V5) und blendet solche Dateien als Tabellen ein.
+ * <p>
+ * Ein Strom besteht aus Nachrichten: dem Schema, einem Wörterbuch (Dictionary Batch) pro Zeichenkettenspalte, einem
+ * Record Batch mit allen sichtbaren Zeilen und der Endmarkierung. Jede Nachricht beginnt mit 0xFFFFFFFF und der Länge
+ * ihrer Metadaten, gefolgt von den Metadaten als FlatBuffer ({@link FlatBufferBuilder}) und dem Rumpf mit den Puffern
+ * der Spalten. Eine Datei enthält denselben Strom zwischen der Kennung "ARROW1" am Anfang und einem Footer mit Schema
+ * und der Lage der Nachrichten am Ende. Alle Zahlen sind Little Endian, Nachrichten und Puffer beginnen an durch 8
+ * teilbaren Positionen.
+ * <p>
+ * Beim Einlesen wird die Datei eingeblendet und der Strom der Reihe nach gelesen, der Footer wird nicht benötigt. Die
+ * Spalten lesen direkt aus den Puffern der Datei ({@link db.arrow.MappedColumn}).
+ */
+final class ArrowFile {
+
+    /**
+     * Kennung am Anfang und Ende einer Arrow-Datei
+     */
+    private static final byte[] MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Ausrichtung von Nachrichten und Puffern in Bytes
+     */
+    private static final int ALIGNMENT = Long.BYTES;
+
+    /**
+     * Markierung vor der Länge der Metadaten einer Nachricht
+     */
+    private static final int CONTINUATION = -1;
+
+    /**
+     * Metadatenversion V5
+     */
+    private static final short METADATA_V5 = 4;
+
+    /**
+     * Art der Nachricht: Schema
+     */
+    private static final int HEADER_SCHEMA = 1;
+
+    /**
+     * Art der Nachricht: Wörterbuch
+     */
+    private static final int HEADER_DICTIONARY_BATCH = 2;
+
+    /**
+     * Art der Nachricht: Record Batch
+     */
+    private static final int HEADER_RECORD_BATCH = 3;
+
+    /**
+     * Arrow-Typ Int
+     */
+    private static final int TYPE_INT = 2;
+
+    /**
+     * Arrow-Typ FloatingPoint
+     */
+    private static final int TYPE_FLOATING_POINT = 3;
+
+    /**
+     * Arrow-Typ Utf8
+     */
+    private static final int TYPE_UTF8 = 5;
+
+    /**
+     * Arrow-Typ Bool
+     */
+    private static final int TYPE_BOOL = 6;
+
+    /**
+     * Genauigkeit DOUBLE des Typs FloatingPoint
+     */
+    private static final short PRECISION_DOUBLE = 2;
+
+    /**
+     * Byte-Reihenfolge Little des Schemas
+     */
+    private static final short ENDIANNESS_LITTLE = 0;
+
+    /**
+     * Feld version einer Nachricht
+     */
+    private static final int MESSAGE_VERSION = 0;
+
+    /**
+     * Feld header_type einer Nachricht
+     */
+    private static final int MESSAGE_HEADER_TYPE = 1;
+
+    /**
+     * Feld header einer Nachricht
+     */
+    private static final int MESSAGE_HEADER = 2;
+
+    /**
+     * Feld bodyLength einer Nachricht
+     */
+    private static final int MESSAGE_BODY_LENGTH = 3;
+
+    /**
+     * Feld endianness des Schemas
+     */
+    private static final int SCHEMA_ENDIANNESS = 0;
+
+    /**
+     * Feld fields des Schemas
+     */
+    private static final int SCHEMA_FIELDS = 1;
+
+    /**
+     * Feld custom_metadata des Schemas
+     */
+    private static final int SCHEMA_METADATA = 2;
+
+    /**
+     * Feld name einer Spalte im Schema
+     */
+    private static final int FIELD_NAME = 0;
+
+    /**
+     * Feld nullable einer Spalte im Schema
+     */
+    private static final int FIELD_NULLABLE = 1;
+
+    /**
+     * Feld type_type einer Spalte im Schema
+     */
+    private static final int FIELD_TYPE_TYPE = 2;
+
+    /**
+     * Feld type einer Spalte im Schema
+     */
+    private static final int FIELD_TYPE = 3;
+
+    /**
+     * Feld dictionary einer Spalte im Schema
+     */
+    private static final int FIELD_DICTIONARY = 4;
+
+    /**
+     * Feld children einer Spalte im Schema
+     */
+    private static final int FIELD_CHILDREN = 5;
+
+    /**
+     * Feld key eines Metadateneintrags
+     */
+    private static final int KEY_VALUE_KEY = 0;
+
+    /**
+     * Feld value eines Metadateneintrags
+     */
+    private static final int KEY_VALUE_VALUE = 1;
+
+    /**
+     * Feld precision des Typs FloatingPoint
+     */
+    private static final int FLOATING_POINT_PRECISION = 0;
+
+    /**
+     * Feld bitWidth des Typs Int
+     */
+    private static final int INT_BIT_WIDTH = 0;
+
+    /**
+     * Feld is_signed des Typs Int
+     */
+    private static final int INT_IS_SIGNED = 1;
+
+    /**
+     * Feld id einer Wörterbuchkodierung
+     */
+    private static final int ENCODING_ID = 0;
+
+    /**
+     * Feld indexType einer Wörterbuchkodierung
+     */
+    private static final int ENCODING_INDEX_TYPE = 1;
+
+    /**
+     * Feld isOrdered einer Wörterbuchkodierung
+     */
+    private static final int ENCODING_IS_ORDERED = 2;
+
+    /**
+     * Feld length eines Record Batches
+     */
+    private static final int BATCH_LENGTH = 0;
+
+    /**
+     * Feld nodes eines Record Batches
+     */
+    private static final int BATCH_NODES = 1;
+
+    /**
+     * Feld buffers eines Record Batches
+     */
+    private static final int BATCH_BUFFERS = 2;
+
+    /**
+     * Feld compression eines Record Batches
+     */
+    private static final int BATCH_COMPRESSION = 3;
+
+    /**
+     * Feld id eines Wörterbuchs
+     */
+    private static final int DICTIONARY_ID = 0;
+
+    /**
+     * Feld data eines Wörterbuchs
+     */
+    private static final int DICTIONARY_DATA = 1;
+
+    /**
+     * Feld isDelta eines Wörterbuchs
+     */
+    private static final int DICTIONARY_IS_DELTA = 2;
+
+    /**
+     * Feld version des Footers
+     */
+    private static final int FOOTER_VERSION = 0;
+
+    /**
+     * Feld schema des Footers
+     */
+    private static final int FOOTER_SCHEMA = 1;
+
+    /**
+     * Feld dictionaries des Footers
+     */
+    private static final int FOOTER_DICTIONARIES = 2;
+
+    /**
+     * Feld recordBatches des Footers
+     */
+    private static final int FOOTER_RECORD_BATCHES = 3;
+
+    /**
+     * Anzahl der 8-Byte-Felder der Structs FieldNode (length, null_count) und Buffer (offset, length)
+     */
+    private static final int PAIR_WORDS = 2;
+
+    /**
+     * Breite der Structs FieldNode und Buffer in Bytes
+     */
+    private static final int PAIR_SIZE = PAIR_WORDS * Long.BYTES;
+
+    /**
+     * Anzahl der 8-Byte-Felder des Structs Block (offset, metaDataLength mit 4 Füllbytes, bodyLength)
+     */
+    private static final int BLOCK_WORDS = 3;
+
+    /**
+     * Schlüssel des Tabellenbezeichners in den Metadaten des Schemas
+     */
+    private static final String TABLE_ID_KEY = "db.tableId";
+
+    /**
+     * Schlüssel des Spaltenbezeichners des Primärschlüssels in den Metadaten des Schemas
+     */
+    private static final String PRIMARY_KEY_KEY = "db.primaryKey";
+
+    /**
+     * Darstellung einer Spalte in einer Arrow-Datei
+     */
+    private enum ColumnType {
+
+        /**
+         * Float64
+         */
+        DOUBLE,
+
+        /**
+         * Bool
+         */
+        BOOLEAN,
+
+        /**
+         * Utf8 mit Wörterbuchkodierung und int-Codes
+         */
+        STRING
+    }
+
+    /**
+     * Eingeblendetes Wörterbuch einer Zeichenkettenspalte.
+     *
+     * @param size     Anzahl der Einträge
+     * @param validity Bitmap der vorhandenen Einträge oder null, wenn kein Eintrag fehlt
+     * @param offsets  Anfang jedes Eintrags in data, gefolgt vom Ende des letzten Eintrags
+     * @param data     UTF-8-Daten aller Einträge
+     */
+    private record Dictionary(int size, ByteBuffer validity, ByteBuffer offsets, ByteBuffer data) {
+    }
+
+    /**
+     * Schreibt Nachrichten in einen Kanal und merkt sich ihre Lage für den Footer.
+     */
+    private static final class MessageWriter {
+
+        /**
+         * Kanal
+         */
+        private final WritableByteChannel channel;
+
+        /**
+         * Anzahl der bisher geschriebenen Bytes
+         */
+        private long position;
+
+        /**
+         * Lage der Wörterbücher als Felder des Structs Block
+         */
+        private final List<Long> dictionaryBlocks;
+
+        /**
+         * Lage der Record Batches als Felder des Structs Block
+         */
+        private final List<Long> recordBatchBlocks;
+
+        /**
+         * Konstruktor
+         *
+         * @param channel Kanal
+         */
+        private MessageWriter(WritableByteChannel channel) {
+            this.channel = channel;
+            this.position = 0;
+            this.dictionaryBlocks = new ArrayList<>();
+            this.recordBatchBlocks = new ArrayList<>();
+        }
+
+        /**
+         * Schreibt die verbleibenden Bytes eines Puffers.
+         *
+         * @param buffer Puffer
+         *
+         * @throws IOException bei einem Fehler beim Schreiben
+         */
+        private void write(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                this.position += this.channel.write(buffer);
+            }
+        }
+
+        /**
+         * Schreibt Nullbytes bis zur nächsten ausgerichteten Position.
+         *
+         * @throws IOException bei einem Fehler beim Schreiben
+         */
+        private void pad() throws IOException {
+            this.write(ByteBuffer.allocate((int) (align(this.position) - this.position)));
+        }
+
+        /**
+         * Schreibt eine Nachricht mit dem übergebenen Kopf, dessen Tabelle bereits im übergebenen FlatBuffer steht,
+         * und dem übergebenen Rumpf.
+         *
+         * @param builder    FlatBuffer, der den Kopf enthält
+         * @param headerType Art der Nachricht
+         * @param header     Position des Kopfs im FlatBuffer
+         * @param body       Puffer des Rumpfs
+         * @param blocks     Liste, an die die Lage der Nachricht angehängt wird, oder null
+         *
+         * @throws IOException bei einem Fehler beim Schreiben
+         */
+        private void writeMessage(FlatBufferBuilder builder, int headerType, int header, List<ByteBuffer> body,
+                List<Long> blocks) throws IOException {
+            long bodyLength = 0;
+            for (ByteBuffer buffer : body) {
+                bodyLength += align(buffer.capacity());
+            }
+            builder.startTable(MESSAGE_BODY_LENGTH + 1);
+            builder.addShort(MESSAGE_VERSION, METADATA_V5);
+            builder.addByte(MESSAGE_HEADER_TYPE, headerType);
+            builder.addOffset(MESSAGE_HEADER, header);
+            builder.addLong(MESSAGE_BODY_LENGTH, bodyLength);
+            byte[] metadata = builder.finish(builder.endTable());
+
+            int prefixLength = 2 * Integer.BYTES;
+            int metadataLength = (int) align(prefixLength + metadata.length);
+            ByteBuffer prefix = ByteBuffer.allocate(metadataLength).order(ByteOrder.LITTLE_ENDIAN);
+            prefix.putInt(CONTINUATION).putInt(metadataLength - prefixLength).put(metadata).position(0);
+            if (blocks != null) {
+                blocks.add(this.position);
+                blocks.add((long) metadataLength);
+                blocks.add(bodyLength);
+            }
+            this.write(prefix);
+            for (ByteBuffer buffer : body) {
+                this.write(buffer.position(0));
+                this.pad();
+            }
+        }
+    }
+
+    /**
+     * Versteckter Konstruktor
+     */
+    private ArrowFile() {
+    }
+
+    /**
+     * Schreibt die übergebene Tabelle im Dateiformat in die Datei. Eine vorhandene Datei wird ersetzt.
+     *
+     * @param table Tabelle
+     * @param file  Datei
+     *
+     * @throws IllegalArgumentException wenn eine Spalte Werte unterschiedlicher Typen enthält
+     * @throws UncheckedIOException     bei einem Fehler beim Schreiben
+     */
+    static void write(DBTable table, Path file) {
+        ColumnType[] types = columnTypes(table);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(table, types, channel, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Schreibt die übergebene Tabelle im Streamformat in den Strom, ohne ihn zu schließen.
+     *
+     * @param table Tabelle
+     * @param out   Strom
+     *
+     * @throws IllegalArgumentException wenn eine Spalte Werte unterschiedlicher Typen enthält
+     * @throws UncheckedIOException     bei einem Fehler beim Schreiben
+     */
+    static void writeStream(DBTable table, OutputStream out) {
+        ColumnType[] types = columnTypes(table);
+        try {
+            write(table, types, Channels.newChannel(out), false);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Blendet eine Datei im Datei- oder Streamformat als Tabelle ein.
+     *
+     * @param file Datei
+     *
+     * @return neue Tabelle, deren Spalten aus der eingeblendeten Datei lesen
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Lesen oder wenn die Datei nicht unterstützt wird
+     */
+    static DBTable read(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("file too large to map: " + file);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            try {
+                return read(buffer, file);
+            } catch (IndexOutOfBoundsException | IllegalArgumentException | ArithmeticException e) {
+                throw new IOException("malformed Arrow file " + file + ": " + e.getMessage(), e);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Schreibt Schema, Wörterbücher, Record Batch und Endmarkierung und im Dateiformat zusätzlich Kennung und
+     * Footer.
+     *
+     * @param table   Tabelle
+     * @param types   Darstellung der Spalten
+     * @param channel Kanal
+     * @param file    true für das Dateiformat, false für das Streamformat
+     *
+     * @throws IOException bei einem Fehler beim Schreiben
+     */
+    private static void write(DBTable table, ColumnType[] types, WritableByteChannel channel, boolean file)
+            throws IOException {
+        MessageWriter writer = new MessageWriter(channel);
+        if (file) {
+            writer.write(ByteBuffer.wrap(MAGIC));
+            writer.pad();
+        }
+        FlatBufferBuilder schema = new FlatBufferBuilder();
+        writer.writeMessage(schema, HEADER_SCHEMA, schema(schema, table, types), List.of(), null);
+
+        BitSet slots = table.liveSlots();
+        int numOfRows = slots.cardinality();
+        long[] nodes = new long[PAIR_WORDS * types.length];
+        List<ByteBuffer> body = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            BitSet valid = new BitSet(numOfRows);
+            ByteBuffer values = switch (types[i]) {
+                case DOUBLE -> encodeDoubles(table, i, slots, valid);
+                case BOOLEAN -> encodeBooleans(table, i, slots, valid);
+                case STRING -> encodeStrings(table, i, slots, valid, writer);
+            };
+            int nullCount = numOfRows - valid.cardinality();
+            nodes[PAIR_WORDS * i] = numOfRows;
+            nodes[PAIR_WORDS * i + 1] = nullCount;
+            body.add(nullCount == 0 ? ByteBuffer.allocate(0) : bitmap(valid, numOfRows));
+            body.add(values);
+        }
+        FlatBufferBuilder batch = new FlatBufferBuilder();
+        writer.writeMessage(batch, HEADER_RECORD_BATCH, recordBatch(batch, numOfRows, nodes, body), body,
+                writer.recordBatchBlocks);
+        writer.write(ByteBuffer.allocate(2 * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(CONTINUATION)
+                .putInt(0).position(0));
+
+        if (file) {
+            FlatBufferBuilder builder = new FlatBufferBuilder();
+            int schemaTable = schema(builder, table, types);
+            int dictionaries = builder.createStructVector(toArray(writer.dictionaryBlocks), BLOCK_WORDS);
+            int recordBatches = builder.createStructVector(toArray(writer.recordBatchBlocks), BLOCK_WORDS);
+            builder.startTable(FOOTER_RECORD_BATCHES + 1);
+            builder.addShort(FOOTER_VERSION, METADATA_V5);
+            builder.addOffset(FOOTER_SCHEMA, schemaTable);
+            builder.addOffset(FOOTER_DICTIONARIES, dictionaries);
+            builder.addOffset(FOOTER_RECORD_BATCHES, recordBatches);
+            byte[] footer = builder.finish(builder.endTable());
+            writer.write(ByteBuffer.wrap(footer));
+            writer.write(ByteBuffer.allocate(Integer.BYTES + MAGIC.length).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(footer.length).put(MAGIC).position(0));
+        }
+    }
+
+    /**
+     * Bestimmt die Darstellung jeder Spalte anhand ihrer sichtbaren Werte. Spalten ohne vorhandene Werte werden als
+     * Float64 gespeichert.
+     *
+     * @param table Tabelle
+     *
+     * @return Darstellung der Spalten
+     *
+     * @throws IllegalArgumentException wenn eine Spalte Werte unterschiedlicher Typen enthält
+     */
+    private static ColumnType[] columnTypes(DBTable table) {
+        BitSet slots = table.liveSlots();
+        ColumnType[] types = new ColumnType[table.getNumOfColumns()];
+        for (int i = 0; i < types.length; i++) {
+            ColumnType type = null;
+            for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                ColumnType valueType = typeOf(table.getValue(slot, i));
+                if (type == null) {
+                    type = valueType;
+                } else if (valueType != null && valueType != type) {
+                    throw new IllegalArgumentException("column " + table.getColumnIds().get(i)
+                            + " mixes value types");
+                }
+            }
+            types[i] = type == null ? ColumnType.DOUBLE : type;
+        }
+        return types;
+    }
+
+    /**
+     * Liefert die Darstellung, in der ein Wert gespeichert wird.
+     *
+     * @param value Wert
+     *
+     * @return Darstellung oder null für einen fehlenden Wert
+     *
+     * @throws IllegalArgumentException wenn der Typ des Werts nicht unterstützt wird
+     */
+    private static ColumnType typeOf(Value value) {
+        if (value instanceof NullValue) {
+            return null;
+        } else if (value instanceof DoubleValue) {
+            return ColumnType.DOUBLE;
+        } else if (value instanceof BooleanValue) {
+            return ColumnType.BOOLEAN;
+        } else if (value instanceof StringValue) {
+            return ColumnType.STRING;
+        }
+        throw new IllegalArgumentException("unsupported value type " + value.getClass().getName());
+    }
+
+    /**
+     * Kodiert die sichtbaren Werte einer Spalte als Float64.
+     *
+     * @param table Tabelle
+     * @param index Index der Spalte
+     * @param slots sichtbare Slots
+     * @param valid Bitmap, in der die Zeilen mit vorhandenem Wert gesetzt werden
+     *
+     * @return Puffer der Werte
+     */
+    private static ByteBuffer encodeDoubles(DBTable table, int index, BitSet slots, BitSet valid) {
+        ByteBuffer values = ByteBuffer.allocate(Double.BYTES * slots.cardinality()).order(ByteOrder.LITTLE_ENDIAN);
+        int row = 0;
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            Value value = table.getValue(slot, index);
+            if (!(value instanceof NullValue)) {
+                values.putDouble(Double.BYTES * row, value.getAsDouble());
+                valid.set(row);
+            }
+            row++;
+        }
+        return values;
+    }
+
+    /**
+     * Kodiert die sichtbaren Werte einer Spalte als Bool.
+     *
+     * @param table Tabelle
+     * @param index Index der Spalte
+     * @param slots sichtbare Slots
+     * @param valid Bitmap, in der die Zeilen mit vorhandenem Wert gesetzt werden
+     *
+     * @return Puffer der Werte als Bitmap
+     */
+    private static ByteBuffer encodeBooleans(DBTable table, int index, BitSet slots, BitSet valid) {
+        BitSet values = new BitSet(slots.cardinality());
+        int row = 0;
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            Value value = table.getValue(slot, index);
+            if (!(value instanceof NullValue)) {
+                values.set(row, value.getAsBoolean());
+                valid.set(row);
+            }
+            row++;
+        }
+        return bitmap(values, row);
+    }
+
+    /**
+     * Kodiert die sichtbaren Werte einer Spalte als int-Codes und schreibt ihr Wörterbuch, dessen Bezeichner der
+     * Index der Spalte ist. Die Codes werden in der Reihenfolge des ersten Auftretens vergeben.
+     *
+     * @param table  Tabelle
+     * @param index  Index der Spalte
+     * @param slots  sichtbare Slots
+     * @param valid  Bitmap, in der die Zeilen mit vorhandenem Wert gesetzt werden
+     * @param writer Ziel des Wörterbuchs
+     *
+     * @return Puffer der Codes
+     *
+     * @throws IOException bei einem Fehler beim Schreiben des Wörterbuchs
+     */
+    private static ByteBuffer encodeStrings(DBTable table, int index, BitSet slots, BitSet valid,
+            MessageWriter writer) throws IOException {
+        ByteBuffer codes = ByteBuffer.allocate(Integer.BYTES * slots.cardinality()).order(ByteOrder.LITTLE_ENDIAN);
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<byte[]> entries = new ArrayList<>();
+        int row = 0;
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            Value value = table.getValue(slot, index);
+            if (!(value instanceof NullValue)) {
+                Integer code = dictionary.get(value.getAsString());
+                if (code == null) {
+                    code = entries.size();
+                    dictionary.put(value.getAsString(), code);
+                    entries.add(value.getAsString().getBytes(StandardCharsets.UTF_8));
+                }
+                codes.putInt(Integer.BYTES * row, code);
+                valid.set(row);
+            }
+            row++;
+        }
+
+        ByteBuffer offsets = ByteBuffer.allocate(Integer.BYTES * (entries.size() + 1)).order(ByteOrder.LITTLE_ENDIAN);
+        int dataLength = 0;
+        for (byte[] entry : entries) {
+            offsets.putInt(dataLength);
+            dataLength += entry.length;
+        }
+        offsets.putInt(dataLength);
+        ByteBuffer data = ByteBuffer.allocate(dataLength);
+        for (byte[] entry : entries) {
+            data.put(entry);
+        }
+        List<ByteBuffer> body = List.of(ByteBuffer.allocate(0), offsets, data);
+
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        int batch = recordBatch(builder, entries.size(), new long[] {entries.size(), 0}, body);
+        builder.startTable(DICTIONARY_IS_DELTA + 1);
+        builder.addLong(DICTIONARY_ID, index);
+        builder.addOffset(DICTIONARY_DATA, batch);
+        builder.addBoolean(DICTIONARY_IS_DELTA, false);
+        writer.writeMessage(builder, HEADER_DICTIONARY_BATCH, builder.endTable(), body, writer.dictionaryBlocks);
+        return codes;
+    }
+
+    /**
+     * Liefert die ersten bits Bits einer Bitmap als Arrow-Bitmap, deren Bits innerhalb jedes Bytes vom
+     * niederwertigsten an gezählt werden.
+     *
+     * @param bitmap Bitmap
+     * @param bits   Anzahl der Bits
+     *
+     * @return Puffer mit (bits + 7) / 8 Bytes
+     */
+    private static ByteBuffer bitmap(BitSet bitmap, int bits) {
+        byte[] bytes = bitmap.toByteArray();
+        return ByteBuffer.wrap(Arrays.copyOf(bytes, (bits + Byte.SIZE - 1) / Byte.SIZE));
+    }
+
+    /**
+     * Schreibt das Schema einer Tabelle in einen FlatBuffer.
+     *
+     * @param builder FlatBuffer
+     * @param table   Tabelle
+     * @param types   Darstellung der Spalten
+     *
+     * @return Position des Schemas
+     */
+    private static int schema(FlatBufferBuilder builder, DBTable table, ColumnType[] types) {
+        int[] fields = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+            fields[i] = field(builder, table.getColumnIds().get(i), types[i], i);
+        }
+        int fieldVector = builder.createOffsetVector(fields);
+        int tableId = keyValue(builder, TABLE_ID_KEY, table.getId());
+        int primaryKey = keyValue(builder, PRIMARY_KEY_KEY, table.getPrimaryKeyColumnId());
+        int metadata = builder.createOffsetVector(new int[] {tableId, primaryKey});
+        builder.startTable(SCHEMA_METADATA + 1);
+        builder.addShort(SCHEMA_ENDIANNESS, ENDIANNESS_LITTLE);
+        builder.addOffset(SCHEMA_FIELDS, fieldVector);
+        builder.addOffset(SCHEMA_METADATA, metadata);
+        return builder.endTable();
+    }
+
+    /**
+     * Schreibt die Beschreibung einer Spalte in einen FlatBuffer.
+     *
+     * @param builder      FlatBuffer
+     * @param name         Spaltenbezeichner
+     * @param type         Darstellung der Spalte
+     * @param dictionaryId Bezeichner des Wörterbuchs einer Zeichenkettenspalte
+     *
+     * @return Position der Beschreibung
+     */
+    private static int field(FlatBufferBuilder builder, String name, ColumnType type, long dictionaryId) {
+        int nameString = builder.createString(name);
+        builder.startTable(FLOATING_POINT_PRECISION + 1);
+        if (type == ColumnType.DOUBLE) {
+            builder.addShort(FLOATING_POINT_PRECISION, PRECISION_DOUBLE);
+        }
+        int typeTable = builder.endTable();
+        int encoding = 0;
+        if (type == ColumnType.STRING) {
+            builder.startTable(INT_IS_SIGNED + 1);
+            builder.addInt(INT_BIT_WIDTH, Integer.SIZE);
+            builder.addBoolean(INT_IS_SIGNED, true);
+            int indexType = builder.endTable();
+            builder.startTable(ENCODING_IS_ORDERED + 1);
+            builder.addLong(ENCODING_ID, dictionaryId);
+            builder.addOffset(ENCODING_INDEX_TYPE, indexType);
+            builder.addBoolean(ENCODING_IS_ORDERED, false);
+            encoding = builder.endTable();
+        }
+        int children = builder.createOffsetVector(new int[0]);
+        builder.startTable(FIELD_CHILDREN + 1);
+        builder.addOffset(FIELD_NAME, nameString);
+        builder.addBoolean(FIELD_NULLABLE, true);
+        builder.addByte(FIELD_TYPE_TYPE, switch (type) {
+            case DOUBLE -> TYPE_FLOATING_POINT;
+            case BOOLEAN -> TYPE_BOOL;
+            case STRING -> TYPE_UTF8;
+        });
+        builder.addOffset(FIELD_TYPE, typeTable);
+        if (type == ColumnType.STRING) {
+            builder.addOffset(FIELD_DICTIONARY, encoding);
+        }
+        builder.addOffset(FIELD_CHILDREN, children);
+        return builder.endTable();
+    }
+
+    /**
+     * Schreibt einen Metadateneintrag in einen FlatBuffer.
+     *
+     * @param builder FlatBuffer
+     * @param key     Schlüssel
+     * @param value   Wert
+     *
+     * @return Position des Eintrags
+     */
+    private static int keyValue(FlatBufferBuilder builder, String key, String value) {
+        int keyString = builder.createString(key);
+        int valueString = builder.createString(value);
+        builder.startTable(KEY_VALUE_VALUE + 1);
+        builder.addOffset(KEY_VALUE_KEY, keyString);
+        builder.addOffset(KEY_VALUE_VALUE, valueString);
+        return builder.endTable();
+    }
+
+    /**
+     * Schreibt den Kopf eines Record Batches in einen FlatBuffer. Die Puffer liegen ausgerichtet hintereinander im
+     * Rumpf.
+     *
+     * @param builder FlatBuffer
+     * @param length  Anzahl der Zeilen
+     * @param nodes   Länge und Anzahl fehlender Werte jeder Spalte
+     * @param body    Puffer des Rumpfs
+     *
+     * @return Position des Kopfs
+     */
+    private static int recordBatch(FlatBufferBuilder builder, long length, long[] nodes, List<ByteBuffer> body) {
+        long[] buffers = new long[PAIR_WORDS * body.size()];
+        long offset = 0;
+        for (int i = 0; i < body.size(); i++) {
+            buffers[PAIR_WORDS * i] = offset;
+            buffers[PAIR_WORDS * i + 1] = body.get(i).capacity();
+            offset += align(body.get(i).capacity());
+        }
+        int nodeVector = builder.createStructVector(nodes, PAIR_WORDS);
+        int bufferVector = builder.createStructVector(buffers, PAIR_WORDS);
+        builder.startTable(BATCH_BUFFERS + 1);
+        builder.addLong(BATCH_LENGTH, length);
+        builder.addOffset(BATCH_NODES, nodeVector);
+        builder.addOffset(BATCH_BUFFERS, bufferVector);
+        return builder.endTable();
+    }
+
+    /**
+     * Liest den Strom einer eingeblendeten Datei und erzeugt daraus eine Tabelle.
+     *
+     * @param buffer eingeblendete Datei
+     * @param file   Datei
+     *
+     * @return neue Tabelle
+     *
+     * @throws IOException wenn die Datei nicht unterstützt wird
+     */
+    private static DBTable read(ByteBuffer buffer, Path file) throws IOException {
+        int position = 0;
+        if (buffer.limit() >= MAGIC.length && buffer.slice(0, MAGIC.length).equals(ByteBuffer.wrap(MAGIC))) {
+            position = (int) align(MAGIC.length);
+        }
+        FlatBufferTable schema = null;
+        FlatBufferTable batch = null;
+        int batchBody = 0;
+        Map<Long, Dictionary> dictionaries = new HashMap<>();
+        while (position + Integer.BYTES <= buffer.limit()) {
+            int metadataLength = buffer.getInt(position);
+            int metadataStart = position + Integer.BYTES;
+            if (metadataLength == CONTINUATION) {
+                metadataLength = buffer.getInt(metadataStart);
+                metadataStart += Integer.BYTES;
+            }
+            if (metadataLength == 0) {
+                break;
+            }
+            FlatBufferTable message = FlatBufferTable.root(buffer, metadataStart);
+            int bodyStart = metadataStart + metadataLength;
+            FlatBufferTable header = message.getTable(MESSAGE_HEADER);
+            switch (message.getUnsignedByte(MESSAGE_HEADER_TYPE, 0)) {
+                case HEADER_SCHEMA -> schema = header;
+                case HEADER_DICTIONARY_BATCH -> readDictionary(buffer, header, bodyStart, dictionaries);
+                case HEADER_RECORD_BATCH -> {
+                    if (batch != null) {
+                        throw new IOException("multiple record batches not supported");
+                    }
+                    batch = header;
+                    batchBody = bodyStart;
+                }
+                default -> throw new IOException("unsupported message type");
+            }
+            position = Math.toIntExact(bodyStart + message.getLong(MESSAGE_BODY_LENGTH, 0));
+        }
+        if (schema == null) {
+            throw new IOException("no schema in " + file);
+        }
+        if (batch != null && batch.has(BATCH_COMPRESSION)) {
+            throw new IOException("compressed record batches not supported");
+        }
+
+        int numOfRows = batch == null ? 0 : Math.toIntExact(batch.getLong(BATCH_LENGTH, 0));
+        List<String> colIds = new ArrayList<>();
+        List<Column> columns = new ArrayList<>();
+        for (int i = 0; i < schema.getVectorLength(SCHEMA_FIELDS); i++) {
+            FlatBufferTable field = schema.getTable(SCHEMA_FIELDS, i);
+            colIds.add(field.getString(FIELD_NAME));
+            if (field.getVectorLength(FIELD_CHILDREN) > 0) {
+                throw new IOException("nested column " + field.getString(FIELD_NAME) + " not supported");
+            }
+            if (batch == null) {
+                columns.add(new ValueColumn());
+                continue;
+            }
+            if (batch.getStructLong(BATCH_NODES, i, PAIR_SIZE, 0) != numOfRows) {
+                throw new IOException("length of column " + field.getString(FIELD_NAME) + " differs");
+            }
+            boolean hasNulls = batch.getStructLong(BATCH_NODES, i, PAIR_SIZE, Long.BYTES) > 0;
+            ByteBuffer validity = hasNulls ? slice(buffer, batch, PAIR_WORDS * i, batchBody) : null;
+            ByteBuffer values = slice(buffer, batch, PAIR_WORDS * i + 1, batchBody);
+            columns.add(column(field, numOfRows, validity, values, dictionaries));
+        }
+
+        Map<String, String> metadata = new HashMap<>();
+        for (int i = 0; i < schema.getVectorLength(SCHEMA_METADATA); i++) {
+            FlatBufferTable entry = schema.getTable(SCHEMA_METADATA, i);
+            metadata.put(entry.getString(KEY_VALUE_KEY), entry.getString(KEY_VALUE_VALUE));
+        }
+        String fileName = file.getFileName().toString();
+        String id = metadata.getOrDefault(TABLE_ID_KEY, fileName.split("\\.", 2)[0]);
+        String primaryKeyColId = metadata.getOrDefault(PRIMARY_KEY_KEY, colIds.isEmpty() ? "" : colIds.get(0));
+        if (!Util.isValidIdentifier(id) || !Util.areValidIdentifiers(colIds) || !Util.areOnlyUniqueIdentifiers(colIds)
+                || !colIds.contains(primaryKeyColId)) {
+            throw new IOException("invalid table or column identifiers in " + file);
+        }
+        return DBTable.ofColumns(id, primaryKeyColId, colIds, columns);
+    }
+
+    /**
+     * Erzeugt die eingeblendete Spalte zu einer Beschreibung im Schema.
+     *
+     * @param field        Beschreibung der Spalte
+     * @param numOfRows    Anzahl der Zeilen
+     * @param validity     Bitmap der vorhandenen Werte oder null, wenn kein Wert fehlt
+     * @param values       Puffer der Werte oder Codes
+     * @param dictionaries eingelesene Wörterbücher nach ihrem Bezeichner
+     *
+     * @return Spalte
+     *
+     * @throws IOException wenn der Typ der Spalte nicht unterstützt wird
+     */
+    private static Column column(FlatBufferTable field, int numOfRows, ByteBuffer validity, ByteBuffer values,
+            Map<Long, Dictionary> dictionaries) throws IOException {
+        int type = field.getUnsignedByte(FIELD_TYPE_TYPE, 0);
+        FlatBufferTable encoding = field.getTable(FIELD_DICTIONARY);
+        if (encoding != null) {
+            FlatBufferTable indexType = encoding.getTable(ENCODING_INDEX_TYPE);
+            Dictionary dictionary = dictionaries.get(encoding.getLong(ENCODING_ID, 0));
+            if (type == TYPE_UTF8 && dictionary != null && (indexType == null
+                    || indexType.getInt(INT_BIT_WIDTH, 0) == Integer.SIZE)) {
+                return new MappedStringColumn(numOfRows, validity, values, dictionary.size(), dictionary.validity(),
+                        dictionary.offsets(), dictionary.data());
+            }
+        } else if (type == TYPE_FLOATING_POINT
+                && field.getTable(FIELD_TYPE).getShort(FLOATING_POINT_PRECISION, (short) 0) == PRECISION_DOUBLE) {
+            return new MappedDoubleColumn(numOfRows, validity, values);
+        } else if (type == TYPE_BOOL) {
+            return new MappedBooleanColumn(numOfRows, validity, values);
+        }
+        throw new IOException("type of column " + field.getString(FIELD_NAME) + " not supported");
+    }
+
+    /**
+     * Liest ein Wörterbuch und legt es unter seinem Bezeichner ab.
+     *
+     * @param buffer       eingeblendete Datei
+     * @param header       Kopf der Nachricht
+     * @param bodyStart    Position des Rumpfs in der Datei
+     * @param dictionaries eingelesene Wörterbücher nach ihrem Bezeichner
+     *
+     * @throws IOException wenn das Wörterbuch nicht unterstützt wird
+     */
+    private static void readDictionary(ByteBuffer buffer, FlatBufferTable header, int bodyStart,
+            Map<Long, Dictionary> dictionaries) throws IOException {
+        FlatBufferTable data = header.getTable(DICTIONARY_DATA);
+        if (header.getBoolean(DICTIONARY_IS_DELTA, false) || data.has(BATCH_COMPRESSION)) {
+            throw new IOException("delta or compressed dictionaries not supported");
+        }
+        int size = Math.toIntExact(data.getLong(BATCH_LENGTH, 0));
+        boolean hasNulls = data.getStructLong(BATCH_NODES, 0, PAIR_SIZE, Long.BYTES) > 0;
+        dictionaries.put(header.getLong(DICTIONARY_ID, 0), new Dictionary(size,
+                hasNulls ? slice(buffer, data, 0, bodyStart) : null, slice(buffer, data, 1, bodyStart),
+                slice(buffer, data, 2, bodyStart)));
+    }
+
+    /**
+     * Liefert einen Puffer eines Record Batches als Ausschnitt der eingeblendeten Datei, ohne ihn zu kopieren.
+     *
+     * @param buffer    eingeblendete Datei
+     * @param batch     Kopf des Record Batches
+     * @param index     Index des Puffers
+     * @param bodyStart Position des Rumpfs in der Datei
+     *
+     * @return Ausschnitt, der Little Endian liest
+     */
+    private static ByteBuffer slice(ByteBuffer buffer, FlatBufferTable batch, int index, int bodyStart) {
+        long offset = batch.getStructLong(BATCH_BUFFERS, index, PAIR_SIZE, 0);
+        long length = batch.getStructLong(BATCH_BUFFERS, index, PAIR_SIZE, Long.BYTES);
+        return buffer.slice(Math.toIntExact(bodyStart + offset), Math.toIntExact(length))
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Rundet eine Länge auf die nächste ausgerichtete Länge auf.
+     *
+     * @param length Länge in Bytes
+     *
+     * @return kleinstes Vielfaches der Ausrichtung, das mindestens length ist
+     */
+    private static long align(long length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /**
+     * Wandelt eine Liste in ein Array um.
+     *
+     * @param values Werte
+     *
+     * @return Array mit den Werten in ihrer Reihenfolge
+     */
+    private static long[] toArray(List<Long> values) {
+        long[] array = new long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+}
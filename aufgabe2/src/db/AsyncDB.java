@@ -0,0 +1,311 @@
+package db;
+
+import db.value.Value;
+import util.Util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Asynchrone Schnittstelle zu den Tabellen einer {@link DB}.
+ * <p>
+ * Selektionen und Verbunde werden auf einem frei wählbaren {@link Executor} ausgeführt und liefern sofort ein
+ * {@link CompletableFuture}. Wird es abgebrochen ({@link CompletableFuture#cancel(boolean)}) oder anderweitig
+ * abgeschlossen, etwa durch {@link CompletableFuture#orTimeout(long, java.util.concurrent.TimeUnit)}, beendet die
+ * Operation das Durchlaufen der Tabelle nach spätestens {@link db.storage.Column#CANCELLATION_CHECK_INTERVAL} Zeilen,
+ * beim Auswerten der Bedingungen ebenso wie beim Aufbau des Ergebnisses. Nur ein vektorisierter Vergleich auf einer
+ * Zahlenspalte läuft ohne Unterbrechung über die ganze Spalte.
+ * <p>
+ * Große Ergebnisse lassen sich mit {@link #selectRows(String, List, List, int)} als Folge von Zeilenblöcken
+ * abonnieren, ohne sie als Tabelle aufzubauen. Jeder Abonnent erhält eine eigene Selektion. Fordert er keine weiteren
+ * Blöcke an, wartet die Selektion, bis er wieder welche anfordert; kündigt er sein Abonnement, endet sie.
+ * <p>
+ * Die Tabellen werden nicht gesperrt. Mehrere lesende Operationen dürfen gleichzeitig laufen, die betroffenen Tabellen
+ * dürfen währenddessen aber nicht verändert werden.
+ */
+public final class AsyncDB {
+
+    /**
+     * Maximale Anzahl von Zeilenblöcken, die für einen Abonnenten gepuffert werden
+     */
+    public static final int MAX_BUFFERED_BATCHES = 16;
+
+    /**
+     * Name der Fabrikmethode für einen Executor mit einem virtuellen Thread pro Aufgabe
+     */
+    private static final String VIRTUAL_THREAD_EXECUTOR = "newVirtualThreadPerTaskExecutor";
+
+    /**
+     * Datenbank, deren Tabellen abgefragt werden
+     */
+    private final DB db;
+
+    /**
+     * Executor, auf dem die Operationen ausgeführt werden
+     */
+    private final Executor executor;
+
+    /**
+     * Konstruktor
+     *
+     * @param db       Datenbank, deren Tabellen abgefragt werden
+     * @param executor Executor, auf dem die Operationen ausgeführt werden
+     *
+     * @pre db != null
+     * @pre executor != null
+     */
+    public AsyncDB(DB db, Executor executor) {
+        assert db != null : "db is null";
+        assert executor != null : "executor is null";
+        this.db = db;
+        this.executor = executor;
+    }
+
+    /**
+     * Liefert einen Executor mit einer festen Anzahl von Plattform-Threads. Die Threads halten die Anwendung nicht am
+     * Laufen.
+     *
+     * @param threads Anzahl der Threads
+     *
+     * @return neuer Executor, der nach Gebrauch mit {@link ExecutorService#shutdown()} beendet werden sollte
+     *
+     * @pre threads &gt; 0
+     */
+    public static ExecutorService newPlatformExecutor(int threads) {
+        assert threads > 0 : "threads must be positive";
+        return Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Liefert einen Executor, der jede Operation in einem eigenen virtuellen Thread ausführt. Unterstützt die
+     * Laufzeitumgebung keine virtuellen Threads (vor Java 21), wird ein Executor mit Plattform-Threads geliefert, die
+     * nach Ende einer Operation wiederverwendet werden.
+     *
+     * @return neuer Executor, der nach Gebrauch mit {@link ExecutorService#shutdown()} beendet werden sollte
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod(VIRTUAL_THREAD_EXECUTOR).invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Führt {@link DBTable#select(List, List, String)} auf der Tabelle mit dem übergebenen Bezeichner asynchron aus.
+     *
+     * @param tableId     Bezeichner der Tabelle
+     * @param colIds      Spaltenbezeichner der Spalten, die selektiert werden sollen oder null, wenn alle Spalten
+     *                    selektiert werden sollen
+     * @param whereParams Bedingungen, von denen mindestens eine erfüllt sein muss
+     * @param newTableId  Bezeichner der Tabelle, die erzeugt wird
+     *
+     * @return Ergebnistabelle, die bei einer fehlenden Tabelle oder verletzten Vorbedingungen von
+     *         {@link DBTable#select(List, List, String)} mit einer Ausnahme abgeschlossen wird
+     *
+     * @pre tableId != null
+     * @pre whereParams != null
+     * @pre newTableId != null
+     */
+    public CompletableFuture<DBTable> select(String tableId, List<String> colIds, List<WhereParameter> whereParams,
+            String newTableId) {
+        assert tableId != null : "tableId is null";
+        assert whereParams != null : "whereParams is null";
+        assert newTableId != null : "newTableId is null";
+
+        return this.submit(cancelled -> {
+            DBTable table = this.table(tableId);
+            int[] selectedIndexes = table.resolveColumns(selectedColumns(table, colIds));
+            return table.executeSelect(selectedIndexes, table.resolveWhereColumns(whereParams),
+                    DBTable.predicatesOf(whereParams), newTableId, cancelled);
+        });
+    }
+
+    /**
+     * Führt {@link DBTable#equijoin(DBTable, String, String)} auf den Tabellen mit den übergebenen Bezeichnern
+     * asynchron aus.
+     *
+     * @param tableId      Bezeichner der Tabelle mit dem Fremdschlüssel
+     * @param otherTableId Bezeichner der referenzierten Tabelle
+     * @param fkColId      Spaltenbezeichner des Fremdschlüssels
+     * @param newTableId   Bezeichner der Tabelle, die erzeugt wird
+     *
+     * @return Ergebnistabelle, die bei einer fehlenden Tabelle oder verletzten Vorbedingungen von
+     *         {@link DBTable#equijoin(DBTable, String, String)} mit einer Ausnahme abgeschlossen wird
+     *
+     * @pre tableId != null
+     * @pre otherTableId != null
+     * @pre fkColId != null
+     * @pre newTableId != null
+     */
+    public CompletableFuture<DBTable> equijoin(String tableId, String otherTableId, String fkColId,
+            String newTableId) {
+        assert tableId != null : "tableId is null";
+        assert otherTableId != null : "otherTableId is null";
+        assert fkColId != null : "fkColId is null";
+        assert newTableId != null : "newTableId is null";
+
+        return this.submit(cancelled -> this.table(tableId).equijoin(this.table(otherTableId), fkColId, newTableId,
+                cancelled));
+    }
+
+    /**
+     * Selektiert wie {@link DBTable#select(List, List, String)} Zeilen der Tabelle mit dem übergebenen Bezeichner und
+     * liefert sie in Blöcken an Abonnenten, ohne eine Ergebnistabelle aufzubauen.
+     * <p>
+     * Die Selektion beginnt erst mit dem Abonnieren. Es werden höchstens {@link #MAX_BUFFERED_BATCHES} Blöcke im
+     * Voraus erzeugt, danach wartet die Selektion, bis der Abonnent weitere Blöcke anfordert. Fehlt die Tabelle oder
+     * ist eine Vorbedingung verletzt, erhält der Abonnent die Ausnahme über
+     * {@link Flow.Subscriber#onError(Throwable)}.
+     *
+     * @param tableId     Bezeichner der Tabelle
+     * @param colIds      Spaltenbezeichner der Spalten, die selektiert werden sollen oder null, wenn alle Spalten
+     *                    selektiert werden sollen
+     * @param whereParams Bedingungen, von denen mindestens eine erfüllt sein muss
+     * @param batchSize   maximale Anzahl von Zeilen pro Block
+     *
+     * @return Publisher, der jedem Abonnenten die selektierten Zeilen in Blöcken liefert
+     *
+     * @pre tableId != null
+     * @pre whereParams != null
+     * @pre batchSize &gt; 0
+     */
+    public Flow.Publisher<List<List<Value>>> selectRows(String tableId, List<String> colIds,
+            List<WhereParameter> whereParams, int batchSize) {
+        assert tableId != null : "tableId is null";
+        assert whereParams != null : "whereParams is null";
+        assert batchSize > 0 : "batchSize must be positive";
+
+        return subscriber -> {
+            SubmissionPublisher<List<List<Value>>> publisher = new SubmissionPublisher<>(ForkJoinPool.commonPool(),
+                    MAX_BUFFERED_BATCHES);
+            publisher.subscribe(subscriber);
+            CompletableFuture.runAsync(() -> this.publishRows(publisher, tableId, colIds, whereParams, batchSize),
+                    this.executor).whenComplete((result, failure) -> {
+                        if (failure == null) {
+                            publisher.close();
+                        } else {
+                            publisher.closeExceptionally(unwrap(failure));
+                        }
+                    });
+        };
+    }
+
+    /**
+     * Selektiert die Zeilen und übergibt sie blockweise an den Publisher. Ist dessen Puffer voll, wartet diese Methode.
+     * Sie endet vorzeitig, sobald der Publisher keine Abonnenten mehr hat.
+     *
+     * @param publisher   Publisher
+     * @param tableId     Bezeichner der Tabelle
+     * @param colIds      Spaltenbezeichner der selektierten Spalten oder null
+     * @param whereParams Bedingungen
+     * @param batchSize   maximale Anzahl von Zeilen pro Block
+     */
+    private void publishRows(SubmissionPublisher<List<List<Value>>> publisher, String tableId, List<String> colIds,
+            List<WhereParameter> whereParams, int batchSize) {
+        DBTable table = this.table(tableId);
+        int[] selectedIndexes = table.resolveColumns(selectedColumns(table, colIds));
+        BitSet matches = table.matchingSlots(table.resolveWhereColumns(whereParams), DBTable.predicatesOf(whereParams),
+                () -> !publisher.hasSubscribers());
+
+        List<List<Value>> batch = new ArrayList<>(batchSize);
+        for (int slot = matches.nextSetBit(0); slot >= 0 && publisher.hasSubscribers();
+                slot = matches.nextSetBit(slot + 1)) {
+            batch.add(table.getRow(slot, selectedIndexes));
+            if (batch.size() == batchSize) {
+                publisher.submit(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty() && publisher.hasSubscribers()) {
+            publisher.submit(batch);
+        }
+    }
+
+    /**
+     * Führt eine Operation auf dem Executor aus. Die Operation erhält eine Angabe, ob das gelieferte Future bereits
+     * abgeschlossen wurde, und soll dann abbrechen.
+     *
+     * @param operation Operation
+     *
+     * @return Future für das Ergebnis der Operation
+     */
+    private CompletableFuture<DBTable> submit(Function<BooleanSupplier, DBTable> operation) {
+        CompletableFuture<DBTable> future = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(() -> operation.apply(future::isDone), this.executor)
+                .whenComplete((result, failure) -> {
+                    if (failure == null) {
+                        future.complete(result);
+                    } else {
+                        future.completeExceptionally(unwrap(failure));
+                    }
+                });
+        return future;
+    }
+
+    /**
+     * Liefert die Tabelle mit dem übergebenen Bezeichner.
+     *
+     * @param tableId Bezeichner der Tabelle
+     *
+     * @return Tabelle
+     *
+     * @throws IllegalArgumentException wenn die Datenbank keine Tabelle mit dem Bezeichner enthält
+     */
+    private DBTable table(String tableId) {
+        DBTable table = this.db.getTable(tableId);
+        if (table == null) {
+            throw new IllegalArgumentException("unknown table " + tableId);
+        }
+        return table;
+    }
+
+    /**
+     * Liefert die Spaltenbezeichner, die selektiert werden, und prüft sie wie {@link DBTable#select(List, List,
+     * String)}.
+     *
+     * @param table  Tabelle
+     * @param colIds Spaltenbezeichner oder null für alle Spalten
+     *
+     * @return Spaltenbezeichner der selektierten Spalten
+     */
+    private static List<String> selectedColumns(DBTable table, List<String> colIds) {
+        if (colIds == null) {
+            return table.getColumnIds();
+        }
+        assert Util.areOnlyUniqueIdentifiers(colIds) : "colIds not unique";
+        assert table.hasAllColumns(colIds) : "colIds not part of table";
+        assert colIds.contains(table.getPrimaryKeyColumnId()) : "primary key missing";
+        return colIds;
+    }
+
+    /**
+     * Liefert die eigentliche Ursache einer Ausnahme, die beim asynchronen Ausführen entstanden ist.
+     *
+     * @param failure Ausnahme, gegebenenfalls in eine {@link CompletionException} verpackt
+     *
+     * @return Ursache
+     */
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+}
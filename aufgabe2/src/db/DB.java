@@ -1,32 +1,191 @@
 package db;
 
+import db.catalog.TableCatalog;
+import db.slowlog.SlowOperationLog;
+import util.Pair;
 import util.Util;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.NavigableSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Diese Klasse repräsentiert eine Datenbank.
  * <p>
  * Eine Datenbank besitzt einen eindeutigen Bezeichner und verwaltet eine Reihe von Datenbanktabellen
  * ({@link DBTable}).
+ * <p>
+ * Mit {@link #setMemoryBudget(long, Path)} kann der Speicherbedarf der Tabellen begrenzt werden. Übersteigt der
+ * geschätzte Speicherbedarf ({@link DBTable#getSizeInBytes()}) aller geladenen Tabellen das Budget, werden die am
+ * längsten nicht mehr über diese Datenbank abgerufenen Tabellen in ein Verzeichnis ausgelagert und beim nächsten
+ * Zugriff über {@link #getTable(String)} oder {@link #getFirstTableWithPrefix(String)} wieder geladen. Ein wieder
+ * geladenes Tabellenobjekt ist ein neues Objekt. Das ausgelagerte Objekt wird ungültig: Änderungen über eine vor dem
+ * Auslagern gelieferte Referenz werfen eine {@link IllegalStateException}, statt verloren zu gehen. Tabellen mit
+ * Abonnenten des Änderungsstroms, Basistabellen und Ergebnistabellen materialisierter Sichten werden nie ausgelagert.
+ * Das Budget wird bei jedem Zugriff auf eine Tabelle über diese Datenbank geprüft, nicht bei Änderungen einzelner
+ * Tabellen. Dabei wird nur der Speicherbedarf der abgerufenen Tabelle neu bestimmt, für alle anderen gilt der Wert
+ * ihres letzten Zugriffs.
+ * <p>
+ * Die Tabellen werden in einem {@link TableCatalog} verwaltet, sodass auch Datenbanken mit Hunderttausenden Tabellen
+ * Bezeichner, Bereiche und Präfixe in logarithmischer Zeit finden. Tabellen dürfen von mehreren Threads gleichzeitig
+ * eingefügt, abgerufen und entfernt werden; Abfragen der Tabellenbezeichner arbeiten dabei ohne Sperre. Für
+ * mandantenfähige Anwendungen mit einer Tabelle pro Mandant und Entität bilden
+ * {@link TableCatalog#qualify(String, String)} und {@link #getTableIdViewOfTenant(String)} Namensräume. Die Tabellen
+ * selbst sind nicht threadsicher.
+ * <p>
+ * Mit {@link #saveSnapshot(Path)} werden alle Tabellen und der Katalog in ein Verzeichnis geschrieben.
+ * {@link #openSnapshot(Path)} liest daraus nur den Katalog; jede Tabelle wird erst beim ersten Zugriff über
+ * {@link #getTable(String)} geladen, sodass die Zeit bis zur ersten Anfrage nicht von der Größe der Datenbank abhängt.
+ * {@link #warmUp(Collection)} lädt ausgewählte Tabellen parallel im Hintergrund. Wird eine Tabelle gerade geladen,
+ * warten weitere Zugriffe auf sie, statt sie erneut zu lesen.
  *
  * @author aan, avh, mhe, tti, TODO: Namen ergänzen
  */
 public final class DB {
 
+    /**
+     * Eintrag einer Tabelle im Katalog. Alle Zugriffe auf die Felder erfolgen unter der Sperre der Datenbank.
+     */
+    private static final class Entry {
+
+        /**
+         * Geladene Tabelle oder null, wenn sie ausgelagert oder noch nicht geladen ist
+         */
+        private DBTable table;
+
+        /**
+         * Datei, aus der die Tabelle geladen wird, solange sie nicht geladen ist
+         */
+        private Path file;
+
+        /**
+         * Angabe, ob {@link #file} nach dem Laden gelöscht wird, weil die Tabelle ausgelagert wurde
+         */
+        private boolean temporary;
+
+        /**
+         * Ergebnis des laufenden Ladevorgangs oder null, wenn die Tabelle gerade nicht geladen wird
+         */
+        private CompletableFuture<DBTable> loading;
+
+        /**
+         * Zuletzt bestimmter Speicherbedarf der geladenen Tabelle in Bytes oder 0, wenn sie nicht geladen ist
+         */
+        private long bytes;
+
+        /**
+         * Konstruktor
+         *
+         * @param table geladene Tabelle oder null
+         * @param file  Datei, aus der die Tabelle geladen wird, oder null
+         */
+        private Entry(DBTable table, Path file) {
+            this.table = table;
+            this.file = file;
+            this.temporary = false;
+            this.loading = null;
+            this.bytes = 0;
+        }
+    }
+
+    /**
+     * Budget ohne Begrenzung des Speicherbedarfs
+     */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    /**
+     * Dateiendung ausgelagerter und gespeicherter Tabellen
+     */
+    private static final String TABLE_FILE_SUFFIX = ".table";
+
+    /**
+     * Name der Katalogdatei eines gespeicherten Zustands
+     */
+    private static final String CATALOG_FILE = "catalog";
+
+    /**
+     * Anfangskapazität der Liste geladener Tabellen
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Ladefaktor der Liste geladener Tabellen
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
     /**
      * Bezeichner dieser Datenbank
      */
     private final String id;
 
     /**
-     * Tabellen, sortiert nach ihrem Bezeichner
+     * Tabellen nach ihrem Bezeichner
      */
-    private final Map<String, DBTable> tables;
+    private final TableCatalog<Entry> catalog;
 
+    /**
+     * Geladene Tabellen, geordnet vom am längsten nicht abgerufenen zum zuletzt abgerufenen
+     */
+    private final LinkedHashMap<String, Entry> residentTables;
+
+    /**
+     * Materialisierte Sichten nach dem Bezeichner ihrer Ergebnistabelle
+     */
+    private final Map<String, MaterializedView> views;
+
+    /**
+     * Maximaler Speicherbedarf der geladenen Tabellen in Bytes
+     */
+    private long maxBytes;
+
+    /**
+     * Summe des zuletzt bestimmten Speicherbedarfs aller geladenen Tabellen in Bytes
+     */
+    private long residentBytes;
+
+    /**
+     * Verzeichnis für ausgelagerte Tabellen oder null, solange kein Budget gesetzt wurde
+     */
+    private Path directory;
+
+    /**
+     * Anzahl der ausgelagerten Tabellen
+     */
+    private long numOfEvictions;
+
+    /**
+     * Anzahl der aus Dateien geladenen Tabellen
+     */
+    private long numOfReloads;
+
+    /**
+     * Gesamtdauer des Auslagerns in Nanosekunden
+     */
+    private long evictionNanos;
+
+    /**
+     * Gesamtdauer des Ladens aus Dateien in Nanosekunden
+     */
+    private long reloadNanos;
+
+    /**
+     * Protokoll langsamer Operationen der Tabellen oder null
+     */
+    private SlowOperationLog operationLog;
 
     /**
      * Konstruktor
@@ -42,7 +201,38 @@ public final class DB {
         assert Util.isValidIdentifier(id) : "id invalid";
 
         this.id = id;
-        this.tables = new TreeMap<>();
+        this.catalog = new TableCatalog<>();
+        this.residentTables = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+        this.views = new ConcurrentHashMap<>();
+        this.maxBytes = UNLIMITED;
+        this.residentBytes = 0;
+    }
+
+    /**
+     * Öffnet eine mit {@link #saveSnapshot(Path)} gespeicherte Datenbank. Gelesen wird nur der Katalog; die Tabellen
+     * werden erst beim ersten Zugriff aus dem Verzeichnis geladen. Das Verzeichnis darf danach nicht verändert werden,
+     * solange noch nicht alle Tabellen geladen sind.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Tabellen und f(N) = N * log(N), unabhängig von der
+     * Anzahl ihrer Zeilen.
+     *
+     * @param directory Verzeichnis des gespeicherten Zustands
+     *
+     * @return Datenbank, deren Tabellen noch nicht geladen sind
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Lesen des Katalogs
+     *
+     * @pre directory != null
+     */
+    public static DB openSnapshot(Path directory) {
+        assert directory != null : "directory is null";
+
+        Pair<String, List<String>> catalog = TableFile.readCatalog(directory.resolve(CATALOG_FILE));
+        DB db = new DB(catalog.l());
+        for (String tableId : catalog.r()) {
+            db.catalog.register(tableId, new Entry(null, directory.resolve(tableId + TABLE_FILE_SUFFIX)));
+        }
+        return db;
     }
 
     /**
@@ -56,42 +246,287 @@ public final class DB {
 
     /**
      * Liefert die Anzahl der Tabellen in dieser Datenbank.
+     * <p>
+     * Diese Methode arbeitet in O(1).
      *
      * @return Anzahl der Tabellen in dieser Datenbank
      */
     public int getNumOfTables() {
-        return this.tables.size();
+        return this.catalog.size();
+    }
+
+    /**
+     * Begrenzt den Speicherbedarf der geladenen Tabellen dieser Datenbank. Wird das Budget überschritten, werden sofort
+     * und bei jedem weiteren Zugriff so lange die am längsten nicht abgerufenen Tabellen in das übergebene Verzeichnis
+     * ausgelagert, bis das Budget wieder eingehalten wird oder keine Tabelle mehr ausgelagert werden kann.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Zeilen der geladenen Tabellen und f(N) = N.
+     *
+     * @param maxBytes  maximaler Speicherbedarf in Bytes oder {@link #UNLIMITED}
+     * @param directory vorhandenes Verzeichnis, in das Tabellen ausgelagert werden
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Schreiben einer Tabelle
+     *
+     * @pre maxBytes &gt;= 0
+     * @pre directory != null
+     * @pre directory darf nicht das Verzeichnis eines gespeicherten Zustands ({@link #saveSnapshot(Path)}) sein
+     */
+    public synchronized void setMemoryBudget(long maxBytes, Path directory) {
+        assert maxBytes >= 0 : "maxBytes is negative";
+        assert directory != null : "directory is null";
+
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+        this.getMemoryUsage();
+        this.enforceBudget(null);
+    }
+
+    /**
+     * Liefert den maximalen Speicherbedarf der geladenen Tabellen.
+     *
+     * @return maximaler Speicherbedarf in Bytes oder {@link #UNLIMITED}
+     */
+    public synchronized long getMemoryBudget() {
+        return this.maxBytes;
     }
 
     /**
-     * Liefert die Tabelle mit dem übergebenen Tabellenbezeichner oder null, wenn es keine gibt.
+     * Liefert den geschätzten Speicherbedarf aller geladenen Tabellen gemäß {@link DBTable#getSizeInBytes()}. Der
+     * Speicherbedarf jeder geladenen Tabelle wird dabei neu bestimmt.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der geladenen Tabellen und f(N) = N.
+     *
+     * @return Speicherbedarf in Bytes
+     */
+    public synchronized long getMemoryUsage() {
+        for (Entry entry : this.residentTables.values()) {
+            this.refreshSize(entry);
+        }
+        return this.residentBytes;
+    }
+
+    /**
+     * Gibt an, ob die Tabelle mit dem übergebenen Tabellenbezeichner geladen und nicht ausgelagert ist.
+     *
+     * @param tableId Tabellenbezeichner
+     *
+     * @return Angabe, ob die Tabelle existiert und geladen ist
+     *
+     * @pre tableId != null
+     */
+    public synchronized boolean isResident(String tableId) {
+        assert tableId != null : "tableId is null";
+        return this.residentTables.containsKey(tableId);
+    }
+
+    /**
+     * Liefert die Anzahl der bisher ausgelagerten Tabellen.
+     *
+     * @return Anzahl der Auslagerungen
+     */
+    public synchronized long getNumOfEvictions() {
+        return this.numOfEvictions;
+    }
+
+    /**
+     * Liefert die Anzahl der bisher aus Dateien geladenen Tabellen, also der wieder geladenen ausgelagerten und der
+     * beim ersten Zugriff geladenen Tabellen eines gespeicherten Zustands.
+     *
+     * @return Anzahl der Ladevorgänge
+     */
+    public synchronized long getNumOfReloads() {
+        return this.numOfReloads;
+    }
+
+    /**
+     * Liefert die Gesamtdauer aller Auslagerungen.
+     *
+     * @return Dauer des Auslagerns
+     */
+    public synchronized Duration getEvictionTime() {
+        return Duration.ofNanos(this.evictionNanos);
+    }
+
+    /**
+     * Liefert die Gesamtdauer aller Ladevorgänge aus Dateien.
+     *
+     * @return Dauer des Wiederladens
+     */
+    public synchronized Duration getReloadTime() {
+        return Duration.ofNanos(this.reloadNanos);
+    }
+
+    /**
+     * Setzt das Protokoll, in dem {@link DBTable#select(List, List, String)},
+     * {@link DBTable#update(String, db.value.Value, List)}, {@link DBTable#removeRows(WhereParameter)},
+     * {@link DBTable#equijoin(DBTable, String, String)} und {@link DBTable#toString()} aller Tabellen dieser
+     * Datenbank aufgezeichnet werden, wenn sie langsam sind oder als Stichprobe gezogen werden. Das gilt auch für
+     * vorbereitete und asynchrone Ausführungen dieser Operationen und für später eingefügte oder geladene Tabellen.
+     * Eine aus dieser Datenbank entfernte Tabelle zeichnet nicht mehr auf.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der geladenen Tabellen und f(N) = N.
+     *
+     * @param log Protokoll oder null, um nicht mehr aufzuzeichnen
+     */
+    public synchronized void setSlowOperationLog(SlowOperationLog log) {
+        this.operationLog = log;
+        for (Entry entry : this.residentTables.values()) {
+            entry.table.setOperationLog(log);
+        }
+    }
+
+    /**
+     * Liefert das Protokoll langsamer Operationen.
+     *
+     * @return Protokoll oder null, wenn nicht aufgezeichnet wird
+     */
+    public synchronized SlowOperationLog getSlowOperationLog() {
+        return this.operationLog;
+    }
+
+    /**
+     * Liefert die Tabelle mit dem übergebenen Tabellenbezeichner oder null, wenn es keine gibt. Eine ausgelagerte
+     * oder noch nicht geladene Tabelle wird dabei geladen.
      * <p>
      * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Tabellen in dieser Datenbank und f(N) =
-     * log(N).
+     * log(N), zuzüglich des Ladens einer ausgelagerten und des Auslagerns anderer Tabellen.
      *
      * @param tableId Tabellenbezeichner der Tabelle, die zurückgegeben werden soll
      *
      * @return Tabelle mit dem übergebenen Tabellenbezeichner oder null, wenn keine passende Tabelle existiert
      *
+     * @throws UncheckedIOException bei einem Fehler beim Laden oder Auslagern einer Tabelle
+     *
      * @pre tableId != null
      * @pre tableId muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Tabellenbezeichner sein
      */
     public DBTable getTable(String tableId) {
         assert tableId != null : "tableId is null";
         assert Util.isValidIdentifier(tableId) : "invalid tableId";
-        return this.tables.get(tableId);
+        DBTable table = this.load(tableId);
+        if (table != null) {
+            this.enforceBudget(tableId);
+        }
+        return table;
+    }
+
+    /**
+     * Lädt die Tabellen mit den übergebenen Bezeichnern parallel im Hintergrund, soweit sie ausgelagert oder noch nicht
+     * geladen sind. Unbekannte Bezeichner werden ignoriert. Ein gleichzeitiger Zugriff auf eine Tabelle, die gerade
+     * geladen wird, wartet auf deren Ladevorgang.
+     *
+     * @param tableIds Bezeichner der Tabellen
+     *
+     * @return Ergebnis, das abgeschlossen ist, sobald alle Tabellen geladen sind
+     *
+     * @pre tableIds != null
+     */
+    public CompletableFuture<Void> warmUp(Collection<String> tableIds) {
+        assert tableIds != null : "tableIds is null";
+        List<String> ids = List.copyOf(tableIds);
+        return CompletableFuture.runAsync(() -> ids.parallelStream().forEach(this::getTable));
+    }
+
+    /**
+     * Schreibt alle Tabellen und den Katalog dieser Datenbank in das übergebene Verzeichnis, aus dem
+     * {@link #openSnapshot(Path)} sie wieder öffnet. Vorhandene Dateien werden ersetzt. Nicht geladene Tabellen werden
+     * dafür nicht geladen, sondern ihre Dateien kopiert. Ergebnistabellen materialisierter Sichten werden als
+     * gewöhnliche Tabellen gespeichert.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Zeilen aller Tabellen und f(N) = N.
+     *
+     * @param directory vorhandenes Verzeichnis
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Schreiben
+     *
+     * @pre directory != null
+     * @pre directory darf nicht das Verzeichnis für ausgelagerte Tabellen ({@link #setMemoryBudget(long, Path)}) sein
+     */
+    public synchronized void saveSnapshot(Path directory) {
+        assert directory != null : "directory is null";
+        assert !directory.equals(this.directory) : "directory used for evicted tables";
+
+        for (Map.Entry<String, Entry> entry : this.catalog.asMap().entrySet()) {
+            Path file = directory.resolve(entry.getKey() + TABLE_FILE_SUFFIX);
+            DBTable table = entry.getValue().table;
+            if (table != null) {
+                TableFile.write(table, file);
+            } else if (!entry.getValue().file.equals(file)) {
+                try {
+                    Files.copy(entry.getValue().file, file, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        TableFile.writeCatalog(directory.resolve(CATALOG_FILE), this.id, this.catalog.ids());
     }
 
     /**
      * Liefert aller Tabellenbezeichner aus dieser Datenbank. Die Bezeichner sind dabei aufsteigend sortiert.
      * <p>
      * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Tabellen in dieser Datenbank und f(N) =
-     * N.
+     * N. Ohne Kopie liefert {@link #getTableIdView()} die Bezeichner.
      *
      * @return aufsteigend sortierte Liste der Tabellenbezeichner
      */
     public List<String> getTableIds() {
-        return new ArrayList<>(this.tables.keySet());
+        return new ArrayList<>(this.catalog.ids());
+    }
+
+    /**
+     * Liefert eine unveränderliche, aufsteigend sortierte Sicht auf alle Tabellenbezeichner dieser Datenbank, die
+     * spätere Änderungen widerspiegelt.
+     * <p>
+     * Diese Methode arbeitet in O(1).
+     *
+     * @return Sicht auf die Tabellenbezeichner
+     */
+    public NavigableSet<String> getTableIdView() {
+        return this.catalog.ids();
+    }
+
+    /**
+     * Liefert eine unveränderliche, aufsteigend sortierte Sicht auf die Tabellenbezeichner, die mit dem übergebenen
+     * Präfix beginnen. Die Sicht spiegelt spätere Änderungen wider.
+     * <p>
+     * Diese Methode arbeitet in O(1), das Durchlaufen der Sicht in O(log(N) + K), dabei ist N = Anzahl der
+     * vorhandenen Tabellen und K = Anzahl der gelieferten Bezeichner.
+     *
+     * @param prefix Präfix der Tabellenbezeichner
+     *
+     * @return Sicht auf die Tabellenbezeichner mit dem Präfix
+     *
+     * @pre prefix != null
+     * @pre prefix muss gemäß {@link Util#isValidIdentifier(String)} ein gültiges Präfix eines
+     *         Tabellenbezeichners sein
+     */
+    public NavigableSet<String> getTableIdViewWithPrefix(String prefix) {
+        assert prefix != null : "prefix is null";
+        assert Util.isValidIdentifier(prefix) : "prefix invalid";
+        return this.catalog.idsWithPrefix(prefix);
+    }
+
+    /**
+     * Liefert eine unveränderliche, aufsteigend sortierte Sicht auf die Tabellenbezeichner des übergebenen Mandanten,
+     * also auf alle mit {@link TableCatalog#qualify(String, String)} gebildeten Bezeichner. Die Sicht spiegelt
+     * spätere Änderungen wider.
+     * <p>
+     * Diese Methode arbeitet in O(1), das Durchlaufen der Sicht in O(log(N) + K), dabei ist N = Anzahl der
+     * vorhandenen Tabellen und K = Anzahl der Tabellen des Mandanten.
+     *
+     * @param tenant Mandant
+     *
+     * @return Sicht auf die Tabellenbezeichner des Mandanten
+     *
+     * @pre tenant != null
+     * @pre tenant muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Bezeichner sein, darf
+     *         {@link TableCatalog#TENANT_SEPARATOR} nicht enthalten und nicht auf '_' enden
+     */
+    public NavigableSet<String> getTableIdViewOfTenant(String tenant) {
+        assert tenant != null : "tenant is null";
+        assert Util.isValidIdentifier(tenant) : "tenant invalid";
+        return this.catalog.idsOfTenant(tenant);
     }
 
     /**
@@ -102,7 +537,7 @@ public final class DB {
      * enthält, liefert die Anfrage mit from="T" to="V" die Namen "Tee_Sorte" und "Tee_Kategorie".
      * <p>
      * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Tabellen in dieser Datenbank und f(N) =
-     * N.
+     * log(N) + K mit K = Anzahl der gelieferten Bezeichner.
      *
      * @param from Untere Grenze des Suchbereiches (inklusive)
      * @param to   Obere Grenze des Suchbereiches (exklusive)
@@ -122,13 +557,7 @@ public final class DB {
         assert Util.isValidIdentifier(to) : "to invalid";
         assert from.compareTo(to) < 0 : "from must be smaller than to";
 
-        List<String> result = new ArrayList<>();
-        for (String key : this.tables.keySet()) {
-            if (key.compareTo(from) >= 0 && key.compareTo(to) < 0) {
-                result.add(key);
-            }
-        }
-        return result;
+        return new ArrayList<>(this.catalog.idsBetween(from, to));
     }
 
     /**
@@ -139,7 +568,7 @@ public final class DB {
      * nach "Tee_" die Tabelle mit dem Bezeichner "Tee_Kategorie".
      * <p>
      * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Tabellen in dieser Datenbank und f(N) =
-     * N.
+     * log(N).
      *
      * @param prefix Präfix des Tabellenbezeichners
      *
@@ -154,12 +583,8 @@ public final class DB {
         assert prefix != null : "prefix is null";
         assert Util.isValidIdentifier(prefix) : "prefix invalid";
 
-        for (Map.Entry<String, DBTable> entry : this.tables.entrySet()) {
-            if (entry.getKey().startsWith(prefix)) {
-                return entry.getValue();
-            }
-        }
-        return null;
+        String tableId = this.catalog.firstIdWithPrefix(prefix);
+        return tableId == null ? null : this.getTable(tableId);
     }
 
     /**
@@ -178,7 +603,7 @@ public final class DB {
     public boolean hasTable(String tableId) {
         assert tableId != null : "tableId is null";
         assert Util.isValidIdentifier(tableId) : "tableId invalid";
-        return this.tables.containsKey(tableId);
+        return this.catalog.contains(tableId);
     }
 
     /**
@@ -194,18 +619,91 @@ public final class DB {
      */
     public void addTable(DBTable table) {
         assert table != null : "table is null";
-        assert !this.tables.containsKey(table.getId()) : "table already exists";
-        this.tables.put(table.getId(), table);
+        Entry entry = new Entry(table, null);
+        boolean registered = this.catalog.register(table.getId(), entry);
+        assert registered : "table already exists";
+        if (registered) {
+            this.makeResident(table.getId(), entry);
+        }
     }
 
     /**
-     * Entfernt die Tabelle mit dem übergebenen Tabellenbezeichner aus dieser Datenbank.
+     * Erstellt eine materialisierte Sicht und fügt ihre Ergebnistabelle unter dem übergebenen Bezeichner in diese
+     * Datenbank ein.
+     * <p>
+     * Die Sicht wird einmal vollständig berechnet. Danach wird jede Änderung der Basistabellen durch
+     * {@link DBTable#appendRow(List)}, Aktualisierungen, Löschungen und {@link DBTable#removeAllRows()} noch während
+     * der ändernden Operation anhand der geänderten Zeilen in die Ergebnistabelle übernommen. Die Ergebnistabelle kann
+     * wie jede andere Tabelle gelesen werden, darf aber nicht direkt geändert werden. Mit
+     * {@link #removeTable(String)} wird die Sicht wieder entfernt.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Zeilen der Basistabellen und f(N) = N.
+     *
+     * @param name       Bezeichner der Ergebnistabelle
+     * @param definition Definition der Sicht
+     *
+     * @return Ergebnistabelle der Sicht
+     *
+     * @throws IllegalStateException wenn gleichzeitig eine andere Tabelle unter dem Bezeichner eingefügt oder eine
+     *                               Basistabelle entfernt wurde
+     * @throws UncheckedIOException  bei einem Fehler beim Laden einer Basistabelle
+     *
+     * @pre name != null
+     * @pre definition != null
+     * @pre name muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Tabellenbezeichner sein
+     * @pre Es darf keine Tabelle mit dem Bezeichner name in dieser Datenbank existieren
+     * @pre Alle Basistabellen der Definition müssen in dieser Datenbank existieren
+     */
+    public DBTable createMaterializedView(String name, ViewDefinition definition) {
+        assert name != null : "name is null";
+        assert definition != null : "definition is null";
+        assert Util.isValidIdentifier(name) : "name invalid";
+        assert !this.catalog.contains(name) : "table already exists";
+        assert this.catalog.ids().containsAll(definition.getTableIds()) : "base table missing";
+
+        while (true) {
+            Map<String, DBTable> baseTables = new HashMap<>();
+            for (String tableId : definition.getTableIds()) {
+                DBTable table = this.load(tableId);
+                if (table == null) {
+                    throw new IllegalStateException("base table removed: " + tableId);
+                }
+                baseTables.put(tableId, table);
+            }
+            synchronized (this) {
+                if (this.areResident(baseTables)) {
+                    return this.registerView(name, definition.materialize(baseTables::get, name));
+                }
+            }
+        }
+    }
+
+    /**
+     * Gibt an, ob die Tabelle mit dem übergebenen Tabellenbezeichner die Ergebnistabelle einer materialisierten Sicht
+     * ist.
+     *
+     * @param tableId Tabellenbezeichner
+     *
+     * @return Angabe, ob die Tabelle zu einer materialisierten Sicht gehört
+     *
+     * @pre tableId != null
+     */
+    public boolean isMaterializedView(String tableId) {
+        assert tableId != null : "tableId is null";
+        return this.views.containsKey(tableId);
+    }
+
+    /**
+     * Entfernt die Tabelle mit dem übergebenen Tabellenbezeichner aus dieser Datenbank. Gehört sie zu einer
+     * materialisierten Sicht, wird diese nicht mehr aktualisiert. Ist sie ausgelagert, wird ihre Datei gelöscht.
      * <p>
      * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Tabellen in dieser Datenbank und f(N) =
      * log(N).
      *
      * @param tableId Tabellenbezeichner der zu entfernenden Tabelle
      *
+     * @throws UncheckedIOException bei einem Fehler beim Löschen der Datei einer ausgelagerten Tabelle
+     *
      * @pre tableId != null
      * @pre tableId muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Tabellenbezeichner sein
      * @post Es darf keine Tabelle mit dem übergebenen Bezeichner in dieser Datenbank existieren
@@ -213,14 +711,21 @@ public final class DB {
     public void removeTable(String tableId) {
         assert tableId != null : "tableId is null";
         assert Util.isValidIdentifier(tableId) : "tableId invalid";
-        this.tables.remove(tableId);
+        Entry entry = this.catalog.remove(tableId);
+        if (entry != null) {
+            this.release(tableId, entry);
+        }
     }
 
     /**
-     * Entfernt alle Tabellen aus dieser Datenbank.
+     * Entfernt alle Tabellen aus dieser Datenbank und löscht die Dateien ausgelagerter Tabellen.
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Löschen einer Datei
      */
     public void removeAllTables() {
-        this.tables.clear();
+        for (String tableId : this.catalog.ids()) {
+            this.removeTable(tableId);
+        }
     }
 
     /**
@@ -236,7 +741,8 @@ public final class DB {
      * <li>Nach jeder Tabelle folgt eine Leerzeile.</li>
      * </ul>
      * <p>
-     * Es werden stets Unix-Zeilenumbrüche (\n) in der Ausgabe verwendet.
+     * Es werden stets Unix-Zeilenumbrüche (\n) in der Ausgabe verwendet. Ausgelagerte Tabellen werden dafür gelesen,
+     * bleiben aber ausgelagert.
      * <p>
      * Beispiel für eine Datenbank mit zwei Tabellen:
      * <pre>
@@ -266,14 +772,292 @@ public final class DB {
      * @return die Stringrepräsentation dieser Datenbank
      */
     @Override
-    public String toString() {
+    public synchronized String toString() {
         StringBuilder builder = new StringBuilder();
         builder.append("Datenbankbezeichner: ").append(this.id).append('\n').append('\n');
 
-        for (DBTable table : this.tables.values()) {
+        for (Map.Entry<String, Entry> entry : this.catalog.asMap().entrySet()) {
+            DBTable table = entry.getValue().table;
+            if (table == null) {
+                table = TableFile.read(entry.getValue().file);
+            }
             builder.append(table.toString()).append('\n');
         }
 
         return builder.toString();
     }
+
+    /**
+     * Liefert die Tabelle mit dem übergebenen Tabellenbezeichner, lädt sie, falls sie ausgelagert oder noch nicht
+     * geladen ist, und vermerkt den Zugriff, ohne andere Tabellen auszulagern.
+     * <p>
+     * Die Datei wird ohne die Sperre der Datenbank gelesen, sodass mehrere Tabellen parallel geladen werden können.
+     * Wird die Tabelle bereits von einem anderen Thread geladen, wird auf dessen Ergebnis gewartet. Da der ladende
+     * Thread sein Ergebnis ohne die Sperre bereitstellt, darf dabei auch ein Thread warten, der die Sperre hält.
+     *
+     * @param tableId Tabellenbezeichner
+     *
+     * @return Tabelle oder null, wenn keine passende Tabelle existiert
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Laden
+     */
+    private DBTable load(String tableId) {
+        Entry entry;
+        CompletableFuture<DBTable> loading;
+        boolean loader = false;
+        synchronized (this) {
+            entry = this.catalog.get(tableId);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.table != null) {
+                // vermerkt den Zugriff in der Reihenfolge der geladenen Tabellen
+                if (this.residentTables.get(tableId) == entry) {
+                    this.refreshSize(entry);
+                }
+                return entry.table;
+            }
+            if (entry.loading == null) {
+                entry.loading = new CompletableFuture<>();
+                loader = true;
+            }
+            loading = entry.loading;
+        }
+        if (loader) {
+            this.read(entry, loading);
+        }
+        DBTable table;
+        try {
+            table = loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return this.install(tableId, entry, loading, table);
+    }
+
+    /**
+     * Liest die Datei einer nicht geladenen Tabelle ohne die Sperre der Datenbank und schließt den Ladevorgang mit
+     * der gelesenen Tabelle oder dem aufgetretenen Fehler ab. Nach einem Fehler kann ein späterer Zugriff das Laden
+     * erneut versuchen.
+     *
+     * @param entry   Eintrag der Tabelle
+     * @param loading Ladevorgang
+     */
+    private void read(Entry entry, CompletableFuture<DBTable> loading) {
+        Path file;
+        synchronized (this) {
+            file = entry.file;
+        }
+        long start = System.nanoTime();
+        try {
+            loading.complete(TableFile.read(file));
+        } catch (UncheckedIOException e) {
+            loading.completeExceptionally(e);
+        } finally {
+            // nur wirksam, wenn das Lesen mit einem anderen Fehler abgebrochen wurde
+            loading.completeExceptionally(new IllegalStateException("table not loaded: " + file));
+            synchronized (this) {
+                if (loading.isCompletedExceptionally() && entry.loading == loading) {
+                    entry.loading = null;
+                }
+                this.numOfReloads++;
+                this.reloadNanos += System.nanoTime() - start;
+            }
+        }
+    }
+
+    /**
+     * Übernimmt eine geladene Tabelle in ihren Eintrag, sofern das noch nicht geschehen ist, nimmt sie in die Liste der
+     * geladenen Tabellen auf und löscht die Datei einer ausgelagerten Tabelle.
+     *
+     * @param tableId Tabellenbezeichner
+     * @param entry   Eintrag der Tabelle
+     * @param loading Ladevorgang, der die Tabelle geliefert hat
+     * @param table   geladene Tabelle
+     *
+     * @return aktuelle Tabelle des Eintrags
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Löschen der Datei
+     */
+    private synchronized DBTable install(String tableId, Entry entry, CompletableFuture<DBTable> loading,
+            DBTable table) {
+        if (entry.loading == loading) {
+            entry.loading = null;
+            entry.table = table;
+            if (entry.temporary) {
+                deleteFile(entry.file);
+                entry.temporary = false;
+            }
+            entry.file = null;
+            if (this.catalog.get(tableId) == entry) {
+                this.residentTables.put(tableId, entry);
+                this.refreshSize(entry);
+                table.setOperationLog(this.operationLog);
+            }
+        }
+        return entry.table != null ? entry.table : table;
+    }
+
+    /**
+     * Lagert die am längsten nicht abgerufenen Tabellen aus, bis der Speicherbedarf der geladenen Tabellen das Budget
+     * einhält. Die gerade abgerufene Tabelle, Tabellen mit Abonnenten oder abhängigen Sichten und Ergebnistabellen von
+     * Sichten bleiben geladen. Ausgelagerte Tabellenobjekte werden ungültig ({@link DBTable#invalidate()}).
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der geladenen Tabellen und f(N) = 1, solange keine
+     * Tabelle ausgelagert werden muss.
+     *
+     * @param currentTableId Bezeichner der gerade abgerufenen Tabelle oder null
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Schreiben einer Tabelle
+     */
+    private synchronized void enforceBudget(String currentTableId) {
+        if (this.maxBytes == UNLIMITED) {
+            return;
+        }
+        Iterator<Map.Entry<String, Entry>> iterator = this.residentTables.entrySet().iterator();
+        while (this.residentBytes > this.maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Entry> resident = iterator.next();
+            String tableId = resident.getKey();
+            DBTable table = resident.getValue().table;
+            if (!tableId.equals(currentTableId) && !this.views.containsKey(tableId) && !table.isPinned()) {
+                long start = System.nanoTime();
+                Entry entry = resident.getValue();
+                entry.file = this.fileOf(tableId);
+                TableFile.write(table, entry.file);
+                iterator.remove();
+                this.residentBytes -= entry.bytes;
+                entry.bytes = 0;
+                entry.table = null;
+                entry.temporary = true;
+                table.invalidate();
+                this.numOfEvictions++;
+                this.evictionNanos += System.nanoTime() - start;
+            }
+        }
+    }
+
+    /**
+     * Bestimmt den Speicherbedarf einer geladenen Tabelle neu und passt die Summe über alle geladenen Tabellen an.
+     * Muss unter der Sperre der Datenbank aufgerufen werden.
+     *
+     * @param entry Eintrag einer geladenen Tabelle
+     */
+    private void refreshSize(Entry entry) {
+        long bytes = entry.table.getSizeInBytes();
+        this.residentBytes += bytes - entry.bytes;
+        entry.bytes = bytes;
+    }
+
+    /**
+     * Nimmt eine neu eingetragene Tabelle in die Liste der geladenen Tabellen auf, sofern sie nicht gleichzeitig wieder
+     * entfernt wurde, und hält das Budget ein.
+     *
+     * @param tableId Tabellenbezeichner
+     * @param entry   Eintrag der Tabelle im Katalog
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Auslagern einer Tabelle
+     */
+    private synchronized void makeResident(String tableId, Entry entry) {
+        if (this.catalog.get(tableId) == entry) {
+            this.residentTables.put(tableId, entry);
+            this.refreshSize(entry);
+            entry.table.setOperationLog(this.operationLog);
+            this.enforceBudget(tableId);
+        }
+    }
+
+    /**
+     * Prüft, ob die übergebenen Tabellen noch die geladenen Tabellen ihrer Einträge im Katalog sind. Muss unter der
+     * Sperre der Datenbank aufgerufen werden.
+     *
+     * @param tables Tabellen nach ihrem Bezeichner
+     *
+     * @return Angabe, ob keine der Tabellen inzwischen ausgelagert oder entfernt wurde
+     */
+    private boolean areResident(Map<String, DBTable> tables) {
+        for (Map.Entry<String, DBTable> table : tables.entrySet()) {
+            Entry entry = this.catalog.get(table.getKey());
+            if (entry == null || entry.table != table.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Trägt die Ergebnistabelle einer neuen Sicht in den Katalog ein. Muss unter der Sperre der Datenbank aufgerufen
+     * werden.
+     *
+     * @param name Bezeichner der Ergebnistabelle
+     * @param view Sicht
+     *
+     * @return Ergebnistabelle
+     *
+     * @throws IllegalStateException wenn gleichzeitig eine andere Tabelle unter dem Bezeichner eingefügt wurde
+     */
+    private DBTable registerView(String name, MaterializedView view) {
+        Entry entry = new Entry(view.getTable(), null);
+        if (!this.catalog.register(name, entry)) {
+            view.detach();
+            throw new IllegalStateException("table already exists: " + name);
+        }
+        this.views.put(name, view);
+        this.makeResident(name, entry);
+        return view.getTable();
+    }
+
+    /**
+     * Gibt die Ressourcen einer aus dem Katalog entfernten Tabelle frei: Sie wird aus der Liste der geladenen Tabellen
+     * entfernt, ihre Datei gelöscht, falls sie ausgelagert ist, und ihre Sicht abgemeldet, falls sie zu einer gehört.
+     *
+     * @param tableId Tabellenbezeichner
+     * @param entry   entfernter Eintrag der Tabelle
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Löschen der Datei
+     */
+    private synchronized void release(String tableId, Entry entry) {
+        if (this.residentTables.get(tableId) == entry) {
+            this.residentTables.remove(tableId);
+            this.residentBytes -= entry.bytes;
+            entry.bytes = 0;
+            entry.table.setOperationLog(null);
+        }
+        if (entry.temporary && entry.loading == null) {
+            deleteFile(entry.file);
+        }
+        MaterializedView view = this.views.get(tableId);
+        if (view != null && view.getTable() == entry.table) {
+            this.views.remove(tableId);
+            view.detach();
+        }
+    }
+
+    /**
+     * Liefert die Datei, in die die Tabelle mit dem übergebenen Bezeichner ausgelagert wird.
+     *
+     * @param tableId Tabellenbezeichner
+     *
+     * @return Datei der ausgelagerten Tabelle
+     */
+    private Path fileOf(String tableId) {
+        return this.directory.resolve(tableId + TABLE_FILE_SUFFIX);
+    }
+
+    /**
+     * Löscht die Datei einer ausgelagerten Tabelle.
+     *
+     * @param file Datei
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Löschen
+     */
+    private static void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -1,14 +1,42 @@
 package db;
 
 import util.Util;
+import db.cdc.ChangeFeed;
+import db.cdc.ChangeListener;
+import db.cdc.ChangeSubscription;
+import db.cdc.ChangeType;
+import db.explain.PlanNode;
+import db.explain.PlanSteps;
+import db.explain.QueryPlan;
+import db.index.BitmapIndex;
+import db.index.BloomFilter;
+import db.index.RoaringBitmap;
+import db.query.CompiledFilter;
+import db.query.QueryCompiler;
+import db.slowlog.OperationType;
+import db.slowlog.SlowOperation;
+import db.slowlog.SlowOperationLog;
+import db.spill.ExternalSort;
+import db.spill.GraceHashJoin;
+import db.spill.MemoryBudget;
+import db.storage.Column;
+import db.storage.StorageMode;
+import db.storage.ValueColumn;
 import db.value.Value;
 
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.BitSet;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Diese Klasse repräsentiert eine Datenbanktabelle.
@@ -17,41 +45,33 @@ import java.util.Objects;
  * {@link #compareTo(DBTable)} vergleichbar macht. Außerdem hat sie eine feste Spaltenanzahl, die ebenso wie die
  * Bezeichner der einzelnen Spalten und deren Reihenfolge bei der Erzeugung festgelegt werden. Sie verfügt über eine
  * flexible Anzahl von Zeilen, in denen jeweils genau so viele Werte ({@link Value}) stehen wie es Spalten gibt.
+ * <p>
+ * Die Werte werden spaltenweise ({@link Column}) gespeichert. Jede Zeile belegt in allen Spalten denselben Slot, die
+ * Slots entsprechen der Reihenfolge, in der die Zeilen angehängt wurden. Jede Spalte wählt ihre Darstellung anhand
+ * der gespeicherten Werte, Zeichenketten werden beispielsweise mit einem Wörterbuch komprimiert. Ob Spalten und
+ * Primärschlüsselindex auf dem Java-Heap oder außerhalb liegen, legt die {@link StorageMode Speicherart} fest.
+ * <p>
+ * Lagert eine {@link DB} die Tabelle aus, wird dieses Objekt ungültig: Jede Änderung über es wirft eine
+ * {@link IllegalStateException}, statt verloren zu gehen. Die Datenbank liefert danach ein neues Objekt.
  *
  * @author aan, avh, mhe, tti, TODO: Namen ergänzen
  */
-public final class DBTable implements Comparable<DBTable> {
-
-    /**
-     * Bezeichner dieser Tabelle
-     **/
-    private final String id;
-
-    /**
-     * Spaltenbezeichner des Primärschlüssels
-     */
-    private final String primaryKeyColId;
-
-    /**
-     * Spaltenbezeichner in der Reihenfolge der Tabelle
-     */
-    private final List<String> columnIds;
+public final class DBTable extends TableStorage implements Comparable<DBTable> {
 
     /**
-     * Zuordnung von Spaltenbezeichnern zu ihren Indizes
+     * Strom der Änderungen dieser Tabelle
      */
-    private final Map<String, Integer> columnIndexMap;
+    private final ChangeFeed changeFeed;
 
     /**
-     * Index des Primärschlüssels
+     * Materialisierte Sichten, die von den Änderungen dieser Tabelle abhängen
      */
-    private final int primaryKeyIndex;
+    private final List<MaterializedView> dependentViews;
 
     /**
-     * Zeilen dieser Tabelle, Schlüssel ist der Primärschlüsselwert
+     * Protokoll langsamer Operationen der Datenbank, zu der diese Tabelle gehört, oder null
      */
-    private final Map<Value, List<Value>> rows;
-
+    private volatile SlowOperationLog operationLog;
 
     /**
      * Konstruktor
@@ -69,183 +89,223 @@ public final class DBTable implements Comparable<DBTable> {
      * @pre Alle Bezeichner aus colIds müssen gemäß {@link Util#areValidIdentifiers(List)} gültig sein
      */
     public DBTable(String id, String primaryKeyColId, List<String> colIds) {
-        assert id != null : "id is null";
-        assert primaryKeyColId != null : "primaryKeyColId is null";
-        assert colIds != null : "colIds is null";
-
-        assert Util.isValidIdentifier(id) : "id is invalid";
-        assert Util.areValidIdentifiers(colIds) : "colIds contain invalid identifiers";
-        assert Util.areOnlyUniqueIdentifiers(colIds) : "colIds contain duplicates";
-        assert colIds.contains(primaryKeyColId) : "primary key not part of colIds";
-
-        this.id = id;
-        this.primaryKeyColId = primaryKeyColId;
-        this.columnIds = new ArrayList<>(colIds);
-        this.columnIndexMap = new HashMap<>();
-        for (int i = 0; i < this.columnIds.size(); i++) {
-            this.columnIndexMap.put(this.columnIds.get(i), i);
-        }
-        this.primaryKeyIndex = this.columnIndexMap.get(primaryKeyColId);
-        this.rows = new LinkedHashMap<>();
+        this(id, primaryKeyColId, colIds, StorageMode.HEAP);
     }
 
     /**
-     * Liefert den Bezeichner dieser Tabelle.
+     * Konstruktor für eine Tabelle mit der übergebenen Speicherart.
+     *
+     * @param id              Bezeichner dieser Tabelle
+     * @param primaryKeyColId Spaltenbezeichner des Primärschlüssels
+     * @param colIds          Spaltenbezeichner, in der Reihenfolge, in der sie in dieser Tabelle stehen sollen
+     * @param storageMode     Speicherart der Spalten und des Primärschlüsselindex
      *
-     * @return Bezeichner dieser Tabelle
+     * @pre id != null
+     * @pre primaryKeyColId != null
+     * @pre colIds != null
+     * @pre storageMode != null
+     * @pre id muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Tabellenbezeichner sein
+     * @pre primaryKeyColId muss in colIds enthalten sein
+     * @pre Alle Bezeichner aus colIds müssen gemäß {@link Util#areOnlyUniqueIdentifiers(List)} eindeutig sein
+     * @pre Alle Bezeichner aus colIds müssen gemäß {@link Util#areValidIdentifiers(List)} gültig sein
      */
-    public String getId() {
-        return this.id;
+    public DBTable(String id, String primaryKeyColId, List<String> colIds, StorageMode storageMode) {
+        super(id, primaryKeyColId, colIds, storageMode);
+        this.changeFeed = new ChangeFeed(id);
+        this.dependentViews = new ArrayList<>();
     }
 
     /**
-     * Liefert den Spaltenbezeichner des Primärschlüssels.
+     * Konstruktor für eine Projektion einer Tabelle der Speicherart {@link StorageMode#HEAP} oder
+     * {@link StorageMode#PERSISTENT}, die sich die selektierten Spalten und den Primärschlüsselindex mit der Quelle
+     * teilt. Persistente Spalten und Indizes werden geforkt. Auf dem Heap teilen sich beide Tabellen dieselben
+     * Objekte, bis eine von ihnen sie ändert und vorher kopiert (copy-on-write). Als gelöscht markierte Zeilen bleiben
+     * markiert; Bitmap-Indizes, Primärschlüsselfilter, Löschmodus, Abonnenten und Sichten werden nicht übernommen.
      *
-     * @return Spaltenbezeichner des Primärschlüssels
+     * @param source          Tabelle, die projiziert wird
+     * @param id              Bezeichner der Projektion
+     * @param selectedIndexes Indizes der selektierten Spalten der Quelle, einschließlich des Primärschlüssels
      */
-    public String getPrimaryKeyColumnId() {
-        return this.primaryKeyColId;
+    private DBTable(DBTable source, String id, int[] selectedIndexes) {
+        super(source, id, selectedIndexes);
+        this.changeFeed = new ChangeFeed(id);
+        this.dependentViews = new ArrayList<>();
     }
 
     /**
-     * Liefert die Spaltenanzahl dieser Tabelle.
+     * Liefert eine unabhängige Kopie dieser Tabelle mit allen Zeilen in ihrer Reihenfolge, derselben Speicherart,
+     * demselben Löschmodus und derselben Kompaktierungsschwelle. Bitmap-Indizes, Abonnenten des Änderungsstroms und
+     * materialisierte Sichten werden nicht übernommen. Änderungen der Kopie sind in dieser Tabelle nicht sichtbar und
+     * umgekehrt.
      * <p>
-     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Spaltenbezeichner dieser Tabelle und f(N) = 1.
+     * Bei der Speicherart {@link StorageMode#PERSISTENT} teilen sich beide Tabellen alle Daten; jede spätere Änderung
+     * kopiert nur die Knoten auf ihrem Pfad. Die Kopie entsteht dann in O(f(N)), dabei ist N = Anzahl der Zeilen und
+     * f(N) = 1 (zuzüglich der Anzahl der Spalten und der als gelöscht markierten Zeilen). Bei der Speicherart
+     * {@link StorageMode#HEAP} teilen sich beide Tabellen die Daten wie bei einer Projektion mit
+     * {@link #select(List, List, String)}, sofern keine Zeilen als gelöscht markiert sind. Sonst werden alle Zeilen
+     * kopiert, dann gilt f(N) = N.
+     *
+     * @param newTableId Bezeichner der Kopie
      *
-     * @return Spaltenanzahl dieser Tabelle
+     * @return Kopie dieser Tabelle
+     *
+     * @pre newTableId != null
+     * @pre newTableId muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Tabellenbezeichner sein
      */
-    public int getNumOfColumns() {
-        return this.columnIds.size();
+    public DBTable copy(String newTableId) {
+        assert newTableId != null : "newTableId is null";
+        assert Util.isValidIdentifier(newTableId) : "newTableId invalid";
+
+        DBTable copy = this.storageMode == StorageMode.PERSISTENT
+                ? new DBTable(this, newTableId, this.resolveColumns(this.columnIds))
+                : this.select(null, List.of(), newTableId);
+        copy.deletionMode = this.deletionMode;
+        copy.compactionThreshold = this.compactionThreshold;
+        return copy;
     }
 
     /**
-     * Liefert die Zeilenanzahl dieser Tabelle.
-     * <p>
-     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) = 1.
+     * Liefert eine Kopie dieser Tabelle mit demselben Bezeichner, die den aktuellen Stand festhält, etwa für
+     * Was-wäre-wenn-Berechnungen. Entspricht {@link #copy(String)} mit dem Bezeichner dieser Tabelle.
      *
-     * @return Zeilenanzahl dieser Tabelle
+     * @return Kopie dieser Tabelle
      */
-    public int getNumOfRows() {
-        return this.rows.size();
+    public DBTable snapshot() {
+        return this.copy(this.id);
     }
 
     /**
-     * Liefert alle Spaltenbezeichner dieser Tabelle. Die Reihenfolge entspricht dabei der Reihenfolge der Spalten in
-     * der Tabelle.
+     * Schreibt alle sichtbaren Zeilen dieser Tabelle im IPC-Dateiformat von Apache Arrow in die übergebene Datei,
+     * sodass andere Prozesse und Werkzeuge sie spaltenweise einlesen oder einblenden können. Eine vorhandene Datei wird
+     * ersetzt. Zahlen werden als Float64, Wahrheitswerte als Bool und Zeichenketten als Utf8 mit Wörterbuchkodierung
+     * gespeichert, fehlende Werte als null. Bezeichner und Primärschlüssel dieser Tabelle stehen in den Metadaten des
+     * Schemas.
      * <p>
-     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Spaltenbezeichner dieser Tabelle und f(N) = N.
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Zeilen dieser Tabelle und f(N) = N.
+     *
+     * @param file Datei
+     *
+     * @throws IllegalArgumentException wenn eine Spalte Werte unterschiedlicher Typen enthält
+     * @throws java.io.UncheckedIOException bei einem Fehler beim Schreiben
      *
-     * @return Spaltenbezeichner dieser Tabelle
+     * @pre file != null
      */
-    public List<String> getColumnIds() {
-        return new ArrayList<>(this.columnIds);
+    public void writeArrow(Path file) {
+        assert file != null : "file is null";
+        ArrowFile.write(this, file);
     }
 
     /**
-     * Liefert die Zeile mit dem übergebenen Primärschlüssel.
+     * Schreibt alle sichtbaren Zeilen dieser Tabelle wie {@link #writeArrow(Path)}, aber im IPC-Streamformat von
+     * Apache Arrow, etwa in eine Pipe oder einen Socket. Der Strom wird nicht geschlossen.
      * <p>
-     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) = 1.
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Zeilen dieser Tabelle und f(N) = N.
      *
-     * @param primaryKey Primärschlüssel
+     * @param out Strom
      *
-     * @return Zeile mit dem übergebenen Primärschlüssel oder null, wenn der Primärschlüssel nicht in dieser Tabelle
-     *         enthalten ist
+     * @throws IllegalArgumentException wenn eine Spalte Werte unterschiedlicher Typen enthält
+     * @throws java.io.UncheckedIOException bei einem Fehler beim Schreiben
      *
-     * @pre primaryKey != null
+     * @pre out != null
      */
-    public List<Value> getRowByPrimaryKey(Value primaryKey) {
-        assert primaryKey != null : "primaryKey is null";
-        return this.rows.get(primaryKey);
+    public void writeArrowStream(OutputStream out) {
+        assert out != null : "out is null";
+        ArrowFile.writeStream(this, out);
     }
 
     /**
-     * Liefert den Wert in der Zeile mit dem übergebenen Primärschlüssel, der in der Spalte mit dem übergebenen
-     * Spaltenbezeichner steht.
+     * Blendet eine Datei im IPC-Datei- oder Streamformat von Apache Arrow als Tabelle der Speicherart
+     * {@link StorageMode#HEAP} ein, siehe {@link #writeArrow(Path)}. Spalten vom Typ Float64, Bool und Utf8 mit
+     * Wörterbuchkodierung werden nicht kopiert, sondern direkt aus der eingeblendeten Datei gelesen und erst vor ihrer
+     * ersten Änderung auf den Java-Heap kopiert. Nur der Primärschlüsselindex wird beim Einlesen aufgebaut. Fehlen die
+     * Metadaten, ist die erste Spalte der Primärschlüssel und der Dateiname bis zum ersten Punkt der Bezeichner.
      * <p>
-     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) = 1.
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Zeilen in der Datei und f(N) = N.
      *
-     * @param primaryKey Primärschlüssel
-     * @param colId      Spaltenbezeichner
+     * @param file Datei
      *
-     * @return Wert der Zelle oder null, wenn der Primärschlüssel nicht in dieser Tabelle enthalten ist
+     * @return eingeblendete Tabelle
      *
-     * @pre primaryKey != null
-     * @pre colId != null
-     * @pre colId muss ein Spaltenbezeichner dieser Tabelle sein
-     * @pre colId muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Spaltenbezeichner sein
+     * @throws java.io.UncheckedIOException bei einem Fehler beim Lesen, wenn die Datei keine gültige Arrow-Datei ist
+     *                                      oder Typen, mehrere Record Batches, Delta-Wörterbücher oder Kompression
+     *                                      verwendet, die nicht unterstützt werden
+     *
+     * @pre file != null
      */
-    public Value getValueByPrimaryKey(Value primaryKey, String colId) {
-        assert primaryKey != null : "primaryKey is null";
-        assert colId != null : "colId is null";
-        Integer index = this.columnIndexMap.get(colId);
-        assert index != null : "colId not part of this table";
-
-        List<Value> row = this.getRowByPrimaryKey(primaryKey);
-        if (row == null) {
-            return null;
-        }
-        return row.get(index);
+    public static DBTable readArrow(Path file) {
+        assert file != null : "file is null";
+        return ArrowFile.read(file);
     }
 
     /**
-     * Prüft, ob diese Tabelle eine Spalte mit dem übergebenen Spaltenbezeichner hat.
-     * <p>
-     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Spaltenbezeichner dieser Tabelle und f(N) = 1.
+     * Erzeugt eine Tabelle der Speicherart {@link StorageMode#HEAP} aus fertigen Spalten, etwa aus einer eingeblendeten
+     * Datei. Die Spalten werden nicht kopiert, sondern wie Spalten behandelt, die sich die Tabelle mit einer anderen
+     * teilt, und erst vor ihrer ersten Änderung kopiert. Der Primärschlüsselindex wird aufgebaut.
      *
-     * @param colId Spaltenbezeichner, der geprüft wird
+     * @param id              Bezeichner der Tabelle
+     * @param primaryKeyColId Spaltenbezeichner des Primärschlüssels
+     * @param colIds          Spaltenbezeichner
+     * @param columns         Spalten in der Reihenfolge von colIds, alle mit derselben Anzahl von Slots
      *
-     * @return Angabe, ob diese Tabelle eine Spalte mit dem übergebenen Spaltenbezeichner hat
+     * @return neue Tabelle
      *
-     * @pre colId != null
-     * @pre colId muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Spaltenbezeichner sein
+     * @throws IllegalArgumentException wenn ein Primärschlüssel mehrfach vorkommt
      */
-    public boolean hasColumn(String colId) {
-        assert colId != null : "colId is null";
-        assert Util.isValidIdentifier(colId) : "invalid colId";
-        return this.columnIndexMap.containsKey(colId);
+    static DBTable ofColumns(String id, String primaryKeyColId, List<String> colIds, List<Column> columns) {
+        assert columns.size() == colIds.size() : "columns do not match colIds";
+
+        DBTable table = new DBTable(id, primaryKeyColId, colIds);
+        for (int i = 0; i < table.columns.length; i++) {
+            assert columns.get(i).size() == columns.get(0).size() : "column sizes differ";
+            if (columns.get(i).size() > 0) {
+                table.columns[i] = columns.get(i);
+                table.sharedColumns[i] = true;
+            }
+        }
+        Column keys = table.columns[table.primaryKeyIndex];
+        for (int slot = 0; slot < keys.size(); slot++) {
+            Value key = keys.get(slot);
+            if (table.primaryKeys.get(key) >= 0) {
+                throw new IllegalArgumentException("duplicate primary key " + key);
+            }
+            table.primaryKeys.put(key, slot);
+        }
+        return table;
     }
 
     /**
-     * Prüft, ob mindestens ein Spaltenbezeichner aus der übergebenen Liste ein Spaltenbezeichner dieser Tabelle ist.
-     * <p>
-     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Spaltenbezeichner der übergebenen Liste und f(N) =
-     * N.
+     * Meldet einen Empfänger für alle Änderungen dieser Tabelle durch {@link #appendRow(List)}, Aktualisierungen,
+     * Löschungen und {@link #removeAllRows()} mit den Standardwerten aus {@link ChangeFeed} an.
      *
-     * @param colIds Spaltenbezeichner, die geprüft werden
+     * @param listener Empfänger
      *
-     * @return Angabe, ob mindestens ein Element aus colIds vorhanden ist. false, wenn colIds leer ist.
+     * @return Abonnement
      *
-     * @pre colIds != null
+     * @pre listener != null
      */
-    public boolean hasAnyColumn(List<String> colIds) {
-        assert colIds != null : "colIds is null";
-        for (String colId : colIds) {
-            if (this.columnIndexMap.containsKey(colId)) {
-                return true;
-            }
-        }
-        return false;
+    public ChangeSubscription subscribeChanges(ChangeListener listener) {
+        return this.subscribeChanges(listener, ChangeFeed.DEFAULT_BATCH_SIZE, ChangeFeed.DEFAULT_MAX_LATENCY,
+                ChangeFeed.DEFAULT_CAPACITY);
     }
 
     /**
-     * Prüft, ob alle Spaltenbezeichner aus der übergebenen Liste Spaltenbezeichner dieser Tabelle sind.
-     * <p>
-     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Spaltenbezeichner dieser Tabelle und f(N) = N.
+     * Meldet einen Empfänger für alle Änderungen dieser Tabelle durch {@link #appendRow(List)}, Aktualisierungen,
+     * Löschungen und {@link #removeAllRows()} an. Die ändernden Operationen warten nie auf den Empfänger, siehe
+     * {@link ChangeSubscription}.
      *
-     * @param colIds Spaltenbezeichner, die geprüft werden
+     * @param listener   Empfänger
+     * @param batchSize  maximale Anzahl von Änderungen pro Block
+     * @param maxLatency maximale Zeit, die eine Änderung auf die Zustellung in einem unvollständigen Block wartet
+     * @param capacity   Anzahl der Änderungen, die gepuffert werden, bevor weitere verworfen werden
      *
-     * @return Angabe, ob alle Elemente aus colIds vorhanden sind. true, wenn colIds leer ist.
+     * @return Abonnement
      *
-     * @pre colIds != null
+     * @pre siehe {@link ChangeFeed#subscribe(ChangeListener, int, Duration, int)}
      */
-    public boolean hasAllColumns(List<String> colIds) {
-        assert colIds != null : "colIds is null";
-        for (String colId : colIds) {
-            if (!this.columnIndexMap.containsKey(colId)) {
-                return false;
-            }
-        }
-        return true;
+    public ChangeSubscription subscribeChanges(ChangeListener listener, int batchSize, Duration maxLatency,
+            int capacity) {
+        this.checkNotEvicted();
+        return this.changeFeed.subscribe(listener, batchSize, maxLatency, capacity);
     }
 
     /**
@@ -266,19 +326,40 @@ public final class DBTable implements Comparable<DBTable> {
         assert row != null : "row is null";
         assert row.size() == this.getNumOfColumns() : "row size does not match column count";
 
+        this.checkNotEvicted();
         Value primaryKey = row.get(this.primaryKeyIndex);
-        if (this.rows.containsKey(primaryKey)) {
+        if (this.slotOf(primaryKey) >= 0) {
             return this;
         }
 
-        List<Value> storedRow = new ArrayList<>(row);
-        this.rows.put(primaryKey, storedRow);
+        int slot = this.getNumOfSlots();
+        for (int i = 0; i < this.columns.length; i++) {
+            this.columnAccepting(i, row.get(i)).append(row.get(i));
+            if (this.bitmapIndexes[i] != null) {
+                this.bitmapIndexes[i].add(row.get(i), slot);
+            }
+        }
+        this.writablePrimaryKeys().put(primaryKey, slot);
+        if (this.primaryKeyFilter != null) {
+            if (this.primaryKeyFilter.isFull()) {
+                this.rebuildPrimaryKeyFilter(2 * this.primaryKeyFilter.getCapacity());
+            } else {
+                this.primaryKeyFilter.add(primaryKey);
+            }
+        }
+        if (this.isObserved()) {
+            this.publish(ChangeType.APPEND, primaryKey, null, row);
+        }
         return this;
     }
 
     /**
      * Entfernt alle Zeilen aus dieser Tabelle, bei denen die übergebene Bedingung erfüllt ist.
      * <p>
+     * Im Löschmodus {@link DeletionMode#DEFERRED} werden die Zeilen nur als gelöscht markiert und sind danach für alle
+     * lesenden Operationen unsichtbar. Überschreitet der Anteil markierter Zeilen den Schwellwert
+     * ({@link #setCompactionThreshold(double)}), wird die Tabelle kompaktiert.
+     * <p>
      * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) = N.
      *
      * @param whereParam Bedingung
@@ -292,16 +373,127 @@ public final class DBTable implements Comparable<DBTable> {
         assert whereParam != null : "whereParam is null";
         assert this.columnIndexMap.containsKey(whereParam.colId()) : "colId not part of table";
 
-        int colIndex = this.columnIndexMap.get(whereParam.colId());
-        var iterator = this.rows.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<Value, List<Value>> entry = iterator.next();
-            Value value = entry.getValue().get(colIndex);
-            if (whereParam.predicate().test(value)) {
-                iterator.remove();
+        this.executeRemove(this.columnIndexMap.get(whereParam.colId()), whereParam.predicate());
+        return this;
+    }
+
+    /**
+     * Bereitet das Entfernen von Zeilen mit einer Bedingung auf der übergebenen Spalte vor. Der Spaltenbezeichner wird
+     * nur einmal geprüft und aufgelöst, die Bedingung erst bei jeder Ausführung übergeben.
+     *
+     * @param whereColId Spaltenbezeichner, auf den sich die Bedingung bezieht
+     *
+     * @return wiederverwendbare Anweisung, die wie {@link #removeRows(WhereParameter)} arbeitet
+     *
+     * @pre whereColId != null
+     * @pre whereColId muss ein Spaltenbezeichner dieser Tabelle sein
+     */
+    public PreparedRemove prepareRemove(String whereColId) {
+        assert whereColId != null : "whereColId is null";
+        assert this.columnIndexMap.containsKey(whereColId) : "whereColId not part of table";
+        return new PreparedRemove(this, this.columnIndexMap.get(whereColId));
+    }
+
+    /**
+     * Entfernt alle Zeilen, bei denen die übergebene Bedingung auf der Spalte mit dem übergebenen Index erfüllt ist,
+     * gemäß dem Löschmodus dieser Tabelle.
+     *
+     * @param whereColumn Index der Spalte, auf die sich die Bedingung bezieht
+     * @param predicate   Bedingung
+     */
+    void executeRemove(int whereColumn, Predicate<Value> predicate) {
+        this.executeRemove(whereColumn, predicate, null);
+    }
+
+    /**
+     * Entfernt Zeilen wie {@link #executeRemove(int, Predicate)}, zeichnet die Operation im Protokoll langsamer
+     * Operationen auf und hängt die ausgeführten Schritte mit Messwerten an den übergebenen Schritt an.
+     *
+     * @param whereColumn Index der Spalte, auf die sich die Bedingung bezieht
+     * @param predicate   Bedingung
+     * @param trace       Schritt, an den die ausgeführten Schritte angehängt werden, oder null
+     *
+     * @return Slots der entfernten Zeilen vor dem Entfernen
+     *
+     * @throws IllegalStateException wenn die Tabelle ausgelagert wurde
+     */
+    private BitSet executeRemove(int whereColumn, Predicate<Value> predicate, PlanNode trace) {
+        this.checkNotEvicted();
+        SlowOperationLog log = this.operationLog;
+        if (log == null) {
+            return this.removeMatching(whereColumn, predicate, trace);
+        }
+        int rowsScanned = this.getNumOfRows();
+        long start = System.nanoTime();
+        BitSet removed = this.removeMatching(whereColumn, predicate, trace);
+        this.logOperation(log, OperationType.REMOVE_ROWS, start, List.of(this.id), new int[0],
+                new int[] {whereColumn}, List.of(predicate), rowsScanned, removed.cardinality());
+        return removed;
+    }
+
+    /**
+     * Entfernt alle Zeilen, bei denen die übergebene Bedingung erfüllt ist, und hängt die ausgeführten Schritte mit
+     * Messwerten an den übergebenen Schritt an.
+     *
+     * @param whereColumn Index der Spalte, auf die sich die Bedingung bezieht
+     * @param predicate   Bedingung
+     * @param trace       Schritt, an den die ausgeführten Schritte angehängt werden, oder null
+     *
+     * @return Slots der entfernten Zeilen vor dem Entfernen
+     */
+    private BitSet removeMatching(int whereColumn, Predicate<Value> predicate, PlanNode trace) {
+        PlanNode filter = PlanSteps.begin(trace, PlanNode.FILTER, PlanSteps.ALL_CONDITIONS);
+        BitSet removed = this.matchAll(new int[] {whereColumn}, List.of(predicate), filter);
+        PlanSteps.end(filter, this.getNumOfRows(), PlanSteps.count(filter, removed), -1);
+        PlanNode remove = PlanSteps.begin(trace, PlanNode.REMOVE, this.deletionMode.name());
+        if (!removed.isEmpty()) {
+            this.removeMatches(removed);
+        }
+        PlanSteps.end(remove, PlanSteps.count(remove, removed), PlanSteps.count(remove, removed), -1);
+        return removed;
+    }
+
+    /**
+     * Entfernt die Zeile mit dem übergebenen Primärschlüssel gemäß dem Löschmodus dieser Tabelle. Existiert keine
+     * solche Zeile, passiert nichts.
+     *
+     * @param primaryKey Primärschlüssel der Zeile
+     *
+     * @throws IllegalStateException wenn die Tabelle ausgelagert wurde
+     */
+    void removeRow(Value primaryKey) {
+        this.checkNotEvicted();
+        int slot = this.slotOf(primaryKey);
+        if (slot >= 0) {
+            BitSet removed = new BitSet();
+            removed.set(slot);
+            this.removeMatches(removed);
+        }
+    }
+
+    /**
+     * Entfernt die Zeilen in den übergebenen Slots gemäß dem Löschmodus dieser Tabelle und meldet sie zuvor als
+     * entfernt.
+     *
+     * @param removed Slots sichtbarer Zeilen, nicht leer
+     */
+    private void removeMatches(BitSet removed) {
+        if (this.isObserved()) {
+            for (int slot = removed.nextSetBit(0); slot >= 0; slot = removed.nextSetBit(slot + 1)) {
+                List<Value> before = this.getRow(slot);
+                this.publish(ChangeType.REMOVE, before.get(this.primaryKeyIndex), before, null);
+            }
+        }
+
+        if (this.deletionMode == DeletionMode.IMMEDIATE) {
+            this.removeSlots(removed);
+        } else {
+            this.deadSlots.or(removed);
+            this.numOfDeadSlots += removed.cardinality();
+            if (this.numOfDeadSlots > this.compactionThreshold * this.getNumOfSlots()) {
+                this.compact();
             }
         }
-        return this;
     }
 
     /**
@@ -310,7 +502,35 @@ public final class DBTable implements Comparable<DBTable> {
      * @post Diese Tabelle enthält keine Zeilen
      */
     public void removeAllRows() {
-        this.rows.clear();
+        this.checkNotEvicted();
+        for (int i = 0; i < this.columns.length; i++) {
+            if (this.sharedColumns[i]) {
+                this.columns[i] = new ValueColumn();
+                this.sharedColumns[i] = false;
+            } else {
+                this.columns[i].clear();
+            }
+        }
+        for (BitmapIndex index : this.bitmapIndexes) {
+            if (index != null) {
+                index.clear();
+            }
+        }
+        if (this.primaryKeyFilter != null) {
+            this.primaryKeyFilter.clear();
+        }
+        if (this.sharedPrimaryKeys) {
+            this.primaryKeys = this.storageMode.createPrimaryKeyIndex(slot -> this.columns[this.primaryKeyIndex]
+                    .get(slot));
+            this.sharedPrimaryKeys = false;
+        } else {
+            this.primaryKeys.clear();
+        }
+        this.deadSlots.clear();
+        this.numOfDeadSlots = 0;
+        if (this.isObserved()) {
+            this.publish(ChangeType.REMOVE_ALL, null, null, null);
+        }
     }
 
     /**
@@ -322,7 +542,12 @@ public final class DBTable implements Comparable<DBTable> {
      * übernommen.
      * <p>
      * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Spaltenbezeichner dieser Tabelle und f(N) =
-     * N + R, wobei R = Anzahl der vorhandenen Zeilen in dieser Tabelle.
+     * N + R, wobei R = Anzahl der vorhandenen Zeilen in dieser Tabelle. Wird ohne Bedingung selektiert (Projektion),
+     * sind keine Zeilen als gelöscht markiert und liegen die Spalten nicht außerhalb des Heaps
+     * ({@link StorageMode#OFF_HEAP}), teilt sich die neue Tabelle die selektierten Spalten und den
+     * Primärschlüsselindex mit dieser Tabelle, nur die Spaltenpositionen werden neu zugeordnet. Ändert eine der beiden
+     * Tabellen später eine geteilte Spalte oder den Index, kopiert sie diese vorher (copy-on-write). Dann gilt
+     * f(N) = N.
      *
      * @param colIds      Spaltenbezeichner der Spalten, die selektiert werden sollen oder null, wenn alle Spalten
      *                    selektiert werden sollen
@@ -345,46 +570,168 @@ public final class DBTable implements Comparable<DBTable> {
         assert newTableId != null : "newTableId is null";
         assert Util.isValidIdentifier(newTableId) : "newTableId invalid";
 
-        List<String> selectedCols;
-        if (colIds == null) {
-            selectedCols = new ArrayList<>(this.columnIds);
-        } else {
-            assert Util.areOnlyUniqueIdentifiers(colIds) : "colIds not unique";
-            assert this.hasAllColumns(colIds) : "colIds not part of table";
-            assert colIds.contains(this.primaryKeyColId) : "primary key missing";
-            selectedCols = new ArrayList<>(colIds);
-        }
-
-        DBTable newTable = new DBTable(newTableId, this.primaryKeyColId, selectedCols);
-
-        boolean hasConditions = !whereParams.isEmpty();
-        for (Map.Entry<Value, List<Value>> entry : this.rows.entrySet()) {
-            List<Value> row = entry.getValue();
-
-            boolean matches = !hasConditions;
-            if (hasConditions) {
-                for (WhereParameter where : whereParams) {
-                    assert this.columnIndexMap.containsKey(where.colId()) : "where column missing";
-                    Value value = row.get(this.columnIndexMap.get(where.colId()));
-                    if (where.predicate().test(value)) {
-                        matches = true;
-                        break;
-                    }
-                }
-            }
+        return this.executeSelect(this.resolveColumns(this.selectedColumnIds(colIds)),
+                this.resolveWhereColumns(whereParams), predicatesOf(whereParams), newTableId);
+    }
 
-            if (matches) {
-                List<Value> newRow = new ArrayList<>();
-                for (String colId : selectedCols) {
-                    newRow.add(row.get(this.columnIndexMap.get(colId)));
-                }
-                newTable.appendRow(newRow);
+    /**
+     * Bereitet eine Selektion mit den übergebenen Spalten und Bedingungsspalten vor. Spaltenbezeichner und
+     * Tabellenbezeichner werden nur einmal geprüft und aufgelöst, die Bedingungen erst bei jeder Ausführung
+     * übergeben.
+     *
+     * @param colIds      Spaltenbezeichner der Spalten, die selektiert werden sollen oder null, wenn alle Spalten
+     *                    selektiert werden sollen
+     * @param whereColIds Spaltenbezeichner, auf die sich die Bedingungen beziehen, in der Reihenfolge der Bedingungen
+     * @param newTableId  Bezeichner der Tabellen, die erzeugt werden
+     *
+     * @return wiederverwendbare Anweisung, die wie {@link #select(List, List, String)} arbeitet
+     *
+     * @pre whereColIds != null
+     * @pre newTableId != null
+     * @pre newTableId muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Tabellenbezeichner sein
+     * @pre Wenn colIds nicht null, müssen alle Bezeichner aus colIds gemäß
+     *         {@link Util#areOnlyUniqueIdentifiers(List)} eindeutig sein
+     * @pre Wenn colIds nicht null, müssen alle Bezeichner aus colIds Spaltenbezeichner dieser Tabelle sein
+     * @pre Wenn colIds nicht null, muss der Spaltenbezeichner des Primärschlüssels enthalten sein
+     * @pre Alle Bezeichner aus whereColIds müssen Spaltenbezeichner dieser Tabelle sein
+     */
+    public PreparedSelect prepareSelect(List<String> colIds, List<String> whereColIds, String newTableId) {
+        assert whereColIds != null : "whereColIds is null";
+        assert newTableId != null : "newTableId is null";
+        assert Util.isValidIdentifier(newTableId) : "newTableId invalid";
+        assert this.hasAllColumns(whereColIds) : "whereColIds not part of table";
+
+        return new PreparedSelect(this, this.resolveColumns(this.selectedColumnIds(colIds)),
+                this.resolveColumns(whereColIds), newTableId);
+    }
+
+    /**
+     * Erstellt eine neue Tabelle aus den Werten der Spalten mit den übergebenen Indizes in allen Zeilen, in denen
+     * mindestens eine der Bedingungen erfüllt ist.
+     *
+     * @param selectedIndexes Indizes der selektierten Spalten
+     * @param whereColumns    Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates      Bedingungen in der Reihenfolge von whereColumns
+     * @param newTableId      Bezeichner der Tabelle, die erzeugt wird
+     *
+     * @return Tabelle mit allen selektierten Spalten
+     */
+    DBTable executeSelect(int[] selectedIndexes, int[] whereColumns, List<Predicate<Value>> predicates,
+            String newTableId) {
+        return this.executeSelect(selectedIndexes, whereColumns, predicates, newTableId, () -> false);
+    }
+
+    /**
+     * Erstellt eine neue Tabelle wie {@link #executeSelect(int[], int[], List, String)} und bricht ab, sobald
+     * cancelled true liefert. Geprüft wird vor dem Auswerten der Bedingungen und danach regelmäßig beim Auswerten und
+     * beim Übernehmen der Zeilen, jeweils nach {@link Column#CANCELLATION_CHECK_INTERVAL} Zeilen.
+     *
+     * @param selectedIndexes Indizes der selektierten Spalten
+     * @param whereColumns    Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates      Bedingungen in der Reihenfolge von whereColumns
+     * @param newTableId      Bezeichner der Tabelle, die erzeugt wird
+     * @param cancelled       Angabe, ob die Operation abgebrochen wurde
+     *
+     * @return Tabelle mit allen selektierten Spalten
+     *
+     * @throws CancellationException wenn die Operation abgebrochen wurde
+     */
+    DBTable executeSelect(int[] selectedIndexes, int[] whereColumns, List<Predicate<Value>> predicates,
+            String newTableId, BooleanSupplier cancelled) {
+        SlowOperationLog log = this.operationLog;
+        if (log == null) {
+            return this.executeSelect(selectedIndexes, whereColumns, predicates, newTableId, cancelled, null);
+        }
+        int rowsScanned = this.getNumOfRows();
+        long start = System.nanoTime();
+        DBTable result = this.executeSelect(selectedIndexes, whereColumns, predicates, newTableId, cancelled, null);
+        this.logOperation(log, OperationType.SELECT, start, List.of(this.id), selectedIndexes, whereColumns,
+                predicates, rowsScanned, result.getNumOfRows());
+        return result;
+    }
+
+    /**
+     * Erstellt eine neue Tabelle wie {@link #executeSelect(int[], int[], List, String, BooleanSupplier)} und hängt die
+     * ausgeführten Schritte mit Messwerten an den übergebenen Schritt an.
+     *
+     * @param selectedIndexes Indizes der selektierten Spalten
+     * @param whereColumns    Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates      Bedingungen in der Reihenfolge von whereColumns
+     * @param newTableId      Bezeichner der Tabelle, die erzeugt wird
+     * @param cancelled       Angabe, ob die Operation abgebrochen wurde
+     * @param trace           Schritt, an den die ausgeführten Schritte angehängt werden, oder null
+     *
+     * @return Tabelle mit allen selektierten Spalten
+     *
+     * @throws CancellationException wenn die Operation abgebrochen wurde
+     */
+    private DBTable executeSelect(int[] selectedIndexes, int[] whereColumns, List<Predicate<Value>> predicates,
+            String newTableId, BooleanSupplier cancelled, PlanNode trace) {
+        List<String> selectedCols = new ArrayList<>(selectedIndexes.length);
+        for (int index : selectedIndexes) {
+            selectedCols.add(this.columnIds.get(index));
+        }
+        Column.checkCancelled(cancelled);
+        if (this.sharesData(predicates)) {
+            PlanNode fork = PlanSteps.begin(trace, PlanNode.FORK, newTableId);
+            DBTable copy = new DBTable(this, newTableId, selectedIndexes);
+            PlanSteps.end(fork, this.getNumOfRows(), copy.getNumOfRows(), -1);
+            return copy;
+        }
+        DBTable newTable = new DBTable(newTableId, this.primaryKeyColId, selectedCols, this.storageMode);
+
+        PlanNode filter = PlanSteps.begin(trace, PlanNode.FILTER,
+                predicates.isEmpty() ? PlanSteps.ALL_ROWS : PlanSteps.ANY_CONDITION);
+        BitSet matches = predicates.isEmpty() ? this.liveSlots()
+                : this.matchAny(whereColumns, predicates, cancelled, filter);
+        PlanSteps.end(filter, this.getNumOfRows(), PlanSteps.count(filter, matches), -1);
+        PlanNode materialize = PlanSteps.begin(trace, PlanNode.MATERIALIZE, newTableId);
+        int count = 0;
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            count++;
+            if (count % Column.CANCELLATION_CHECK_INTERVAL == 0) {
+                Column.checkCancelled(cancelled);
             }
+            newTable.appendRow(this.getRow(slot, selectedIndexes));
         }
+        PlanSteps.end(materialize, count, newTable.getNumOfRows(), -1);
 
         return newTable;
     }
 
+    /**
+     * Liefert die Slots aller Zeilen, in denen mindestens eine der Bedingungen erfüllt ist, oder aller Zeilen, wenn
+     * keine Bedingung übergeben wurde. Die Auswertung bricht ab, sobald cancelled true liefert; geprüft wird nach
+     * jeweils {@link Column#CANCELLATION_CHECK_INTERVAL} Zeilen.
+     *
+     * @param whereColumns Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates   Bedingungen in der Reihenfolge von whereColumns
+     * @param cancelled    Angabe, ob die Auswertung abgebrochen wurde
+     *
+     * @return Slots der passenden Zeilen
+     *
+     * @throws CancellationException wenn die Auswertung abgebrochen wurde
+     */
+    BitSet matchingSlots(int[] whereColumns, List<Predicate<Value>> predicates, BooleanSupplier cancelled) {
+        return predicates.isEmpty() ? this.liveSlots() : this.matchAny(whereColumns, predicates, cancelled, null);
+    }
+
+    /**
+     * Liefert die Werte der Spalten mit den übergebenen Indizes im übergebenen Slot.
+     *
+     * @param slot            Slot
+     * @param selectedIndexes Indizes der Spalten
+     *
+     * @return neue Liste mit den Werten in der Reihenfolge von selectedIndexes
+     */
+    List<Value> getRow(int slot, int[] selectedIndexes) {
+        List<Value> row = new ArrayList<>(selectedIndexes.length);
+        for (int index : selectedIndexes) {
+            row.add(this.columns[index].get(slot));
+        }
+        return row;
+    }
+
     /**
      * Aktualisiert Werte in der Spalte mit dem übergebenen Spaltenbezeichner.
      * <p>
@@ -414,30 +761,148 @@ public final class DBTable implements Comparable<DBTable> {
         assert this.columnIndexMap.containsKey(colId) : "colId not part of table";
         assert !this.primaryKeyColId.equals(colId) : "colId is primary key";
 
-        int targetIndex = this.columnIndexMap.get(colId);
-        boolean hasConditions = !whereParams.isEmpty();
-
-        for (Map.Entry<Value, List<Value>> entry : this.rows.entrySet()) {
-            List<Value> row = entry.getValue();
-
-            boolean matches = true;
-            if (hasConditions) {
-                for (WhereParameter where : whereParams) {
-                    assert this.columnIndexMap.containsKey(where.colId()) : "where column missing";
-                    Value value = row.get(this.columnIndexMap.get(where.colId()));
-                    if (!where.predicate().test(value)) {
-                        matches = false;
-                        break;
-                    }
+        this.executeUpdate(this.columnIndexMap.get(colId), newValue, this.resolveWhereColumns(whereParams),
+                predicatesOf(whereParams));
+        return this;
+    }
+
+    /**
+     * Bereitet eine Aktualisierung der übergebenen Spalte mit Bedingungen auf den übergebenen Spalten vor. Die
+     * Spaltenbezeichner werden nur einmal geprüft und aufgelöst, neuer Wert und Bedingungen erst bei jeder Ausführung
+     * übergeben.
+     *
+     * @param colId       Spaltenbezeichner der Spalte, in der Werte aktualisiert werden sollen
+     * @param whereColIds Spaltenbezeichner, auf die sich die Bedingungen beziehen, in der Reihenfolge der Bedingungen
+     *
+     * @return wiederverwendbare Anweisung, die wie {@link #update(String, Value, List)} arbeitet
+     *
+     * @pre colId != null
+     * @pre whereColIds != null
+     * @pre colId muss ein Spaltenbezeichner dieser Tabelle sein
+     * @pre colId darf nicht der Spaltenbezeichner des Primärschlüssels sein
+     * @pre Alle Bezeichner aus whereColIds müssen Spaltenbezeichner dieser Tabelle sein
+     */
+    public PreparedUpdate prepareUpdate(String colId, List<String> whereColIds) {
+        assert colId != null : "colId is null";
+        assert whereColIds != null : "whereColIds is null";
+        assert this.columnIndexMap.containsKey(colId) : "colId not part of table";
+        assert !this.primaryKeyColId.equals(colId) : "colId is primary key";
+        assert this.hasAllColumns(whereColIds) : "whereColIds not part of table";
+        return new PreparedUpdate(this, this.columnIndexMap.get(colId), this.resolveColumns(whereColIds));
+    }
+
+    /**
+     * Setzt den übergebenen Wert in der Spalte mit dem übergebenen Index in allen Zeilen, in denen alle Bedingungen
+     * erfüllt sind.
+     *
+     * @param targetIndex  Index der Spalte, in der der Wert aktualisiert wird
+     * @param newValue     neuer Wert
+     * @param whereColumns Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates   Bedingungen in der Reihenfolge von whereColumns
+     */
+    void executeUpdate(int targetIndex, Value newValue, int[] whereColumns, List<Predicate<Value>> predicates) {
+        this.executeUpdate(targetIndex, newValue, whereColumns, predicates, null);
+    }
+
+    /**
+     * Aktualisiert Werte wie {@link #executeUpdate(int, Value, int[], List)}, zeichnet die Operation im Protokoll
+     * langsamer Operationen auf und hängt die ausgeführten Schritte mit Messwerten an den übergebenen Schritt an.
+     *
+     * @param targetIndex  Index der Spalte, in der der Wert aktualisiert wird
+     * @param newValue     neuer Wert
+     * @param whereColumns Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates   Bedingungen in der Reihenfolge von whereColumns
+     * @param trace        Schritt, an den die ausgeführten Schritte angehängt werden, oder null
+     *
+     * @return Slots der aktualisierten Zeilen
+     *
+     * @throws IllegalStateException wenn die Tabelle ausgelagert wurde
+     */
+    private BitSet executeUpdate(int targetIndex, Value newValue, int[] whereColumns, List<Predicate<Value>> predicates,
+            PlanNode trace) {
+        this.checkNotEvicted();
+        SlowOperationLog log = this.operationLog;
+        if (log == null) {
+            return this.updateMatching(targetIndex, newValue, whereColumns, predicates, trace);
+        }
+        int rowsScanned = this.getNumOfRows();
+        long start = System.nanoTime();
+        BitSet matches = this.updateMatching(targetIndex, newValue, whereColumns, predicates, trace);
+        this.logOperation(log, OperationType.UPDATE, start, List.of(this.id), new int[] {targetIndex}, whereColumns,
+                predicates, rowsScanned, matches.cardinality());
+        return matches;
+    }
+
+    /**
+     * Setzt den übergebenen Wert in allen Zeilen, in denen alle Bedingungen erfüllt sind, und hängt die ausgeführten
+     * Schritte mit Messwerten an den übergebenen Schritt an.
+     *
+     * @param targetIndex  Index der Spalte, in der der Wert aktualisiert wird
+     * @param newValue     neuer Wert
+     * @param whereColumns Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates   Bedingungen in der Reihenfolge von whereColumns
+     * @param trace        Schritt, an den die ausgeführten Schritte angehängt werden, oder null
+     *
+     * @return Slots der aktualisierten Zeilen
+     */
+    private BitSet updateMatching(int targetIndex, Value newValue, int[] whereColumns,
+            List<Predicate<Value>> predicates, PlanNode trace) {
+        PlanNode filter = PlanSteps.begin(trace, PlanNode.FILTER,
+                predicates.isEmpty() ? PlanSteps.ALL_ROWS : PlanSteps.ALL_CONDITIONS);
+        BitSet matches = this.matchAll(whereColumns, predicates, filter);
+        PlanSteps.end(filter, this.getNumOfRows(), PlanSteps.count(filter, matches), -1);
+        PlanNode write = PlanSteps.begin(trace, PlanNode.WRITE, this.columnIds.get(targetIndex));
+        if (!matches.isEmpty()) {
+            Column target = this.columnAccepting(targetIndex, newValue);
+            BitmapIndex index = this.bitmapIndexes[targetIndex];
+            boolean publish = this.isObserved();
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                List<Value> before = publish ? this.getRow(slot) : null;
+                if (index != null) {
+                    index.remove(target.get(slot), slot);
+                    index.add(newValue, slot);
+                }
+                target.set(slot, newValue);
+                if (publish) {
+                    List<Value> after = new ArrayList<>(before);
+                    after.set(targetIndex, newValue);
+                    this.publish(ChangeType.UPDATE, before.get(this.primaryKeyIndex), before, after);
                 }
             }
+        }
+        PlanSteps.end(write, PlanSteps.count(write, matches), PlanSteps.count(write, matches), -1);
+        return matches;
+    }
 
-            if (matches) {
-                row.set(targetIndex, newValue);
+    /**
+     * Ersetzt die Werte der Zeile, die denselben Primärschlüssel wie die übergebene Zeile hat, durch die Werte der
+     * übergebenen Zeile. Existiert keine solche Zeile, passiert nichts.
+     *
+     * @param row neue Werte der Zeile in der Reihenfolge der Spalten
+     *
+     * @throws IllegalStateException wenn die Tabelle ausgelagert wurde
+     */
+    void replaceRow(List<Value> row) {
+        this.checkNotEvicted();
+        int slot = this.slotOf(row.get(this.primaryKeyIndex));
+        if (slot < 0) {
+            return;
+        }
+        List<Value> before = this.getRow(slot);
+        for (int i = 0; i < this.columns.length; i++) {
+            Value newValue = row.get(i);
+            if (!before.get(i).equals(newValue)) {
+                Column target = this.columnAccepting(i, newValue);
+                if (this.bitmapIndexes[i] != null) {
+                    this.bitmapIndexes[i].remove(before.get(i), slot);
+                    this.bitmapIndexes[i].add(newValue, slot);
+                }
+                target.set(slot, newValue);
             }
         }
-
-        return this;
+        if (this.isObserved()) {
+            this.publish(ChangeType.UPDATE, before.get(this.primaryKeyIndex), before, new ArrayList<>(row));
+        }
     }
 
 
@@ -472,6 +937,52 @@ public final class DBTable implements Comparable<DBTable> {
      * @pre newTableId muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Tabellenbezeichner sein
      */
     public DBTable equijoin(DBTable other, String fkColId, String newTableId) {
+        return this.equijoin(other, fkColId, newTableId, () -> false);
+    }
+
+    /**
+     * Verbindet diese Tabelle wie {@link #equijoin(DBTable, String, String)} mit einer anderen und bricht ab, sobald
+     * cancelled true liefert. Geprüft wird regelmäßig beim Durchlaufen der Zeilen dieser Tabelle.
+     *
+     * @param other      Tabelle, deren Primärschlüssel referenziert wird
+     * @param fkColId    Spaltenbezeichner des Fremdschlüssels in dieser Tabelle
+     * @param newTableId Bezeichner der Tabelle, die erzeugt wird
+     * @param cancelled  Angabe, ob die Operation abgebrochen wurde
+     *
+     * @return neue Tabelle mit den verbundenen Zeilen
+     *
+     * @throws CancellationException wenn die Operation abgebrochen wurde
+     */
+    DBTable equijoin(DBTable other, String fkColId, String newTableId, BooleanSupplier cancelled) {
+        SlowOperationLog log = this.operationLog;
+        if (log == null) {
+            return this.equijoin(other, fkColId, newTableId, cancelled, null);
+        }
+        int rowsScanned = this.getNumOfRows();
+        long start = System.nanoTime();
+        DBTable result = this.equijoin(other, fkColId, newTableId, cancelled, null);
+        this.logOperation(log, OperationType.EQUIJOIN, start, List.of(this.id, other.id),
+                new int[] {this.getColumnIndex(fkColId)}, new int[0], List.of(), rowsScanned, result.getNumOfRows());
+        return result;
+    }
+
+    /**
+     * Verbindet diese Tabelle wie {@link #equijoin(DBTable, String, String, BooleanSupplier)} mit einer anderen und
+     * hängt die ausgeführten Schritte mit Messwerten an den übergebenen Schritt an. Da die Schritte abwechselnd pro
+     * Zeile ausgeführt werden, wird ihre Dauer nicht einzeln erfasst.
+     *
+     * @param other      Tabelle, deren Primärschlüssel referenziert wird
+     * @param fkColId    Spaltenbezeichner des Fremdschlüssels in dieser Tabelle
+     * @param newTableId Bezeichner der Tabelle, die erzeugt wird
+     * @param cancelled  Angabe, ob die Operation abgebrochen wurde
+     * @param trace      Schritt, an den die ausgeführten Schritte angehängt werden, oder null
+     *
+     * @return neue Tabelle mit den verbundenen Zeilen
+     *
+     * @throws CancellationException wenn die Operation abgebrochen wurde
+     */
+    private DBTable equijoin(DBTable other, String fkColId, String newTableId, BooleanSupplier cancelled,
+            PlanNode trace) {
         assert other != null : "other is null";
         assert fkColId != null : "fkColId is null";
         assert newTableId != null : "newTableId is null";
@@ -494,50 +1005,453 @@ public final class DBTable implements Comparable<DBTable> {
             }
         }
 
-        DBTable newTable = new DBTable(newTableId, newPrimaryKey, newColIds);
+        DBTable newTable = new DBTable(newTableId, newPrimaryKey, newColIds, this.storageMode);
 
         int fkIndex = this.columnIndexMap.get(fkColId);
-        int otherPkIndex = other.columnIndexMap.get(other.primaryKeyColId);
-
-        for (Map.Entry<Value, List<Value>> entry : this.rows.entrySet()) {
-            List<Value> thisRow = entry.getValue();
-            Value fkValue = thisRow.get(fkIndex);
-            List<Value> otherRow = other.getRowByPrimaryKey(fkValue);
-            if (otherRow == null) {
-                continue;
-            }
 
-            List<Value> newRow = new ArrayList<>();
-            for (int i = 0; i < this.columnIds.size(); i++) {
-                if (i == fkIndex) {
-                    continue;
-                }
-                newRow.add(thisRow.get(i));
+        BitSet slots = this.liveSlots();
+        int count = 0;
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            count++;
+            if (count % Column.CANCELLATION_CHECK_INTERVAL == 0) {
+                Column.checkCancelled(cancelled);
             }
-            for (int i = 0; i < other.columnIds.size(); i++) {
-                if (i == otherPkIndex) {
-                    continue;
-                }
-                newRow.add(otherRow.get(i));
+            int otherSlot = other.slotOf(this.columns[fkIndex].get(slot));
+            if (otherSlot >= 0) {
+                newTable.appendRow(this.joinedRow(slot, fkIndex, other, otherSlot));
             }
-
-            newTable.appendRow(newRow);
         }
 
+        if (trace != null) {
+            int joined = newTable.getNumOfRows();
+            PlanSteps.planEquijoin(trace, this.id, other.id + "." + other.primaryKeyColId, newTableId);
+            trace.getChildren().get(0).setRows(count, count);
+            trace.getChildren().get(1).setRows(count, joined);
+            trace.getChildren().get(1).setChecks(count);
+            trace.getChildren().get(2).setRows(joined, joined);
+        }
         return newTable;
     }
 
     /**
-     * Liefert eine tabellarische Übersicht dieser Tabelle.
+     * Verbindet diese Tabelle wie {@link #equijoin(DBTable, String, String)} mit einer anderen, übergibt die
+     * verbundenen Zeilen aber der Reihe nach an die übergebene Aktion, statt eine Tabelle daraus aufzubauen. Da die
+     * passende Zeile der übergebenen Tabelle über deren Primärschlüsselindex gefunden wird, benötigt der Join selbst
+     * keinen zusätzlichen Speicher, auch nicht für große Ergebnisse.
      * <p>
-     * Die Stringrepräsentation besteht aus dem Tabellenbezeichner, dem Spaltenbezeichner des Primärschlüssels sowie
-     * einer tabellarischen Übersicht des Tabelleninhalts. Dabei erfolgt die Repräsentation der Spalten blockweise in
-     * der Reihenfolge, wie sie in der Tabelle stehen.
-     * <ul>
-     * <li>In der ersten Zeile steht "Tabellenbezeichner: " gefolgt von dem Bezeichner der Tabelle.</li>
-     * <li>In der zweiten Zeile steht "Primärschlüssel: " gefolgt von dem Spaltenbezeichner des Primärschlüssels.</li>
-     * <li>Die dritte Zeile ist eine Leerzeile.</li>
-     * <li>Anschließend folgt der Tabelleninhalt nach folgendem Schema:
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Zeilen dieser Tabelle und f(N) = N.
+     *
+     * @param other   Tabelle, deren Primärschlüssel referenziert wird
+     * @param fkColId Spaltenbezeichner des Fremdschlüssels in dieser Tabelle
+     * @param action  Aktion, die für jede verbundene Zeile in der Spaltenreihenfolge von
+     *                {@link #equijoin(DBTable, String, String)} ausgeführt wird und keine der Tabellen ändern darf
+     *
+     * @pre other != null
+     * @pre fkColId != null
+     * @pre action != null
+     * @pre fkColId darf nicht der Spaltenbezeichner des Primärschlüssels dieser Tabelle sein
+     * @pre fkColId muss ein Spaltenbezeichner dieser Tabelle sein
+     */
+    public void equijoinRows(DBTable other, String fkColId, Consumer<List<Value>> action) {
+        assert other != null : "other is null";
+        assert fkColId != null : "fkColId is null";
+        assert action != null : "action is null";
+        assert !fkColId.equals(this.primaryKeyColId) : "fkColId is primary key";
+        assert this.columnIndexMap.containsKey(fkColId) : "fkColId missing";
+
+        int fkIndex = this.columnIndexMap.get(fkColId);
+        BitSet slots = this.liveSlots();
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            int otherSlot = other.slotOf(this.columns[fkIndex].get(slot));
+            if (otherSlot >= 0) {
+                action.accept(this.joinedRow(slot, fkIndex, other, otherSlot));
+            }
+        }
+    }
+
+    /**
+     * Liefert eine neue Tabelle mit den Zeilen dieser Tabelle, deren Fremdschlüssel einen Primärschlüssel der
+     * übergebenen Tabelle referenziert (Semi-Join). Die neue Tabelle hat dieselben Spalten, denselben Primärschlüssel
+     * und dieselbe Speicherart wie diese Tabelle, es bleibt die Reihenfolge der Zeilen erhalten.
+     * <p>
+     * Hat die übergebene Tabelle einen Bloom-Filter über ihre Primärschlüssel
+     * ({@link #createPrimaryKeyFilter()}), wird er vor ihrem Primärschlüsselindex befragt.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Zeilen dieser Tabelle und f(N) = N.
+     *
+     * @param other      Tabelle, deren Primärschlüssel referenziert wird
+     * @param fkColId    Spaltenbezeichner des Fremdschlüssels dieser Tabelle
+     * @param newTableId Tabellenbezeichner der Tabelle, die erzeugt wird
+     *
+     * @return neu erzeugte Tabelle
+     *
+     * @pre other != null
+     * @pre fkColId != null
+     * @pre newTableId != null
+     * @pre fkColId darf nicht der Spaltenbezeichner des Primärschlüssels dieser Tabelle sein
+     * @pre fkColId muss ein Spaltenbezeichner dieser Tabelle sein
+     * @pre newTableId muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Tabellenbezeichner sein
+     */
+    public DBTable semijoin(DBTable other, String fkColId, String newTableId) {
+        return this.filterByReference(other, fkColId, newTableId, true);
+    }
+
+    /**
+     * Liefert eine neue Tabelle mit den Zeilen dieser Tabelle, deren Fremdschlüssel keinen Primärschlüssel der
+     * übergebenen Tabelle referenziert (Anti-Join), etwa um verwaiste Zeilen zu finden. Aufbau der neuen Tabelle und
+     * Verwendung des Bloom-Filters wie bei {@link #semijoin(DBTable, String, String)}.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Zeilen dieser Tabelle und f(N) = N.
+     *
+     * @param other      Tabelle, deren Primärschlüssel referenziert wird
+     * @param fkColId    Spaltenbezeichner des Fremdschlüssels dieser Tabelle
+     * @param newTableId Tabellenbezeichner der Tabelle, die erzeugt wird
+     *
+     * @return neu erzeugte Tabelle
+     *
+     * @pre siehe {@link #semijoin(DBTable, String, String)}
+     */
+    public DBTable antijoin(DBTable other, String fkColId, String newTableId) {
+        return this.filterByReference(other, fkColId, newTableId, false);
+    }
+
+    /**
+     * Liefert eine neue Tabelle mit den Zeilen dieser Tabelle, deren Fremdschlüssel genau dann einen Primärschlüssel
+     * der übergebenen Tabelle referenziert, wenn matching true ist.
+     *
+     * @param other      Tabelle, deren Primärschlüssel referenziert wird
+     * @param fkColId    Spaltenbezeichner des Fremdschlüssels dieser Tabelle
+     * @param newTableId Tabellenbezeichner der Tabelle, die erzeugt wird
+     * @param matching   true für einen Semi-Join, false für einen Anti-Join
+     *
+     * @return neu erzeugte Tabelle
+     */
+    private DBTable filterByReference(DBTable other, String fkColId, String newTableId, boolean matching) {
+        assert other != null : "other is null";
+        assert fkColId != null : "fkColId is null";
+        assert newTableId != null : "newTableId is null";
+
+        assert !fkColId.equals(this.primaryKeyColId) : "fkColId is primary key";
+        assert this.columnIndexMap.containsKey(fkColId) : "fkColId missing";
+        assert Util.isValidIdentifier(newTableId) : "newTableId invalid";
+
+        SlowOperationLog log = this.operationLog;
+        int rowsScanned = this.getNumOfRows();
+        long start = log == null ? 0 : System.nanoTime();
+
+        int fkIndex = this.columnIndexMap.get(fkColId);
+        Column foreignKeys = this.columns[fkIndex];
+        BloomFilter filter = other.primaryKeyFilter;
+        DBTable newTable = new DBTable(newTableId, this.primaryKeyColId, this.columnIds, this.storageMode);
+        BitSet slots = this.liveSlots();
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            Value foreignKey = foreignKeys.get(slot);
+            boolean found = (filter == null || filter.mightContain(foreignKey)) && other.slotOf(foreignKey) >= 0;
+            if (found == matching) {
+                newTable.appendRow(this.getRow(slot));
+            }
+        }
+
+        if (log != null) {
+            this.logOperation(log, matching ? OperationType.SEMIJOIN : OperationType.ANTIJOIN, start,
+                    List.of(this.id, other.id), new int[] {fkIndex}, new int[0], List.of(), rowsScanned,
+                    newTable.getNumOfRows());
+        }
+        return newTable;
+    }
+
+    /**
+     * Verbindet die Zeilen dieser Tabelle mit den Zeilen der übergebenen Tabelle, deren Wert in otherColId gleich dem
+     * Wert in colId ist (Inner Join), mit begrenztem Speicher ({@link GraceHashJoin}). Die Hashtabelle wird über die
+     * Tabelle mit weniger Zeilen aufgebaut. Passt sie nicht in das Budget, werden beide Tabellen partitioniert in
+     * temporäre Dateien ausgelagert und partitionsweise verbunden.
+     * <p>
+     * Jede verbundene Zeile besteht aus allen Werten der Zeile dieser Tabelle, gefolgt von allen Werten der Zeile der
+     * übergebenen Tabelle. Ohne Auslagern werden die Zeilen in der Reihenfolge der größeren Tabelle geliefert, sonst
+     * partitionsweise.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Zeilen beider Tabellen und des Ergebnisses und
+     * f(N) = N.
+     *
+     * @param other      Tabelle, die mit dieser Tabelle verbunden werden soll
+     * @param colId      Spaltenbezeichner dieser Tabelle
+     * @param otherColId Spaltenbezeichner der übergebenen Tabelle
+     * @param budget     Speicherbudget für die Hashtabelle
+     * @param action     Aktion, die für jede verbundene Zeile ausgeführt wird und keine der Tabellen ändern darf
+     *
+     * @pre other != null
+     * @pre colId != null
+     * @pre otherColId != null
+     * @pre budget != null
+     * @pre action != null
+     * @pre colId muss ein Spaltenbezeichner dieser Tabelle sein
+     * @pre otherColId muss ein Spaltenbezeichner der übergebenen Tabelle sein
+     */
+    public void hashJoinRows(DBTable other, String colId, String otherColId, MemoryBudget budget,
+            Consumer<List<Value>> action) {
+        assert other != null : "other is null";
+        assert colId != null : "colId is null";
+        assert otherColId != null : "otherColId is null";
+        assert budget != null : "budget is null";
+        assert action != null : "action is null";
+        assert this.columnIndexMap.containsKey(colId) : "colId not part of table";
+        assert other.columnIndexMap.containsKey(otherColId) : "otherColId not part of other table";
+
+        boolean buildOther = other.getNumOfRows() <= this.getNumOfRows();
+        DBTable build = buildOther ? other : this;
+        DBTable probe = buildOther ? this : other;
+        int buildIndex = build.columnIndexMap.get(buildOther ? otherColId : colId);
+        int probeIndex = probe.columnIndexMap.get(buildOther ? colId : otherColId);
+
+        try (GraceHashJoin join = new GraceHashJoin(budget)) {
+            build.forEachRow(row -> join.build(row.get(buildIndex), row));
+            BiConsumer<List<Value>, List<Value>> emit = (probeRow, buildRow) -> {
+                List<Value> joined = new ArrayList<>(probeRow.size() + buildRow.size());
+                joined.addAll(buildOther ? probeRow : buildRow);
+                joined.addAll(buildOther ? buildRow : probeRow);
+                action.accept(joined);
+            };
+            probe.forEachRow(row -> join.probe(row.get(probeIndex), row, emit));
+            join.finish(emit);
+        }
+    }
+
+    /**
+     * Übergibt alle Zeilen dieser Tabelle aufsteigend sortiert nach den Werten der übergebenen Spalten an die
+     * übergebene Aktion, mit begrenztem Speicher ({@link ExternalSort}). Zeilen mit gleichen Werten behalten ihre
+     * Reihenfolge. Werte werden gemäß {@link ExternalSort#compareValues(Value, Value)} verglichen.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) =
+     * N * log(N).
+     *
+     * @param sortColIds Spaltenbezeichner, nach denen sortiert wird, in absteigender Priorität
+     * @param budget     Speicherbudget für die Zeilen im Speicher
+     * @param action     Aktion, die für jede Zeile ausgeführt wird
+     *
+     * @pre sortColIds != null
+     * @pre budget != null
+     * @pre action != null
+     * @pre Alle Bezeichner aus sortColIds müssen Spaltenbezeichner dieser Tabelle sein
+     */
+    public void sortedRows(List<String> sortColIds, MemoryBudget budget, Consumer<List<Value>> action) {
+        assert sortColIds != null : "sortColIds is null";
+        assert budget != null : "budget is null";
+        assert action != null : "action is null";
+        assert this.hasAllColumns(sortColIds) : "sortColIds not part of table";
+
+        try (ExternalSort sort = new ExternalSort(ExternalSort.byColumns(this.resolveColumns(sortColIds)), budget)) {
+            this.forEachRow(sort::add);
+            sort.finish(action);
+        }
+    }
+
+    /**
+     * Führt einen Hash Join dieser Tabelle mit der übergebenen Tabelle über beliebige Spalten beider Tabellen durch.
+     * <p>
+     * Die Hashtabelle wird über die Tabelle mit weniger Zeilen aufgebaut, die Reihenfolge der Zeilen dieser Tabelle
+     * bleibt erhalten. Die Spaltenbezeichner des Ergebnisses folgen dem Schema von
+     * {@link #equijoin(DBTable, String, String)}, es bleiben jedoch beide Join-Spalten erhalten. Ergebnis und
+     * Primärschlüssel sind in {@link HashJoin} beschrieben, dort lassen sich auch mehr als zwei Tabellen verknüpfen.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Zeilen beider Tabellen und des Ergebnisses und
+     * f(N) = N.
+     *
+     * @param other      Tabelle, die mit dieser Tabelle gejoint werden soll
+     * @param colId      Spaltenbezeichner dieser Tabelle
+     * @param otherColId Spaltenbezeichner der übergebenen Tabelle
+     * @param joinType   Art des Joins
+     * @param newTableId Tabellenbezeichner der Tabelle, die erzeugt wird
+     *
+     * @return neu erzeugte Tabelle
+     *
+     * @pre other != null
+     * @pre colId != null
+     * @pre otherColId != null
+     * @pre joinType != null
+     * @pre newTableId != null
+     * @pre colId muss ein Spaltenbezeichner dieser Tabelle sein
+     * @pre otherColId muss ein Spaltenbezeichner der übergebenen Tabelle sein
+     * @pre Die Bezeichner beider Tabellen müssen sich unterscheiden
+     * @pre newTableId muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Tabellenbezeichner sein
+     */
+    public DBTable hashJoin(DBTable other, String colId, String otherColId, JoinType joinType, String newTableId) {
+        return new HashJoin(this).join(this, colId, other, otherColId, joinType).execute(newTableId);
+    }
+
+    /**
+     * Liefert den Ausführungsplan einer Selektion mit denselben Parametern wie
+     * {@link #select(List, List, String)}.
+     * <p>
+     * Ist analyze false, wird die Selektion nicht ausgeführt (EXPLAIN) und der Plan beschreibt, wie sie ausgeführt
+     * würde: welche Bedingungen über einen Bitmap-Index, gemeinsam übersetzt oder spaltenweise ausgewertet werden. Ist
+     * analyze true, wird sie ausgeführt (EXPLAIN ANALYZE), die Schritte enthalten Messwerte und
+     * {@link QueryPlan#getResult()} liefert die neue Tabelle.
+     * <p>
+     * Diese Methode arbeitet ohne analyze in O(f(N)), dabei ist N = Anzahl der Spaltenbezeichner dieser Tabelle und
+     * f(N) = N, mit analyze wie {@link #select(List, List, String)}.
+     *
+     * @param colIds      Spaltenbezeichner der Spalten, die selektiert werden sollen oder null, wenn alle Spalten
+     *                    selektiert werden sollen
+     * @param whereParams Bedingungen
+     * @param newTableId  Bezeichner der Tabelle, die erzeugt wird
+     * @param analyze     Angabe, ob die Selektion ausgeführt und gemessen wird
+     *
+     * @return Ausführungsplan
+     *
+     * @pre Die Vorbedingungen von {@link #select(List, List, String)} müssen erfüllt sein
+     */
+    public QueryPlan explainSelect(List<String> colIds, List<WhereParameter> whereParams, String newTableId,
+            boolean analyze) {
+        assert whereParams != null : "whereParams is null";
+        assert newTableId != null : "newTableId is null";
+        assert Util.isValidIdentifier(newTableId) : "newTableId invalid";
+
+        int[] selectedIndexes = this.resolveColumns(this.selectedColumnIds(colIds));
+        int[] whereColumns = this.resolveWhereColumns(whereParams);
+        List<Predicate<Value>> predicates = predicatesOf(whereParams);
+        PlanNode root = new PlanNode(PlanNode.SELECT, this.id + " -> " + newTableId);
+        if (!analyze) {
+            if (this.sharesData(predicates)) {
+                root.addChild(PlanNode.FORK, newTableId);
+            } else {
+                PlanNode filter = root.addChild(PlanNode.FILTER,
+                        predicates.isEmpty() ? PlanSteps.ALL_ROWS : PlanSteps.ANY_CONDITION);
+                PlanSteps.planFilter(filter, this.columnIds, this.columns, this.bitmapIndexes, whereColumns,
+                        predicates);
+                root.addChild(PlanNode.MATERIALIZE, newTableId);
+            }
+            return new QueryPlan(root, null);
+        }
+
+        int rowsIn = this.getNumOfRows();
+        root.start();
+        DBTable result = this.executeSelect(selectedIndexes, whereColumns, predicates, newTableId, () -> false, root);
+        PlanSteps.finish(root, rowsIn);
+        return new QueryPlan(root, result);
+    }
+
+    /**
+     * Liefert den Ausführungsplan einer Aktualisierung mit denselben Parametern wie
+     * {@link #update(String, Value, List)}. Ist analyze true, wird die Aktualisierung ausgeführt und gemessen, sonst
+     * nur beschrieben (siehe {@link #explainSelect(List, List, String, boolean)}).
+     * <p>
+     * Diese Methode arbeitet ohne analyze in O(f(N)), dabei ist N = Anzahl der Bedingungen und f(N) = N, mit analyze
+     * wie {@link #update(String, Value, List)}.
+     *
+     * @param colId       Spaltenbezeichner der Spalte, in der der Wert aktualisiert werden soll
+     * @param newValue    Neuer Wert
+     * @param whereParams Bedingungen
+     * @param analyze     Angabe, ob die Aktualisierung ausgeführt und gemessen wird
+     *
+     * @return Ausführungsplan, bei analyze mit dieser Tabelle als Ergebnis
+     *
+     * @pre Die Vorbedingungen von {@link #update(String, Value, List)} müssen erfüllt sein
+     */
+    public QueryPlan explainUpdate(String colId, Value newValue, List<WhereParameter> whereParams, boolean analyze) {
+        assert colId != null : "colId is null";
+        assert newValue != null : "newValue is null";
+        assert whereParams != null : "whereParams is null";
+        assert this.columnIndexMap.containsKey(colId) : "colId not part of table";
+        assert !this.primaryKeyColId.equals(colId) : "colId is primary key";
+
+        int[] whereColumns = this.resolveWhereColumns(whereParams);
+        List<Predicate<Value>> predicates = predicatesOf(whereParams);
+        PlanNode root = new PlanNode(PlanNode.UPDATE, this.id + "." + colId + " = " + newValue);
+        if (!analyze) {
+            PlanNode filter = root.addChild(PlanNode.FILTER,
+                    predicates.isEmpty() ? PlanSteps.ALL_ROWS : PlanSteps.ALL_CONDITIONS);
+            PlanSteps.planFilter(filter, this.columnIds, this.columns, this.bitmapIndexes, whereColumns, predicates);
+            root.addChild(PlanNode.WRITE, colId);
+            return new QueryPlan(root, null);
+        }
+
+        int rowsIn = this.getNumOfRows();
+        root.start();
+        this.executeUpdate(this.columnIndexMap.get(colId), newValue, whereColumns, predicates, root);
+        PlanSteps.finish(root, rowsIn);
+        return new QueryPlan(root, this);
+    }
+
+    /**
+     * Liefert den Ausführungsplan des Entfernens von Zeilen mit derselben Bedingung wie
+     * {@link #removeRows(WhereParameter)}. Ist analyze true, werden die Zeilen entfernt und das Entfernen gemessen,
+     * sonst nur beschrieben (siehe {@link #explainSelect(List, List, String, boolean)}).
+     * <p>
+     * Diese Methode arbeitet ohne analyze in O(1), mit analyze wie {@link #removeRows(WhereParameter)}.
+     *
+     * @param whereParam Bedingung
+     * @param analyze    Angabe, ob die Zeilen entfernt werden und das Entfernen gemessen wird
+     *
+     * @return Ausführungsplan, bei analyze mit dieser Tabelle als Ergebnis
+     *
+     * @pre Die Vorbedingungen von {@link #removeRows(WhereParameter)} müssen erfüllt sein
+     */
+    public QueryPlan explainRemoveRows(WhereParameter whereParam, boolean analyze) {
+        assert whereParam != null : "whereParam is null";
+        assert this.columnIndexMap.containsKey(whereParam.colId()) : "colId not part of table";
+
+        int whereColumn = this.columnIndexMap.get(whereParam.colId());
+        PlanNode root = new PlanNode(PlanNode.REMOVE_ROWS, this.id);
+        if (!analyze) {
+            PlanSteps.planFilter(root.addChild(PlanNode.FILTER, PlanSteps.ALL_CONDITIONS), this.columnIds, this.columns,
+                    this.bitmapIndexes, new int[] {whereColumn}, List.of(whereParam.predicate()));
+            root.addChild(PlanNode.REMOVE, this.deletionMode.name());
+            return new QueryPlan(root, null);
+        }
+
+        int rowsIn = this.getNumOfRows();
+        root.start();
+        this.executeRemove(whereColumn, whereParam.predicate(), root);
+        PlanSteps.finish(root, rowsIn);
+        return new QueryPlan(root, this);
+    }
+
+    /**
+     * Liefert den Ausführungsplan eines Joins mit denselben Parametern wie {@link #equijoin(DBTable, String, String)}.
+     * Ist analyze true, wird der Join ausgeführt und gemessen, sonst nur beschrieben (siehe
+     * {@link #explainSelect(List, List, String, boolean)}).
+     * <p>
+     * Diese Methode arbeitet ohne analyze in O(1), mit analyze wie {@link #equijoin(DBTable, String, String)}.
+     *
+     * @param other      Tabelle, die mit dieser Tabelle gejoint werden soll
+     * @param fkColId    Spaltenbezeichner des Fremdschlüssels dieser Tabelle
+     * @param newTableId Tabellenbezeichner der Tabelle, die erzeugt wird
+     * @param analyze    Angabe, ob der Join ausgeführt und gemessen wird
+     *
+     * @return Ausführungsplan
+     *
+     * @pre Die Vorbedingungen von {@link #equijoin(DBTable, String, String)} müssen erfüllt sein
+     */
+    public QueryPlan explainEquijoin(DBTable other, String fkColId, String newTableId, boolean analyze) {
+        assert other != null : "other is null";
+        assert fkColId != null : "fkColId is null";
+        assert newTableId != null : "newTableId is null";
+
+        PlanNode root = new PlanNode(PlanNode.EQUIJOIN,
+                this.id + "." + fkColId + " = " + other.id + "." + other.primaryKeyColId);
+        if (!analyze) {
+            PlanSteps.planEquijoin(root, this.id, other.id + "." + other.primaryKeyColId, newTableId);
+            return new QueryPlan(root, null);
+        }
+
+        int rowsIn = this.getNumOfRows();
+        root.start();
+        DBTable result = this.equijoin(other, fkColId, newTableId, () -> false, root);
+        PlanSteps.finish(root, rowsIn);
+        return new QueryPlan(root, result);
+    }
+
+    /**
+     * Liefert eine tabellarische Übersicht dieser Tabelle.
+     * <p>
+     * Die Stringrepräsentation besteht aus dem Tabellenbezeichner, dem Spaltenbezeichner des Primärschlüssels sowie
+     * einer tabellarischen Übersicht des Tabelleninhalts. Dabei erfolgt die Repräsentation der Spalten blockweise in
+     * der Reihenfolge, wie sie in der Tabelle stehen.
+     * <ul>
+     * <li>In der ersten Zeile steht "Tabellenbezeichner: " gefolgt von dem Bezeichner der Tabelle.</li>
+     * <li>In der zweiten Zeile steht "Primärschlüssel: " gefolgt von dem Spaltenbezeichner des Primärschlüssels.</li>
+     * <li>Die dritte Zeile ist eine Leerzeile.</li>
+     * <li>Anschließend folgt der Tabelleninhalt nach folgendem Schema:
      * <ul>
      * <li>Ein Feld hat immer die Breite des längsten Eintrages, der in der jeweiligen Spalte vorkommt.
      * Dabei ist der Inhalt </li>
@@ -575,6 +1489,24 @@ public final class DBTable implements Comparable<DBTable> {
      */
     @Override
     public String toString() {
+        SlowOperationLog log = this.operationLog;
+        if (log == null) {
+            return this.render();
+        }
+        int rowsScanned = this.getNumOfRows();
+        long start = System.nanoTime();
+        String result = this.render();
+        this.logOperation(log, OperationType.TO_STRING, start, List.of(this.id), new int[0], new int[0], List.of(),
+                rowsScanned, rowsScanned);
+        return result;
+    }
+
+    /**
+     * Erzeugt die Stringrepräsentation dieser Tabelle gemäß {@link #toString()}.
+     *
+     * @return Stringrepräsentation dieser Tabelle
+     */
+    private String render() {
         StringBuilder builder = new StringBuilder();
         builder.append("Tabellenbezeichner: ").append(this.id).append('\n');
         builder.append("Primärschlüssel: ").append(this.primaryKeyColId).append('\n');
@@ -586,9 +1518,10 @@ public final class DBTable implements Comparable<DBTable> {
             widths[i] = this.columnIds.get(i).length();
         }
 
-        for (List<Value> row : this.rows.values()) {
+        BitSet slots = this.liveSlots();
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
             for (int i = 0; i < columnCount; i++) {
-                String valueStr = sanitizeValue(row.get(i).toString());
+                String valueStr = sanitizeValue(this.columns[i].getAsDisplayString(slot));
                 if (valueStr.length() > widths[i]) {
                     widths[i] = valueStr.length();
                 }
@@ -598,10 +1531,10 @@ public final class DBTable implements Comparable<DBTable> {
         builder.append(formatRow(this.columnIds, widths)).append('\n');
         builder.append(formatSeparator(widths)).append('\n');
 
-        for (List<Value> row : this.rows.values()) {
-            List<String> values = new ArrayList<>();
-            for (Value value : row) {
-                values.add(sanitizeValue(value.toString()));
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            List<String> values = new ArrayList<>(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                values.add(sanitizeValue(this.columns[i].getAsDisplayString(slot)));
             }
             builder.append(formatRow(values, widths)).append('\n');
         }
@@ -609,6 +1542,300 @@ public final class DBTable implements Comparable<DBTable> {
         return builder.toString();
     }
 
+    /**
+     * Liefert die Zeile im übergebenen Slot verbunden mit der Zeile im Slot otherSlot der übergebenen Tabelle, ohne
+     * den Fremdschlüssel dieser und den Primärschlüssel der anderen Tabelle.
+     *
+     * @param slot      Slot der Zeile dieser Tabelle
+     * @param fkIndex   Index des Fremdschlüssels in dieser Tabelle
+     * @param other     Tabelle, deren Primärschlüssel referenziert wird
+     * @param otherSlot Slot der referenzierten Zeile
+     *
+     * @return neue verbundene Zeile
+     */
+    private List<Value> joinedRow(int slot, int fkIndex, DBTable other, int otherSlot) {
+        List<Value> row = new ArrayList<>(this.columns.length + other.columns.length - 2);
+        for (int i = 0; i < this.columns.length; i++) {
+            if (i != fkIndex) {
+                row.add(this.columns[i].get(slot));
+            }
+        }
+        for (int i = 0; i < other.columns.length; i++) {
+            if (i != other.primaryKeyIndex) {
+                row.add(other.columns[i].get(otherSlot));
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Liefert die Slots aller Zeilen, in denen mindestens eine der übergebenen Bedingungen erfüllt ist.
+     * <p>
+     * Bedingungen auf Spalten mit verwendbarem Bitmap-Index werden zuerst und nur über die Indizes ausgewertet. Die
+     * übrigen Bedingungen werden danach nur noch für Zeilen geprüft, die bisher keine Bedingung erfüllen, übersetzbare
+     * Bedingungen gemeinsam ({@link #compileFilter(List, int[], List, boolean)}).
+     *
+     * @param whereColumns Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates   Bedingungen in der Reihenfolge von whereColumns
+     * @param cancelled    Angabe, ob die Auswertung abgebrochen wurde
+     * @param trace        Schritt, an den die ausgeführten Teilschritte mit Messwerten angehängt werden, oder null
+     *
+     * @return neue Menge der passenden Slots
+     *
+     * @throws CancellationException wenn die Auswertung abgebrochen wurde
+     */
+    private BitSet matchAny(int[] whereColumns, List<Predicate<Value>> predicates, BooleanSupplier cancelled,
+            PlanNode trace) {
+        RoaringBitmap indexed = new RoaringBitmap();
+        List<Integer> scanned = new ArrayList<>();
+        for (int i = 0; i < whereColumns.length; i++) {
+            BitmapIndex index = this.bitmapIndexes[whereColumns[i]];
+            if (index != null && index.isUsable()) {
+                PlanNode step = PlanSteps.begin(trace, PlanNode.INDEX_SCAN, this.columnIds, this.columns,
+                        whereColumns, predicates, List.of(i));
+                RoaringBitmap slots = index.match(predicates.get(i));
+                indexed = indexed.or(slots);
+                PlanSteps.end(step, this.getNumOfRows(), slots.cardinality(), 0);
+            } else {
+                scanned.add(i);
+            }
+        }
+
+        BitSet matches = indexed.toBitSet();
+        matches.andNot(this.deadSlots);
+        if (!scanned.isEmpty()) {
+            BitSet remaining = this.liveSlots();
+            remaining.andNot(matches);
+            List<Integer> compiledPositions = trace == null ? null : new ArrayList<>(scanned);
+            CompiledFilter compiled = this.compileFilter(scanned, whereColumns, predicates, false);
+            if (compiled != null) {
+                if (trace != null) {
+                    compiledPositions.removeAll(scanned);
+                }
+                PlanNode step = PlanSteps.begin(trace, PlanNode.COMPILED_FILTER, this.columnIds, this.columns,
+                        whereColumns, predicates, compiledPositions);
+                BitSet found = compiled.filter(this.columns, remaining, cancelled);
+                PlanSteps.endScan(step, remaining, found);
+                matches.or(found);
+                remaining.andNot(matches);
+            }
+            for (int i : scanned) {
+                PlanNode step = PlanSteps.begin(trace, PlanNode.COLUMN_SCAN, this.columnIds, this.columns,
+                        whereColumns, predicates, List.of(i));
+                BitSet found = this.columns[whereColumns[i]].match(predicates.get(i), remaining, cancelled);
+                PlanSteps.endScan(step, remaining, found);
+                matches.or(found);
+                remaining.andNot(matches);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Liefert die Slots aller Zeilen, in denen alle übergebenen Bedingungen erfüllt sind.
+     * <p>
+     * Bedingungen auf Spalten mit verwendbarem Bitmap-Index werden zuerst und nur über die Indizes ausgewertet. Die
+     * übrigen Bedingungen werden danach nur noch für Zeilen geprüft, die alle bisherigen Bedingungen erfüllen,
+     * übersetzbare Bedingungen gemeinsam ({@link #compileFilter(List, int[], List, boolean)}).
+     *
+     * @param whereColumns Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates   Bedingungen in der Reihenfolge von whereColumns
+     * @param trace        Schritt, an den die ausgeführten Teilschritte mit Messwerten angehängt werden, oder null
+     *
+     * @return neue Menge der passenden Slots
+     */
+    private BitSet matchAll(int[] whereColumns, List<Predicate<Value>> predicates, PlanNode trace) {
+        RoaringBitmap indexed = null;
+        List<Integer> scanned = new ArrayList<>();
+        for (int i = 0; i < whereColumns.length; i++) {
+            BitmapIndex index = this.bitmapIndexes[whereColumns[i]];
+            if (index != null && index.isUsable()) {
+                PlanNode step = PlanSteps.begin(trace, PlanNode.INDEX_SCAN, this.columnIds, this.columns,
+                        whereColumns, predicates, List.of(i));
+                RoaringBitmap slots = index.match(predicates.get(i));
+                indexed = indexed == null ? slots : indexed.and(slots);
+                PlanSteps.end(step, this.getNumOfRows(), slots.cardinality(), 0);
+            } else {
+                scanned.add(i);
+            }
+        }
+
+        BitSet matches = indexed == null ? this.liveSlots() : indexed.toBitSet();
+        matches.andNot(this.deadSlots);
+        List<Integer> compiledPositions = trace == null ? null : new ArrayList<>(scanned);
+        CompiledFilter compiled = this.compileFilter(scanned, whereColumns, predicates, true);
+        if (compiled != null) {
+            if (trace != null) {
+                compiledPositions.removeAll(scanned);
+            }
+            PlanNode step = PlanSteps.begin(trace, PlanNode.COMPILED_FILTER, this.columnIds, this.columns,
+                    whereColumns, predicates, compiledPositions);
+            BitSet found = matches.isEmpty() ? matches : compiled.filter(this.columns, matches);
+            PlanSteps.endScan(step, matches, found);
+            matches = found;
+        }
+        for (int i : scanned) {
+            PlanNode step = PlanSteps.begin(trace, PlanNode.COLUMN_SCAN, this.columnIds, this.columns,
+                    whereColumns, predicates, List.of(i));
+            BitSet found = matches.isEmpty() ? matches
+                    : this.columns[whereColumns[i]].match(predicates.get(i), matches);
+            PlanSteps.endScan(step, matches, found);
+            matches = found;
+        }
+        return matches;
+    }
+
+    /**
+     * Übersetzt die Bedingungen an den übergebenen Positionen, die sich nicht auf Spalten mit spaltenweiser
+     * Auswertung ({@link Column#prefersColumnarMatch()}) beziehen, gemeinsam mit dem {@link QueryCompiler}. Die
+     * übersetzten Positionen werden aus scanned entfernt, die übrigen Bedingungen werden einzeln ausgewertet.
+     *
+     * @param scanned      Positionen der noch nicht ausgewerteten Bedingungen
+     * @param whereColumns Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates   Bedingungen in der Reihenfolge von whereColumns
+     * @param conjunction  true, wenn alle Bedingungen erfüllt sein müssen, false, wenn eine genügt
+     *
+     * @return übersetzter Filter oder null, wenn keine Bedingung übersetzt wurde
+     */
+    private CompiledFilter compileFilter(List<Integer> scanned, int[] whereColumns, List<Predicate<Value>> predicates,
+            boolean conjunction) {
+        List<Integer> compilable = new ArrayList<>();
+        for (int i : scanned) {
+            Column column = this.columns[whereColumns[i]];
+            if (!column.prefersColumnarMatch() && QueryCompiler.isCompilable(predicates.get(i))) {
+                compilable.add(i);
+            }
+        }
+        if (compilable.isEmpty()) {
+            return null;
+        }
+
+        int[] compiledColumns = new int[compilable.size()];
+        List<Predicate<Value>> compiledPredicates = new ArrayList<>(compilable.size());
+        for (int i = 0; i < compiledColumns.length; i++) {
+            compiledColumns[i] = whereColumns[compilable.get(i)];
+            compiledPredicates.add(predicates.get(compilable.get(i)));
+        }
+        CompiledFilter filter = QueryCompiler.compile(compiledColumns, compiledPredicates, conjunction);
+        if (filter != null) {
+            scanned.removeAll(compilable);
+        }
+        return filter;
+    }
+
+    /**
+     * Zeichnet eine beendete Operation im übergebenen Protokoll auf, wenn sie langsam war oder als Stichprobe gezogen
+     * wird.
+     *
+     * @param log          Protokoll
+     * @param type         Art der Operation
+     * @param startNanos   Beginn der Operation gemäß {@link System#nanoTime()}
+     * @param tableIds     Bezeichner der beteiligten Tabellen
+     * @param columns      Indizes der selektierten, geänderten oder verbundenen Spalten dieser Tabelle
+     * @param whereColumns Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates   Bedingungen in der Reihenfolge von whereColumns
+     * @param rowsScanned  Anzahl der Zeilen dieser Tabelle vor der Operation
+     * @param rowsMatched  Anzahl der ausgewählten, geänderten, entfernten oder verbundenen Zeilen
+     */
+    private void logOperation(SlowOperationLog log, OperationType type, long startNanos, List<String> tableIds,
+            int[] columns, int[] whereColumns, List<Predicate<Value>> predicates, long rowsScanned, long rowsMatched) {
+        long nanos = System.nanoTime() - startNanos;
+        boolean slow = log.isSlow(nanos);
+        if (!slow && !log.sample()) {
+            return;
+        }
+        List<String> columnNames = new ArrayList<>(columns.length);
+        for (int index : columns) {
+            columnNames.add(this.columnIds.get(index));
+        }
+        List<String> conditions = new ArrayList<>(whereColumns.length);
+        for (int i = 0; i < whereColumns.length; i++) {
+            conditions.add(PlanSteps.describe(PlanNode.FILTER, this.columnIds, this.columns, whereColumns, predicates,
+                    List.of(i)));
+        }
+        log.record(new SlowOperation(Instant.now(), type, tableIds, List.copyOf(columnNames), List.copyOf(conditions),
+                rowsScanned, rowsMatched, Duration.ofNanos(nanos), !slow));
+    }
+
+    /**
+     * Liefert die Prädikate der übergebenen Bedingungen.
+     *
+     * @param whereParams Bedingungen
+     *
+     * @return Prädikate in der Reihenfolge der Bedingungen
+     */
+    static List<Predicate<Value>> predicatesOf(List<WhereParameter> whereParams) {
+        List<Predicate<Value>> predicates = new ArrayList<>(whereParams.size());
+        for (WhereParameter where : whereParams) {
+            predicates.add(where.predicate());
+        }
+        return predicates;
+    }
+
+    /**
+     * Setzt das Protokoll langsamer Operationen, in dem diese Tabelle ihre Operationen aufzeichnet.
+     *
+     * @param log Protokoll oder null, wenn nicht aufgezeichnet wird
+     */
+    void setOperationLog(SlowOperationLog log) {
+        this.operationLog = log;
+    }
+
+    /**
+     * Gibt an, ob diese Tabelle im Speicher bleiben muss, weil ihre Änderungen abonniert sind oder materialisierte
+     * Sichten von ihr abhängen. Beides ginge beim Auslagern verloren.
+     *
+     * @return Angabe, ob die Tabelle nicht ausgelagert werden darf
+     */
+    boolean isPinned() {
+        return this.isObserved();
+    }
+
+    /**
+     * Meldet eine materialisierte Sicht an, der jede Änderung dieser Tabelle sofort mitgeteilt wird.
+     *
+     * @param view Sicht
+     */
+    void addDependentView(MaterializedView view) {
+        this.dependentViews.add(view);
+    }
+
+    /**
+     * Meldet eine materialisierte Sicht ab.
+     *
+     * @param view Sicht
+     */
+    void removeDependentView(MaterializedView view) {
+        this.dependentViews.remove(view);
+    }
+
+    /**
+     * Gibt an, ob Änderungen dieser Tabelle abonniert sind oder materialisierte Sichten von ihr abhängen, ob also
+     * Zeilen vor und nach einer Änderung erfasst werden müssen.
+     *
+     * @return Angabe, ob Änderungen gemeldet werden
+     */
+    private boolean isObserved() {
+        return this.changeFeed.hasSubscribers() || !this.dependentViews.isEmpty();
+    }
+
+    /**
+     * Meldet eine Änderung an die abhängigen materialisierten Sichten und, sofern abonniert, an den Änderungsstrom.
+     *
+     * @param type       Art der Änderung
+     * @param primaryKey Primärschlüssel der betroffenen Zeile oder null
+     * @param before     Zeile vor der Änderung oder null
+     * @param after      Zeile nach der Änderung oder null
+     */
+    private void publish(ChangeType type, Value primaryKey, List<Value> before, List<Value> after) {
+        for (MaterializedView view : this.dependentViews) {
+            view.onChange(this, type, before, after);
+        }
+        if (this.changeFeed.hasSubscribers()) {
+            this.changeFeed.publish(type, primaryKey, before, after);
+        }
+    }
+
     private static String sanitizeValue(String value) {
         return value.replace("\r", " ").replace("\n", " ");
     }
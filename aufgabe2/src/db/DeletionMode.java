@@ -0,0 +1,19 @@
+package db;
+
+/**
+ * Art, wie {@link DBTable#removeRows(WhereParameter)} Zeilen entfernt.
+ */
+public enum DeletionMode {
+
+    /**
+     * Zeilen werden sofort entfernt, die übrigen Zeilen rücken bei jedem Aufruf nach.
+     */
+    IMMEDIATE,
+
+    /**
+     * Zeilen werden nur als gelöscht markiert und sind ab sofort für alle lesenden Operationen unsichtbar. Der Speicher
+     * wird erst freigegeben, wenn der Anteil gelöschter Zeilen den Schwellwert der Tabelle überschreitet oder
+     * {@link DBTable#compact()} aufgerufen wird.
+     */
+    DEFERRED
+}
@@ -0,0 +1,492 @@
+package db;
+
+import util.Util;
+import db.value.DoubleValue;
+import db.value.NullValue;
+import db.value.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diese Klasse fügt eine Basistabelle mit beliebig vielen weiteren Tabellen über Hash Joins zusammen.
+ * <p>
+ * Jeder Join verknüpft eine Spalte einer bereits enthaltenen Tabelle mit einer beliebigen Spalte einer neuen Tabelle
+ * ({@link JoinType}). Zwei Zeilen passen zueinander, wenn ihre Werte in diesen Spalten gemäß
+ * {@link Value#equals(Object)} gleich sind, {@link NullValue#NULL} passt zu keinem Wert. Für jeden Join wird die
+ * Hashtabelle über die kleinere Seite aufgebaut und die größere Seite einmal durchlaufen.
+ * <p>
+ * Die Reihenfolge, in der die Joins ausgeführt werden, wird erst in {@link #execute(String)} festgelegt: Unter allen
+ * Joins, deren linke Tabelle bereits verknüpft ist, wird zuerst ausgeführt, was die Zwischenergebnisse verkleinert
+ * (Semi- und Anti-Joins), dann Inner Joins und zuletzt Left Outer Joins, jeweils die kleinere rechte Tabelle zuerst.
+ * Da jeder Join nur eine bereits verknüpfte Tabelle betrifft, ändert die Reihenfolge das Ergebnis nicht.
+ * <p>
+ * Die Ergebnistabelle enthält die Spalten der Basistabelle und aller per {@link JoinType#INNER} oder
+ * {@link JoinType#LEFT_OUTER} verknüpften Tabellen in der Reihenfolge, in der sie hinzugefügt wurden. Die
+ * Spaltenbezeichner beginnen mit dem Namen der Ursprungstabelle, gefolgt von einem Unterstrich und dem vorhandenen
+ * Spaltenbezeichner. Die Zeilen stehen in der Reihenfolge der Basistabelle.
+ */
+public final class HashJoin {
+
+    /**
+     * Bezeichner der zusätzlichen Primärschlüsselspalte, wenn Zeilen der Basistabelle mehrfach vorkommen können
+     */
+    public static final String ROW_NUMBER_COL_ID = "Nr";
+
+    /**
+     * Tabellen, deren Spalten in das Ergebnis übernommen werden, die Basistabelle zuerst
+     */
+    private final List<DBTable> tables;
+
+    /**
+     * Bezeichner aller beteiligten Tabellen
+     */
+    private final List<String> tableIds;
+
+    /**
+     * Joins in der Reihenfolge, in der sie hinzugefügt wurden
+     */
+    private final List<Step> steps;
+
+    /**
+     * Konstruktor
+     *
+     * @param base Basistabelle, deren Zeilenreihenfolge das Ergebnis bestimmt
+     *
+     * @pre base != null
+     */
+    public HashJoin(DBTable base) {
+        assert base != null : "base is null";
+
+        this.tables = new ArrayList<>();
+        this.tables.add(base);
+        this.tableIds = new ArrayList<>();
+        this.tableIds.add(base.getId());
+        this.steps = new ArrayList<>();
+    }
+
+    /**
+     * Fügt einen Join der Spalte leftColId der Tabelle left mit der Spalte rightColId der Tabelle right hinzu.
+     *
+     * @param left       bereits verknüpfte Tabelle
+     * @param leftColId  Spaltenbezeichner in left
+     * @param right      neue Tabelle
+     * @param rightColId Spaltenbezeichner in right
+     * @param joinType   Art des Joins
+     *
+     * @return Dieser Join
+     *
+     * @pre left != null
+     * @pre leftColId != null
+     * @pre right != null
+     * @pre rightColId != null
+     * @pre joinType != null
+     * @pre left muss die Basistabelle oder per {@link JoinType#INNER} oder {@link JoinType#LEFT_OUTER} verknüpft sein
+     * @pre Der Bezeichner von right darf noch nicht zu einer beteiligten Tabelle gehören
+     * @pre leftColId muss ein Spaltenbezeichner von left sein
+     * @pre rightColId muss ein Spaltenbezeichner von right sein
+     */
+    public HashJoin join(DBTable left, String leftColId, DBTable right, String rightColId, JoinType joinType) {
+        assert left != null : "left is null";
+        assert leftColId != null : "leftColId is null";
+        assert right != null : "right is null";
+        assert rightColId != null : "rightColId is null";
+        assert joinType != null : "joinType is null";
+        assert this.tables.contains(left) : "left not part of join";
+        assert !this.tableIds.contains(right.getId()) : "right already part of join";
+        assert left.hasColumn(leftColId) : "leftColId not part of left";
+        assert right.hasColumn(rightColId) : "rightColId not part of right";
+
+        int rightTable = -1;
+        if (joinType.keepsRightColumns()) {
+            rightTable = this.tables.size();
+            this.tables.add(right);
+        }
+        this.tableIds.add(right.getId());
+        this.steps.add(new Step(this.tables.indexOf(left), left.getColumnIndex(leftColId), right, rightTable,
+                right.getColumnIndex(rightColId), joinType));
+        return this;
+    }
+
+    /**
+     * Liefert die Bezeichner der rechten Tabellen in der Reihenfolge, in der {@link #execute(String)} die Joins
+     * ausführen würde.
+     *
+     * @return Tabellenbezeichner in Ausführungsreihenfolge
+     */
+    public List<String> getJoinOrder() {
+        List<String> order = new ArrayList<>();
+        for (Step step : this.plan()) {
+            order.add(step.right().getId());
+        }
+        return order;
+    }
+
+    /**
+     * Führt alle Joins aus und liefert das Ergebnis als neue Tabelle mit der Speicherart der Basistabelle.
+     * <p>
+     * Der Primärschlüssel des Ergebnisses ist der Primärschlüssel der Basistabelle, wenn jede übernommene Tabelle
+     * über ihren Primärschlüssel verknüpft wurde, da dann jede Zeile der Basistabelle höchstens einmal vorkommt.
+     * Andernfalls erhält das Ergebnis als erste Spalte die fortlaufende Zeilennummer {@link #ROW_NUMBER_COL_ID}
+     * (beginnend bei 1) als Primärschlüssel.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Summe der Zeilenanzahlen aller beteiligten Tabellen und der
+     * Zwischenergebnisse und f(N) = N.
+     *
+     * @param newTableId Bezeichner der Tabelle, die erzeugt wird
+     *
+     * @return neu erzeugte Tabelle
+     *
+     * @pre newTableId != null
+     * @pre newTableId muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Tabellenbezeichner sein
+     */
+    public DBTable execute(String newTableId) {
+        assert newTableId != null : "newTableId is null";
+        assert Util.isValidIdentifier(newTableId) : "newTableId invalid";
+
+        int[][] slots = new int[this.tables.size()][];
+        BitSet baseSlots = this.tables.get(0).liveSlots();
+        slots[0] = baseSlots.stream().toArray();
+        for (Step step : this.plan()) {
+            slots = this.execute(step, slots);
+        }
+        return this.materialize(slots, newTableId);
+    }
+
+    /**
+     * Legt die Ausführungsreihenfolge der Joins fest.
+     *
+     * @return Joins in Ausführungsreihenfolge
+     */
+    private List<Step> plan() {
+        List<Step> pending = new ArrayList<>(this.steps);
+        List<Step> order = new ArrayList<>(pending.size());
+        boolean[] joined = new boolean[this.tables.size()];
+        joined[0] = true;
+        while (!pending.isEmpty()) {
+            Step next = null;
+            for (Step step : pending) {
+                if (joined[step.leftTable()] && (next == null || step.isCheaperThan(next))) {
+                    next = step;
+                }
+            }
+            assert next != null : "join not connected";
+            pending.remove(next);
+            order.add(next);
+            if (next.rightTable() >= 0) {
+                joined[next.rightTable()] = true;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Führt einen Join auf den bisherigen Zwischenergebnissen aus.
+     *
+     * @param step  Join
+     * @param slots Slots der Zwischenergebnisse je Tabelle, -1 für fehlende Zeilen
+     *
+     * @return Slots der neuen Zwischenergebnisse je Tabelle
+     */
+    private int[][] execute(Step step, int[][] slots) {
+        DBTable left = this.tables.get(step.leftTable());
+        int[] leftSlots = slots[step.leftTable()];
+        int numOfTuples = leftSlots.length;
+        int[] rightSlots = step.right().liveSlots().stream().toArray();
+
+        int[] offsets = new int[numOfTuples + 1];
+        IntList matches = new IntList();
+        if (rightSlots.length <= numOfTuples) {
+            Map<Value, IntList> hashTable = new HashMap<>();
+            for (int slot : rightSlots) {
+                Value key = step.right().getValue(slot, step.rightColumn());
+                if (!(key instanceof NullValue)) {
+                    hashTable.computeIfAbsent(key, k -> new IntList()).add(slot);
+                }
+            }
+            for (int tuple = 0; tuple < numOfTuples; tuple++) {
+                IntList found = hashTable.get(keyOf(left, leftSlots[tuple], step.leftColumn()));
+                if (found != null) {
+                    matches.addAll(found);
+                }
+                offsets[tuple + 1] = matches.size();
+            }
+        } else {
+            Map<Value, IntList> hashTable = new HashMap<>();
+            for (int tuple = 0; tuple < numOfTuples; tuple++) {
+                Value key = keyOf(left, leftSlots[tuple], step.leftColumn());
+                if (key != null) {
+                    hashTable.computeIfAbsent(key, k -> new IntList()).add(tuple);
+                }
+            }
+            IntList probedTuples = new IntList();
+            IntList probedSlots = new IntList();
+            for (int slot : rightSlots) {
+                IntList found = hashTable.get(step.right().getValue(slot, step.rightColumn()));
+                for (int i = 0; found != null && i < found.size(); i++) {
+                    probedTuples.add(found.get(i));
+                    probedSlots.add(slot);
+                    offsets[found.get(i) + 1]++;
+                }
+            }
+            for (int tuple = 0; tuple < numOfTuples; tuple++) {
+                offsets[tuple + 1] += offsets[tuple];
+            }
+            int[] next = Arrays.copyOf(offsets, numOfTuples);
+            int[] grouped = new int[probedSlots.size()];
+            for (int i = 0; i < probedSlots.size(); i++) {
+                grouped[next[probedTuples.get(i)]++] = probedSlots.get(i);
+            }
+            matches.addAll(grouped);
+        }
+
+        return combine(step, slots, offsets, matches);
+    }
+
+    /**
+     * Bildet aus den passenden Zeilenpaaren die neuen Zwischenergebnisse gemäß der Art des Joins.
+     *
+     * @param step    Join
+     * @param slots   Slots der bisherigen Zwischenergebnisse je Tabelle
+     * @param offsets Startposition der passenden rechten Slots je Zwischenergebnis in matches
+     * @param matches passende rechte Slots, gruppiert nach Zwischenergebnis
+     *
+     * @return Slots der neuen Zwischenergebnisse je Tabelle
+     */
+    private static int[][] combine(Step step, int[][] slots, int[] offsets, IntList matches) {
+        int numOfTuples = offsets.length - 1;
+        IntList sources = new IntList();
+        IntList rightSlots = new IntList();
+        for (int tuple = 0; tuple < numOfTuples; tuple++) {
+            int count = offsets[tuple + 1] - offsets[tuple];
+            switch (step.joinType()) {
+                case SEMI, ANTI -> {
+                    if ((count > 0) == (step.joinType() == JoinType.SEMI)) {
+                        sources.add(tuple);
+                    }
+                }
+                case INNER, LEFT_OUTER -> {
+                    for (int i = offsets[tuple]; i < offsets[tuple + 1]; i++) {
+                        sources.add(tuple);
+                        rightSlots.add(matches.get(i));
+                    }
+                    if (count == 0 && step.joinType() == JoinType.LEFT_OUTER) {
+                        sources.add(tuple);
+                        rightSlots.add(-1);
+                    }
+                }
+                default -> throw new IllegalStateException("unknown join type " + step.joinType());
+            }
+        }
+
+        int[][] result = new int[slots.length][];
+        for (int table = 0; table < slots.length; table++) {
+            if (slots[table] != null) {
+                result[table] = new int[sources.size()];
+                for (int i = 0; i < sources.size(); i++) {
+                    result[table][i] = slots[table][sources.get(i)];
+                }
+            }
+        }
+        if (step.rightTable() >= 0) {
+            result[step.rightTable()] = rightSlots.toArray();
+        }
+        return result;
+    }
+
+    /**
+     * Liefert den Join-Schlüssel einer Zeile.
+     *
+     * @param table  Tabelle
+     * @param slot   Slot der Zeile oder -1 für eine fehlende Zeile
+     * @param column Index der Spalte
+     *
+     * @return Wert der Zeile oder null, wenn die Zeile fehlt oder der Wert {@link NullValue#NULL} ist
+     */
+    private static Value keyOf(DBTable table, int slot, int column) {
+        if (slot < 0) {
+            return null;
+        }
+        Value key = table.getValue(slot, column);
+        return key instanceof NullValue ? null : key;
+    }
+
+    /**
+     * Erzeugt die Ergebnistabelle aus den Slots der Zwischenergebnisse.
+     *
+     * @param slots      Slots der Ergebniszeilen je Tabelle, -1 für fehlende Zeilen
+     * @param newTableId Bezeichner der Tabelle, die erzeugt wird
+     *
+     * @return neu erzeugte Tabelle
+     */
+    private DBTable materialize(int[][] slots, String newTableId) {
+        DBTable base = this.tables.get(0);
+        boolean numbered = false;
+        for (Step step : this.steps) {
+            DBTable right = step.right();
+            if (step.rightTable() >= 0 && step.rightColumn() != right.getColumnIndex(right.getPrimaryKeyColumnId())) {
+                numbered = true;
+            }
+        }
+
+        List<String> colIds = new ArrayList<>();
+        if (numbered) {
+            colIds.add(ROW_NUMBER_COL_ID);
+        }
+        for (DBTable table : this.tables) {
+            for (String colId : table.getColumnIds()) {
+                colIds.add(table.getId() + "_" + colId);
+            }
+        }
+        String primaryKey = numbered ? ROW_NUMBER_COL_ID : base.getId() + "_" + base.getPrimaryKeyColumnId();
+        DBTable result = new DBTable(newTableId, primaryKey, colIds, base.getStorageMode());
+
+        for (int tuple = 0; tuple < slots[0].length; tuple++) {
+            List<Value> row = new ArrayList<>(colIds.size());
+            if (numbered) {
+                row.add(new DoubleValue(tuple + 1));
+            }
+            for (int table = 0; table < slots.length; table++) {
+                DBTable source = this.tables.get(table);
+                int slot = slots[table][tuple];
+                for (int column = 0; column < source.getNumOfColumns(); column++) {
+                    row.add(slot < 0 ? NullValue.NULL : source.getValue(slot, column));
+                }
+            }
+            result.appendRow(row);
+        }
+        return result;
+    }
+
+    /**
+     * Ein Join zwischen einer bereits verknüpften und einer neuen Tabelle.
+     *
+     * @param leftTable   Index der linken Tabelle in der Liste der übernommenen Tabellen
+     * @param leftColumn  Index der Spalte in der linken Tabelle
+     * @param right       rechte Tabelle
+     * @param rightTable  Index der rechten Tabelle in der Liste der übernommenen Tabellen oder -1, wenn ihre Spalten
+     *                    nicht übernommen werden
+     * @param rightColumn Index der Spalte in der rechten Tabelle
+     * @param joinType    Art des Joins
+     */
+    private record Step(int leftTable, int leftColumn, DBTable right, int rightTable, int rightColumn,
+                        JoinType joinType) {
+
+        /**
+         * Gibt an, ob dieser Join vor dem übergebenen ausgeführt werden soll.
+         *
+         * @param other anderer Join
+         *
+         * @return Angabe, ob dieser Join voraussichtlich kleinere Zwischenergebnisse liefert
+         */
+        boolean isCheaperThan(Step other) {
+            if (rank(this.joinType) != rank(other.joinType)) {
+                return rank(this.joinType) < rank(other.joinType);
+            }
+            return this.right.getNumOfRows() < other.right.getNumOfRows();
+        }
+
+        /**
+         * Liefert die Priorität einer Join-Art, kleinere Werte werden zuerst ausgeführt.
+         *
+         * @param joinType Art des Joins
+         *
+         * @return Priorität
+         */
+        private static int rank(JoinType joinType) {
+            return switch (joinType) {
+                case SEMI, ANTI -> 0;
+                case INNER -> 1;
+                case LEFT_OUTER -> 2;
+            };
+        }
+    }
+
+    /**
+     * Wachsende Liste von int-Werten ohne Boxing.
+     */
+    private static final class IntList {
+
+        /**
+         * Anfangskapazität
+         */
+        private static final int INITIAL_CAPACITY = 4;
+
+        /**
+         * Werte, nur die ersten size Einträge sind belegt
+         */
+        private int[] values = new int[INITIAL_CAPACITY];
+
+        /**
+         * Anzahl der Werte
+         */
+        private int size;
+
+        /**
+         * Hängt einen Wert an.
+         *
+         * @param value Wert
+         */
+        void add(int value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.values.length * 2);
+            }
+            this.values[this.size++] = value;
+        }
+
+        /**
+         * Hängt alle Werte einer anderen Liste an.
+         *
+         * @param other andere Liste
+         */
+        void addAll(IntList other) {
+            for (int i = 0; i < other.size; i++) {
+                this.add(other.values[i]);
+            }
+        }
+
+        /**
+         * Hängt alle Werte eines Arrays an.
+         *
+         * @param other Werte
+         */
+        void addAll(int[] other) {
+            for (int value : other) {
+                this.add(value);
+            }
+        }
+
+        /**
+         * Liefert den Wert an der übergebenen Position.
+         *
+         * @param index Position
+         *
+         * @return Wert
+         */
+        int get(int index) {
+            return this.values[index];
+        }
+
+        /**
+         * Liefert die Anzahl der Werte.
+         *
+         * @return Anzahl der Werte
+         */
+        int size() {
+            return this.size;
+        }
+
+        /**
+         * Liefert die Werte als neues Array.
+         *
+         * @return Werte
+         */
+        int[] toArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+    }
+}
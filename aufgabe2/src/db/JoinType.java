@@ -0,0 +1,39 @@
+package db;
+
+/**
+ * Art eines Joins zwischen den bisher zusammengefügten Zeilen (links) und einer weiteren Tabelle (rechts).
+ */
+public enum JoinType {
+
+    /**
+     * Für jedes Paar übereinstimmender Zeilen entsteht eine Ergebniszeile mit den Spalten beider Seiten.
+     */
+    INNER,
+
+    /**
+     * Wie {@link #INNER}, zusätzlich bleiben linke Zeilen ohne Partner erhalten. Ihre rechten Spalten enthalten
+     * {@link db.value.NullValue#NULL}.
+     */
+    LEFT_OUTER,
+
+    /**
+     * Es bleiben die linken Zeilen erhalten, zu denen mindestens eine rechte Zeile passt. Die Spalten der rechten
+     * Tabelle werden nicht übernommen.
+     */
+    SEMI,
+
+    /**
+     * Es bleiben die linken Zeilen erhalten, zu denen keine rechte Zeile passt. Die Spalten der rechten Tabelle werden
+     * nicht übernommen.
+     */
+    ANTI;
+
+    /**
+     * Gibt an, ob bei dieser Art die Spalten der rechten Tabelle in das Ergebnis übernommen werden.
+     *
+     * @return Angabe, ob die rechten Spalten übernommen werden
+     */
+    public boolean keepsRightColumns() {
+        return this == INNER || this == LEFT_OUTER;
+    }
+}
@@ -0,0 +1,227 @@
+package db;
+
+import db.cdc.ChangeType;
+import db.value.Value;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Materialisierte Sicht, die wie {@link DBTable#equijoin(DBTable, String, String)} die Zeilen einer Tabelle mit den
+ * Zeilen verbindet, deren Primärschlüssel sie über einen Fremdschlüssel referenzieren.
+ * <p>
+ * Die Sicht führt zu jedem Fremdschlüsselwert die Primärschlüssel der referenzierenden Zeilen. Eine Änderung der
+ * referenzierenden Tabelle betrifft höchstens eine Zeile der Ergebnistabelle und wird in O(1) übernommen, eine
+ * Änderung der referenzierten Tabelle in O(K), dabei ist K die Anzahl der Zeilen, die die geänderte Zeile
+ * referenzieren.
+ */
+final class JoinView extends MaterializedView {
+
+    /**
+     * Tabelle mit dem Fremdschlüssel
+     */
+    private final DBTable left;
+
+    /**
+     * Tabelle, deren Primärschlüssel referenziert wird
+     */
+    private final DBTable right;
+
+    /**
+     * Index des Fremdschlüssels in left
+     */
+    private final int fkIndex;
+
+    /**
+     * Index des Primärschlüssels in left
+     */
+    private final int leftPkIndex;
+
+    /**
+     * Index des Primärschlüssels in right
+     */
+    private final int rightPkIndex;
+
+    /**
+     * Primärschlüssel der Zeilen von left zu jedem Fremdschlüsselwert, der in left vorkommt
+     */
+    private final Map<Value, Set<Value>> referencingKeys;
+
+    /**
+     * Konstruktor. Berechnet die Sicht einmal vollständig und meldet sie bei beiden Tabellen an.
+     *
+     * @param left    Tabelle mit dem Fremdschlüssel
+     * @param right   Tabelle, deren Primärschlüssel referenziert wird
+     * @param fkColId Spaltenbezeichner des Fremdschlüssels in left
+     * @param name    Bezeichner der Ergebnistabelle
+     */
+    JoinView(DBTable left, DBTable right, String fkColId, String name) {
+        super(left.equijoin(right, fkColId, name));
+        this.left = left;
+        this.right = right;
+        this.fkIndex = left.getColumnIndex(fkColId);
+        this.leftPkIndex = left.getColumnIndex(left.getPrimaryKeyColumnId());
+        this.rightPkIndex = right.getColumnIndex(right.getPrimaryKeyColumnId());
+        this.referencingKeys = new HashMap<>();
+        left.forEachRow(this::addReference);
+        left.addDependentView(this);
+        right.addDependentView(this);
+    }
+
+    @Override
+    void onChange(DBTable source, ChangeType type, List<Value> before, List<Value> after) {
+        if (source == this.left) {
+            this.onLeftChange(type, before, after);
+        } else {
+            this.onRightChange(type, before, after);
+        }
+    }
+
+    @Override
+    void detach() {
+        this.left.removeDependentView(this);
+        this.right.removeDependentView(this);
+    }
+
+    /**
+     * Passt die Ergebnistabelle an eine Änderung der Tabelle mit dem Fremdschlüssel an.
+     *
+     * @param type   Art der Änderung
+     * @param before Zeile vor der Änderung oder null
+     * @param after  Zeile nach der Änderung oder null
+     */
+    private void onLeftChange(ChangeType type, List<Value> before, List<Value> after) {
+        switch (type) {
+            case APPEND:
+                this.addReference(after);
+                this.appendJoined(after);
+                break;
+            case UPDATE:
+                if (before.get(this.fkIndex).equals(after.get(this.fkIndex))) {
+                    List<Value> rightRow = this.right.getRowByPrimaryKey(after.get(this.fkIndex));
+                    if (rightRow != null) {
+                        this.getTable().replaceRow(this.join(after, rightRow));
+                    }
+                } else {
+                    this.removeReference(before);
+                    this.addReference(after);
+                    this.getTable().removeRow(before.get(this.leftPkIndex));
+                    this.appendJoined(after);
+                }
+                break;
+            case REMOVE:
+                this.removeReference(before);
+                this.getTable().removeRow(before.get(this.leftPkIndex));
+                break;
+            default:
+                this.referencingKeys.clear();
+                this.getTable().removeAllRows();
+        }
+    }
+
+    /**
+     * Passt die Ergebnistabelle an eine Änderung der referenzierten Tabelle an.
+     *
+     * @param type   Art der Änderung
+     * @param before Zeile vor der Änderung oder null
+     * @param after  Zeile nach der Änderung oder null
+     */
+    private void onRightChange(ChangeType type, List<Value> before, List<Value> after) {
+        switch (type) {
+            case APPEND:
+                for (Value leftKey : this.referencing(after)) {
+                    this.getTable().appendRow(this.join(this.left.getRowByPrimaryKey(leftKey), after));
+                }
+                break;
+            case UPDATE:
+                for (Value leftKey : this.referencing(after)) {
+                    this.getTable().replaceRow(this.join(this.left.getRowByPrimaryKey(leftKey), after));
+                }
+                break;
+            case REMOVE:
+                for (Value leftKey : this.referencing(before)) {
+                    this.getTable().removeRow(leftKey);
+                }
+                break;
+            default:
+                this.getTable().removeAllRows();
+        }
+    }
+
+    /**
+     * Hängt die übergebene Zeile von left verbunden mit der referenzierten Zeile an, sofern diese existiert.
+     *
+     * @param leftRow Zeile von left
+     */
+    private void appendJoined(List<Value> leftRow) {
+        List<Value> rightRow = this.right.getRowByPrimaryKey(leftRow.get(this.fkIndex));
+        if (rightRow != null) {
+            this.getTable().appendRow(this.join(leftRow, rightRow));
+        }
+    }
+
+    /**
+     * Liefert die Primärschlüssel der Zeilen von left, die die übergebene Zeile von right referenzieren.
+     *
+     * @param rightRow Zeile von right
+     *
+     * @return Primärschlüssel der referenzierenden Zeilen
+     */
+    private Set<Value> referencing(List<Value> rightRow) {
+        return this.referencingKeys.getOrDefault(rightRow.get(this.rightPkIndex), Set.of());
+    }
+
+    /**
+     * Vermerkt, dass die übergebene Zeile von left ihren Fremdschlüsselwert referenziert.
+     *
+     * @param leftRow Zeile von left
+     */
+    private void addReference(List<Value> leftRow) {
+        this.referencingKeys.computeIfAbsent(leftRow.get(this.fkIndex), fk -> new LinkedHashSet<>())
+                .add(leftRow.get(this.leftPkIndex));
+    }
+
+    /**
+     * Entfernt den Vermerk, dass die übergebene Zeile von left ihren Fremdschlüsselwert referenziert.
+     *
+     * @param leftRow Zeile von left
+     */
+    private void removeReference(List<Value> leftRow) {
+        Value fk = leftRow.get(this.fkIndex);
+        Set<Value> keys = this.referencingKeys.get(fk);
+        if (keys != null) {
+            keys.remove(leftRow.get(this.leftPkIndex));
+            if (keys.isEmpty()) {
+                this.referencingKeys.remove(fk);
+            }
+        }
+    }
+
+    /**
+     * Verbindet eine Zeile von left mit einer Zeile von right in der Spaltenreihenfolge von
+     * {@link DBTable#equijoin(DBTable, String, String)}.
+     *
+     * @param leftRow  Zeile von left
+     * @param rightRow Zeile von right
+     *
+     * @return neue Zeile der Ergebnistabelle
+     */
+    private List<Value> join(List<Value> leftRow, List<Value> rightRow) {
+        List<Value> joined = new ArrayList<>(leftRow.size() + rightRow.size() - 2);
+        for (int i = 0; i < leftRow.size(); i++) {
+            if (i != this.fkIndex) {
+                joined.add(leftRow.get(i));
+            }
+        }
+        for (int i = 0; i < rightRow.size(); i++) {
+            if (i != this.rightPkIndex) {
+                joined.add(rightRow.get(i));
+            }
+        }
+        return joined;
+    }
+}
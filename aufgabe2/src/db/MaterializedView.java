@@ -0,0 +1,58 @@
+package db;
+
+import db.cdc.ChangeType;
+import db.value.Value;
+
+import java.util.List;
+
+/**
+ * Materialisierte Sicht, deren Ergebnistabelle bei jeder Änderung ihrer Basistabellen sofort anhand der geänderten
+ * Zeilen angepasst wird, ohne die Sicht neu zu berechnen.
+ * <p>
+ * Die Ergebnistabelle verwendet den Löschmodus {@link DeletionMode#DEFERRED}, damit das Entfernen einzelner Zeilen
+ * nicht jedes Mal die ganze Tabelle kompaktiert. Zeilen, die erst durch eine Änderung in die Sicht aufgenommen werden,
+ * werden angehängt, die Reihenfolge der Zeilen kann daher von einer Neuberechnung abweichen.
+ */
+abstract class MaterializedView {
+
+    /**
+     * Ergebnistabelle dieser Sicht
+     */
+    private final DBTable table;
+
+    /**
+     * Konstruktor
+     *
+     * @param table vollständig berechnete Ergebnistabelle
+     */
+    MaterializedView(DBTable table) {
+        this.table = table;
+        this.table.setDeletionMode(DeletionMode.DEFERRED);
+    }
+
+    /**
+     * Liefert die Ergebnistabelle dieser Sicht.
+     *
+     * @return Ergebnistabelle
+     */
+    DBTable getTable() {
+        return this.table;
+    }
+
+    /**
+     * Passt die Ergebnistabelle an eine Änderung einer Basistabelle an. Wird von der Basistabelle aufgerufen, nachdem
+     * eine Zeile angehängt oder aktualisiert wurde, bevor eine Zeile entfernt wird, und nachdem alle Zeilen entfernt
+     * wurden.
+     *
+     * @param source Basistabelle, die geändert wurde
+     * @param type   Art der Änderung
+     * @param before Zeile vor der Änderung oder null
+     * @param after  Zeile nach der Änderung oder null
+     */
+    abstract void onChange(DBTable source, ChangeType type, List<Value> before, List<Value> after);
+
+    /**
+     * Meldet diese Sicht bei ihren Basistabellen ab. Die Ergebnistabelle wird danach nicht mehr angepasst.
+     */
+    abstract void detach();
+}
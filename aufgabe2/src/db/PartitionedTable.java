@@ -0,0 +1,361 @@
+package db;
+
+import db.storage.StorageMode;
+import db.value.Value;
+import util.Util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Tabelle, deren Zeilen anhand des Hashwerts ihres Primärschlüssels auf mehrere unabhängige Partitionen verteilt
+ * werden. Jede Partition ist eine eigene {@link DBTable} mit eigenem Speicher und eigener Lese-/Schreibsperre.
+ * <p>
+ * {@link #appendRow(List)} und die Zugriffe über den Primärschlüssel betreffen nur die Partition des Schlüssels,
+ * sodass Änderungen in verschiedenen Partitionen gleichzeitig ausgeführt werden können.
+ * {@link #select(List, List, String)}, {@link #update(String, Value, List)} und {@link #removeRows(WhereParameter)}
+ * werden in allen Partitionen parallel im {@link java.util.concurrent.ForkJoinPool#commonPool() gemeinsamen Pool}
+ * ausgeführt. Lesende Operationen einer Partition dürfen gleichzeitig laufen, ändernde schließen alle anderen
+ * Operationen derselben Partition aus. Operationen über alle Partitionen sind nicht atomar: Eine gleichzeitige
+ * Änderung kann in einigen Partitionen bereits sichtbar sein, in anderen noch nicht.
+ * <p>
+ * Reihenfolge der Zeilen: Ergebnisse und Darstellungen dieser Tabelle enthalten die Zeilen partitionsweise in
+ * aufsteigender Partitionsnummer, innerhalb einer Partition in der Reihenfolge, in der sie angehängt wurden. Die
+ * globale Reihenfolge des Anhängens bleibt also nur innerhalb einer Partition erhalten.
+ * <p>
+ * Die Methoden entsprechen den gleichnamigen Methoden von {@link DBTable} und haben dieselben Vorbedingungen.
+ */
+public final class PartitionedTable {
+
+    /**
+     * Multiplikator, der die Bits des Hashwerts eines Primärschlüssels vor der Wahl der Partition verteilt
+     */
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    /**
+     * Bezeichner dieser Tabelle
+     */
+    private final String id;
+
+    /**
+     * Spaltenbezeichner des Primärschlüssels
+     */
+    private final String primaryKeyColId;
+
+    /**
+     * Spaltenbezeichner in der Reihenfolge der Tabelle
+     */
+    private final List<String> columnIds;
+
+    /**
+     * Index des Primärschlüssels
+     */
+    private final int primaryKeyIndex;
+
+    /**
+     * Speicherart der Partitionen
+     */
+    private final StorageMode storageMode;
+
+    /**
+     * Partitionen in der Reihenfolge ihrer Nummern
+     */
+    private final DBTable[] partitions;
+
+    /**
+     * Sperren der Partitionen mit derselben Nummer
+     */
+    private final ReadWriteLock[] locks;
+
+    /**
+     * Konstruktor
+     *
+     * @param id              Bezeichner dieser Tabelle
+     * @param primaryKeyColId Spaltenbezeichner des Primärschlüssels
+     * @param colIds          Spaltenbezeichner, in der Reihenfolge, in der sie in dieser Tabelle stehen sollen
+     * @param numOfPartitions Anzahl der Partitionen
+     *
+     * @pre numOfPartitions &gt; 0
+     * @pre siehe {@link DBTable#DBTable(String, String, List)}
+     */
+    public PartitionedTable(String id, String primaryKeyColId, List<String> colIds, int numOfPartitions) {
+        this(id, primaryKeyColId, colIds, numOfPartitions, StorageMode.HEAP);
+    }
+
+    /**
+     * Konstruktor für eine Tabelle, deren Partitionen die übergebene Speicherart verwenden.
+     *
+     * @param id              Bezeichner dieser Tabelle
+     * @param primaryKeyColId Spaltenbezeichner des Primärschlüssels
+     * @param colIds          Spaltenbezeichner, in der Reihenfolge, in der sie in dieser Tabelle stehen sollen
+     * @param numOfPartitions Anzahl der Partitionen
+     * @param storageMode     Speicherart der Partitionen
+     *
+     * @pre numOfPartitions &gt; 0
+     * @pre siehe {@link DBTable#DBTable(String, String, List, StorageMode)}
+     */
+    public PartitionedTable(String id, String primaryKeyColId, List<String> colIds, int numOfPartitions,
+            StorageMode storageMode) {
+        assert numOfPartitions > 0 : "numOfPartitions must be positive";
+
+        this.partitions = new DBTable[numOfPartitions];
+        this.locks = new ReadWriteLock[numOfPartitions];
+        for (int i = 0; i < numOfPartitions; i++) {
+            this.partitions[i] = new DBTable(id, primaryKeyColId, colIds, storageMode);
+            this.locks[i] = new ReentrantReadWriteLock();
+        }
+        this.id = id;
+        this.primaryKeyColId = primaryKeyColId;
+        this.columnIds = List.copyOf(colIds);
+        this.primaryKeyIndex = colIds.indexOf(primaryKeyColId);
+        this.storageMode = storageMode;
+    }
+
+    /**
+     * Liefert den Bezeichner dieser Tabelle.
+     *
+     * @return Bezeichner dieser Tabelle
+     */
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * Liefert den Spaltenbezeichner des Primärschlüssels.
+     *
+     * @return Spaltenbezeichner des Primärschlüssels
+     */
+    public String getPrimaryKeyColumnId() {
+        return this.primaryKeyColId;
+    }
+
+    /**
+     * Liefert die Spaltenbezeichner dieser Tabelle in ihrer Reihenfolge.
+     *
+     * @return Spaltenbezeichner dieser Tabelle
+     */
+    public List<String> getColumnIds() {
+        return new ArrayList<>(this.columnIds);
+    }
+
+    /**
+     * Liefert die Anzahl der Spalten dieser Tabelle.
+     *
+     * @return Anzahl der Spalten
+     */
+    public int getNumOfColumns() {
+        return this.columnIds.size();
+    }
+
+    /**
+     * Liefert die Anzahl der Partitionen dieser Tabelle.
+     *
+     * @return Anzahl der Partitionen
+     */
+    public int getNumOfPartitions() {
+        return this.partitions.length;
+    }
+
+    /**
+     * Liefert die Anzahl der Zeilen dieser Tabelle als Summe der Zeilen aller Partitionen.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Partitionen und f(N) = N.
+     *
+     * @return Anzahl der Zeilen
+     */
+    public int getNumOfRows() {
+        int rows = 0;
+        for (int i = 0; i < this.partitions.length; i++) {
+            DBTable partition = this.partitions[i];
+            rows += locked(this.locks[i].readLock(), partition::getNumOfRows);
+        }
+        return rows;
+    }
+
+    /**
+     * Liefert die Nummer der Partition, in der die Zeile mit dem übergebenen Primärschlüssel gespeichert wird.
+     *
+     * @param primaryKey Primärschlüssel
+     *
+     * @return Nummer der Partition zwischen 0 (inklusive) und {@link #getNumOfPartitions()} (exklusive)
+     *
+     * @pre primaryKey != null
+     */
+    public int partitionOf(Value primaryKey) {
+        assert primaryKey != null : "primaryKey is null";
+        int hash = primaryKey.hashCode();
+        int mixed = (hash ^ (hash >>> Short.SIZE)) * HASH_MULTIPLIER;
+        return (int) ((Integer.toUnsignedLong(mixed) * this.partitions.length) >>> Integer.SIZE);
+    }
+
+    /**
+     * Liefert die Zeile mit dem übergebenen Primärschlüssel aus ihrer Partition.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) = 1.
+     *
+     * @param primaryKey Primärschlüssel
+     *
+     * @return Kopie der Zeile oder null, wenn der Primärschlüssel nicht in dieser Tabelle enthalten ist
+     *
+     * @pre primaryKey != null
+     */
+    public List<Value> getRowByPrimaryKey(Value primaryKey) {
+        int partition = this.partitionOf(primaryKey);
+        return locked(this.locks[partition].readLock(),
+                () -> this.partitions[partition].getRowByPrimaryKey(primaryKey));
+    }
+
+    /**
+     * Hängt die übergebene Zeile an die Partition ihres Primärschlüssels an. Sofern bereits eine Zeile mit diesem
+     * Primärschlüssel existiert, passiert nichts.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) = 1.
+     *
+     * @param row Werte der neuen Zeile
+     *
+     * @return Diese Tabelle
+     *
+     * @pre row != null
+     * @pre Anzahl Werte von row muss der Spaltenanzahl dieser Tabelle entsprechen
+     */
+    public PartitionedTable appendRow(List<Value> row) {
+        assert row != null : "row is null";
+        assert row.size() == this.getNumOfColumns() : "row size does not match column count";
+
+        int partition = this.partitionOf(row.get(this.primaryKeyIndex));
+        return locked(this.locks[partition].writeLock(), () -> {
+            this.partitions[partition].appendRow(row);
+            return this;
+        });
+    }
+
+    /**
+     * Erstellt eine neue Tabelle wie {@link DBTable#select(List, List, String)}. Alle Partitionen werden parallel
+     * durchsucht, die Teilergebnisse anschließend in der Reihenfolge der Partitionen zusammengefügt.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) =
+     * N / P + R, wobei P = Anzahl der parallel bearbeiteten Partitionen und R = Anzahl der Zeilen des Ergebnisses.
+     *
+     * @param colIds      Spaltenbezeichner der Spalten, die selektiert werden sollen oder null, wenn alle Spalten
+     *                    selektiert werden sollen
+     * @param whereParams Bedingungen
+     * @param newTableId  Bezeichner der Tabelle, die erzeugt wird
+     *
+     * @return Tabelle mit allen selektierten Spalten
+     *
+     * @pre siehe {@link DBTable#select(List, List, String)}
+     */
+    public DBTable select(List<String> colIds, List<WhereParameter> whereParams, String newTableId) {
+        assert newTableId != null : "newTableId is null";
+        assert Util.isValidIdentifier(newTableId) : "newTableId invalid";
+
+        List<DBTable> results = this.inParallel(false, partition -> partition.select(colIds, whereParams,
+                newTableId));
+        DBTable first = results.get(0);
+        DBTable merged = new DBTable(newTableId, this.primaryKeyColId, first.getColumnIds(), this.storageMode);
+        for (DBTable result : results) {
+            result.forEachRow(merged::appendRow);
+        }
+        return merged;
+    }
+
+    /**
+     * Aktualisiert wie {@link DBTable#update(String, Value, List)} alle passenden Zeilen, in allen Partitionen
+     * parallel.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) =
+     * N / P, wobei P = Anzahl der parallel bearbeiteten Partitionen.
+     *
+     * @param colId       Spaltenbezeichner der Spalte, in der der Wert aktualisiert werden soll
+     * @param newValue    Neuer Wert
+     * @param whereParams Bedingungen
+     *
+     * @return Diese Tabelle
+     *
+     * @pre siehe {@link DBTable#update(String, Value, List)}
+     */
+    public PartitionedTable update(String colId, Value newValue, List<WhereParameter> whereParams) {
+        this.inParallel(true, partition -> partition.update(colId, newValue, whereParams));
+        return this;
+    }
+
+    /**
+     * Entfernt wie {@link DBTable#removeRows(WhereParameter)} alle passenden Zeilen, in allen Partitionen parallel.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) =
+     * N / P, wobei P = Anzahl der parallel bearbeiteten Partitionen.
+     *
+     * @param whereParam Bedingung
+     *
+     * @return Diese Tabelle
+     *
+     * @pre siehe {@link DBTable#removeRows(WhereParameter)}
+     */
+    public PartitionedTable removeRows(WhereParameter whereParam) {
+        this.inParallel(true, partition -> partition.removeRows(whereParam));
+        return this;
+    }
+
+    /**
+     * Entfernt alle Zeilen aus allen Partitionen.
+     *
+     * @post Diese Tabelle enthält keine Zeilen
+     */
+    public void removeAllRows() {
+        this.inParallel(true, partition -> {
+            partition.removeAllRows();
+            return partition;
+        });
+    }
+
+    /**
+     * Liefert die Darstellung dieser Tabelle gemäß {@link DBTable#toString()} mit den Zeilen in der oben beschriebenen
+     * Reihenfolge.
+     *
+     * @return Stringrepräsentation dieser Tabelle
+     */
+    @Override
+    public String toString() {
+        return this.select(null, List.of(), this.id).toString();
+    }
+
+    /**
+     * Führt die übergebene Operation in allen Partitionen parallel unter ihrer jeweiligen Sperre aus.
+     *
+     * @param write     Angabe, ob die Operation die Partitionen ändert und daher die Schreibsperre benötigt
+     * @param operation Operation für eine Partition
+     * @param <T>       Typ des Ergebnisses einer Partition
+     *
+     * @return Ergebnisse in der Reihenfolge der Partitionen
+     */
+    private <T> List<T> inParallel(boolean write, Function<DBTable, T> operation) {
+        return IntStream.range(0, this.partitions.length).parallel().mapToObj(i -> {
+            Lock lock = write ? this.locks[i].writeLock() : this.locks[i].readLock();
+            return locked(lock, () -> operation.apply(this.partitions[i]));
+        }).toList();
+    }
+
+    /**
+     * Führt die übergebene Operation unter der übergebenen Sperre aus.
+     *
+     * @param lock      Sperre
+     * @param operation Operation
+     * @param <T>       Typ des Ergebnisses
+     *
+     * @return Ergebnis der Operation
+     */
+    private static <T> T locked(Lock lock, Supplier<T> operation) {
+        lock.lock();
+        try {
+            return operation.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package db;
+
+import db.value.Value;
+
+import java.util.function.Predicate;
+
+/**
+ * Vorbereitetes Entfernen von Zeilen einer Datenbanktabelle, erzeugt durch {@link DBTable#prepareRemove(String)}.
+ * <p>
+ * Der Spaltenbezeichner ist bereits geprüft und in einen Spaltenindex aufgelöst. Jede Ausführung erhält nur noch die
+ * Bedingung und arbeitet wie {@link DBTable#removeRows(WhereParameter)}.
+ */
+public final class PreparedRemove {
+
+    /**
+     * Tabelle, aus der Zeilen entfernt werden
+     */
+    private final DBTable table;
+
+    /**
+     * Index der Spalte, auf die sich die Bedingung bezieht
+     */
+    private final int whereColumn;
+
+    /**
+     * Konstruktor
+     *
+     * @param table       Tabelle, aus der Zeilen entfernt werden
+     * @param whereColumn Index der Spalte, auf die sich die Bedingung bezieht
+     */
+    PreparedRemove(DBTable table, int whereColumn) {
+        this.table = table;
+        this.whereColumn = whereColumn;
+    }
+
+    /**
+     * Entfernt alle Zeilen, bei denen die übergebene Bedingung erfüllt ist.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in der Tabelle und f(N) = N.
+     *
+     * @param predicate Bedingung
+     *
+     * @pre predicate != null
+     */
+    public void execute(Predicate<Value> predicate) {
+        assert predicate != null : "predicate is null";
+        this.table.executeRemove(this.whereColumn, predicate);
+    }
+}
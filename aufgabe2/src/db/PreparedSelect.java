@@ -0,0 +1,71 @@
+package db;
+
+import db.value.Value;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Vorbereitete Selektion auf einer Datenbanktabelle, erzeugt durch
+ * {@link DBTable#prepareSelect(List, List, String)}.
+ * <p>
+ * Spaltenbezeichner und Tabellenbezeichner sind bereits geprüft und in Spaltenindizes aufgelöst. Jede Ausführung
+ * erhält nur noch die Bedingungen und arbeitet wie {@link DBTable#select(List, List, String)}.
+ */
+public final class PreparedSelect {
+
+    /**
+     * Tabelle, auf der selektiert wird
+     */
+    private final DBTable table;
+
+    /**
+     * Indizes der selektierten Spalten
+     */
+    private final int[] selectedIndexes;
+
+    /**
+     * Indizes der Spalten, auf die sich die Bedingungen beziehen
+     */
+    private final int[] whereColumns;
+
+    /**
+     * Bezeichner der Tabellen, die erzeugt werden
+     */
+    private final String newTableId;
+
+    /**
+     * Konstruktor
+     *
+     * @param table           Tabelle, auf der selektiert wird
+     * @param selectedIndexes Indizes der selektierten Spalten
+     * @param whereColumns    Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param newTableId      Bezeichner der Tabellen, die erzeugt werden
+     */
+    PreparedSelect(DBTable table, int[] selectedIndexes, int[] whereColumns, String newTableId) {
+        this.table = table;
+        this.selectedIndexes = selectedIndexes;
+        this.whereColumns = whereColumns;
+        this.newTableId = newTableId;
+    }
+
+    /**
+     * Führt die Selektion mit den übergebenen Bedingungen aus. Es werden nur Zeilen übernommen, bei denen mindestens
+     * eine der Bedingungen erfüllt ist, bei einer leeren Liste alle Zeilen.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in der Tabelle und f(N) = N.
+     *
+     * @param predicates Bedingungen in der Reihenfolge der vorbereiteten Bedingungsspalten oder eine leere Liste
+     *
+     * @return Tabelle mit allen selektierten Spalten
+     *
+     * @pre predicates != null
+     * @pre predicates muss leer sein oder so viele Bedingungen enthalten, wie Bedingungsspalten vorbereitet wurden
+     */
+    public DBTable execute(List<Predicate<Value>> predicates) {
+        assert predicates != null : "predicates is null";
+        assert predicates.isEmpty() || predicates.size() == this.whereColumns.length : "wrong number of predicates";
+        return this.table.executeSelect(this.selectedIndexes, predicates.isEmpty() ? new int[0] : this.whereColumns,
+                predicates, this.newTableId);
+    }
+}
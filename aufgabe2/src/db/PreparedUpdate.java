@@ -0,0 +1,65 @@
+package db;
+
+import db.value.Value;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Vorbereitete Aktualisierung einer Spalte einer Datenbanktabelle, erzeugt durch
+ * {@link DBTable#prepareUpdate(String, List)}.
+ * <p>
+ * Die Spaltenbezeichner sind bereits geprüft und in Spaltenindizes aufgelöst. Jede Ausführung erhält nur noch den
+ * neuen Wert und die Bedingungen und arbeitet wie {@link DBTable#update(String, Value, List)}.
+ */
+public final class PreparedUpdate {
+
+    /**
+     * Tabelle, die aktualisiert wird
+     */
+    private final DBTable table;
+
+    /**
+     * Index der Spalte, in der Werte aktualisiert werden
+     */
+    private final int targetIndex;
+
+    /**
+     * Indizes der Spalten, auf die sich die Bedingungen beziehen
+     */
+    private final int[] whereColumns;
+
+    /**
+     * Konstruktor
+     *
+     * @param table        Tabelle, die aktualisiert wird
+     * @param targetIndex  Index der Spalte, in der Werte aktualisiert werden
+     * @param whereColumns Indizes der Spalten, auf die sich die Bedingungen beziehen
+     */
+    PreparedUpdate(DBTable table, int targetIndex, int[] whereColumns) {
+        this.table = table;
+        this.targetIndex = targetIndex;
+        this.whereColumns = whereColumns;
+    }
+
+    /**
+     * Setzt den übergebenen Wert in allen Zeilen, in denen alle übergebenen Bedingungen erfüllt sind, bei einer
+     * leeren Liste in allen Zeilen.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in der Tabelle und f(N) = N.
+     *
+     * @param newValue   neuer Wert
+     * @param predicates Bedingungen in der Reihenfolge der vorbereiteten Bedingungsspalten oder eine leere Liste
+     *
+     * @pre newValue != null
+     * @pre predicates != null
+     * @pre predicates muss leer sein oder so viele Bedingungen enthalten, wie Bedingungsspalten vorbereitet wurden
+     */
+    public void execute(Value newValue, List<Predicate<Value>> predicates) {
+        assert newValue != null : "newValue is null";
+        assert predicates != null : "predicates is null";
+        assert predicates.isEmpty() || predicates.size() == this.whereColumns.length : "wrong number of predicates";
+        this.table.executeUpdate(this.targetIndex, newValue, predicates.isEmpty() ? new int[0] : this.whereColumns,
+                predicates);
+    }
+}
@@ -0,0 +1,125 @@
+package db;
+
+import db.cdc.ChangeType;
+import db.value.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Materialisierte Sicht, die wie {@link DBTable#select(List, List, String)} die Zeilen einer Tabelle filtert und auf
+ * einige Spalten beschränkt.
+ * <p>
+ * Jede Änderung wird in O(1) übernommen: Für die geänderte Zeile werden nur die Bedingungen ausgewertet und höchstens
+ * eine Zeile der Ergebnistabelle angehängt, ersetzt oder entfernt.
+ */
+final class SelectView extends MaterializedView {
+
+    /**
+     * Basistabelle
+     */
+    private final DBTable base;
+
+    /**
+     * Indizes der selektierten Spalten in der Basistabelle
+     */
+    private final int[] selectedIndexes;
+
+    /**
+     * Indizes der Spalten, auf die sich die Bedingungen beziehen
+     */
+    private final int[] whereColumns;
+
+    /**
+     * Bedingungen in der Reihenfolge von whereColumns, von denen mindestens eine erfüllt sein muss
+     */
+    private final List<Predicate<Value>> predicates;
+
+    /**
+     * Index des Primärschlüssels in der Basistabelle
+     */
+    private final int primaryKeyIndex;
+
+    /**
+     * Konstruktor. Berechnet die Sicht einmal vollständig und meldet sie bei der Basistabelle an.
+     *
+     * @param base        Basistabelle
+     * @param colIds      Spaltenbezeichner der selektierten Spalten, einschließlich des Primärschlüssels
+     * @param whereParams Bedingungen
+     * @param name        Bezeichner der Ergebnistabelle
+     */
+    SelectView(DBTable base, List<String> colIds, List<WhereParameter> whereParams, String name) {
+        super(base.select(colIds, whereParams, name));
+        this.base = base;
+        this.selectedIndexes = base.resolveColumns(this.getTable().getColumnIds());
+        this.whereColumns = base.resolveWhereColumns(whereParams);
+        this.predicates = DBTable.predicatesOf(whereParams);
+        this.primaryKeyIndex = base.getColumnIndex(base.getPrimaryKeyColumnId());
+        base.addDependentView(this);
+    }
+
+    @Override
+    void onChange(DBTable source, ChangeType type, List<Value> before, List<Value> after) {
+        switch (type) {
+            case APPEND:
+                if (this.matches(after)) {
+                    this.getTable().appendRow(this.project(after));
+                }
+                break;
+            case UPDATE:
+                if (!this.matches(after)) {
+                    this.getTable().removeRow(after.get(this.primaryKeyIndex));
+                } else if (this.matches(before)) {
+                    this.getTable().replaceRow(this.project(after));
+                } else {
+                    this.getTable().appendRow(this.project(after));
+                }
+                break;
+            case REMOVE:
+                this.getTable().removeRow(before.get(this.primaryKeyIndex));
+                break;
+            default:
+                this.getTable().removeAllRows();
+        }
+    }
+
+    @Override
+    void detach() {
+        this.base.removeDependentView(this);
+    }
+
+    /**
+     * Gibt an, ob die übergebene Zeile der Basistabelle in die Sicht gehört.
+     *
+     * @param row Zeile der Basistabelle
+     *
+     * @return Angabe, ob keine Bedingung angegeben oder mindestens eine erfüllt ist
+     */
+    private boolean matches(List<Value> row) {
+        if (this.predicates.isEmpty()) {
+            return true;
+        }
+        for (int i = 0; i < this.whereColumns.length; i++) {
+            if (this.predicates.get(i).test(row.get(this.whereColumns[i]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Beschränkt die übergebene Zeile der Basistabelle auf die selektierten Spalten.
+     *
+     * @param row Zeile der Basistabelle
+     *
+     * @return neue Zeile der Ergebnistabelle
+     */
+    private List<Value> project(List<Value> row) {
+        List<Value> projected = new ArrayList<>(this.selectedIndexes.length);
+        for (int index : this.selectedIndexes) {
+            projected.add(row.get(index));
+        }
+        return projected;
+    }
+}
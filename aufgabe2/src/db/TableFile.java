@@ -0,0 +1,211 @@
+package db;
+
+import db.storage.StorageMode;
+import db.storage.ValueCodec;
+import util.Pair;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Speichert eine Tabelle vollständig in einer Datei und liest sie wieder ein.
+ * <p>
+ * Die Datei enthält Bezeichner, Spalten, Speicherart, Löschmodus, Kompaktierungsschwelle und die Spalten mit
+ * Bitmap-Index, gefolgt von allen sichtbaren Zeilen in ihrer Reihenfolge ({@link ValueCodec}). Als gelöscht markierte
+ * Zeilen werden nicht gespeichert. Abonnements des Änderungsstroms und materialisierte Sichten gehören nicht zur
+ * Tabelle und werden nicht gespeichert.
+ * <p>
+ * Zusätzlich kann der Katalog einer Datenbank, also ihr Bezeichner und die Bezeichner ihrer Tabellen, in einer eigenen
+ * Datei gespeichert werden, sodass er ohne die Tabellen gelesen werden kann.
+ */
+final class TableFile {
+
+    /**
+     * Kennung am Anfang jeder Tabellendatei
+     */
+    private static final int MAGIC = 0x44425442;
+
+    /**
+     * Kennung am Anfang jeder Katalogdatei
+     */
+    private static final int CATALOG_MAGIC = 0x44424341;
+
+    /**
+     * Version des Dateiformats
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Größe der Puffer zum Schreiben und Lesen in Bytes
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Versteckter Konstruktor
+     */
+    private TableFile() {
+    }
+
+    /**
+     * Schreibt die übergebene Tabelle in die Datei. Eine vorhandene Datei wird ersetzt.
+     *
+     * @param table Tabelle
+     * @param file  Datei
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Schreiben
+     */
+    static void write(DBTable table, Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel),
+                    BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(table.getId());
+            out.writeUTF(table.getPrimaryKeyColumnId());
+            writeStrings(out, table.getColumnIds());
+            out.writeUTF(table.getStorageMode().name());
+            out.writeUTF(table.getDeletionMode().name());
+            out.writeDouble(table.getCompactionThreshold());
+            writeStrings(out, table.getBitmapIndexColumnIds());
+            out.writeInt(table.getNumOfRows());
+            table.forEachRow(row -> {
+                try {
+                    ValueCodec.writeRow(out, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Liest eine Tabelle, die mit {@link #write(DBTable, Path)} geschrieben wurde.
+     *
+     * @param file Datei
+     *
+     * @return neue Tabelle
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Lesen oder wenn die Datei keine Tabellendatei ist
+     */
+    static DBTable read(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel),
+                    BUFFER_SIZE));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("not a table file: " + file);
+            }
+            String id = in.readUTF();
+            String primaryKeyColId = in.readUTF();
+            List<String> colIds = readStrings(in);
+            DBTable table = new DBTable(id, primaryKeyColId, colIds, StorageMode.valueOf(in.readUTF()));
+            table.setDeletionMode(DeletionMode.valueOf(in.readUTF()));
+            table.setCompactionThreshold(in.readDouble());
+            List<String> indexedColIds = readStrings(in);
+            int numOfRows = in.readInt();
+            for (int i = 0; i < numOfRows; i++) {
+                table.appendRow(ValueCodec.readRow(in));
+            }
+            for (String colId : indexedColIds) {
+                table.createBitmapIndex(colId);
+            }
+            return table;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Schreibt den Katalog einer Datenbank in die Datei. Eine vorhandene Datei wird ersetzt.
+     *
+     * @param file     Datei
+     * @param dbId     Bezeichner der Datenbank
+     * @param tableIds Bezeichner der Tabellen
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Schreiben
+     */
+    static void writeCatalog(Path file, String dbId, Collection<String> tableIds) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel),
+                    BUFFER_SIZE));
+            out.writeInt(CATALOG_MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(dbId);
+            writeStrings(out, List.copyOf(tableIds));
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Liest einen Katalog, der mit {@link #writeCatalog(Path, String, Collection)} geschrieben wurde.
+     *
+     * @param file Datei
+     *
+     * @return Bezeichner der Datenbank und Bezeichner ihrer Tabellen
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Lesen oder wenn die Datei keine Katalogdatei ist
+     */
+    static Pair<String, List<String>> readCatalog(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel),
+                    BUFFER_SIZE));
+            if (in.readInt() != CATALOG_MAGIC || in.readInt() != VERSION) {
+                throw new IOException("not a catalog file: " + file);
+            }
+            String dbId = in.readUTF();
+            return new Pair<>(dbId, readStrings(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Schreibt eine Liste von Zeichenketten.
+     *
+     * @param out     Ausgabe
+     * @param strings Zeichenketten
+     *
+     * @throws IOException bei einem Fehler beim Schreiben
+     */
+    private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            out.writeUTF(string);
+        }
+    }
+
+    /**
+     * Liest eine Liste von Zeichenketten, die mit {@link #writeStrings(DataOutputStream, List)} geschrieben wurde.
+     *
+     * @param in Eingabe
+     *
+     * @return Zeichenketten
+     *
+     * @throws IOException bei einem Fehler beim Lesen
+     */
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(in.readUTF());
+        }
+        return strings;
+    }
+}
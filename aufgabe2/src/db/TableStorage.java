@@ -0,0 +1,907 @@
+package db;
+
+import util.Util;
+import db.index.BitmapIndex;
+import db.index.BloomFilter;
+import db.storage.Column;
+import db.storage.HeapPrimaryKeyIndex;
+import db.storage.PersistentColumn;
+import db.storage.PersistentPrimaryKeyIndex;
+import db.storage.PrimaryKeyIndex;
+import db.storage.SlotRemapping;
+import db.storage.StorageMode;
+import db.storage.ValueColumn;
+import db.value.Value;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Diese Klasse verwaltet die Daten einer {@link DBTable}: die Spalten, den Primärschlüsselindex, Bitmap-Indizes, den
+ * Bloom-Filter über die Primärschlüssel und die als gelöscht markierten Zeilen.
+ * <p>
+ * Spalten und Primärschlüsselindex kann sich eine Tabelle mit ihren Projektionen teilen. Sie werden erst kopiert,
+ * bevor eine der Tabellen sie ändert (copy-on-write). Operationen über Bedingungen, Joins, den Änderungsstrom und die
+ * Ausführungspläne stellt {@link DBTable} bereit.
+ */
+abstract class TableStorage {
+
+    /**
+     * Anteil gelöschter Zeilen, ab dem im verzögerten Löschmodus standardmäßig kompaktiert wird
+     */
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.25;
+
+    /**
+     * Kapazität, mit der ein Bloom-Filter über die Primärschlüssel mindestens angelegt wird
+     */
+    private static final int MIN_FILTER_CAPACITY = 1024;
+
+    /**
+     * Bezeichner dieser Tabelle
+     **/
+    protected final String id;
+
+    /**
+     * Spaltenbezeichner des Primärschlüssels
+     */
+    protected final String primaryKeyColId;
+
+    /**
+     * Spaltenbezeichner in der Reihenfolge der Tabelle
+     */
+    protected final List<String> columnIds;
+
+    /**
+     * Zuordnung von Spaltenbezeichnern zu ihren Indizes
+     */
+    protected final Map<String, Integer> columnIndexMap;
+
+    /**
+     * Index des Primärschlüssels
+     */
+    protected final int primaryKeyIndex;
+
+    /**
+     * Spalten dieser Tabelle in der Reihenfolge der Spaltenbezeichner
+     */
+    protected final Column[] columns;
+
+    /**
+     * Speicherart der Spalten und des Primärschlüsselindex
+     */
+    protected final StorageMode storageMode;
+
+    /**
+     * Zuordnung von Primärschlüsselwerten zu den Slots ihrer Zeilen
+     */
+    protected PrimaryKeyIndex primaryKeys;
+
+    /**
+     * Angabe je Spalte, ob sich diese Tabelle die Spalte mit einer anderen teilt und sie vor der nächsten Änderung
+     * kopieren muss
+     */
+    protected final boolean[] sharedColumns;
+
+    /**
+     * Angabe, ob sich diese Tabelle den Primärschlüsselindex mit einer anderen teilt und ihn vor der nächsten Änderung
+     * kopieren muss
+     */
+    protected boolean sharedPrimaryKeys;
+
+    /**
+     * Bitmap-Indizes der Spalten oder null für Spalten ohne Index
+     */
+    protected final BitmapIndex[] bitmapIndexes;
+
+    /**
+     * Bloom-Filter über die Primärschlüssel, den {@link DBTable#semijoin(DBTable, String, String)} und
+     * {@link DBTable#antijoin(DBTable, String, String)} vor dem Primärschlüsselindex befragen, oder null
+     */
+    protected BloomFilter primaryKeyFilter;
+
+    /**
+     * Slots, deren Zeilen als gelöscht markiert, aber noch nicht entfernt sind
+     */
+    protected final BitSet deadSlots;
+
+    /**
+     * Anzahl der als gelöscht markierten Slots
+     */
+    protected int numOfDeadSlots;
+
+    /**
+     * Art, wie {@link DBTable#removeRows(WhereParameter)} Zeilen entfernt
+     */
+    protected DeletionMode deletionMode;
+
+    /**
+     * Anteil gelöschter Zeilen, ab dem im verzögerten Löschmodus kompaktiert wird
+     */
+    protected double compactionThreshold;
+
+    /**
+     * Angabe, ob diese Tabelle aus ihrer Datenbank ausgelagert wurde und nicht mehr geändert werden darf
+     */
+    private volatile boolean evicted;
+
+    /**
+     * Konstruktor für eine leere Tabelle mit der übergebenen Speicherart.
+     *
+     * @param id              Bezeichner der Tabelle
+     * @param primaryKeyColId Spaltenbezeichner des Primärschlüssels
+     * @param colIds          Spaltenbezeichner, in der Reihenfolge, in der sie in der Tabelle stehen sollen
+     * @param storageMode     Speicherart der Spalten und des Primärschlüsselindex
+     *
+     * @pre id != null
+     * @pre primaryKeyColId != null
+     * @pre colIds != null
+     * @pre storageMode != null
+     * @pre id muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Tabellenbezeichner sein
+     * @pre primaryKeyColId muss in colIds enthalten sein
+     * @pre Alle Bezeichner aus colIds müssen gemäß {@link Util#areOnlyUniqueIdentifiers(List)} eindeutig sein
+     * @pre Alle Bezeichner aus colIds müssen gemäß {@link Util#areValidIdentifiers(List)} gültig sein
+     */
+    TableStorage(String id, String primaryKeyColId, List<String> colIds, StorageMode storageMode) {
+        assert id != null : "id is null";
+        assert primaryKeyColId != null : "primaryKeyColId is null";
+        assert colIds != null : "colIds is null";
+        assert storageMode != null : "storageMode is null";
+
+        assert Util.isValidIdentifier(id) : "id is invalid";
+        assert Util.areValidIdentifiers(colIds) : "colIds contain invalid identifiers";
+        assert Util.areOnlyUniqueIdentifiers(colIds) : "colIds contain duplicates";
+        assert colIds.contains(primaryKeyColId) : "primary key not part of colIds";
+
+        this.id = id;
+        this.primaryKeyColId = primaryKeyColId;
+        this.columnIds = new ArrayList<>(colIds);
+        this.columnIndexMap = new HashMap<>();
+        for (int i = 0; i < this.columnIds.size(); i++) {
+            this.columnIndexMap.put(this.columnIds.get(i), i);
+        }
+        this.primaryKeyIndex = this.columnIndexMap.get(primaryKeyColId);
+        this.columns = new Column[this.columnIds.size()];
+        for (int i = 0; i < this.columns.length; i++) {
+            this.columns[i] = new ValueColumn();
+        }
+        this.storageMode = storageMode;
+        this.primaryKeys = storageMode.createPrimaryKeyIndex(slot -> this.columns[this.primaryKeyIndex].get(slot));
+        this.sharedColumns = new boolean[this.columns.length];
+        this.sharedPrimaryKeys = false;
+        this.bitmapIndexes = new BitmapIndex[this.columnIds.size()];
+        this.primaryKeyFilter = null;
+        this.evicted = false;
+        this.deadSlots = new BitSet();
+        this.numOfDeadSlots = 0;
+        this.deletionMode = DeletionMode.IMMEDIATE;
+        this.compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    }
+
+    /**
+     * Konstruktor für eine Projektion, die sich die selektierten Spalten und den Primärschlüsselindex mit der Quelle
+     * teilt, siehe {@link DBTable#select(List, List, String)}. Persistente Spalten und Indizes werden geforkt, auf dem
+     * Heap werden sie erst vor der ersten Änderung kopiert. Als gelöscht markierte Zeilen bleiben markiert;
+     * Bitmap-Indizes, Primärschlüsselfilter und Löschmodus werden nicht übernommen.
+     *
+     * @param source          Tabelle, die projiziert wird
+     * @param id              Bezeichner der Projektion
+     * @param selectedIndexes Indizes der selektierten Spalten der Quelle, einschließlich des Primärschlüssels
+     */
+    TableStorage(TableStorage source, String id, int[] selectedIndexes) {
+        this.id = id;
+        this.primaryKeyColId = source.primaryKeyColId;
+        this.columnIds = new ArrayList<>(selectedIndexes.length);
+        this.columnIndexMap = new HashMap<>();
+        this.columns = new Column[selectedIndexes.length];
+        this.sharedColumns = new boolean[selectedIndexes.length];
+        for (int i = 0; i < selectedIndexes.length; i++) {
+            int index = selectedIndexes[i];
+            this.columnIds.add(source.columnIds.get(index));
+            this.columnIndexMap.put(source.columnIds.get(index), i);
+            Column column = source.columns[index];
+            if (column.size() == 0) {
+                this.columns[i] = new ValueColumn();
+            } else if (column instanceof PersistentColumn persistent) {
+                this.columns[i] = persistent.fork();
+            } else {
+                assert source.storageMode == StorageMode.HEAP : "column not shareable";
+                this.columns[i] = column;
+                this.sharedColumns[i] = true;
+                source.sharedColumns[index] = true;
+            }
+        }
+        this.primaryKeyIndex = this.columnIndexMap.get(this.primaryKeyColId);
+        this.storageMode = source.storageMode;
+        if (source.primaryKeys instanceof PersistentPrimaryKeyIndex persistent) {
+            this.primaryKeys = persistent.fork();
+            this.sharedPrimaryKeys = false;
+        } else {
+            this.primaryKeys = source.primaryKeys;
+            this.sharedPrimaryKeys = true;
+            source.sharedPrimaryKeys = true;
+        }
+        this.bitmapIndexes = new BitmapIndex[this.columns.length];
+        this.primaryKeyFilter = null;
+        this.evicted = false;
+        this.deadSlots = (BitSet) source.deadSlots.clone();
+        this.numOfDeadSlots = source.numOfDeadSlots;
+        this.deletionMode = DeletionMode.IMMEDIATE;
+        this.compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    }
+
+    /**
+     * Liefert den Bezeichner dieser Tabelle.
+     *
+     * @return Bezeichner dieser Tabelle
+     */
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * Liefert den Spaltenbezeichner des Primärschlüssels.
+     *
+     * @return Spaltenbezeichner des Primärschlüssels
+     */
+    public String getPrimaryKeyColumnId() {
+        return this.primaryKeyColId;
+    }
+
+    /**
+     * Liefert die Speicherart dieser Tabelle.
+     *
+     * @return Speicherart der Spalten und des Primärschlüsselindex
+     */
+    public StorageMode getStorageMode() {
+        return this.storageMode;
+    }
+
+    /**
+     * Liefert die Art, wie {@link DBTable#removeRows(WhereParameter)} Zeilen entfernt.
+     *
+     * @return Löschmodus dieser Tabelle
+     */
+    public DeletionMode getDeletionMode() {
+        return this.deletionMode;
+    }
+
+    /**
+     * Legt fest, wie {@link DBTable#removeRows(WhereParameter)} Zeilen entfernt. Beim Wechsel zu
+     * {@link DeletionMode#IMMEDIATE} werden alle als gelöscht markierten Zeilen sofort entfernt.
+     *
+     * @param deletionMode Löschmodus
+     *
+     * @pre deletionMode != null
+     */
+    public void setDeletionMode(DeletionMode deletionMode) {
+        assert deletionMode != null : "deletionMode is null";
+        this.checkNotEvicted();
+        this.deletionMode = deletionMode;
+        if (deletionMode == DeletionMode.IMMEDIATE && this.numOfDeadSlots > 0) {
+            this.compact();
+        }
+    }
+
+    /**
+     * Liefert den Anteil gelöschter Zeilen, ab dem im verzögerten Löschmodus kompaktiert wird.
+     *
+     * @return Schwellwert für die Kompaktierung
+     */
+    public double getCompactionThreshold() {
+        return this.compactionThreshold;
+    }
+
+    /**
+     * Legt den Anteil gelöschter an allen gespeicherten Zeilen fest, ab dem im verzögerten Löschmodus nach
+     * {@link DBTable#removeRows(WhereParameter)} automatisch kompaktiert wird.
+     *
+     * @param compactionThreshold Schwellwert für die Kompaktierung
+     *
+     * @pre 0 &lt; compactionThreshold &lt;= 1
+     */
+    public void setCompactionThreshold(double compactionThreshold) {
+        assert compactionThreshold > 0 && compactionThreshold <= 1 : "compactionThreshold out of range";
+        this.checkNotEvicted();
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Liefert die Anzahl der Zeilen, die als gelöscht markiert, aber noch nicht entfernt sind.
+     *
+     * @return Anzahl der als gelöscht markierten Zeilen
+     */
+    public int getNumOfDeletedRows() {
+        return this.numOfDeadSlots;
+    }
+
+    /**
+     * Entfernt alle als gelöscht markierten Zeilen endgültig und gibt nicht benötigte Kapazität der Spalten und des
+     * Primärschlüsselindex frei. Die übrigen Zeilen behalten ihre Reihenfolge.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der gespeicherten Zeilen in dieser Tabelle und f(N) = N.
+     */
+    public void compact() {
+        this.checkNotEvicted();
+        if (this.numOfDeadSlots > 0) {
+            this.removeSlots(this.deadSlots);
+        }
+        for (int i = 0; i < this.columns.length; i++) {
+            if (!this.sharedColumns[i]) {
+                this.columns[i].trimToSize();
+            }
+        }
+        if (!this.sharedPrimaryKeys) {
+            this.primaryKeys.trimToSize();
+        }
+    }
+
+    /**
+     * Liefert die Spaltenanzahl dieser Tabelle.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Spaltenbezeichner dieser Tabelle und f(N) = 1.
+     *
+     * @return Spaltenanzahl dieser Tabelle
+     */
+    public int getNumOfColumns() {
+        return this.columnIds.size();
+    }
+
+    /**
+     * Liefert die Zeilenanzahl dieser Tabelle.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) = 1.
+     *
+     * @return Zeilenanzahl dieser Tabelle
+     */
+    public int getNumOfRows() {
+        return this.getNumOfSlots() - this.numOfDeadSlots;
+    }
+
+    /**
+     * Liefert alle Spaltenbezeichner dieser Tabelle. Die Reihenfolge entspricht dabei der Reihenfolge der Spalten in
+     * der Tabelle.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Spaltenbezeichner dieser Tabelle und f(N) = N.
+     *
+     * @return Spaltenbezeichner dieser Tabelle
+     */
+    public List<String> getColumnIds() {
+        return new ArrayList<>(this.columnIds);
+    }
+
+    /**
+     * Liefert die Zeile mit dem übergebenen Primärschlüssel. Die gelieferte Liste ist eine Kopie, Änderungen an ihr
+     * wirken sich nicht auf diese Tabelle aus.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) = 1.
+     *
+     * @param primaryKey Primärschlüssel
+     *
+     * @return Zeile mit dem übergebenen Primärschlüssel oder null, wenn der Primärschlüssel nicht in dieser Tabelle
+     *         enthalten ist
+     *
+     * @pre primaryKey != null
+     */
+    public List<Value> getRowByPrimaryKey(Value primaryKey) {
+        assert primaryKey != null : "primaryKey is null";
+        int slot = this.slotOf(primaryKey);
+        if (slot < 0) {
+            return null;
+        }
+        return this.getRow(slot);
+    }
+
+    /**
+     * Übergibt alle Zeilen dieser Tabelle in ihrer Reihenfolge an die übergebene Aktion. Jede Zeile ist eine Kopie,
+     * Änderungen an ihr wirken sich nicht auf diese Tabelle aus. Die Aktion darf diese Tabelle nicht verändern.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) = N.
+     *
+     * @param action Aktion, die für jede Zeile ausgeführt wird
+     *
+     * @pre action != null
+     */
+    public void forEachRow(Consumer<List<Value>> action) {
+        assert action != null : "action is null";
+        BitSet slots = this.liveSlots();
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            action.accept(this.getRow(slot));
+        }
+    }
+
+    /**
+     * Liefert den Wert in der Zeile mit dem übergebenen Primärschlüssel, der in der Spalte mit dem übergebenen
+     * Spaltenbezeichner steht.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) = 1.
+     *
+     * @param primaryKey Primärschlüssel
+     * @param colId      Spaltenbezeichner
+     *
+     * @return Wert der Zelle oder null, wenn der Primärschlüssel nicht in dieser Tabelle enthalten ist
+     *
+     * @pre primaryKey != null
+     * @pre colId != null
+     * @pre colId muss ein Spaltenbezeichner dieser Tabelle sein
+     * @pre colId muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Spaltenbezeichner sein
+     */
+    public Value getValueByPrimaryKey(Value primaryKey, String colId) {
+        assert primaryKey != null : "primaryKey is null";
+        assert colId != null : "colId is null";
+        Integer index = this.columnIndexMap.get(colId);
+        assert index != null : "colId not part of this table";
+
+        int slot = this.slotOf(primaryKey);
+        if (slot < 0) {
+            return null;
+        }
+        return this.columns[index].get(slot);
+    }
+
+    /**
+     * Prüft, ob diese Tabelle eine Spalte mit dem übergebenen Spaltenbezeichner hat.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Spaltenbezeichner dieser Tabelle und f(N) = 1.
+     *
+     * @param colId Spaltenbezeichner, der geprüft wird
+     *
+     * @return Angabe, ob diese Tabelle eine Spalte mit dem übergebenen Spaltenbezeichner hat
+     *
+     * @pre colId != null
+     * @pre colId muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Spaltenbezeichner sein
+     */
+    public boolean hasColumn(String colId) {
+        assert colId != null : "colId is null";
+        assert Util.isValidIdentifier(colId) : "invalid colId";
+        return this.columnIndexMap.containsKey(colId);
+    }
+
+    /**
+     * Prüft, ob mindestens ein Spaltenbezeichner aus der übergebenen Liste ein Spaltenbezeichner dieser Tabelle ist.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Spaltenbezeichner der übergebenen Liste und f(N) =
+     * N.
+     *
+     * @param colIds Spaltenbezeichner, die geprüft werden
+     *
+     * @return Angabe, ob mindestens ein Element aus colIds vorhanden ist. false, wenn colIds leer ist.
+     *
+     * @pre colIds != null
+     */
+    public boolean hasAnyColumn(List<String> colIds) {
+        assert colIds != null : "colIds is null";
+        for (String colId : colIds) {
+            if (this.columnIndexMap.containsKey(colId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prüft, ob alle Spaltenbezeichner aus der übergebenen Liste Spaltenbezeichner dieser Tabelle sind.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Spaltenbezeichner dieser Tabelle und f(N) = N.
+     *
+     * @param colIds Spaltenbezeichner, die geprüft werden
+     *
+     * @return Angabe, ob alle Elemente aus colIds vorhanden sind. true, wenn colIds leer ist.
+     *
+     * @pre colIds != null
+     */
+    public boolean hasAllColumns(List<String> colIds) {
+        assert colIds != null : "colIds is null";
+        for (String colId : colIds) {
+            if (!this.columnIndexMap.containsKey(colId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Liefert den geschätzten Speicherbedarf dieser Tabelle in Bytes: Werte aller Spalten einschließlich reservierter
+     * Kapazität, Primärschlüsselindex, Bitmap-Indizes und Markierungen gelöschter Zeilen. Spalten und Indizes außerhalb
+     * des Java-Heaps ({@link StorageMode#OFF_HEAP}) werden mitgezählt.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Spalten dieser Tabelle und f(N) = N + V, wobei V =
+     * Anzahl der unterschiedlichen Werte in Spalten mit Bitmap-Index.
+     *
+     * @return geschätzter Speicherbedarf in Bytes
+     */
+    public long getSizeInBytes() {
+        long bytes = this.primaryKeys.getSizeInBytes() + this.deadSlots.size() / Byte.SIZE;
+        for (int i = 0; i < this.columns.length; i++) {
+            bytes += this.columns[i].getSizeInBytes();
+            if (this.bitmapIndexes[i] != null) {
+                bytes += this.bitmapIndexes[i].getSizeInBytes();
+            }
+        }
+        if (this.primaryKeyFilter != null) {
+            bytes += this.primaryKeyFilter.getSizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Legt einen Bitmap-Index ({@link BitmapIndex}) für die Spalte mit dem übergebenen Spaltenbezeichner an.
+     * <p>
+     * Ein Bitmap-Index lohnt sich für Spalten mit wenigen unterschiedlichen Werten, etwa boolesche Spalten oder
+     * Kategorien. Bedingungen auf solchen Spalten werden in {@link DBTable#select(List, List, String)},
+     * {@link DBTable#update(String, Value, List)} und {@link DBTable#removeRows(WhereParameter)} einmal pro
+     * unterschiedlichem Wert ausgewertet und bitweise verknüpft, bevor auf Zeilendaten zugegriffen wird. Hat die Spalte
+     * mehr als {@link BitmapIndex#MAX_CARDINALITY} unterschiedliche Werte, wird der Index nicht verwendet.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) = N.
+     *
+     * @param colId Spaltenbezeichner
+     *
+     * @pre colId != null
+     * @pre colId muss ein Spaltenbezeichner dieser Tabelle sein
+     */
+    public void createBitmapIndex(String colId) {
+        assert colId != null : "colId is null";
+        assert this.columnIndexMap.containsKey(colId) : "colId not part of table";
+
+        this.checkNotEvicted();
+        int index = this.columnIndexMap.get(colId);
+        this.bitmapIndexes[index] = new BitmapIndex();
+        this.rebuildBitmapIndex(index);
+    }
+
+    /**
+     * Entfernt den Bitmap-Index der Spalte mit dem übergebenen Spaltenbezeichner, sofern vorhanden.
+     *
+     * @param colId Spaltenbezeichner
+     *
+     * @pre colId != null
+     * @pre colId muss ein Spaltenbezeichner dieser Tabelle sein
+     */
+    public void dropBitmapIndex(String colId) {
+        assert colId != null : "colId is null";
+        assert this.columnIndexMap.containsKey(colId) : "colId not part of table";
+        this.checkNotEvicted();
+        this.bitmapIndexes[this.columnIndexMap.get(colId)] = null;
+    }
+
+    /**
+     * Gibt an, ob für die Spalte mit dem übergebenen Spaltenbezeichner ein verwendbarer Bitmap-Index existiert.
+     *
+     * @param colId Spaltenbezeichner
+     *
+     * @return Angabe, ob ein verwendbarer Bitmap-Index existiert
+     *
+     * @pre colId != null
+     * @pre colId muss ein Spaltenbezeichner dieser Tabelle sein
+     */
+    public boolean hasBitmapIndex(String colId) {
+        assert colId != null : "colId is null";
+        assert this.columnIndexMap.containsKey(colId) : "colId not part of table";
+        BitmapIndex index = this.bitmapIndexes[this.columnIndexMap.get(colId)];
+        return index != null && index.isUsable();
+    }
+
+    /**
+     * Legt einen Bloom-Filter ({@link BloomFilter}) über die Primärschlüssel dieser Tabelle an oder baut ihn neu auf.
+     * <p>
+     * Der Filter wird bei {@link DBTable#appendRow(List)} ergänzt und bei Bedarf vergrößert. Entfernte
+     * Primärschlüssel bleiben bis zum nächsten Neuaufbau im Filter, was nur die Anzahl falscher Treffer erhöht.
+     * {@link DBTable#semijoin(DBTable, String, String)} und {@link DBTable#antijoin(DBTable, String, String)} anderer
+     * Tabellen befragen ihn, bevor sie den Primärschlüsselindex dieser Tabelle durchsuchen, sodass Fremdschlüssel ohne
+     * Partner meist ohne Zugriff auf den Index verworfen werden.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der vorhandenen Zeilen in dieser Tabelle und f(N) = N.
+     */
+    public void createPrimaryKeyFilter() {
+        this.checkNotEvicted();
+        this.rebuildPrimaryKeyFilter(Math.max(MIN_FILTER_CAPACITY, this.getNumOfRows()));
+    }
+
+    /**
+     * Entfernt den Bloom-Filter über die Primärschlüssel dieser Tabelle, sofern vorhanden.
+     */
+    public void dropPrimaryKeyFilter() {
+        this.checkNotEvicted();
+        this.primaryKeyFilter = null;
+    }
+
+    /**
+     * Gibt an, ob ein Bloom-Filter über die Primärschlüssel dieser Tabelle existiert.
+     *
+     * @return Angabe, ob ein Bloom-Filter existiert
+     */
+    public boolean hasPrimaryKeyFilter() {
+        return this.primaryKeyFilter != null;
+    }
+
+    /**
+     * Liefert den Index der Spalte mit dem übergebenen Spaltenbezeichner.
+     *
+     * @param colId Spaltenbezeichner
+     *
+     * @return Index der Spalte
+     *
+     * @pre colId muss ein Spaltenbezeichner dieser Tabelle sein
+     */
+    int getColumnIndex(String colId) {
+        assert this.columnIndexMap.containsKey(colId) : "colId not part of table";
+        return this.columnIndexMap.get(colId);
+    }
+
+    /**
+     * Liefert den Wert im übergebenen Slot der Spalte mit dem übergebenen Index.
+     *
+     * @param slot  Slot der Zeile
+     * @param index Index der Spalte
+     *
+     * @return Wert der Zelle
+     */
+    Value getValue(int slot, int index) {
+        return this.columns[index].get(slot);
+    }
+
+    /**
+     * Liefert die Werte der Zeile im übergebenen Slot als neue Liste.
+     *
+     * @param slot Slot der Zeile
+     *
+     * @return Werte der Zeile in der Reihenfolge der Spalten
+     */
+    List<Value> getRow(int slot) {
+        List<Value> row = new ArrayList<>(this.columns.length);
+        for (Column column : this.columns) {
+            row.add(column.get(slot));
+        }
+        return row;
+    }
+
+    /**
+     * Liefert die Spalte mit dem übergebenen Index so, dass sie den übergebenen Wert speichern kann. Eine leere Spalte
+     * wählt ihre Darstellung anhand des Werts neu, eine nicht passende Spalte wird in eine {@link ValueColumn}
+     * umgewandelt.
+     *
+     * @param index Index der Spalte
+     * @param value Wert, der gespeichert werden soll
+     *
+     * @return Spalte, die den Wert aufnehmen kann
+     */
+    Column columnAccepting(int index, Value value) {
+        Column column = this.columns[index];
+        if (column.size() == 0) {
+            column = this.storageMode.createColumn(value);
+        } else if (!column.accepts(value)) {
+            column = column.toValueColumn();
+        } else if (this.sharedColumns[index]) {
+            column = column.copy();
+        }
+        this.columns[index] = column;
+        this.sharedColumns[index] = false;
+        return column;
+    }
+
+    /**
+     * Markiert diese Tabelle als ausgelagert. Danach wirft jede Änderung über dieses Objekt eine
+     * {@link IllegalStateException}.
+     */
+    void invalidate() {
+        this.evicted = true;
+    }
+
+    /**
+     * Stellt sicher, dass diese Tabelle nicht ausgelagert wurde, bevor sie geändert wird.
+     *
+     * @throws IllegalStateException wenn die Tabelle ausgelagert wurde
+     */
+    void checkNotEvicted() {
+        if (this.evicted) {
+            throw new IllegalStateException("table " + this.id + " was evicted, get it again from its database");
+        }
+    }
+
+    /**
+     * Liefert die Spalte mit dem übergebenen Index so, dass sie geändert werden kann. Teilt sich diese Tabelle die
+     * Spalte mit einer anderen, wird sie vorher kopiert.
+     *
+     * @param index Index der Spalte
+     *
+     * @return Spalte, die nur zu dieser Tabelle gehört
+     */
+    Column writableColumn(int index) {
+        if (this.sharedColumns[index]) {
+            this.columns[index] = this.columns[index].copy();
+            this.sharedColumns[index] = false;
+        }
+        return this.columns[index];
+    }
+
+    /**
+     * Liefert den Primärschlüsselindex so, dass er geändert werden kann. Teilt sich diese Tabelle den Index mit einer
+     * anderen, wird er vorher kopiert.
+     *
+     * @return Primärschlüsselindex, der nur zu dieser Tabelle gehört
+     */
+    PrimaryKeyIndex writablePrimaryKeys() {
+        if (this.sharedPrimaryKeys) {
+            this.primaryKeys = ((HeapPrimaryKeyIndex) this.primaryKeys).copy();
+            this.sharedPrimaryKeys = false;
+        }
+        return this.primaryKeys;
+    }
+
+    /**
+     * Liefert die Spaltenbezeichner, die eine Selektion übernimmt.
+     *
+     * @param colIds Spaltenbezeichner der Spalten, die selektiert werden sollen oder null, wenn alle Spalten
+     *               selektiert werden sollen
+     *
+     * @return neue Liste der selektierten Spaltenbezeichner
+     *
+     * @pre Wenn colIds nicht null, müssen alle Bezeichner aus colIds gemäß
+     *         {@link Util#areOnlyUniqueIdentifiers(List)} eindeutig sein
+     * @pre Wenn colIds nicht null, müssen alle Bezeichner aus colIds Spaltenbezeichner dieser Tabelle sein
+     * @pre Wenn colIds nicht null, muss der Spaltenbezeichner des Primärschlüssels enthalten sein
+     */
+    List<String> selectedColumnIds(List<String> colIds) {
+        if (colIds == null) {
+            return new ArrayList<>(this.columnIds);
+        }
+        assert Util.areOnlyUniqueIdentifiers(colIds) : "colIds not unique";
+        assert this.hasAllColumns(colIds) : "colIds not part of table";
+        assert colIds.contains(this.primaryKeyColId) : "primary key missing";
+        return new ArrayList<>(colIds);
+    }
+
+    /**
+     * Gibt an, ob eine Selektion die selektierten Spalten dieser Tabelle ohne Kopie übernehmen kann, weil ohne
+     * Bedingung selektiert wird, keine Zeilen als gelöscht markiert sind und die Spalten nicht außerhalb des Heaps
+     * liegen.
+     *
+     * @param predicates Bedingungen
+     *
+     * @return Angabe, ob sich die neue Tabelle die Daten mit dieser teilen kann
+     */
+    boolean sharesData(List<Predicate<Value>> predicates) {
+        return this.storageMode != StorageMode.OFF_HEAP && predicates.isEmpty() && this.numOfDeadSlots == 0;
+    }
+
+    /**
+     * Liefert die Indizes der Spalten mit den übergebenen Spaltenbezeichnern.
+     *
+     * @param colIds Spaltenbezeichner dieser Tabelle
+     *
+     * @return Indizes der Spalten in der Reihenfolge von colIds
+     */
+    int[] resolveColumns(List<String> colIds) {
+        int[] indexes = new int[colIds.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = this.columnIndexMap.get(colIds.get(i));
+        }
+        return indexes;
+    }
+
+    /**
+     * Liefert die Indizes der Spalten, auf die sich die übergebenen Bedingungen beziehen.
+     *
+     * @param whereParams Bedingungen
+     *
+     * @return Indizes der Spalten in der Reihenfolge der Bedingungen
+     */
+    int[] resolveWhereColumns(List<WhereParameter> whereParams) {
+        int[] indexes = new int[whereParams.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            assert this.columnIndexMap.containsKey(whereParams.get(i).colId()) : "where column missing";
+            indexes[i] = this.columnIndexMap.get(whereParams.get(i).colId());
+        }
+        return indexes;
+    }
+
+    /**
+     * Baut den Bitmap-Index der Spalte mit dem übergebenen Index aus den Spaltenwerten neu auf.
+     *
+     * @param index Index der Spalte
+     */
+    void rebuildBitmapIndex(int index) {
+        BitmapIndex bitmapIndex = this.bitmapIndexes[index];
+        bitmapIndex.clear();
+        Column column = this.columns[index];
+        for (int slot = 0; slot < column.size() && bitmapIndex.isUsable(); slot++) {
+            bitmapIndex.add(column.get(slot), slot);
+        }
+    }
+
+    /**
+     * Baut den Bloom-Filter über die Primärschlüssel aus den Primärschlüsseln der vorhandenen Zeilen neu auf.
+     *
+     * @param capacity Kapazität des neuen Filters, mindestens die Anzahl der vorhandenen Zeilen
+     */
+    void rebuildPrimaryKeyFilter(int capacity) {
+        BloomFilter filter = new BloomFilter(capacity);
+        Column column = this.columns[this.primaryKeyIndex];
+        BitSet slots = this.liveSlots();
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            filter.add(column.get(slot));
+        }
+        this.primaryKeyFilter = filter;
+    }
+
+    /**
+     * Liefert die Anzahl der belegten Slots dieser Tabelle, einschließlich der als gelöscht markierten.
+     *
+     * @return Anzahl der belegten Slots
+     */
+    int getNumOfSlots() {
+        return this.columns[this.primaryKeyIndex].size();
+    }
+
+    /**
+     * Liefert den Slot der Zeile mit dem übergebenen Primärschlüssel.
+     *
+     * @param primaryKey Primärschlüssel
+     *
+     * @return Slot der Zeile oder -1, wenn keine sichtbare Zeile den Primärschlüssel hat
+     */
+    int slotOf(Value primaryKey) {
+        int slot = this.primaryKeys.get(primaryKey);
+        return slot < 0 || this.deadSlots.get(slot) ? -1 : slot;
+    }
+
+    /**
+     * Liefert die Spaltenbezeichner aller Spalten, für die ein Bitmap-Index angelegt wurde.
+     *
+     * @return Spaltenbezeichner in der Reihenfolge der Spalten
+     */
+    List<String> getBitmapIndexColumnIds() {
+        List<String> colIds = new ArrayList<>();
+        for (int i = 0; i < this.bitmapIndexes.length; i++) {
+            if (this.bitmapIndexes[i] != null) {
+                colIds.add(this.columnIds.get(i));
+            }
+        }
+        return colIds;
+    }
+
+    /**
+     * Liefert die Menge aller belegten Slots dieser Tabelle, deren Zeilen nicht als gelöscht markiert sind.
+     *
+     * @return neue Menge aller sichtbaren Slots
+     */
+    BitSet liveSlots() {
+        BitSet slots = new BitSet(this.getNumOfSlots());
+        slots.set(0, this.getNumOfSlots());
+        slots.andNot(this.deadSlots);
+        return slots;
+    }
+
+    /**
+     * Entfernt die Zeilen in den übergebenen Slots sowie alle als gelöscht markierten Zeilen. Die übrigen Zeilen
+     * rücken unter Beibehaltung ihrer Reihenfolge nach, ihre Slots im Primärschlüsselindex werden angepasst, ohne die
+     * Schlüssel neu zu hashen.
+     *
+     * @param removed Slots der zu entfernenden Zeilen
+     */
+    void removeSlots(BitSet removed) {
+        BitSet allRemoved = (BitSet) removed.clone();
+        allRemoved.or(this.deadSlots);
+        SlotRemapping remapping = new SlotRemapping(allRemoved, this.getNumOfSlots());
+
+        BitSet keep = this.liveSlots();
+        keep.andNot(removed);
+        for (int i = 0; i < this.columns.length; i++) {
+            this.writableColumn(i).compact(keep);
+        }
+        this.writablePrimaryKeys().remap(remapping);
+        this.deadSlots.clear();
+        this.numOfDeadSlots = 0;
+
+        for (int i = 0; i < this.bitmapIndexes.length; i++) {
+            if (this.bitmapIndexes[i] != null) {
+                this.rebuildBitmapIndex(i);
+            }
+        }
+    }
+}
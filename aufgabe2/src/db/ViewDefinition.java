@@ -0,0 +1,134 @@
+package db;
+
+import util.Util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Definition einer materialisierten Sicht ({@link DB#createMaterializedView(String, ViewDefinition)}): entweder eine
+ * Selektion über eine Tabelle wie {@link DBTable#select(List, List, String)} oder ein Equijoin zweier Tabellen über
+ * einen Fremdschlüssel wie {@link DBTable#equijoin(DBTable, String, String)}. Die Tabellen werden über ihre
+ * Bezeichner angegeben und erst beim Erstellen der Sicht in der Datenbank gesucht.
+ */
+public final class ViewDefinition {
+
+    /**
+     * Bezeichner der Basistabelle, bei einem Equijoin der Tabelle mit dem Fremdschlüssel
+     */
+    private final String tableId;
+
+    /**
+     * Selektierte Spalten oder null für alle Spalten, nur bei einer Selektion
+     */
+    private final List<String> colIds;
+
+    /**
+     * Bedingungen, nur bei einer Selektion
+     */
+    private final List<WhereParameter> whereParams;
+
+    /**
+     * Bezeichner der referenzierten Tabelle, nur bei einem Equijoin
+     */
+    private final String otherTableId;
+
+    /**
+     * Spaltenbezeichner des Fremdschlüssels, nur bei einem Equijoin
+     */
+    private final String fkColId;
+
+    /**
+     * Konstruktor
+     *
+     * @param tableId      Bezeichner der Basistabelle
+     * @param colIds       selektierte Spalten oder null
+     * @param whereParams  Bedingungen oder null
+     * @param otherTableId Bezeichner der referenzierten Tabelle oder null
+     * @param fkColId      Spaltenbezeichner des Fremdschlüssels oder null
+     */
+    private ViewDefinition(String tableId, List<String> colIds, List<WhereParameter> whereParams,
+            String otherTableId, String fkColId) {
+        this.tableId = tableId;
+        this.colIds = colIds;
+        this.whereParams = whereParams;
+        this.otherTableId = otherTableId;
+        this.fkColId = fkColId;
+    }
+
+    /**
+     * Definiert eine Sicht mit den Zeilen einer Tabelle, die mindestens eine der Bedingungen erfüllen, beschränkt auf
+     * die übergebenen Spalten. Es gelten die Vorbedingungen von {@link DBTable#select(List, List, String)}.
+     *
+     * @param tableId     Bezeichner der Tabelle
+     * @param colIds      Spaltenbezeichner der Spalten, die selektiert werden sollen, oder null für alle Spalten
+     * @param whereParams Bedingungen, eine leere Liste übernimmt alle Zeilen
+     *
+     * @return Definition der Sicht
+     *
+     * @pre tableId != null
+     * @pre whereParams != null
+     * @pre tableId muss gemäß {@link Util#isValidIdentifier(String)} ein gültiger Tabellenbezeichner sein
+     */
+    public static ViewDefinition select(String tableId, List<String> colIds, List<WhereParameter> whereParams) {
+        assert tableId != null : "tableId is null";
+        assert whereParams != null : "whereParams is null";
+        assert Util.isValidIdentifier(tableId) : "tableId invalid";
+        return new ViewDefinition(tableId, colIds == null ? null : new ArrayList<>(colIds),
+                new ArrayList<>(whereParams), null, null);
+    }
+
+    /**
+     * Definiert eine Sicht, die die Zeilen einer Tabelle mit den Zeilen einer anderen Tabelle verbindet, deren
+     * Primärschlüssel sie über einen Fremdschlüssel referenzieren. Es gelten die Vorbedingungen von
+     * {@link DBTable#equijoin(DBTable, String, String)}.
+     *
+     * @param tableId      Bezeichner der Tabelle mit dem Fremdschlüssel
+     * @param otherTableId Bezeichner der referenzierten Tabelle
+     * @param fkColId      Spaltenbezeichner des Fremdschlüssels
+     *
+     * @return Definition der Sicht
+     *
+     * @pre tableId != null
+     * @pre otherTableId != null
+     * @pre fkColId != null
+     * @pre tableId und otherTableId müssen gemäß {@link Util#isValidIdentifier(String)} gültige Tabellenbezeichner
+     *         sein
+     * @pre tableId und otherTableId müssen sich unterscheiden
+     */
+    public static ViewDefinition equijoin(String tableId, String otherTableId, String fkColId) {
+        assert tableId != null : "tableId is null";
+        assert otherTableId != null : "otherTableId is null";
+        assert fkColId != null : "fkColId is null";
+        assert Util.isValidIdentifier(tableId) : "tableId invalid";
+        assert Util.isValidIdentifier(otherTableId) : "otherTableId invalid";
+        assert !tableId.equals(otherTableId) : "self join not supported";
+        return new ViewDefinition(tableId, null, null, otherTableId, fkColId);
+    }
+
+    /**
+     * Liefert die Bezeichner aller Tabellen, auf denen die Sicht beruht.
+     *
+     * @return Bezeichner der Basistabellen
+     */
+    public List<String> getTableIds() {
+        return this.otherTableId == null ? List.of(this.tableId) : List.of(this.tableId, this.otherTableId);
+    }
+
+    /**
+     * Berechnet die Sicht über den Basistabellen und meldet sie bei ihnen an.
+     *
+     * @param tables liefert die Basistabelle zu ihrem Bezeichner
+     * @param name   Bezeichner der Ergebnistabelle
+     *
+     * @return Sicht
+     */
+    MaterializedView materialize(Function<String, DBTable> tables, String name) {
+        DBTable table = tables.apply(this.tableId);
+        if (this.otherTableId == null) {
+            return new SelectView(table, this.colIds, this.whereParams, name);
+        }
+        return new JoinView(table, tables.apply(this.otherTableId), this.fkColId, name);
+    }
+}
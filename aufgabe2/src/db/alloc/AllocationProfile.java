@@ -0,0 +1,184 @@
+package db.alloc;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ergebnis eines {@link AllocationProfiler#profile(String, java.util.function.LongSupplier) Profils}: die Anzahl der
+ * bearbeiteten Zeilen, die im profilierten Thread allozierten Bytes und deren Aufteilung auf Allokationsstellen.
+ * <p>
+ * Die allozierten Bytes sind exakt, sofern die Laufzeitumgebung sie pro Thread erfasst. Die Aufteilung auf Stellen
+ * und die Anzahl der Objekte sind Schätzungen aus den Stichproben von Java Flight Recorder, die auf die exakten Bytes
+ * hochgerechnet werden. Sie sind umso genauer, je mehr die Operation alloziert.
+ * <p>
+ * Über {@link #assertBytesPerRowAtMost(double)} und {@link #assertObjectsPerRowAtMost(double)} können Tests ein
+ * Allokationsbudget für eine Operation durchsetzen.
+ */
+public final class AllocationProfile {
+
+    /**
+     * Bezeichnung der Operation
+     */
+    private final String operator;
+
+    /**
+     * Anzahl der bearbeiteten Zeilen
+     */
+    private final long rows;
+
+    /**
+     * Allozierte Bytes oder -1, wenn die Laufzeitumgebung sie nicht erfasst
+     */
+    private final long allocatedBytes;
+
+    /**
+     * Allokationsstellen absteigend nach ihren Bytes
+     */
+    private final List<AllocationSite> sites;
+
+    /**
+     * Konstruktor
+     *
+     * @param operator       Bezeichnung der Operation
+     * @param rows           Anzahl der bearbeiteten Zeilen
+     * @param allocatedBytes allozierte Bytes oder -1, wenn die Laufzeitumgebung sie nicht erfasst
+     * @param sites          Allokationsstellen absteigend nach ihren Bytes
+     *
+     * @pre operator != null
+     * @pre rows &gt;= 0
+     * @pre sites != null
+     */
+    AllocationProfile(String operator, long rows, long allocatedBytes, List<AllocationSite> sites) {
+        assert operator != null : "operator is null";
+        assert rows >= 0 : "rows is negative";
+        assert sites != null : "sites is null";
+
+        this.operator = operator;
+        this.rows = rows;
+        this.allocatedBytes = allocatedBytes;
+        this.sites = List.copyOf(sites);
+    }
+
+    /**
+     * Liefert die Bezeichnung der Operation.
+     *
+     * @return Bezeichnung der Operation
+     */
+    public String getOperator() {
+        return this.operator;
+    }
+
+    /**
+     * Liefert die Anzahl der bearbeiteten Zeilen.
+     *
+     * @return Anzahl der bearbeiteten Zeilen
+     */
+    public long getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Liefert die im profilierten Thread während der Operation allozierten Bytes.
+     *
+     * @return allozierte Bytes oder -1, wenn die Laufzeitumgebung sie nicht erfasst
+     */
+    public long getAllocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    /**
+     * Liefert die Allokationsstellen absteigend nach ihren geschätzten Bytes.
+     *
+     * @return unveränderliche Liste der Allokationsstellen
+     */
+    public List<AllocationSite> getSites() {
+        return this.sites;
+    }
+
+    /**
+     * Liefert die geschätzte Anzahl aller allozierten Objekte.
+     * <p>
+     * Diese Methode arbeitet in O(S), S = Anzahl der Allokationsstellen.
+     *
+     * @return geschätzte Anzahl der Objekte
+     */
+    public long getObjects() {
+        long objects = 0;
+        for (AllocationSite site : this.sites) {
+            objects += site.objects();
+        }
+        return objects;
+    }
+
+    /**
+     * Liefert die allozierten Bytes pro bearbeiteter Zeile. Wurde keine Zeile bearbeitet, gilt die Operation als eine
+     * Zeile.
+     *
+     * @return Bytes pro Zeile oder -1, wenn die Laufzeitumgebung die allozierten Bytes nicht erfasst
+     */
+    public double bytesPerRow() {
+        return this.allocatedBytes < 0 ? -1 : (double) this.allocatedBytes / Math.max(this.rows, 1);
+    }
+
+    /**
+     * Liefert die geschätzte Anzahl allozierter Objekte pro bearbeiteter Zeile. Wurde keine Zeile bearbeitet, gilt die
+     * Operation als eine Zeile.
+     * <p>
+     * Diese Methode arbeitet in O(S), S = Anzahl der Allokationsstellen.
+     *
+     * @return Objekte pro Zeile
+     */
+    public double objectsPerRow() {
+        return (double) this.getObjects() / Math.max(this.rows, 1);
+    }
+
+    /**
+     * Stellt sicher, dass die Operation höchstens die übergebene Anzahl Bytes pro Zeile alloziert hat. Erfasst die
+     * Laufzeitumgebung die allozierten Bytes nicht, wird nichts geprüft.
+     *
+     * @param budget höchstens erlaubte Bytes pro Zeile
+     *
+     * @throws AssertionError wenn die Operation mehr Bytes pro Zeile alloziert hat; die Meldung enthält die
+     *                        Allokationsstellen
+     */
+    public void assertBytesPerRowAtMost(double budget) {
+        if (this.bytesPerRow() > budget) {
+            throw new AssertionError(String.format(Locale.ROOT, "%s allocated %.1f bytes per row, budget %.1f%n%s",
+                    this.operator, this.bytesPerRow(), budget, this));
+        }
+    }
+
+    /**
+     * Stellt sicher, dass die Operation schätzungsweise höchstens die übergebene Anzahl Objekte pro Zeile alloziert
+     * hat.
+     * <p>
+     * Diese Methode arbeitet in O(S), S = Anzahl der Allokationsstellen.
+     *
+     * @param budget höchstens erlaubte Objekte pro Zeile
+     *
+     * @throws AssertionError wenn die Operation mehr Objekte pro Zeile alloziert hat; die Meldung enthält die
+     *                        Allokationsstellen
+     */
+    public void assertObjectsPerRowAtMost(double budget) {
+        if (this.objectsPerRow() > budget) {
+            throw new AssertionError(String.format(Locale.ROOT, "%s allocated %.1f objects per row, budget %.1f%n%s",
+                    this.operator, this.objectsPerRow(), budget, this));
+        }
+    }
+
+    /**
+     * Liefert eine Zusammenfassung und darunter eine Zeile pro Allokationsstelle.
+     *
+     * @return mehrzeilige Beschreibung dieses Profils
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format(Locale.ROOT,
+                "%s: %d rows, %d bytes (%.1f per row), ~%d objects (%.2f per row)", this.operator, this.rows,
+                this.allocatedBytes, this.bytesPerRow(), this.getObjects(), this.objectsPerRow()));
+        for (AllocationSite site : this.sites) {
+            builder.append(System.lineSeparator()).append("  ").append(site);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,258 @@
+package db.alloc;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Führt Operationen unter Java Flight Recorder aus und ermittelt, wie viel sie pro bearbeiteter Zeile allozieren und
+ * an welchen Stellen.
+ * <p>
+ * Die allozierten Bytes werden exakt über die Thread-Verwaltung der Laufzeitumgebung gemessen. Für die Aufteilung auf
+ * Stellen werden die Ereignisse jdk.ObjectAllocationInNewTLAB und jdk.ObjectAllocationOutsideTLAB des aufrufenden
+ * Threads mit ihrem Aufrufstapel aufgezeichnet. Ein Ereignis beim Anlegen eines neuen Thread-lokalen Puffers steht
+ * für alle Allokationen, die den Puffer gefüllt haben, und wird mit dessen Größe gewichtet. Die so geschätzten Bytes
+ * werden anschließend auf die exakt gemessenen hochgerechnet. Allokationen von Java Flight Recorder selbst, etwa beim
+ * Beenden der Aufzeichnung, werden nicht mitgezählt.
+ * <p>
+ * Die Operation sollte vor dem Profilieren einige Male ausgeführt werden, da der JIT-Compiler später Allokationen
+ * entfernen kann, die der Interpreter noch ausführt.
+ */
+public final class AllocationProfiler {
+
+    /**
+     * Ereignis einer Allokation, die einen neuen Thread-lokalen Puffer angelegt hat
+     */
+    private static final String NEW_TLAB = "jdk.ObjectAllocationInNewTLAB";
+
+    /**
+     * Ereignis einer Allokation außerhalb eines Thread-lokalen Puffers
+     */
+    private static final String OUTSIDE_TLAB = "jdk.ObjectAllocationOutsideTLAB";
+
+    /**
+     * Paketpräfix der Datenbank, deren Methoden als Allokationsstellen gelten
+     */
+    private static final String DB_PACKAGE = "db.";
+
+    /**
+     * Paketpräfix dieses Profilers, dessen Methoden nie als Allokationsstellen gelten
+     */
+    private static final String PROFILER_PACKAGE = "db.alloc.";
+
+    /**
+     * Paketpräfix von Java Flight Recorder, dessen eigene Allokationen nicht zur Operation gezählt werden
+     */
+    private static final String RECORDER_PACKAGE = "jdk.jfr.";
+
+    /**
+     * Thread-Verwaltung, sofern sie allozierte Bytes pro Thread erfassen kann, sonst null
+     */
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationBean();
+
+    /**
+     * Konstruktor
+     */
+    private AllocationProfiler() {
+    }
+
+    /**
+     * Führt die übergebene Operation im aufrufenden Thread unter Java Flight Recorder aus und liefert ihr Profil.
+     *
+     * @param operator  Bezeichnung der Operation
+     * @param operation Operation, die die Anzahl der bearbeiteten Zeilen liefert
+     *
+     * @return Profil der Operation
+     *
+     * @throws UncheckedIOException wenn die Aufzeichnung nicht gelesen werden kann
+     *
+     * @pre operator != null
+     * @pre operation != null
+     */
+    public static AllocationProfile profile(String operator, LongSupplier operation) {
+        assert operator != null : "operator is null";
+        assert operation != null : "operation is null";
+
+        long threadId = Thread.currentThread().getId();
+        long rows;
+        long allocatedBytes;
+        Path file;
+        try {
+            file = Files.createTempFile("allocations", ".jfr");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (Recording recording = new Recording()) {
+            recording.enable(NEW_TLAB).withStackTrace();
+            recording.enable(OUTSIDE_TLAB).withStackTrace();
+            recording.setDestination(file);
+            recording.start();
+            long startBytes = allocatedBytesOfThread();
+            rows = operation.getAsLong();
+            long endBytes = allocatedBytesOfThread();
+            recording.stop();
+            allocatedBytes = startBytes < 0 ? -1 : endBytes - startBytes;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException(e);
+        }
+        try {
+            return new AllocationProfile(operator, rows, allocatedBytes, sites(file, threadId, allocatedBytes));
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Löscht eine temporäre Datei, sofern möglich.
+     *
+     * @param file Datei
+     */
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // temporäre Datei bleibt liegen
+        }
+    }
+
+    /**
+     * Liest die Allokationsereignisse eines Threads aus einer Aufzeichnung und fasst sie nach Stelle und Klasse
+     * zusammen.
+     * <p>
+     * Diese Methode arbeitet in O(E * F + S * log(S)), E = Anzahl der Ereignisse, F = Tiefe der Aufrufstapel, S =
+     * Anzahl der Stellen.
+     *
+     * @param file           Aufzeichnung
+     * @param threadId       Bezeichner des profilierten Threads
+     * @param allocatedBytes exakt gemessene Bytes, auf die hochgerechnet wird, oder -1
+     *
+     * @return Allokationsstellen absteigend nach ihren Bytes
+     *
+     * @throws UncheckedIOException wenn die Aufzeichnung nicht gelesen werden kann
+     */
+    private static List<AllocationSite> sites(Path file, long threadId, long allocatedBytes) {
+        Map<List<String>, long[]> estimates = new HashMap<>();
+        long sampledBytes = 0;
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                RecordedThread thread = event.getThread();
+                if (thread == null || thread.getJavaThreadId() != threadId || isRecorderAllocation(event)) {
+                    continue;
+                }
+                long objectSize = Math.max(event.getLong("allocationSize"), 1);
+                long bytes = NEW_TLAB.equals(event.getEventType().getName())
+                        ? Math.max(event.getLong("tlabSize"), objectSize)
+                        : objectSize;
+                long[] estimate = estimates.computeIfAbsent(List.of(site(event.getStackTrace()),
+                        event.getClass("objectClass").getName()), key -> new long[2]);
+                estimate[0] += bytes;
+                estimate[1] += bytes / objectSize;
+                sampledBytes += bytes;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        double scale = allocatedBytes < 0 || sampledBytes == 0 ? 1 : (double) allocatedBytes / sampledBytes;
+        List<AllocationSite> sites = new ArrayList<>(estimates.size());
+        for (Map.Entry<List<String>, long[]> estimate : estimates.entrySet()) {
+            sites.add(new AllocationSite(estimate.getKey().get(0), estimate.getKey().get(1),
+                    Math.round(estimate.getValue()[0] * scale), Math.round(estimate.getValue()[1] * scale)));
+        }
+        sites.sort(Comparator.comparingLong(AllocationSite::bytes).reversed());
+        return sites;
+    }
+
+    /**
+     * Gibt an, ob Java Flight Recorder selbst die Allokation eines Ereignisses ausgelöst hat, etwa beim Starten oder
+     * Beenden der Aufzeichnung.
+     *
+     * @param event Allokationsereignis
+     *
+     * @return Angabe, ob der Aufrufstapel eine Methode von Java Flight Recorder enthält
+     */
+    private static boolean isRecorderAllocation(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return false;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.getMethod().getType().getName().startsWith(RECORDER_PACKAGE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Liefert die Allokationsstelle eines Aufrufstapels: die oberste Methode der Datenbank außerhalb dieses Profilers
+     * oder, wenn es keine gibt, die oberste Methode.
+     *
+     * @param stackTrace Aufrufstapel oder null
+     *
+     * @return Stelle als "Klasse.Methode:Zeile"
+     */
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "?";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(DB_PACKAGE) && !type.startsWith(PROFILER_PACKAGE)) {
+                return describe(frame);
+            }
+        }
+        return describe(stackTrace.getFrames().get(0));
+    }
+
+    /**
+     * Beschreibt einen Eintrag eines Aufrufstapels.
+     *
+     * @param frame Eintrag
+     *
+     * @return Beschreibung als "Klasse.Methode:Zeile"
+     */
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":"
+                + frame.getLineNumber();
+    }
+
+    /**
+     * Liefert die Thread-Verwaltung, sofern sie allozierte Bytes pro Thread erfassen kann.
+     *
+     * @return Thread-Verwaltung oder null
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+
+    /**
+     * Liefert die bisher im aktuellen Thread allozierten Bytes.
+     *
+     * @return allozierte Bytes oder -1, wenn die Laufzeitumgebung sie nicht erfasst
+     */
+    private static long allocatedBytesOfThread() {
+        return ALLOCATIONS == null ? -1 : ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
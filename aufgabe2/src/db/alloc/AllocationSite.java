@@ -0,0 +1,27 @@
+package db.alloc;
+
+/**
+ * Dieser Record beschreibt die geschätzten Allokationen einer Allokationsstelle während eines
+ * {@link AllocationProfiler#profile(String, java.util.function.LongSupplier) Profils}.
+ * <p>
+ * Als Stelle gilt die oberste Methode der Datenbank im Aufrufstapel der Allokation, sodass etwa ein
+ * {@link java.util.ArrayList}, die {@link db.DBTable#select} anlegt, {@code select} zugeordnet wird und nicht dem
+ * Konstruktor der Liste. Liegt keine Methode der Datenbank im Aufrufstapel, ist es die allozierende Methode selbst.
+ *
+ * @param site        Stelle als "Klasse.Methode:Zeile"
+ * @param objectClass Name der Klasse der allozierten Objekte
+ * @param bytes       geschätzte allozierte Bytes
+ * @param objects     geschätzte Anzahl allozierter Objekte
+ */
+public record AllocationSite(String site, String objectClass, long bytes, long objects) {
+
+    /**
+     * Liefert die Beschreibung dieser Stelle in einer Zeile.
+     *
+     * @return Zeile ohne Zeilenumbruch
+     */
+    @Override
+    public String toString() {
+        return this.site + "\t" + this.objectClass + "\t" + this.bytes + " B\t" + this.objects + " Objekte";
+    }
+}
@@ -0,0 +1,349 @@
+package db.arrow;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Baut einen FlatBuffer, wie ihn das IPC-Format von Apache Arrow für seine Metadaten verwendet.
+ * <p>
+ * Der Puffer wird wie bei der Referenzimplementierung von hinten nach vorne aufgebaut: Jedes Objekt wird vor dem
+ * Objekt geschrieben, das es referenziert, und liegt dadurch im fertigen Puffer an einer höheren Adresse. Objekte
+ * werden über ihren Abstand vom Ende des Puffers ({@link #offset()}) angesprochen, der sich beim Vergrößern nicht
+ * ändert. Alle Zahlen werden als Little Endian geschrieben. Tabellen und Vektoren dürfen nicht verschachtelt begonnen
+ * werden, referenzierte Objekte müssen also vor {@link #startTable(int)} fertig sein. Jede Tabelle erhält eine eigene
+ * VTable, gleiche VTables werden nicht zusammengefasst.
+ */
+public final class FlatBufferBuilder {
+
+    /**
+     * Anfangskapazität des Puffers in Bytes
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Puffer, belegt sind die Bytes ab space bis zum Ende
+     */
+    private byte[] bytes;
+
+    /**
+     * Anfang des belegten Bereichs im Puffer
+     */
+    private int space;
+
+    /**
+     * Größte Ausrichtung, die ein geschriebener Wert verlangt hat
+     */
+    private int minAlign;
+
+    /**
+     * Positionen der Felder der begonnenen Tabelle als Abstand vom Ende, 0 für fehlende Felder, oder null
+     */
+    private int[] fields;
+
+    /**
+     * Position, an der die begonnene Tabelle beginnt, als Abstand vom Ende
+     */
+    private int tableStart;
+
+    /**
+     * Konstruktor für einen leeren FlatBuffer
+     */
+    public FlatBufferBuilder() {
+        this.bytes = new byte[INITIAL_CAPACITY];
+        this.space = this.bytes.length;
+        this.minAlign = 1;
+        this.fields = null;
+        this.tableStart = 0;
+    }
+
+    /**
+     * Liefert die aktuelle Position als Abstand vom Ende des Puffers.
+     *
+     * @return Anzahl der bisher geschriebenen Bytes
+     */
+    public int offset() {
+        return this.bytes.length - this.space;
+    }
+
+    /**
+     * Schreibt eine Zeichenkette in UTF-8 mit abschließendem Nullbyte.
+     *
+     * @param string Zeichenkette
+     *
+     * @return Position der Zeichenkette
+     *
+     * @pre string != null
+     * @pre Es ist keine Tabelle begonnen
+     */
+    public int createString(String string) {
+        assert string != null : "string is null";
+        assert this.fields == null : "table in progress";
+
+        byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+        this.prep(Integer.BYTES, utf8.length + 1);
+        this.space -= utf8.length + 1;
+        System.arraycopy(utf8, 0, this.bytes, this.space, utf8.length);
+        return this.endVector(utf8.length);
+    }
+
+    /**
+     * Schreibt einen Vektor von Referenzen auf Tabellen oder Zeichenketten.
+     *
+     * @param offsets Positionen der referenzierten Objekte in der Reihenfolge des Vektors
+     *
+     * @return Position des Vektors
+     *
+     * @pre offsets != null
+     * @pre Es ist keine Tabelle begonnen
+     */
+    public int createOffsetVector(int[] offsets) {
+        assert offsets != null : "offsets is null";
+        assert this.fields == null : "table in progress";
+
+        this.startVector(Integer.BYTES, offsets.length, Integer.BYTES);
+        for (int i = offsets.length - 1; i >= 0; i--) {
+            this.putLittleEndian(this.offset() + Integer.BYTES - offsets[i], Integer.BYTES);
+        }
+        return this.endVector(offsets.length);
+    }
+
+    /**
+     * Schreibt einen Vektor von Structs, deren Felder alle 8 Bytes breit sind oder sich zu 8 Bytes ergänzen.
+     *
+     * @param words          Felder aller Structs der Reihe nach, als long in der Reihenfolge des Vektors
+     * @param wordsPerStruct Anzahl der 8-Byte-Felder pro Struct
+     *
+     * @return Position des Vektors
+     *
+     * @pre words != null
+     * @pre wordsPerStruct &gt; 0
+     * @pre words.length muss ein Vielfaches von wordsPerStruct sein
+     * @pre Es ist keine Tabelle begonnen
+     */
+    public int createStructVector(long[] words, int wordsPerStruct) {
+        assert words != null : "words is null";
+        assert wordsPerStruct > 0 : "wordsPerStruct not positive";
+        assert words.length % wordsPerStruct == 0 : "incomplete struct";
+        assert this.fields == null : "table in progress";
+
+        int count = words.length / wordsPerStruct;
+        this.startVector(Long.BYTES * wordsPerStruct, count, Long.BYTES);
+        for (int i = words.length - 1; i >= 0; i--) {
+            this.putLittleEndian(words[i], Long.BYTES);
+        }
+        return this.endVector(count);
+    }
+
+    /**
+     * Beginnt eine Tabelle.
+     *
+     * @param numOfFields Anzahl der Felder gemäß Schema
+     *
+     * @pre numOfFields &gt;= 0
+     * @pre Es ist keine Tabelle begonnen
+     */
+    public void startTable(int numOfFields) {
+        assert numOfFields >= 0 : "numOfFields negative";
+        assert this.fields == null : "table in progress";
+        this.fields = new int[numOfFields];
+        this.tableStart = this.offset();
+    }
+
+    /**
+     * Setzt ein Feld vom Typ byte oder ubyte der begonnenen Tabelle.
+     *
+     * @param field Index des Felds
+     * @param value Wert
+     */
+    public void addByte(int field, int value) {
+        this.addScalar(field, value, Byte.BYTES);
+    }
+
+    /**
+     * Setzt ein Feld vom Typ bool der begonnenen Tabelle.
+     *
+     * @param field Index des Felds
+     * @param value Wert
+     */
+    public void addBoolean(int field, boolean value) {
+        this.addScalar(field, value ? 1 : 0, Byte.BYTES);
+    }
+
+    /**
+     * Setzt ein Feld vom Typ short der begonnenen Tabelle.
+     *
+     * @param field Index des Felds
+     * @param value Wert
+     */
+    public void addShort(int field, int value) {
+        this.addScalar(field, value, Short.BYTES);
+    }
+
+    /**
+     * Setzt ein Feld vom Typ int der begonnenen Tabelle.
+     *
+     * @param field Index des Felds
+     * @param value Wert
+     */
+    public void addInt(int field, int value) {
+        this.addScalar(field, value, Integer.BYTES);
+    }
+
+    /**
+     * Setzt ein Feld vom Typ long der begonnenen Tabelle.
+     *
+     * @param field Index des Felds
+     * @param value Wert
+     */
+    public void addLong(int field, long value) {
+        this.addScalar(field, value, Long.BYTES);
+    }
+
+    /**
+     * Setzt ein Feld der begonnenen Tabelle, das eine Tabelle, eine Zeichenkette oder einen Vektor referenziert.
+     *
+     * @param field  Index des Felds
+     * @param target Position des referenzierten Objekts
+     *
+     * @pre Es ist eine Tabelle begonnen
+     * @pre 0 &lt;= field &lt; Anzahl der Felder der Tabelle
+     */
+    public void addOffset(int field, int target) {
+        assert this.fields != null : "no table in progress";
+        assert field >= 0 && field < this.fields.length : "field out of range";
+        this.prep(Integer.BYTES, 0);
+        this.putLittleEndian(this.offset() + Integer.BYTES - target, Integer.BYTES);
+        this.fields[field] = this.offset();
+    }
+
+    /**
+     * Beendet die begonnene Tabelle und schreibt ihre VTable.
+     *
+     * @return Position der Tabelle
+     *
+     * @pre Es ist eine Tabelle begonnen
+     */
+    public int endTable() {
+        assert this.fields != null : "no table in progress";
+
+        this.prep(Integer.BYTES, 0);
+        this.putLittleEndian(0, Integer.BYTES);
+        int table = this.offset();
+        int numOfFields = this.fields.length;
+        while (numOfFields > 0 && this.fields[numOfFields - 1] == 0) {
+            numOfFields--;
+        }
+        for (int i = numOfFields - 1; i >= 0; i--) {
+            this.putLittleEndian(this.fields[i] == 0 ? 0 : table - this.fields[i], Short.BYTES);
+        }
+        this.putLittleEndian(table - this.tableStart, Short.BYTES);
+        this.putLittleEndian((long) (numOfFields + 2) * Short.BYTES, Short.BYTES);
+        int vtable = this.offset();
+        int position = this.bytes.length - table;
+        for (int i = 0; i < Integer.BYTES; i++) {
+            this.bytes[position + i] = (byte) ((vtable - table) >>> (Byte.SIZE * i));
+        }
+        this.fields = null;
+        return table;
+    }
+
+    /**
+     * Schließt den FlatBuffer mit einer Referenz auf seine Wurzeltabelle ab.
+     *
+     * @param root Position der Wurzeltabelle
+     *
+     * @return fertiger FlatBuffer, dessen Länge ein Vielfaches der größten Ausrichtung ist
+     *
+     * @pre Es ist keine Tabelle begonnen
+     */
+    public byte[] finish(int root) {
+        assert this.fields == null : "table in progress";
+        this.prep(this.minAlign, Integer.BYTES);
+        this.putLittleEndian(this.offset() + Integer.BYTES - root, Integer.BYTES);
+        return Arrays.copyOfRange(this.bytes, this.space, this.bytes.length);
+    }
+
+    /**
+     * Setzt ein skalares Feld der begonnenen Tabelle.
+     *
+     * @param field Index des Felds
+     * @param value Wert
+     * @param size  Breite des Felds in Bytes
+     */
+    private void addScalar(int field, long value, int size) {
+        assert this.fields != null : "no table in progress";
+        assert field >= 0 && field < this.fields.length : "field out of range";
+        this.prep(size, 0);
+        this.putLittleEndian(value, size);
+        this.fields[field] = this.offset();
+    }
+
+    /**
+     * Beginnt einen Vektor. Seine Elemente werden anschließend vom letzten zum ersten geschrieben.
+     *
+     * @param elementSize Breite eines Elements in Bytes
+     * @param count       Anzahl der Elemente
+     * @param alignment   Ausrichtung der Elemente in Bytes
+     */
+    private void startVector(int elementSize, int count, int alignment) {
+        this.prep(Integer.BYTES, elementSize * count);
+        this.prep(alignment, elementSize * count);
+    }
+
+    /**
+     * Beendet einen Vektor, dessen Elemente geschrieben sind, mit seiner Länge.
+     *
+     * @param count Anzahl der Elemente
+     *
+     * @return Position des Vektors
+     */
+    private int endVector(int count) {
+        this.putLittleEndian(count, Integer.BYTES);
+        return this.offset();
+    }
+
+    /**
+     * Fügt Füllbytes ein, sodass nach weiteren additionalBytes Bytes ein Wert der Breite size ausgerichtet
+     * geschrieben werden kann, und stellt genügend Platz dafür bereit.
+     *
+     * @param size            Breite des auszurichtenden Werts in Bytes, eine Zweierpotenz
+     * @param additionalBytes Anzahl der Bytes, die vor dem Wert geschrieben werden
+     */
+    private void prep(int size, int additionalBytes) {
+        this.minAlign = Math.max(this.minAlign, size);
+        int padding = -(this.offset() + additionalBytes) & (size - 1);
+        this.ensureSpace(padding + size + additionalBytes);
+        this.space -= padding;
+    }
+
+    /**
+     * Schreibt die unteren size Bytes eines Werts als Little Endian vor den belegten Bereich.
+     *
+     * @param value Wert
+     * @param size  Anzahl der Bytes
+     */
+    private void putLittleEndian(long value, int size) {
+        this.ensureSpace(size);
+        this.space -= size;
+        for (int i = 0; i < size; i++) {
+            this.bytes[this.space + i] = (byte) (value >>> (Byte.SIZE * i));
+        }
+    }
+
+    /**
+     * Vergrößert den Puffer, bis vor dem belegten Bereich mindestens needed Bytes frei sind. Freie Bytes sind stets
+     * 0, sodass Füllbytes nicht geschrieben werden müssen.
+     *
+     * @param needed Anzahl der benötigten Bytes
+     */
+    private void ensureSpace(int needed) {
+        if (this.space < needed) {
+            int used = this.offset();
+            int capacity = Math.max(this.bytes.length * 2, used + needed);
+            byte[] grown = new byte[capacity];
+            System.arraycopy(this.bytes, this.space, grown, capacity - used, used);
+            this.bytes = grown;
+            this.space = capacity - used;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package db.arrow;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lesender Zugriff auf eine Tabelle in einem FlatBuffer, etwa in den Metadaten einer Arrow-Datei, ohne den Puffer zu
+ * kopieren.
+ * <p>
+ * Felder werden über ihren Index im Schema angesprochen. Fehlt ein Feld in der VTable, etwa weil es den Standardwert
+ * hat oder erst in einer neueren Version des Schemas hinzugekommen ist, liefern die Methoden den übergebenen
+ * Standardwert, null oder einen leeren Vektor.
+ */
+public final class FlatBufferTable {
+
+    /**
+     * Puffer, der die Tabelle enthält
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Position der Tabelle im Puffer
+     */
+    private final int position;
+
+    /**
+     * Position der VTable im Puffer
+     */
+    private final int vtable;
+
+    /**
+     * Länge der VTable in Bytes
+     */
+    private final int vtableSize;
+
+    /**
+     * Konstruktor
+     *
+     * @param buffer   Puffer, der die Tabelle enthält
+     * @param position Position der Tabelle im Puffer
+     */
+    private FlatBufferTable(ByteBuffer buffer, int position) {
+        this.buffer = buffer;
+        this.position = position;
+        this.vtable = position - buffer.getInt(position);
+        this.vtableSize = Short.toUnsignedInt(buffer.getShort(this.vtable));
+    }
+
+    /**
+     * Liefert die Wurzeltabelle eines FlatBuffers.
+     *
+     * @param buffer Puffer
+     * @param start  Position, an der der FlatBuffer im Puffer beginnt
+     *
+     * @return Wurzeltabelle
+     *
+     * @throws IndexOutOfBoundsException wenn der FlatBuffer über das Ende des Puffers hinausreicht
+     *
+     * @pre buffer != null
+     * @pre buffer muss Little Endian lesen
+     */
+    public static FlatBufferTable root(ByteBuffer buffer, int start) {
+        assert buffer != null : "buffer is null";
+        assert buffer.order() == ByteOrder.LITTLE_ENDIAN : "buffer not little endian";
+        return new FlatBufferTable(buffer, start + buffer.getInt(start));
+    }
+
+    /**
+     * Gibt an, ob das Feld mit dem übergebenen Index gesetzt ist.
+     *
+     * @param field Index des Felds
+     *
+     * @return Angabe, ob das Feld gesetzt ist
+     */
+    public boolean has(int field) {
+        return this.fieldOffset(field) != 0;
+    }
+
+    /**
+     * Liefert ein Feld vom Typ ubyte.
+     *
+     * @param field        Index des Felds
+     * @param defaultValue Wert, wenn das Feld fehlt
+     *
+     * @return Wert des Felds
+     */
+    public int getUnsignedByte(int field, int defaultValue) {
+        int offset = this.fieldOffset(field);
+        return offset == 0 ? defaultValue : Byte.toUnsignedInt(this.buffer.get(this.position + offset));
+    }
+
+    /**
+     * Liefert ein Feld vom Typ bool.
+     *
+     * @param field        Index des Felds
+     * @param defaultValue Wert, wenn das Feld fehlt
+     *
+     * @return Wert des Felds
+     */
+    public boolean getBoolean(int field, boolean defaultValue) {
+        int offset = this.fieldOffset(field);
+        return offset == 0 ? defaultValue : this.buffer.get(this.position + offset) != 0;
+    }
+
+    /**
+     * Liefert ein Feld vom Typ short.
+     *
+     * @param field        Index des Felds
+     * @param defaultValue Wert, wenn das Feld fehlt
+     *
+     * @return Wert des Felds
+     */
+    public short getShort(int field, short defaultValue) {
+        int offset = this.fieldOffset(field);
+        return offset == 0 ? defaultValue : this.buffer.getShort(this.position + offset);
+    }
+
+    /**
+     * Liefert ein Feld vom Typ int.
+     *
+     * @param field        Index des Felds
+     * @param defaultValue Wert, wenn das Feld fehlt
+     *
+     * @return Wert des Felds
+     */
+    public int getInt(int field, int defaultValue) {
+        int offset = this.fieldOffset(field);
+        return offset == 0 ? defaultValue : this.buffer.getInt(this.position + offset);
+    }
+
+    /**
+     * Liefert ein Feld vom Typ long.
+     *
+     * @param field        Index des Felds
+     * @param defaultValue Wert, wenn das Feld fehlt
+     *
+     * @return Wert des Felds
+     */
+    public long getLong(int field, long defaultValue) {
+        int offset = this.fieldOffset(field);
+        return offset == 0 ? defaultValue : this.buffer.getLong(this.position + offset);
+    }
+
+    /**
+     * Liefert die Tabelle, die ein Feld referenziert.
+     *
+     * @param field Index des Felds
+     *
+     * @return Tabelle oder null, wenn das Feld fehlt
+     */
+    public FlatBufferTable getTable(int field) {
+        int offset = this.fieldOffset(field);
+        return offset == 0 ? null : new FlatBufferTable(this.buffer, this.indirect(this.position + offset));
+    }
+
+    /**
+     * Liefert die Zeichenkette, die ein Feld referenziert.
+     *
+     * @param field Index des Felds
+     *
+     * @return Zeichenkette oder null, wenn das Feld fehlt
+     */
+    public String getString(int field) {
+        int offset = this.fieldOffset(field);
+        if (offset == 0) {
+            return null;
+        }
+        int string = this.indirect(this.position + offset);
+        byte[] utf8 = new byte[this.buffer.getInt(string)];
+        this.buffer.get(string + Integer.BYTES, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Liefert die Länge des Vektors, den ein Feld referenziert.
+     *
+     * @param field Index des Felds
+     *
+     * @return Anzahl der Elemente oder 0, wenn das Feld fehlt
+     */
+    public int getVectorLength(int field) {
+        int offset = this.fieldOffset(field);
+        return offset == 0 ? 0 : this.buffer.getInt(this.indirect(this.position + offset));
+    }
+
+    /**
+     * Liefert ein Element eines Vektors von Tabellen.
+     *
+     * @param field Index des Felds, das den Vektor referenziert
+     * @param index Index des Elements
+     *
+     * @return Tabelle
+     *
+     * @pre 0 &lt;= index &lt; getVectorLength(field)
+     */
+    public FlatBufferTable getTable(int field, int index) {
+        assert index >= 0 && index < this.getVectorLength(field) : "index out of range";
+        int element = this.vectorStart(field) + Integer.BYTES * index;
+        return new FlatBufferTable(this.buffer, this.indirect(element));
+    }
+
+    /**
+     * Liefert ein 8 Bytes breites Feld eines Structs in einem Vektor von Structs.
+     *
+     * @param field      Index des Felds, das den Vektor referenziert
+     * @param index      Index des Structs
+     * @param structSize Breite eines Structs in Bytes
+     * @param offset     Position des Felds innerhalb des Structs in Bytes
+     *
+     * @return Wert des Felds
+     *
+     * @pre 0 &lt;= index &lt; getVectorLength(field)
+     */
+    public long getStructLong(int field, int index, int structSize, int offset) {
+        assert index >= 0 && index < this.getVectorLength(field) : "index out of range";
+        return this.buffer.getLong(this.vectorStart(field) + structSize * index + offset);
+    }
+
+    /**
+     * Liefert die Position des ersten Elements des Vektors, den ein gesetztes Feld referenziert.
+     *
+     * @param field Index des Felds
+     *
+     * @return Position im Puffer
+     */
+    private int vectorStart(int field) {
+        return this.indirect(this.position + this.fieldOffset(field)) + Integer.BYTES;
+    }
+
+    /**
+     * Liefert die Position eines Felds relativ zum Anfang der Tabelle.
+     *
+     * @param field Index des Felds
+     *
+     * @return Position oder 0, wenn das Feld fehlt
+     */
+    private int fieldOffset(int field) {
+        int entry = Short.BYTES * (field + 2);
+        return entry < this.vtableSize ? Short.toUnsignedInt(this.buffer.getShort(this.vtable + entry)) : 0;
+    }
+
+    /**
+     * Folgt einer Referenz.
+     *
+     * @param position Position der Referenz
+     *
+     * @return Position des referenzierten Objekts
+     */
+    private int indirect(int position) {
+        return position + this.buffer.getInt(position);
+    }
+}
@@ -0,0 +1,59 @@
+package db.arrow;
+
+import db.storage.Column;
+import db.storage.ValueColumn;
+import db.value.BooleanValue;
+import db.value.NullValue;
+import db.value.Value;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Eingeblendete Spalte vom Arrow-Typ Bool: eine Bitmap mit einem Bit pro Wert. Sie wird vor einer Änderung in eine
+ * {@link ValueColumn} kopiert.
+ */
+public final class MappedBooleanColumn extends MappedColumn {
+
+    /**
+     * Werte als Bitmap
+     */
+    private final ByteBuffer values;
+
+    /**
+     * Konstruktor
+     *
+     * @param size     Anzahl der Slots
+     * @param validity Bitmap der vorhandenen Werte oder null, wenn kein Wert fehlt
+     * @param values   Werte als Bitmap
+     *
+     * @pre size &gt;= 0
+     * @pre values != null
+     * @pre values muss mindestens size Bits enthalten
+     */
+    public MappedBooleanColumn(int size, ByteBuffer validity, ByteBuffer values) {
+        super(size, validity);
+        assert values != null : "values is null";
+        assert values.capacity() >= (size + Byte.SIZE - 1) / Byte.SIZE : "values too short";
+        this.values = values;
+    }
+
+    @Override
+    public Value get(int slot) {
+        return this.isNull(slot) ? NullValue.NULL : new BooleanValue(isSet(this.values, slot));
+    }
+
+    @Override
+    public boolean accepts(Value value) {
+        return value != null;
+    }
+
+    @Override
+    public Column copy() {
+        return this.copyInto(new ValueColumn());
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return super.getSizeInBytes() + this.values.capacity();
+    }
+}
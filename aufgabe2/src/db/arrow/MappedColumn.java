@@ -0,0 +1,121 @@
+package db.arrow;
+
+import db.storage.Column;
+import db.value.Value;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * Spalte, die ihre Werte direkt aus den Puffern einer eingeblendeten Arrow-Datei liest, ohne sie zu kopieren.
+ * <p>
+ * Die Spalte kann nicht geändert werden. Eine Tabelle behandelt sie wie eine Spalte, die sie sich mit einer anderen
+ * teilt, und ersetzt sie vor der ersten Änderung durch ihre Kopie ({@link #copy()}) auf dem Java-Heap.
+ * {@link #accepts(Value)} gibt an, ob diese Kopie den Wert aufnehmen kann.
+ * <p>
+ * Fehlende Werte ({@link db.value.NullValue}) sind wie bei Arrow in einer Bitmap markiert, in der das Bit eines
+ * Slots gelöscht ist, wenn sein Wert fehlt.
+ */
+public abstract class MappedColumn extends Column {
+
+    /**
+     * Anzahl der Slots
+     */
+    private final int size;
+
+    /**
+     * Bitmap der vorhandenen Werte oder null, wenn kein Wert fehlt
+     */
+    private final ByteBuffer validity;
+
+    /**
+     * Konstruktor
+     *
+     * @param size     Anzahl der Slots
+     * @param validity Bitmap der vorhandenen Werte oder null, wenn kein Wert fehlt
+     */
+    MappedColumn(int size, ByteBuffer validity) {
+        assert size >= 0 : "size negative";
+        assert validity == null || validity.capacity() >= (size + Byte.SIZE - 1) / Byte.SIZE : "validity too short";
+        this.size = size;
+        this.validity = validity;
+    }
+
+    /**
+     * Gibt an, ob ein Bit einer Arrow-Bitmap gesetzt ist. Die Bits sind innerhalb jedes Bytes vom niederwertigsten an
+     * gezählt.
+     *
+     * @param bitmap Bitmap
+     * @param index  Index des Bits
+     *
+     * @return Angabe, ob das Bit gesetzt ist
+     */
+    static boolean isSet(ByteBuffer bitmap, int index) {
+        return (bitmap.get(index >>> 3) & (1 << (index & (Byte.SIZE - 1)))) != 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public void append(Value value) {
+        throw new UnsupportedOperationException("mapped column is read-only");
+    }
+
+    @Override
+    public void set(int slot, Value value) {
+        throw new UnsupportedOperationException("mapped column is read-only");
+    }
+
+    @Override
+    public void compact(BitSet keep) {
+        throw new UnsupportedOperationException("mapped column is read-only");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("mapped column is read-only");
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return this.validity == null ? 0 : this.validity.capacity();
+    }
+
+    /**
+     * Gibt an, ob in dieser Spalte Werte fehlen können.
+     *
+     * @return Angabe, ob eine Bitmap der vorhandenen Werte existiert
+     */
+    final boolean hasNulls() {
+        return this.validity != null;
+    }
+
+    /**
+     * Gibt an, ob der Wert im übergebenen Slot fehlt.
+     *
+     * @param slot Slot
+     *
+     * @return Angabe, ob der Wert fehlt
+     */
+    final boolean isNull(int slot) {
+        assert slot >= 0 && slot < this.size : "slot out of range";
+        return this.validity != null && !isSet(this.validity, slot);
+    }
+
+    /**
+     * Hängt alle Werte dieser Spalte an die übergebene Spalte an.
+     *
+     * @param target leere Spalte auf dem Heap, die alle Werte aufnehmen kann
+     *
+     * @return target
+     */
+    final Column copyInto(Column target) {
+        for (int slot = 0; slot < this.size; slot++) {
+            target.append(this.get(slot));
+        }
+        return target;
+    }
+}
@@ -0,0 +1,71 @@
+package db.arrow;
+
+import db.storage.Column;
+import db.storage.DoubleColumn;
+import db.storage.ValueColumn;
+import db.value.DoubleValue;
+import db.value.NullValue;
+import db.value.Value;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Eingeblendete Spalte vom Arrow-Typ Float64: ein zusammenhängender Puffer von 8-Byte-Gleitkommazahlen in Little
+ * Endian. Fehlt kein Wert, wird sie vor einer Änderung in eine {@link DoubleColumn} kopiert, sonst in eine
+ * {@link ValueColumn}.
+ */
+public final class MappedDoubleColumn extends MappedColumn {
+
+    /**
+     * Werte
+     */
+    private final ByteBuffer values;
+
+    /**
+     * Konstruktor
+     *
+     * @param size     Anzahl der Slots
+     * @param validity Bitmap der vorhandenen Werte oder null, wenn kein Wert fehlt
+     * @param values   Werte
+     *
+     * @pre size &gt;= 0
+     * @pre values != null
+     * @pre values muss Little Endian lesen und mindestens size Werte enthalten
+     */
+    public MappedDoubleColumn(int size, ByteBuffer validity, ByteBuffer values) {
+        super(size, validity);
+        assert values != null : "values is null";
+        assert values.order() == ByteOrder.LITTLE_ENDIAN : "values not little endian";
+        assert values.capacity() >= (long) Double.BYTES * size : "values too short";
+        this.values = values;
+    }
+
+    @Override
+    public Value get(int slot) {
+        return this.isNull(slot) ? NullValue.NULL : new DoubleValue(this.values.getDouble(slot * Double.BYTES));
+    }
+
+    @Override
+    public double getAsDouble(int slot) {
+        if (this.isNull(slot)) {
+            return NullValue.NULL.getAsDouble();
+        }
+        return this.values.getDouble(slot * Double.BYTES);
+    }
+
+    @Override
+    public boolean accepts(Value value) {
+        return value != null && (this.hasNulls() || value.getClass() == DoubleValue.class);
+    }
+
+    @Override
+    public Column copy() {
+        return this.copyInto(this.hasNulls() ? new ValueColumn() : new DoubleColumn());
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return super.getSizeInBytes() + this.values.capacity();
+    }
+}
@@ -0,0 +1,269 @@
+package db.arrow;
+
+import db.predicate.EqualsPredicate;
+import db.storage.Column;
+import db.storage.StringColumn;
+import db.storage.ValueColumn;
+import db.value.NullValue;
+import db.value.StringValue;
+import db.value.Value;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Eingeblendete Spalte vom Arrow-Typ Utf8 mit Wörterbuchkodierung: ein Puffer von int-Codes in Little Endian und ein
+ * Wörterbuch aus Offsets und UTF-8-Daten. Ein Eintrag des Wörterbuchs wird erst beim ersten Zugriff dekodiert und
+ * dann zwischengespeichert.
+ * <p>
+ * Wie bei {@link StringColumn} werden Bedingungen höchstens einmal pro Code ausgewertet, Gleichheitsbedingungen
+ * ({@link EqualsPredicate}) direkt auf den Codes. Fehlt kein Wert, wird sie vor einer Änderung in eine
+ * {@link StringColumn} kopiert, sonst in eine {@link ValueColumn}.
+ */
+public final class MappedStringColumn extends MappedColumn {
+
+    /**
+     * Markierung für eine noch nicht ausgewertete Bedingung
+     */
+    private static final byte UNKNOWN = 0;
+
+    /**
+     * Markierung für eine erfüllte Bedingung
+     */
+    private static final byte MATCH = 1;
+
+    /**
+     * Markierung für eine nicht erfüllte Bedingung
+     */
+    private static final byte NO_MATCH = 2;
+
+    /**
+     * Codes der Werte
+     */
+    private final ByteBuffer codes;
+
+    /**
+     * Bitmap der vorhandenen Einträge des Wörterbuchs oder null, wenn kein Eintrag fehlt
+     */
+    private final ByteBuffer dictionaryValidity;
+
+    /**
+     * Anfang jedes Eintrags in dictionaryData, gefolgt vom Ende des letzten Eintrags
+     */
+    private final ByteBuffer dictionaryOffsets;
+
+    /**
+     * UTF-8-Daten aller Einträge des Wörterbuchs
+     */
+    private final ByteBuffer dictionaryData;
+
+    /**
+     * Bereits dekodierte Einträge des Wörterbuchs, null für noch nicht dekodierte
+     */
+    private final String[] decoded;
+
+    /**
+     * Konstruktor
+     *
+     * @param size               Anzahl der Slots
+     * @param validity           Bitmap der vorhandenen Werte oder null, wenn kein Wert fehlt
+     * @param codes              Codes der Werte
+     * @param dictionarySize     Anzahl der Einträge des Wörterbuchs
+     * @param dictionaryValidity Bitmap der vorhandenen Einträge des Wörterbuchs oder null, wenn kein Eintrag fehlt
+     * @param dictionaryOffsets  Anfang jedes Eintrags in dictionaryData, gefolgt vom Ende des letzten Eintrags
+     * @param dictionaryData     UTF-8-Daten aller Einträge des Wörterbuchs
+     *
+     * @pre size &gt;= 0
+     * @pre dictionarySize &gt;= 0
+     * @pre codes != null
+     * @pre dictionaryOffsets != null
+     * @pre dictionaryData != null
+     * @pre codes muss Little Endian lesen und mindestens size Codes enthalten
+     * @pre dictionaryOffsets muss Little Endian lesen und mindestens dictionarySize + 1 Offsets enthalten
+     */
+    public MappedStringColumn(int size, ByteBuffer validity, ByteBuffer codes, int dictionarySize,
+            ByteBuffer dictionaryValidity, ByteBuffer dictionaryOffsets, ByteBuffer dictionaryData) {
+        super(size, validity);
+        assert dictionarySize >= 0 : "dictionarySize negative";
+        assert codes != null : "codes is null";
+        assert dictionaryOffsets != null : "dictionaryOffsets is null";
+        assert dictionaryData != null : "dictionaryData is null";
+        assert codes.order() == ByteOrder.LITTLE_ENDIAN : "codes not little endian";
+        assert dictionaryOffsets.order() == ByteOrder.LITTLE_ENDIAN : "dictionaryOffsets not little endian";
+        assert codes.capacity() >= (long) Integer.BYTES * size : "codes too short";
+        assert dictionaryOffsets.capacity() >= (long) Integer.BYTES * (dictionarySize + 1) : "offsets too short";
+        this.codes = codes;
+        this.dictionaryValidity = dictionaryValidity;
+        this.dictionaryOffsets = dictionaryOffsets;
+        this.dictionaryData = dictionaryData;
+        this.decoded = new String[dictionarySize];
+    }
+
+    /**
+     * Liefert die Anzahl der Einträge im Wörterbuch.
+     *
+     * @return Anzahl der Einträge im Wörterbuch
+     */
+    public int getDictionarySize() {
+        return this.decoded.length;
+    }
+
+    @Override
+    public Value get(int slot) {
+        String string = this.decodeSlot(slot);
+        return string == null ? NullValue.NULL : new StringValue(string);
+    }
+
+    @Override
+    public String getAsDisplayString(int slot) {
+        String string = this.decodeSlot(slot);
+        return string == null ? NullValue.NULL.toString() : string;
+    }
+
+    @Override
+    public boolean accepts(Value value) {
+        return value != null && (this.mayContainNulls() || value.getClass() == StringValue.class);
+    }
+
+    @Override
+    public Column copy() {
+        return this.copyInto(this.mayContainNulls() ? new ValueColumn() : new StringColumn());
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        long bytes = super.getSizeInBytes() + this.codes.capacity() + this.dictionaryOffsets.capacity()
+                + this.dictionaryData.capacity();
+        return this.dictionaryValidity == null ? bytes : bytes + this.dictionaryValidity.capacity();
+    }
+
+    @Override
+    public boolean prefersColumnarMatch() {
+        return true;
+    }
+
+    @Override
+    public BitSet match(Predicate<Value> predicate, BitSet candidates, BooleanSupplier cancelled) {
+        assert predicate != null : "predicate is null";
+        assert candidates != null : "candidates is null";
+        assert cancelled != null : "cancelled is null";
+
+        if (this.mayContainNulls()) {
+            return super.match(predicate, candidates, cancelled);
+        }
+        BitSet result = new BitSet(this.size());
+        if (predicate instanceof EqualsPredicate equals) {
+            Value compareValue = equals.getCompareValue();
+            int code = compareValue instanceof StringValue ? this.lookup(compareValue.getAsString()) : -1;
+            if (code >= 0) {
+                int checked = 0;
+                for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                    checked++;
+                    if (checked % CANCELLATION_CHECK_INTERVAL == 0) {
+                        checkCancelled(cancelled);
+                    }
+                    if (this.code(slot) == code) {
+                        result.set(slot);
+                    }
+                }
+            }
+            return result;
+        }
+
+        byte[] decisions = new byte[this.decoded.length];
+        int checked = 0;
+        for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+            checked++;
+            if (checked % CANCELLATION_CHECK_INTERVAL == 0) {
+                checkCancelled(cancelled);
+            }
+            int code = this.code(slot);
+            if (decisions[code] == UNKNOWN) {
+                decisions[code] = predicate.test(new StringValue(this.decode(code))) ? MATCH : NO_MATCH;
+            }
+            if (decisions[code] == MATCH) {
+                result.set(slot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gibt an, ob in dieser Spalte Werte fehlen können, weil Slots oder Einträge des Wörterbuchs als fehlend markiert
+     * werden können.
+     *
+     * @return Angabe, ob eine Bitmap vorhandener Werte oder Einträge existiert
+     */
+    private boolean mayContainNulls() {
+        return this.hasNulls() || this.dictionaryValidity != null;
+    }
+
+    /**
+     * Liefert den Code im übergebenen Slot.
+     *
+     * @param slot Slot
+     *
+     * @return Code
+     */
+    private int code(int slot) {
+        return this.codes.getInt(slot * Integer.BYTES);
+    }
+
+    /**
+     * Liefert die Zeichenkette im übergebenen Slot.
+     *
+     * @param slot Slot
+     *
+     * @return Zeichenkette oder null, wenn der Wert fehlt
+     */
+    private String decodeSlot(int slot) {
+        if (this.isNull(slot)) {
+            return null;
+        }
+        int code = this.code(slot);
+        if (this.dictionaryValidity != null && !isSet(this.dictionaryValidity, code)) {
+            return null;
+        }
+        return this.decode(code);
+    }
+
+    /**
+     * Liefert den Eintrag des Wörterbuchs zu einem Code und dekodiert ihn beim ersten Zugriff.
+     *
+     * @param code Code
+     *
+     * @return Zeichenkette
+     */
+    private String decode(int code) {
+        String string = this.decoded[code];
+        if (string == null) {
+            int start = this.dictionaryOffsets.getInt(code * Integer.BYTES);
+            int end = this.dictionaryOffsets.getInt((code + 1) * Integer.BYTES);
+            byte[] utf8 = new byte[end - start];
+            this.dictionaryData.get(start, utf8);
+            string = new String(utf8, StandardCharsets.UTF_8);
+            this.decoded[code] = string;
+        }
+        return string;
+    }
+
+    /**
+     * Sucht den Code einer Zeichenkette. Dabei werden alle Einträge des Wörterbuchs dekodiert.
+     *
+     * @param string Zeichenkette
+     *
+     * @return Code oder -1, wenn die Zeichenkette nicht im Wörterbuch steht
+     */
+    private int lookup(String string) {
+        for (int code = 0; code < this.decoded.length; code++) {
+            if (this.decode(code).equals(string)) {
+                return code;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,270 @@
+package db.catalog;
+
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verzeichnis von Einträgen, die über ihren Bezeichner angesprochen und in dessen Sortierung
+ * ({@link String#compareTo(String)}) durchlaufen werden, etwa die Tabellen einer Datenbank.
+ * <p>
+ * Suchen, Eintragen und Entfernen arbeiten in O(log(N)), die Suche nach Bereichen und Präfixen in O(log(N)) zuzüglich
+ * der Anzahl der gelieferten Bezeichner. Mengen von Bezeichnern werden nicht kopiert, sondern als unveränderliche
+ * Sichten geliefert, die spätere Änderungen des Verzeichnisses widerspiegeln. Die Größe einer solchen Sicht zu
+ * bestimmen kostet O(Anzahl ihrer Elemente), nur {@link #size()} arbeitet in O(1).
+ * <p>
+ * Alle Operationen dürfen von mehreren Threads gleichzeitig und ohne Sperren aufgerufen werden. Sichten und
+ * Iterationen sind schwach konsistent: Sie sehen jeden Eintrag, der während der ganzen Iteration vorhanden ist, und
+ * werfen nie eine {@link java.util.ConcurrentModificationException}.
+ * <p>
+ * Für mandantenfähige Anwendungen können Bezeichner mit {@link #qualify(String, String)} einem Mandanten zugeordnet
+ * werden; {@link #idsOfTenant(String)} liefert dann alle Bezeichner eines Mandanten.
+ *
+ * @param <T> Typ der Einträge
+ */
+public final class TableCatalog<T> {
+
+    /**
+     * Trennzeichen zwischen Mandant und Name in einem qualifizierten Bezeichner
+     */
+    public static final String TENANT_SEPARATOR = "__";
+
+    /**
+     * Einträge nach ihrem Bezeichner
+     */
+    private final ConcurrentSkipListMap<String, T> entries;
+
+    /**
+     * Unveränderliche Sicht auf die Einträge
+     */
+    private final NavigableMap<String, T> view;
+
+    /**
+     * Anzahl der Einträge
+     */
+    private final AtomicInteger size;
+
+    /**
+     * Konstruktor
+     */
+    public TableCatalog() {
+        this.entries = new ConcurrentSkipListMap<>();
+        this.view = Collections.unmodifiableNavigableMap(this.entries);
+        this.size = new AtomicInteger();
+    }
+
+    /**
+     * Liefert den Bezeichner, unter dem ein Name einem Mandanten zugeordnet wird.
+     *
+     * @param tenant Mandant
+     * @param name   Name innerhalb des Mandanten
+     *
+     * @return qualifizierter Bezeichner
+     *
+     * @pre tenant != null
+     * @pre name != null
+     * @pre tenant darf nicht leer sein, {@link #TENANT_SEPARATOR} nicht enthalten und nicht auf '_' enden
+     */
+    public static String qualify(String tenant, String name) {
+        assert tenant != null : "tenant is null";
+        assert name != null : "name is null";
+        assert isValidTenant(tenant) : "tenant invalid";
+        return tenant + TENANT_SEPARATOR + name;
+    }
+
+    /**
+     * Liefert die Anzahl der Einträge.
+     * <p>
+     * Diese Methode arbeitet in O(1).
+     *
+     * @return Anzahl der Einträge
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Liefert den Eintrag mit dem übergebenen Bezeichner.
+     *
+     * @param id Bezeichner
+     *
+     * @return Eintrag oder null, wenn es keinen gibt
+     *
+     * @pre id != null
+     */
+    public T get(String id) {
+        assert id != null : "id is null";
+        return this.entries.get(id);
+    }
+
+    /**
+     * Gibt an, ob es einen Eintrag mit dem übergebenen Bezeichner gibt.
+     *
+     * @param id Bezeichner
+     *
+     * @return Angabe, ob der Bezeichner vergeben ist
+     *
+     * @pre id != null
+     */
+    public boolean contains(String id) {
+        assert id != null : "id is null";
+        return this.entries.containsKey(id);
+    }
+
+    /**
+     * Trägt einen Eintrag unter dem übergebenen Bezeichner ein, sofern dieser noch nicht vergeben ist. Von mehreren
+     * gleichzeitigen Aufrufen mit demselben Bezeichner ist genau einer erfolgreich.
+     *
+     * @param id    Bezeichner
+     * @param entry Eintrag
+     *
+     * @return Angabe, ob der Eintrag eingetragen wurde
+     *
+     * @pre id != null
+     * @pre entry != null
+     */
+    public boolean register(String id, T entry) {
+        assert id != null : "id is null";
+        assert entry != null : "entry is null";
+        if (this.entries.putIfAbsent(id, entry) != null) {
+            return false;
+        }
+        this.size.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Entfernt den Eintrag mit dem übergebenen Bezeichner.
+     *
+     * @param id Bezeichner
+     *
+     * @return entfernter Eintrag oder null, wenn es keinen gab
+     *
+     * @pre id != null
+     */
+    public T remove(String id) {
+        assert id != null : "id is null";
+        T entry = this.entries.remove(id);
+        if (entry != null) {
+            this.size.decrementAndGet();
+        }
+        return entry;
+    }
+
+    /**
+     * Liefert eine unveränderliche Sicht auf alle Einträge, sortiert nach ihrem Bezeichner.
+     *
+     * @return Einträge nach Bezeichner
+     */
+    public NavigableMap<String, T> asMap() {
+        return this.view;
+    }
+
+    /**
+     * Liefert eine unveränderliche, aufsteigend sortierte Sicht auf alle Bezeichner.
+     *
+     * @return Bezeichner
+     */
+    public NavigableSet<String> ids() {
+        return this.view.navigableKeySet();
+    }
+
+    /**
+     * Liefert eine unveränderliche, aufsteigend sortierte Sicht auf die Bezeichner im übergebenen Bereich.
+     *
+     * @param from untere Grenze (inklusive)
+     * @param to   obere Grenze (exklusive)
+     *
+     * @return Bezeichner im Bereich
+     *
+     * @pre from != null
+     * @pre to != null
+     * @pre from.compareTo(to) &lt;= 0
+     */
+    public NavigableSet<String> idsBetween(String from, String to) {
+        assert from != null : "from is null";
+        assert to != null : "to is null";
+        assert from.compareTo(to) <= 0 : "from must not be greater than to";
+        return this.ids().subSet(from, true, to, false);
+    }
+
+    /**
+     * Liefert eine unveränderliche, aufsteigend sortierte Sicht auf die Bezeichner, die mit dem übergebenen Präfix
+     * beginnen.
+     *
+     * @param prefix Präfix
+     *
+     * @return Bezeichner mit dem Präfix
+     *
+     * @pre prefix != null
+     */
+    public NavigableSet<String> idsWithPrefix(String prefix) {
+        assert prefix != null : "prefix is null";
+        String end = prefixEnd(prefix);
+        return end == null ? this.ids().tailSet(prefix, true) : this.ids().subSet(prefix, true, end, false);
+    }
+
+    /**
+     * Liefert den kleinsten Bezeichner, der mit dem übergebenen Präfix beginnt.
+     * <p>
+     * Diese Methode arbeitet in O(log(N)).
+     *
+     * @param prefix Präfix
+     *
+     * @return Bezeichner oder null, wenn keiner mit dem Präfix beginnt
+     *
+     * @pre prefix != null
+     */
+    public String firstIdWithPrefix(String prefix) {
+        assert prefix != null : "prefix is null";
+        String id = this.entries.ceilingKey(prefix);
+        return id != null && id.startsWith(prefix) ? id : null;
+    }
+
+    /**
+     * Liefert eine unveränderliche, aufsteigend sortierte Sicht auf die Bezeichner des übergebenen Mandanten
+     * ({@link #qualify(String, String)}).
+     *
+     * @param tenant Mandant
+     *
+     * @return qualifizierte Bezeichner des Mandanten
+     *
+     * @pre tenant != null
+     * @pre tenant darf nicht leer sein, {@link #TENANT_SEPARATOR} nicht enthalten und nicht auf '_' enden
+     */
+    public NavigableSet<String> idsOfTenant(String tenant) {
+        assert tenant != null : "tenant is null";
+        assert isValidTenant(tenant) : "tenant invalid";
+        return this.idsWithPrefix(tenant + TENANT_SEPARATOR);
+    }
+
+    /**
+     * Prüft, ob der übergebene Mandant eindeutig von den Namen seiner Bezeichner getrennt werden kann.
+     *
+     * @param tenant Mandant
+     *
+     * @return Angabe, ob der Mandant gültig ist
+     */
+    private static boolean isValidTenant(String tenant) {
+        return !tenant.isEmpty() && !tenant.contains(TENANT_SEPARATOR) && !tenant.endsWith("_");
+    }
+
+    /**
+     * Liefert die kleinste Zeichenkette, die größer als alle Zeichenketten mit dem übergebenen Präfix ist.
+     *
+     * @param prefix Präfix
+     *
+     * @return obere Grenze (exklusive) oder null, wenn es keine gibt
+     */
+    private static String prefixEnd(String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; i--) {
+            char c = prefix.charAt(i);
+            if (c != Character.MAX_VALUE) {
+                return prefix.substring(0, i) + (char) (c + 1);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,27 @@
+package db.cdc;
+
+import db.value.Value;
+
+import java.util.List;
+
+/**
+ * Dieser Record beschreibt eine einzelne Änderung an einer Datenbanktabelle.
+ * <p>
+ * Je nach Art der Änderung sind nicht alle Angaben vorhanden:
+ * <ul>
+ * <li>{@link ChangeType#APPEND}: before ist null, after die neue Zeile.</li>
+ * <li>{@link ChangeType#UPDATE}: before und after sind die Zeile vor und nach der Änderung.</li>
+ * <li>{@link ChangeType#REMOVE}: before ist die entfernte Zeile, after ist null.</li>
+ * <li>{@link ChangeType#REMOVE_ALL}: primaryKey, before und after sind null.</li>
+ * </ul>
+ *
+ * @param sequence   fortlaufende Nummer der veröffentlichten Änderungen ihrer Tabelle, beginnend bei 1
+ * @param tableId    Bezeichner der geänderten Tabelle
+ * @param type       Art der Änderung
+ * @param primaryKey Primärschlüssel der geänderten Zeile oder null
+ * @param before     unveränderliche Zeile vor der Änderung oder null
+ * @param after      unveränderliche Zeile nach der Änderung oder null
+ */
+public record ChangeEvent(long sequence, String tableId, ChangeType type, Value primaryKey, List<Value> before,
+        List<Value> after) {
+}
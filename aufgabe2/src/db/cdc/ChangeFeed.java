@@ -0,0 +1,146 @@
+package db.cdc;
+
+import db.value.Value;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Strom der Änderungen einer Datenbanktabelle, an dem sich beliebig viele Empfänger anmelden können
+ * ({@link #subscribe(ChangeListener, int, Duration, int)}).
+ * <p>
+ * Solange niemand angemeldet ist, kostet der Strom die ändernden Operationen nur eine Abfrage von
+ * {@link #hasSubscribers()}. Das Veröffentlichen einer Änderung sperrt nicht und wartet nie auf Empfänger. Wie die
+ * Tabelle selbst darf der Strom nur von einem Thread gleichzeitig beschrieben werden.
+ */
+public final class ChangeFeed {
+
+    /**
+     * Standardwert für die maximale Anzahl von Änderungen pro Block
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * Standardwert für die maximale Verzögerung einer Änderung
+     */
+    public static final Duration DEFAULT_MAX_LATENCY = Duration.ofMillis(10);
+
+    /**
+     * Standardwert für die Kapazität des Puffers eines Abonnements
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    /**
+     * Bezeichner der Tabelle, deren Änderungen veröffentlicht werden
+     */
+    private final String tableId;
+
+    /**
+     * Aktuelle Abonnements, wird bei jeder An- oder Abmeldung ersetzt
+     */
+    private volatile ChangeSubscription[] subscriptions;
+
+    /**
+     * Nummer der zuletzt veröffentlichten Änderung
+     */
+    private long sequence;
+
+    /**
+     * Konstruktor
+     *
+     * @param tableId Bezeichner der Tabelle, deren Änderungen veröffentlicht werden
+     *
+     * @pre tableId != null
+     */
+    public ChangeFeed(String tableId) {
+        assert tableId != null : "tableId is null";
+        this.tableId = tableId;
+        this.subscriptions = new ChangeSubscription[0];
+        this.sequence = 0;
+    }
+
+    /**
+     * Liefert den Bezeichner der Tabelle, deren Änderungen veröffentlicht werden.
+     *
+     * @return Tabellenbezeichner
+     */
+    public String getTableId() {
+        return this.tableId;
+    }
+
+    /**
+     * Gibt an, ob Empfänger angemeldet sind. Ändernde Operationen sollten Änderungen nur dann aufbereiten.
+     *
+     * @return Angabe, ob Änderungen veröffentlicht werden müssen
+     */
+    public boolean hasSubscribers() {
+        return this.subscriptions.length > 0;
+    }
+
+    /**
+     * Meldet einen Empfänger an.
+     *
+     * @param listener   Empfänger
+     * @param batchSize  maximale Anzahl von Änderungen pro Block
+     * @param maxLatency maximale Zeit, die eine Änderung auf die Zustellung in einem unvollständigen Block wartet
+     * @param capacity   Anzahl der Änderungen, die gepuffert werden, bevor weitere verworfen werden
+     *
+     * @return Abonnement, über das Rückstand und verworfene Änderungen abgefragt werden können
+     *
+     * @pre listener != null
+     * @pre batchSize &gt; 0
+     * @pre maxLatency != null
+     * @pre maxLatency ist positiv
+     * @pre capacity ist eine Zweierpotenz und mindestens batchSize
+     */
+    public synchronized ChangeSubscription subscribe(ChangeListener listener, int batchSize, Duration maxLatency,
+            int capacity) {
+        assert listener != null : "listener is null";
+        assert batchSize > 0 : "batchSize must be positive";
+        assert maxLatency != null : "maxLatency is null";
+        assert !maxLatency.isNegative() && !maxLatency.isZero() : "maxLatency must be positive";
+        assert Integer.bitCount(capacity) == 1 && capacity >= batchSize : "invalid capacity";
+
+        ChangeSubscription subscription = new ChangeSubscription(this, listener, batchSize, maxLatency.toNanos(),
+                capacity);
+        ChangeSubscription[] current = this.subscriptions;
+        ChangeSubscription[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = subscription;
+        this.subscriptions = updated;
+        return subscription;
+    }
+
+    /**
+     * Veröffentlicht eine Änderung an alle angemeldeten Empfänger. Die Zeilen werden dabei als unveränderliche Kopien
+     * übernommen.
+     *
+     * @param type       Art der Änderung
+     * @param primaryKey Primärschlüssel der geänderten Zeile oder null
+     * @param before     Zeile vor der Änderung oder null
+     * @param after      Zeile nach der Änderung oder null
+     *
+     * @pre type != null
+     */
+    public void publish(ChangeType type, Value primaryKey, List<Value> before, List<Value> after) {
+        assert type != null : "type is null";
+        this.sequence++;
+        ChangeEvent event = new ChangeEvent(this.sequence, this.tableId, type, primaryKey,
+                before == null ? null : List.copyOf(before), after == null ? null : List.copyOf(after));
+        for (ChangeSubscription subscription : this.subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * Meldet ein Abonnement ab.
+     *
+     * @param subscription Abonnement
+     */
+    synchronized void remove(ChangeSubscription subscription) {
+        ChangeSubscription[] current = this.subscriptions;
+        ChangeSubscription[] updated = Arrays.stream(current).filter(other -> other != subscription)
+                .toArray(ChangeSubscription[]::new);
+        this.subscriptions = updated;
+    }
+}
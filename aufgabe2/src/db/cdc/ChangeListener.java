@@ -0,0 +1,27 @@
+package db.cdc;
+
+import java.util.List;
+
+/**
+ * Empfänger von Änderungen einer Datenbanktabelle. Die Methoden werden stets vom Zustellungs-Thread seines
+ * Abonnements ({@link ChangeSubscription}) aufgerufen, nie von dem Thread, der die Tabelle ändert.
+ */
+@FunctionalInterface
+public interface ChangeListener {
+
+    /**
+     * Verarbeitet einen Block von Änderungen in der Reihenfolge, in der sie vorgenommen wurden.
+     *
+     * @param events unveränderliche, nicht leere Liste von Änderungen
+     */
+    void onChanges(List<ChangeEvent> events);
+
+    /**
+     * Wird vor dem nächsten Block aufgerufen, wenn Änderungen verworfen wurden, weil der Puffer des Abonnements voll
+     * war. Die verworfenen Änderungen sind an Lücken in {@link ChangeEvent#sequence()} erkennbar.
+     *
+     * @param count Anzahl der seit dem letzten Aufruf verworfenen Änderungen
+     */
+    default void onEventsDropped(long count) {
+    }
+}
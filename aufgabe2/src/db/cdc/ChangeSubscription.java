@@ -0,0 +1,194 @@
+package db.cdc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Abonnement der Änderungen einer Datenbanktabelle.
+ * <p>
+ * Jedes Abonnement besitzt einen eigenen sperrfreien Ringpuffer und einen eigenen Zustellungs-Thread. Die ändernde
+ * Operation legt jede Änderung nur im Puffer ab und wartet nie auf den Empfänger. Ist der Puffer voll, wird die
+ * Änderung verworfen und gezählt. Der Zustellungs-Thread übergibt die Änderungen in Blöcken an den
+ * {@link ChangeListener}: sobald ein Block voll ist oder die älteste Änderung die maximale Verzögerung erreicht hat.
+ * <p>
+ * Wirft der Empfänger eine Ausnahme, endet die Zustellung; weitere Änderungen werden dann verworfen.
+ */
+public final class ChangeSubscription implements AutoCloseable {
+
+    /**
+     * Änderungsstrom, zu dem dieses Abonnement gehört
+     */
+    private final ChangeFeed feed;
+
+    /**
+     * Empfänger der Änderungen
+     */
+    private final ChangeListener listener;
+
+    /**
+     * Maximale Anzahl von Änderungen pro Block
+     */
+    private final int batchSize;
+
+    /**
+     * Maximale Verzögerung einer Änderung in Nanosekunden, bevor ein unvollständiger Block zugestellt wird
+     */
+    private final long maxLatencyNanos;
+
+    /**
+     * Puffer zwischen ändernder Operation und Zustellung
+     */
+    private final RingBuffer<ChangeEvent> buffer;
+
+    /**
+     * Anzahl aller verworfenen Änderungen
+     */
+    private final AtomicLong droppedEvents;
+
+    /**
+     * Anzahl aller zugestellten Änderungen
+     */
+    private final AtomicLong deliveredEvents;
+
+    /**
+     * Thread, der die Änderungen zustellt
+     */
+    private final Thread deliverer;
+
+    /**
+     * Angabe, ob das Abonnement beendet wurde
+     */
+    private volatile boolean closed;
+
+    /**
+     * Konstruktor. Startet den Zustellungs-Thread.
+     *
+     * @param feed            Änderungsstrom, zu dem dieses Abonnement gehört
+     * @param listener        Empfänger der Änderungen
+     * @param batchSize       maximale Anzahl von Änderungen pro Block
+     * @param maxLatencyNanos maximale Verzögerung einer Änderung in Nanosekunden
+     * @param capacity        Kapazität des Puffers, eine Zweierpotenz
+     */
+    ChangeSubscription(ChangeFeed feed, ChangeListener listener, int batchSize, long maxLatencyNanos, int capacity) {
+        this.feed = feed;
+        this.listener = listener;
+        this.batchSize = batchSize;
+        this.maxLatencyNanos = maxLatencyNanos;
+        this.buffer = new RingBuffer<>(capacity);
+        this.droppedEvents = new AtomicLong();
+        this.deliveredEvents = new AtomicLong();
+        this.deliverer = new Thread(this::deliver, "ChangeSubscription-" + feed.getTableId());
+        this.deliverer.setDaemon(true);
+        this.deliverer.start();
+    }
+
+    /**
+     * Liefert die Anzahl der Änderungen, die bereits vorgenommen, aber noch nicht zugestellt wurden.
+     *
+     * @return Rückstand der Zustellung
+     */
+    public int getLag() {
+        return this.buffer.size();
+    }
+
+    /**
+     * Liefert die Anzahl aller Änderungen, die verworfen wurden, weil der Puffer voll war.
+     *
+     * @return Anzahl verworfener Änderungen
+     */
+    public long getDroppedEvents() {
+        return this.droppedEvents.get();
+    }
+
+    /**
+     * Liefert die Anzahl aller zugestellten Änderungen. Eine Änderung zählt als zugestellt, sobald sie dem Empfänger
+     * übergeben wird.
+     *
+     * @return Anzahl zugestellter Änderungen
+     */
+    public long getDeliveredEvents() {
+        return this.deliveredEvents.get();
+    }
+
+    /**
+     * Gibt an, ob dieses Abonnement beendet wurde.
+     *
+     * @return Angabe, ob das Abonnement beendet wurde
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Beendet dieses Abonnement. Bereits gepufferte Änderungen werden noch zugestellt, weitere nicht mehr
+     * angenommen.
+     */
+    @Override
+    public void close() {
+        this.feed.remove(this);
+        this.closed = true;
+        LockSupport.unpark(this.deliverer);
+    }
+
+    /**
+     * Legt eine Änderung im Puffer ab oder zählt sie als verworfen. Weckt den Zustellungs-Thread, wenn der Puffer
+     * zuvor leer war oder nun einen vollen Block enthält. Darf nur von der ändernden Operation aufgerufen werden.
+     *
+     * @param event Änderung
+     */
+    void offer(ChangeEvent event) {
+        if (!this.buffer.offer(event)) {
+            this.droppedEvents.incrementAndGet();
+            return;
+        }
+        int size = this.buffer.size();
+        if (size == 1 || size == this.batchSize) {
+            LockSupport.unpark(this.deliverer);
+        }
+    }
+
+    /**
+     * Stellt Änderungen zu, bis das Abonnement beendet wurde und der Puffer leer ist.
+     */
+    private void deliver() {
+        List<ChangeEvent> batch = new ArrayList<>(this.batchSize);
+        long reportedDrops = 0;
+        long oldestPending = 0;
+        boolean pending = false;
+        while (!this.closed || this.buffer.size() > 0) {
+            long drops = this.droppedEvents.get();
+            if (drops != reportedDrops) {
+                this.listener.onEventsDropped(drops - reportedDrops);
+                reportedDrops = drops;
+            }
+
+            int size = this.buffer.size();
+            long now = System.nanoTime();
+            if (size == 0) {
+                pending = false;
+                LockSupport.parkNanos(this, this.maxLatencyNanos);
+                continue;
+            }
+            if (!pending) {
+                pending = true;
+                oldestPending = now;
+            }
+            long waited = now - oldestPending;
+            if (size >= this.batchSize || waited >= this.maxLatencyNanos || this.closed) {
+                this.buffer.drainTo(batch, this.batchSize);
+                this.deliveredEvents.addAndGet(batch.size());
+                this.listener.onChanges(List.copyOf(batch));
+                batch.clear();
+                pending = this.buffer.size() > 0;
+            } else {
+                LockSupport.parkNanos(this, this.maxLatencyNanos - waited);
+            }
+        }
+        long drops = this.droppedEvents.get();
+        if (drops != reportedDrops) {
+            this.listener.onEventsDropped(drops - reportedDrops);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package db.cdc;
+
+/**
+ * Art einer Änderung an einer Datenbanktabelle.
+ */
+public enum ChangeType {
+
+    /**
+     * Eine Zeile wurde angehängt
+     */
+    APPEND,
+
+    /**
+     * Ein Wert einer Zeile wurde ersetzt
+     */
+    UPDATE,
+
+    /**
+     * Eine Zeile wurde entfernt
+     */
+    REMOVE,
+
+    /**
+     * Alle Zeilen wurden entfernt
+     */
+    REMOVE_ALL
+}
@@ -0,0 +1,98 @@
+package db.cdc;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Sperrfreier Ringpuffer fester Kapazität für genau einen schreibenden und einen lesenden Thread.
+ * <p>
+ * Schreib- und Leseposition zählen fortlaufend. Jede Seite veröffentlicht ihre Position erst, nachdem sie die
+ * betroffenen Plätze geschrieben bzw. gelesen hat, sodass keine Seite je auf die andere warten muss.
+ *
+ * @param <T> Typ der Elemente
+ */
+final class RingBuffer<T> {
+
+    /**
+     * Plätze des Puffers
+     */
+    private final AtomicReferenceArray<T> slots;
+
+    /**
+     * Maske, die eine Position auf ihren Platz abbildet
+     */
+    private final int mask;
+
+    /**
+     * Position des nächsten zu lesenden Elements, wird nur vom Leser verändert
+     */
+    private final AtomicLong head;
+
+    /**
+     * Position des nächsten zu schreibenden Elements, wird nur vom Schreiber verändert
+     */
+    private final AtomicLong tail;
+
+    /**
+     * Konstruktor
+     *
+     * @param capacity Kapazität
+     *
+     * @pre capacity ist eine Zweierpotenz
+     */
+    RingBuffer(int capacity) {
+        assert capacity > 0 && Integer.bitCount(capacity) == 1 : "capacity must be a power of two";
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.head = new AtomicLong();
+        this.tail = new AtomicLong();
+    }
+
+    /**
+     * Fügt ein Element hinzu, sofern Platz ist. Darf nur vom Schreiber aufgerufen werden.
+     *
+     * @param element Element
+     *
+     * @return Angabe, ob das Element hinzugefügt wurde
+     */
+    boolean offer(T element) {
+        long position = this.tail.get();
+        if (position - this.head.get() > this.mask) {
+            return false;
+        }
+        this.slots.lazySet((int) position & this.mask, element);
+        this.tail.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * Entnimmt höchstens max Elemente in ihrer Reihenfolge. Darf nur vom Leser aufgerufen werden.
+     *
+     * @param target Liste, an die die Elemente angehängt werden
+     * @param max    maximale Anzahl
+     *
+     * @return Anzahl der entnommenen Elemente
+     */
+    int drainTo(List<T> target, int max) {
+        long position = this.head.get();
+        int count = (int) Math.min(max, this.tail.get() - position);
+        for (int i = 0; i < count; i++) {
+            int index = (int) (position + i) & this.mask;
+            target.add(this.slots.get(index));
+            this.slots.lazySet(index, null);
+        }
+        this.head.lazySet(position + count);
+        return count;
+    }
+
+    /**
+     * Liefert die Anzahl der enthaltenen Elemente.
+     *
+     * @return Anzahl der Elemente
+     */
+    int size() {
+        long position = this.head.get();
+        return (int) (this.tail.get() - position);
+    }
+}
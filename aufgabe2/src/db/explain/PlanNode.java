@@ -0,0 +1,326 @@
+package db.explain;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Schritt eines Ausführungsplans ({@link QueryPlan}), etwa das Auswerten einer Bedingung über einen Bitmap-Index oder
+ * das Übernehmen der Ergebniszeilen in eine neue Tabelle. Die Kindschritte werden vor oder während dieses Schritts
+ * ausgeführt.
+ * <p>
+ * Wurde der Plan ausgeführt (EXPLAIN ANALYZE), enthält ein Schritt Messwerte: die Anzahl der Zeilen, die er erhalten
+ * und geliefert hat, die Anzahl der Zeilen, für die er eine Bedingung einzeln geprüft hat, seine Dauer und die dabei
+ * im ausführenden Thread allozierten Bytes. Dauer und Allokationen schließen die Kindschritte ein. Nicht erfasste
+ * Messwerte sind -1.
+ */
+public final class PlanNode {
+
+    /**
+     * Operator: Selektion ({@link db.DBTable#select(java.util.List, java.util.List, String)})
+     */
+    public static final String SELECT = "Select";
+
+    /**
+     * Operator: Aktualisierung ({@link db.DBTable#update(String, db.value.Value, java.util.List)})
+     */
+    public static final String UPDATE = "Update";
+
+    /**
+     * Operator: Entfernen von Zeilen ({@link db.DBTable#removeRows(db.WhereParameter)})
+     */
+    public static final String REMOVE_ROWS = "RemoveRows";
+
+    /**
+     * Operator: Join über einen Fremdschlüssel ({@link db.DBTable#equijoin(db.DBTable, String, String)})
+     */
+    public static final String EQUIJOIN = "Equijoin";
+
+    /**
+     * Operator: Auswerten aller Bedingungen einer Operation
+     */
+    public static final String FILTER = "Filter";
+
+    /**
+     * Operator: Auswerten einer Bedingung über einen Bitmap-Index
+     */
+    public static final String INDEX_SCAN = "IndexScan";
+
+    /**
+     * Operator: gemeinsames Auswerten übersetzter Bedingungen
+     */
+    public static final String COMPILED_FILTER = "CompiledFilter";
+
+    /**
+     * Operator: Auswerten einer Bedingung über die Werte einer Spalte
+     */
+    public static final String COLUMN_SCAN = "ColumnScan";
+
+    /**
+     * Operator: Übernehmen der Ergebniszeilen in eine neue Tabelle
+     */
+    public static final String MATERIALIZE = "Materialize";
+
+    /**
+     * Operator: Übernehmen der selektierten Spalten ohne Kopie bei einer Projektion ohne Bedingung
+     */
+    public static final String FORK = "Fork";
+
+    /**
+     * Operator: Schreiben des neuen Werts in die passenden Zeilen
+     */
+    public static final String WRITE = "Write";
+
+    /**
+     * Operator: Entfernen der passenden Zeilen gemäß dem Löschmodus
+     */
+    public static final String REMOVE = "Remove";
+
+    /**
+     * Operator: Durchlaufen aller Zeilen einer Tabelle
+     */
+    public static final String SCAN = "Scan";
+
+    /**
+     * Operator: Suchen der Zeile mit einem Primärschlüssel über den Primärschlüsselindex
+     */
+    public static final String PRIMARY_KEY_LOOKUP = "PrimaryKeyLookup";
+
+    /**
+     * Thread-Verwaltung, die allozierte Bytes pro Thread liefert, oder null, wenn die Laufzeitumgebung das nicht kann
+     */
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationBean();
+
+    /**
+     * Name des Operators
+     */
+    private final String operator;
+
+    /**
+     * Beschreibung, worauf der Operator angewandt wird
+     */
+    private final String detail;
+
+    /**
+     * Kindschritte in der Reihenfolge ihrer Ausführung
+     */
+    private final List<PlanNode> children;
+
+    /**
+     * Anzahl der erhaltenen Zeilen oder -1
+     */
+    private long rowsIn;
+
+    /**
+     * Anzahl der gelieferten Zeilen oder -1
+     */
+    private long rowsOut;
+
+    /**
+     * Anzahl der einzeln geprüften Zeilen oder -1
+     */
+    private long checks;
+
+    /**
+     * Dauer in Nanosekunden oder -1
+     */
+    private long wallNanos;
+
+    /**
+     * Allozierte Bytes oder -1
+     */
+    private long allocatedBytes;
+
+    /**
+     * Zeitpunkt des Starts in Nanosekunden
+     */
+    private long startNanos;
+
+    /**
+     * Allozierte Bytes des Threads beim Start
+     */
+    private long startBytes;
+
+    /**
+     * Konstruktor
+     *
+     * @param operator Name des Operators
+     * @param detail   Beschreibung, worauf der Operator angewandt wird
+     *
+     * @pre operator != null
+     * @pre detail != null
+     */
+    public PlanNode(String operator, String detail) {
+        assert operator != null : "operator is null";
+        assert detail != null : "detail is null";
+
+        this.operator = operator;
+        this.detail = detail;
+        this.children = new ArrayList<>();
+        this.rowsIn = -1;
+        this.rowsOut = -1;
+        this.checks = -1;
+        this.wallNanos = -1;
+        this.allocatedBytes = -1;
+    }
+
+    /**
+     * Hängt einen neuen Kindschritt an.
+     *
+     * @param childOperator Name des Operators
+     * @param childDetail   Beschreibung, worauf der Operator angewandt wird
+     *
+     * @return neuer Kindschritt
+     *
+     * @pre childOperator != null
+     * @pre childDetail != null
+     */
+    public PlanNode addChild(String childOperator, String childDetail) {
+        PlanNode child = new PlanNode(childOperator, childDetail);
+        this.children.add(child);
+        return child;
+    }
+
+    /**
+     * Liefert den Namen des Operators.
+     *
+     * @return Name des Operators
+     */
+    public String getOperator() {
+        return this.operator;
+    }
+
+    /**
+     * Liefert die Beschreibung, worauf der Operator angewandt wird.
+     *
+     * @return Beschreibung
+     */
+    public String getDetail() {
+        return this.detail;
+    }
+
+    /**
+     * Liefert die Kindschritte in der Reihenfolge ihrer Ausführung.
+     *
+     * @return unveränderliche Liste der Kindschritte
+     */
+    public List<PlanNode> getChildren() {
+        return Collections.unmodifiableList(this.children);
+    }
+
+    /**
+     * Gibt an, ob für diesen Schritt Messwerte erfasst wurden.
+     *
+     * @return Angabe, ob der Schritt ausgeführt und gemessen wurde
+     */
+    public boolean isAnalyzed() {
+        return this.rowsIn >= 0 || this.rowsOut >= 0 || this.wallNanos >= 0;
+    }
+
+    /**
+     * Liefert die Anzahl der Zeilen, die dieser Schritt erhalten hat.
+     *
+     * @return Anzahl der Zeilen oder -1
+     */
+    public long getRowsIn() {
+        return this.rowsIn;
+    }
+
+    /**
+     * Liefert die Anzahl der Zeilen, die dieser Schritt geliefert hat.
+     *
+     * @return Anzahl der Zeilen oder -1
+     */
+    public long getRowsOut() {
+        return this.rowsOut;
+    }
+
+    /**
+     * Liefert die Anzahl der Zeilen, für die dieser Schritt eine Bedingung einzeln geprüft hat. Werte einer
+     * Wörterbuchspalte werden dabei unter Umständen nur einmal pro unterschiedlichem Wert geprüft.
+     *
+     * @return Anzahl der geprüften Zeilen oder -1
+     */
+    public long getChecks() {
+        return this.checks;
+    }
+
+    /**
+     * Liefert die Dauer dieses Schritts einschließlich seiner Kindschritte.
+     *
+     * @return Dauer in Nanosekunden oder -1
+     */
+    public long getWallNanos() {
+        return this.wallNanos;
+    }
+
+    /**
+     * Liefert die Bytes, die während dieses Schritts einschließlich seiner Kindschritte im ausführenden Thread
+     * alloziert wurden.
+     *
+     * @return allozierte Bytes oder -1, wenn die Laufzeitumgebung sie nicht erfasst
+     */
+    public long getAllocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    /**
+     * Beginnt die Messung von Dauer und Allokationen dieses Schritts.
+     */
+    public void start() {
+        this.startBytes = allocatedBytesOfThread();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Beendet die mit {@link #start()} begonnene Messung.
+     */
+    public void stop() {
+        this.wallNanos = System.nanoTime() - this.startNanos;
+        long bytes = allocatedBytesOfThread();
+        this.allocatedBytes = bytes < 0 ? -1 : bytes - this.startBytes;
+    }
+
+    /**
+     * Setzt die Anzahl der erhaltenen und gelieferten Zeilen.
+     *
+     * @param newRowsIn  Anzahl der erhaltenen Zeilen
+     * @param newRowsOut Anzahl der gelieferten Zeilen
+     */
+    public void setRows(long newRowsIn, long newRowsOut) {
+        this.rowsIn = newRowsIn;
+        this.rowsOut = newRowsOut;
+    }
+
+    /**
+     * Setzt die Anzahl der einzeln geprüften Zeilen.
+     *
+     * @param newChecks Anzahl der geprüften Zeilen
+     */
+    public void setChecks(long newChecks) {
+        this.checks = newChecks;
+    }
+
+    /**
+     * Liefert die Thread-Verwaltung, sofern sie allozierte Bytes pro Thread erfassen kann.
+     *
+     * @return Thread-Verwaltung oder null
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+
+    /**
+     * Liefert die bisher im aktuellen Thread allozierten Bytes.
+     *
+     * @return allozierte Bytes oder -1, wenn die Laufzeitumgebung sie nicht erfasst
+     */
+    private static long allocatedBytesOfThread() {
+        return ALLOCATIONS == null ? -1 : ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,266 @@
+package db.explain;
+
+import db.index.BitmapIndex;
+import db.query.QueryCompiler;
+import db.storage.Column;
+import db.value.Value;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Legt die Schritte eines Ausführungsplans für die Operationen einer Tabelle an. Ohne Ausführung (EXPLAIN) werden die
+ * Schritte nur beschrieben, während einer Ausführung (EXPLAIN ANALYZE) werden sie angehängt und gemessen. Die Methoden
+ * zum Messen akzeptieren statt eines Schritts null und tun dann nichts, sodass Operationen ohne Plan nur eine Prüfung
+ * pro Schritt kosten.
+ */
+public final class PlanSteps {
+
+    /**
+     * Beschreibung eines Filters ohne Bedingung in einem Ausführungsplan
+     */
+    public static final String ALL_ROWS = "alle Zeilen";
+
+    /**
+     * Beschreibung eines Filters, bei dem eine Bedingung genügt, in einem Ausführungsplan
+     */
+    public static final String ANY_CONDITION = "mindestens eine Bedingung";
+
+    /**
+     * Beschreibung eines Filters, bei dem alle Bedingungen erfüllt sein müssen, in einem Ausführungsplan
+     */
+    public static final String ALL_CONDITIONS = "alle Bedingungen";
+
+    /**
+     * Bezeichnung einer Bedingung ohne eigenen Klassennamen in einem Ausführungsplan
+     */
+    private static final String LAMBDA = "Lambda";
+
+    /**
+     * Kennzeichnung einer spaltenweise ausgewerteten Bedingung in einem Ausführungsplan
+     */
+    private static final String COLUMNAR = " (spaltenweise)";
+
+    /**
+     * Kennzeichnung einer zeilenweise ausgewerteten Bedingung in einem Ausführungsplan
+     */
+    private static final String ROW_WISE = " (zeilenweise)";
+
+    /**
+     * Versteckter Konstruktor
+     */
+    private PlanSteps() {
+    }
+
+    /**
+     * Hängt an den übergebenen Schritt die Teilschritte an, mit denen eine Tabelle die Bedingungen auswerten würde,
+     * ohne sie auszuwerten: zuerst über verwendbare Bitmap-Indizes, dann übersetzbare Bedingungen gemeinsam, die
+     * übrigen einzeln. Ob der {@link QueryCompiler} eine Bedingung tatsächlich übersetzt, zeigt sich erst bei der
+     * Ausführung.
+     *
+     * @param filter       Schritt, an den angehängt wird
+     * @param columnIds    Spaltenbezeichner der Tabelle
+     * @param columns      Spalten der Tabelle in der Reihenfolge von columnIds
+     * @param indexes      Bitmap-Indizes der Spalten oder null für Spalten ohne Index
+     * @param whereColumns Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates   Bedingungen in der Reihenfolge von whereColumns
+     *
+     * @pre filter != null
+     * @pre columnIds != null
+     * @pre columns != null
+     * @pre indexes != null
+     * @pre whereColumns != null
+     * @pre predicates != null
+     */
+    public static void planFilter(PlanNode filter, List<String> columnIds, Column[] columns, BitmapIndex[] indexes,
+            int[] whereColumns, List<Predicate<Value>> predicates) {
+        assert filter != null : "filter is null";
+        assert columnIds != null : "columnIds is null";
+        assert columns != null : "columns is null";
+        assert indexes != null : "indexes is null";
+        assert whereColumns != null : "whereColumns is null";
+        assert predicates != null : "predicates is null";
+
+        List<Integer> scanned = new ArrayList<>();
+        for (int i = 0; i < whereColumns.length; i++) {
+            BitmapIndex index = indexes[whereColumns[i]];
+            if (index != null && index.isUsable()) {
+                filter.addChild(PlanNode.INDEX_SCAN, describe(PlanNode.INDEX_SCAN, columnIds, columns, whereColumns,
+                        predicates, List.of(i)));
+            } else {
+                scanned.add(i);
+            }
+        }
+
+        List<Integer> compilable = new ArrayList<>();
+        for (int i : scanned) {
+            if (!columns[whereColumns[i]].prefersColumnarMatch() && QueryCompiler.isCompilable(predicates.get(i))) {
+                compilable.add(i);
+            }
+        }
+        if (!compilable.isEmpty()) {
+            filter.addChild(PlanNode.COMPILED_FILTER, describe(PlanNode.COMPILED_FILTER, columnIds, columns,
+                    whereColumns, predicates, compilable));
+            scanned.removeAll(compilable);
+        }
+        for (int i : scanned) {
+            filter.addChild(PlanNode.COLUMN_SCAN, describe(PlanNode.COLUMN_SCAN, columnIds, columns, whereColumns,
+                    predicates, List.of(i)));
+        }
+    }
+
+    /**
+     * Hängt an den übergebenen Schritt die Teilschritte eines Joins über einen Fremdschlüssel an.
+     *
+     * @param join       Schritt, an den angehängt wird
+     * @param tableId    Bezeichner der Tabelle mit dem Fremdschlüssel
+     * @param primaryKey Tabellen- und Spaltenbezeichner des referenzierten Primärschlüssels
+     * @param newTableId Bezeichner der Tabelle, die erzeugt wird
+     *
+     * @pre join != null
+     * @pre tableId != null
+     * @pre primaryKey != null
+     * @pre newTableId != null
+     */
+    public static void planEquijoin(PlanNode join, String tableId, String primaryKey, String newTableId) {
+        assert join != null : "join is null";
+        assert tableId != null : "tableId is null";
+        assert primaryKey != null : "primaryKey is null";
+        assert newTableId != null : "newTableId is null";
+
+        join.addChild(PlanNode.SCAN, tableId);
+        join.addChild(PlanNode.PRIMARY_KEY_LOOKUP, primaryKey);
+        join.addChild(PlanNode.MATERIALIZE, newTableId);
+    }
+
+    /**
+     * Beschreibt die Bedingungen an den übergebenen Positionen für einen Schritt eines Ausführungsplans.
+     *
+     * @param operator     Operator des Schritts
+     * @param columnIds    Spaltenbezeichner der Tabelle
+     * @param columns      Spalten der Tabelle in der Reihenfolge von columnIds
+     * @param whereColumns Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates   Bedingungen in der Reihenfolge von whereColumns
+     * @param positions    Positionen der beschriebenen Bedingungen, nicht leer
+     *
+     * @return Spaltenbezeichner und Art jeder Bedingung, bei einem {@link PlanNode#COLUMN_SCAN} zusätzlich, ob
+     *         spaltenweise ausgewertet wird
+     */
+    public static String describe(String operator, List<String> columnIds, Column[] columns, int[] whereColumns,
+            List<Predicate<Value>> predicates, List<Integer> positions) {
+        StringBuilder builder = new StringBuilder();
+        for (int i : positions) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            String name = predicates.get(i).getClass().getSimpleName();
+            builder.append(columnIds.get(whereColumns[i])).append(": ")
+                    .append(name.isEmpty() || name.contains("$$") ? LAMBDA : name);
+        }
+        if (PlanNode.COLUMN_SCAN.equals(operator)) {
+            Column column = columns[whereColumns[positions.get(0)]];
+            builder.append(column.prefersColumnarMatch() ? COLUMNAR : ROW_WISE);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Hängt einen Schritt, der Bedingungen auswertet, an den übergebenen Schritt an und beginnt seine Messung. Die
+     * Bedingungen werden nur beschrieben, wenn trace nicht null ist.
+     *
+     * @param trace        Schritt, an den angehängt wird, oder null
+     * @param operator     Operator des Schritts
+     * @param columnIds    Spaltenbezeichner der Tabelle oder null, wenn trace null ist
+     * @param columns      Spalten der Tabelle in der Reihenfolge von columnIds
+     * @param whereColumns Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates   Bedingungen in der Reihenfolge von whereColumns
+     * @param positions    Positionen der ausgewerteten Bedingungen
+     *
+     * @return neuer Schritt oder null, wenn trace null ist
+     */
+    public static PlanNode begin(PlanNode trace, String operator, List<String> columnIds, Column[] columns,
+            int[] whereColumns, List<Predicate<Value>> predicates, List<Integer> positions) {
+        return trace == null ? null
+                : begin(trace, operator, describe(operator, columnIds, columns, whereColumns, predicates, positions));
+    }
+
+    /**
+     * Hängt einen Schritt an den übergebenen Schritt an und beginnt seine Messung.
+     *
+     * @param trace    Schritt, an den angehängt wird, oder null
+     * @param operator Operator des Schritts
+     * @param detail   Beschreibung des Schritts
+     *
+     * @return neuer Schritt oder null, wenn trace null ist
+     */
+    public static PlanNode begin(PlanNode trace, String operator, String detail) {
+        if (trace == null) {
+            return null;
+        }
+        PlanNode step = trace.addChild(operator, detail);
+        step.start();
+        return step;
+    }
+
+    /**
+     * Beendet die Messung des übergebenen Schritts und setzt seine Messwerte.
+     *
+     * @param step    Schritt oder null
+     * @param rowsIn  Anzahl der erhaltenen Zeilen
+     * @param rowsOut Anzahl der gelieferten Zeilen
+     * @param checks  Anzahl der einzeln geprüften Zeilen oder -1
+     */
+    public static void end(PlanNode step, long rowsIn, long rowsOut, long checks) {
+        if (step != null) {
+            step.stop();
+            step.setRows(rowsIn, rowsOut);
+            step.setChecks(checks);
+        }
+    }
+
+    /**
+     * Beendet die Messung eines Schritts, der jede erhaltene Zeile einzeln prüft, und setzt seine Messwerte.
+     *
+     * @param step Schritt oder null
+     * @param in   erhaltene Slots
+     * @param out  gelieferte Slots
+     */
+    public static void endScan(PlanNode step, BitSet in, BitSet out) {
+        if (step != null) {
+            end(step, in.cardinality(), out.cardinality(), in.cardinality());
+        }
+    }
+
+    /**
+     * Liefert die Anzahl der übergebenen Slots, sofern ein Schritt gemessen wird.
+     *
+     * @param step  Schritt oder null
+     * @param slots Slots
+     *
+     * @return Anzahl der Slots oder -1, wenn step null ist
+     */
+    public static long count(PlanNode step, BitSet slots) {
+        return step == null ? -1 : slots.cardinality();
+    }
+
+    /**
+     * Beendet die Messung einer ausgeführten Operation. Die Anzahl der gelieferten Zeilen entspricht der ihres letzten
+     * Schritts.
+     *
+     * @param root   Wurzel des Plans
+     * @param rowsIn Anzahl der Zeilen der Tabelle vor der Operation
+     *
+     * @pre root != null
+     * @pre root muss mindestens einen Schritt enthalten
+     */
+    public static void finish(PlanNode root, long rowsIn) {
+        assert root != null : "root is null";
+        assert !root.getChildren().isEmpty() : "root has no steps";
+
+        root.stop();
+        List<PlanNode> steps = root.getChildren();
+        root.setRows(rowsIn, steps.get(steps.size() - 1).getRowsOut());
+    }
+}
@@ -0,0 +1,145 @@
+package db.explain;
+
+import db.DBTable;
+import db.value.DoubleValue;
+import db.value.NullValue;
+import db.value.StringValue;
+import db.value.Value;
+
+import java.util.List;
+
+/**
+ * Ausführungsplan einer Tabellenoperation, wie ihn {@link DBTable#explainSelect(List, List, String, boolean)} und die
+ * übrigen explain-Methoden von {@link DBTable} liefern. Der Plan ist ein Baum aus {@link PlanNode}s, dessen Wurzel die
+ * Operation selbst beschreibt.
+ * <p>
+ * Wurde die Operation ausgeführt (EXPLAIN ANALYZE), enthalten die Schritte Messwerte und {@link #getResult()} liefert
+ * das Ergebnis der Operation. {@link #toString()} stellt den Plan als Tabelle im Format von {@link DBTable#toString()}
+ * dar, nicht erfasste Messwerte erscheinen dort als NULL.
+ */
+public final class QueryPlan {
+
+    /**
+     * Tabellenbezeichner der Darstellung als Tabelle
+     */
+    public static final String TABLE_ID = "Plan";
+
+    /**
+     * Spaltenbezeichner der Darstellung als Tabelle, der erste ist der Primärschlüssel
+     */
+    public static final List<String> COLUMN_IDS = List.of("Schritt", "Operator", "Details", "ZeilenEin", "ZeilenAus",
+            "Geprueft", "ZeitMikros", "AllokiertBytes");
+
+    /**
+     * Nanosekunden pro Mikrosekunde
+     */
+    private static final long NANOS_PER_MICRO = 1_000L;
+
+    /**
+     * Einrückung pro Ebene des Baums
+     */
+    private static final String INDENT = "  ";
+
+    /**
+     * Kennzeichnung eines Kindschritts
+     */
+    private static final String CHILD_MARKER = "-> ";
+
+    /**
+     * Wurzel des Plans
+     */
+    private final PlanNode root;
+
+    /**
+     * Ergebnis der ausgeführten Operation oder null
+     */
+    private final DBTable result;
+
+    /**
+     * Konstruktor
+     *
+     * @param root   Wurzel des Plans
+     * @param result Ergebnis der ausgeführten Operation oder null, wenn sie nicht ausgeführt wurde
+     *
+     * @pre root != null
+     */
+    public QueryPlan(PlanNode root, DBTable result) {
+        assert root != null : "root is null";
+
+        this.root = root;
+        this.result = result;
+    }
+
+    /**
+     * Liefert die Wurzel des Plans.
+     *
+     * @return Wurzel des Plans
+     */
+    public PlanNode getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Liefert das Ergebnis der ausgeführten Operation: bei Selektion und Join die neue Tabelle, bei Aktualisierung und
+     * Entfernen die geänderte Tabelle.
+     *
+     * @return Ergebnis oder null, wenn die Operation nicht ausgeführt wurde
+     */
+    public DBTable getResult() {
+        return this.result;
+    }
+
+    /**
+     * Liefert den Plan als Tabelle mit einer Zeile pro Schritt in der Reihenfolge einer Tiefensuche. Die Spalte
+     * Operator ist gemäß der Tiefe des Schritts eingerückt.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Schritte und f(N) = N.
+     *
+     * @return neue Tabelle mit den Spalten {@link #COLUMN_IDS} und dem Bezeichner {@link #TABLE_ID}
+     */
+    public DBTable toTable() {
+        DBTable table = new DBTable(TABLE_ID, COLUMN_IDS.get(0), COLUMN_IDS);
+        this.appendRows(table, this.root, 0);
+        return table;
+    }
+
+    /**
+     * Liefert den Plan als Tabelle gemäß {@link #toTable()} im Format von {@link DBTable#toString()}.
+     *
+     * @return Darstellung des Plans
+     */
+    @Override
+    public String toString() {
+        return this.toTable().toString();
+    }
+
+    /**
+     * Hängt die Zeilen des übergebenen Schritts und seiner Kindschritte an.
+     *
+     * @param table Tabelle, an die angehängt wird
+     * @param node  Schritt
+     * @param depth Tiefe des Schritts, die Wurzel hat die Tiefe 0
+     */
+    private void appendRows(DBTable table, PlanNode node, int depth) {
+        String operator = depth == 0 ? node.getOperator()
+                : INDENT.repeat(depth - 1) + CHILD_MARKER + node.getOperator();
+        long micros = node.getWallNanos() < 0 ? -1 : node.getWallNanos() / NANOS_PER_MICRO;
+        table.appendRow(List.of(new DoubleValue(table.getNumOfRows() + 1), new StringValue(operator),
+                new StringValue(node.getDetail()), metric(node.getRowsIn()), metric(node.getRowsOut()),
+                metric(node.getChecks()), metric(micros), metric(node.getAllocatedBytes())));
+        for (PlanNode child : node.getChildren()) {
+            this.appendRows(table, child, depth + 1);
+        }
+    }
+
+    /**
+     * Liefert den Wert eines Messwerts.
+     *
+     * @param value Messwert oder -1, wenn er nicht erfasst wurde
+     *
+     * @return Zahl oder {@link NullValue#NULL}
+     */
+    private static Value metric(long value) {
+        return value < 0 ? NullValue.NULL : new DoubleValue(value);
+    }
+}
@@ -0,0 +1,181 @@
+package db.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Container für dünn besetzte Blöcke, der seine Werte als sortiertes char-Array speichert.
+ */
+final class ArrayContainer extends Container {
+
+    /**
+     * Anfangskapazität des Werte-Arrays
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Sortierte Werte, nur die ersten cardinality Einträge sind belegt
+     */
+    private char[] values;
+
+    /**
+     * Anzahl der Werte
+     */
+    private int cardinality;
+
+    /**
+     * Konstruktor für einen leeren Container
+     */
+    ArrayContainer() {
+        this(new char[INITIAL_CAPACITY], 0);
+    }
+
+    /**
+     * Konstruktor
+     *
+     * @param values      sortierte Werte
+     * @param cardinality Anzahl der belegten Einträge in values
+     */
+    ArrayContainer(char[] values, int cardinality) {
+        this.values = values;
+        this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+        return this.cardinality;
+    }
+
+    @Override
+    boolean contains(char value) {
+        return Arrays.binarySearch(this.values, 0, this.cardinality, value) >= 0;
+    }
+
+    @Override
+    Container add(char value) {
+        int pos = Arrays.binarySearch(this.values, 0, this.cardinality, value);
+        if (pos >= 0) {
+            return this;
+        }
+        if (this.cardinality == ARRAY_LIMIT) {
+            return this.toBitmapContainer().add(value);
+        }
+
+        int insert = -pos - 1;
+        if (this.cardinality == this.values.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, this.values.length * 2);
+            this.values = Arrays.copyOf(this.values, Math.min(ARRAY_LIMIT, capacity));
+        }
+        System.arraycopy(this.values, insert, this.values, insert + 1, this.cardinality - insert);
+        this.values[insert] = value;
+        this.cardinality++;
+        return this;
+    }
+
+    @Override
+    Container remove(char value) {
+        int pos = Arrays.binarySearch(this.values, 0, this.cardinality, value);
+        if (pos >= 0) {
+            System.arraycopy(this.values, pos + 1, this.values, pos, this.cardinality - pos - 1);
+            this.cardinality--;
+        }
+        return this;
+    }
+
+    @Override
+    Container or(Container other) {
+        if (other instanceof BitmapContainer) {
+            return other.or(this);
+        }
+        ArrayContainer array = (ArrayContainer) other;
+        char[] merged = new char[this.cardinality + array.cardinality];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.cardinality && j < array.cardinality) {
+            char a = this.values[i];
+            char b = array.values[j];
+            if (a == b) {
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+            merged[count++] = a <= b ? a : b;
+        }
+        while (i < this.cardinality) {
+            merged[count++] = this.values[i++];
+        }
+        while (j < array.cardinality) {
+            merged[count++] = array.values[j++];
+        }
+        ArrayContainer result = new ArrayContainer(merged, count);
+        return count > ARRAY_LIMIT ? result.toBitmapContainer() : result;
+    }
+
+    @Override
+    Container and(Container other) {
+        char[] result = new char[this.cardinality];
+        int count = 0;
+        for (int i = 0; i < this.cardinality; i++) {
+            if (other.contains(this.values[i])) {
+                result[count++] = this.values[i];
+            }
+        }
+        return new ArrayContainer(result, count);
+    }
+
+    @Override
+    Container andNot(Container other) {
+        char[] result = new char[this.cardinality];
+        int count = 0;
+        for (int i = 0; i < this.cardinality; i++) {
+            if (!other.contains(this.values[i])) {
+                result[count++] = this.values[i];
+            }
+        }
+        return new ArrayContainer(result, count);
+    }
+
+    @Override
+    void copyTo(BitSet target, int base) {
+        for (int i = 0; i < this.cardinality; i++) {
+            target.set(base | this.values[i]);
+        }
+    }
+
+    @Override
+    int nextValue(int from) {
+        if (from >= CAPACITY) {
+            return -1;
+        }
+        int pos = Arrays.binarySearch(this.values, 0, this.cardinality, (char) from);
+        int index = pos >= 0 ? pos : -pos - 1;
+        return index < this.cardinality ? this.values[index] : -1;
+    }
+
+    @Override
+    Container copy() {
+        return new ArrayContainer(Arrays.copyOf(this.values, Math.max(this.cardinality, 1)), this.cardinality);
+    }
+
+    @Override
+    long getSizeInBytes() {
+        return (long) this.values.length * Character.BYTES;
+    }
+
+    /**
+     * Wandelt diesen Container in einen {@link BitmapContainer} um.
+     *
+     * @return neuer Container mit denselben Werten
+     */
+    BitmapContainer toBitmapContainer() {
+        BitmapContainer bitmap = new BitmapContainer();
+        for (int i = 0; i < this.cardinality; i++) {
+            bitmap.add(this.values[i]);
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,204 @@
+package db.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Container für dicht besetzte Blöcke, der seine Werte als Bitfeld aus 2^16 Bits speichert.
+ */
+final class BitmapContainer extends Container {
+
+    /**
+     * Anzahl der 64-Bit-Wörter eines Containers
+     */
+    private static final int WORDS = CAPACITY / Long.SIZE;
+
+    /**
+     * Verschiebung, die den Wortindex eines Werts liefert
+     */
+    private static final int WORD_SHIFT = 6;
+
+    /**
+     * Bitfeld
+     */
+    private final long[] words;
+
+    /**
+     * Anzahl der gesetzten Bits
+     */
+    private int cardinality;
+
+    /**
+     * Konstruktor für einen leeren Container
+     */
+    BitmapContainer() {
+        this(new long[WORDS], 0);
+    }
+
+    /**
+     * Konstruktor
+     *
+     * @param words       Bitfeld
+     * @param cardinality Anzahl der gesetzten Bits
+     */
+    private BitmapContainer(long[] words, int cardinality) {
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+        return this.cardinality;
+    }
+
+    @Override
+    boolean contains(char value) {
+        return (this.words[value >>> WORD_SHIFT] & (1L << value)) != 0;
+    }
+
+    @Override
+    Container add(char value) {
+        long before = this.words[value >>> WORD_SHIFT];
+        long after = before | (1L << value);
+        if (before != after) {
+            this.words[value >>> WORD_SHIFT] = after;
+            this.cardinality++;
+        }
+        return this;
+    }
+
+    @Override
+    Container remove(char value) {
+        long before = this.words[value >>> WORD_SHIFT];
+        long after = before & ~(1L << value);
+        if (before != after) {
+            this.words[value >>> WORD_SHIFT] = after;
+            this.cardinality--;
+        }
+        return this.cardinality <= ARRAY_LIMIT ? this.toArrayContainer() : this;
+    }
+
+    @Override
+    Container or(Container other) {
+        long[] result = this.words.clone();
+        if (other instanceof BitmapContainer bitmap) {
+            for (int i = 0; i < WORDS; i++) {
+                result[i] |= bitmap.words[i];
+            }
+        } else {
+            for (int value = other.nextValue(0); value >= 0; value = other.nextValue(value + 1)) {
+                result[value >>> WORD_SHIFT] |= 1L << value;
+            }
+        }
+        return of(result);
+    }
+
+    @Override
+    Container and(Container other) {
+        if (other instanceof ArrayContainer) {
+            return other.and(this);
+        }
+        BitmapContainer bitmap = (BitmapContainer) other;
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = this.words[i] & bitmap.words[i];
+        }
+        return of(result);
+    }
+
+    @Override
+    Container andNot(Container other) {
+        long[] result = this.words.clone();
+        if (other instanceof BitmapContainer bitmap) {
+            for (int i = 0; i < WORDS; i++) {
+                result[i] &= ~bitmap.words[i];
+            }
+        } else {
+            for (int value = other.nextValue(0); value >= 0; value = other.nextValue(value + 1)) {
+                result[value >>> WORD_SHIFT] &= ~(1L << value);
+            }
+        }
+        return of(result);
+    }
+
+    @Override
+    void copyTo(BitSet target, int base) {
+        for (int value = this.nextValue(0); value >= 0; value = this.nextValue(value + 1)) {
+            target.set(base | value);
+        }
+    }
+
+    @Override
+    int nextValue(int from) {
+        if (from >= CAPACITY) {
+            return -1;
+        }
+        int index = from >>> WORD_SHIFT;
+        long word = this.words[index] & (-1L << from);
+        while (word == 0) {
+            index++;
+            if (index == WORDS) {
+                return -1;
+            }
+            word = this.words[index];
+        }
+        return index * Long.SIZE + Long.numberOfTrailingZeros(word);
+    }
+
+    @Override
+    Container copy() {
+        return new BitmapContainer(this.words.clone(), this.cardinality);
+    }
+
+    @Override
+    long getSizeInBytes() {
+        return (long) WORDS * Long.BYTES;
+    }
+
+    /**
+     * Erzeugt einen Container, der die Werte von 0 bis count - 1 enthält.
+     *
+     * @param count Anzahl der Werte, höchstens {@link #CAPACITY}
+     *
+     * @return Container in passender Darstellung
+     */
+    static Container firstValues(int count) {
+        long[] words = new long[WORDS];
+        int full = count >>> WORD_SHIFT;
+        Arrays.fill(words, 0, full, -1L);
+        if (full < WORDS && (count & (Long.SIZE - 1)) != 0) {
+            words[full] = (1L << count) - 1;
+        }
+        return of(words);
+    }
+
+    /**
+     * Erzeugt aus einem Bitfeld einen Container in passender Darstellung.
+     *
+     * @param words Bitfeld
+     *
+     * @return Container
+     */
+    private static Container of(long[] words) {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        BitmapContainer bitmap = new BitmapContainer(words, cardinality);
+        return cardinality <= ARRAY_LIMIT ? bitmap.toArrayContainer() : bitmap;
+    }
+
+    /**
+     * Wandelt diesen Container in einen {@link ArrayContainer} um.
+     *
+     * @return neuer Container mit denselben Werten
+     */
+    private ArrayContainer toArrayContainer() {
+        char[] values = new char[Math.max(this.cardinality, 1)];
+        int count = 0;
+        for (int value = this.nextValue(0); value >= 0; value = this.nextValue(value + 1)) {
+            values[count++] = (char) value;
+        }
+        return new ArrayContainer(values, count);
+    }
+}
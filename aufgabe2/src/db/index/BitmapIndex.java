@@ -0,0 +1,145 @@
+package db.index;
+
+import db.predicate.EqualsPredicate;
+import db.value.Value;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Bitmap-Index über eine Spalte mit wenigen unterschiedlichen Werten.
+ * <p>
+ * Für jeden unterschiedlichen Wert wird die Menge der Slots, in denen er steht, als {@link RoaringBitmap} gespeichert.
+ * Eine Bedingung wird höchstens einmal pro unterschiedlichem Wert ausgewertet, das Ergebnis ist die Vereinigung der
+ * Mengen aller passenden Werte. Bedingungen mehrerer Indizes lassen sich dadurch bitweise verknüpfen, ohne auf
+ * Zeilendaten zuzugreifen.
+ * <p>
+ * Überschreitet die Anzahl unterschiedlicher Werte {@link #MAX_CARDINALITY}, wird der Index unbrauchbar und nicht mehr
+ * gepflegt, bis er mit {@link #clear()} zurückgesetzt und neu aufgebaut wird.
+ */
+public final class BitmapIndex {
+
+    /**
+     * Maximale Anzahl unterschiedlicher Werte, für die der Index gepflegt wird
+     */
+    public static final int MAX_CARDINALITY = 1024;
+
+    /**
+     * Slots je Wert
+     */
+    private final Map<Value, RoaringBitmap> postings;
+
+    /**
+     * Angabe, ob der Index vollständig ist
+     */
+    private boolean usable;
+
+    /**
+     * Konstruktor für einen leeren Index
+     */
+    public BitmapIndex() {
+        this.postings = new HashMap<>();
+        this.usable = true;
+    }
+
+    /**
+     * Gibt an, ob der Index vollständig ist und für Anfragen verwendet werden kann.
+     *
+     * @return Angabe, ob der Index verwendbar ist
+     */
+    public boolean isUsable() {
+        return this.usable;
+    }
+
+    /**
+     * Liefert die Anzahl unterschiedlicher Werte im Index.
+     *
+     * @return Anzahl unterschiedlicher Werte
+     */
+    public int getCardinality() {
+        return this.postings.size();
+    }
+
+    /**
+     * Vermerkt, dass der übergebene Wert im übergebenen Slot steht.
+     *
+     * @param value Wert
+     * @param slot  Slot
+     */
+    public void add(Value value, int slot) {
+        if (!this.usable) {
+            return;
+        }
+        this.postings.computeIfAbsent(value, key -> new RoaringBitmap()).add(slot);
+        if (this.postings.size() > MAX_CARDINALITY) {
+            this.usable = false;
+            this.postings.clear();
+        }
+    }
+
+    /**
+     * Entfernt den Vermerk, dass der übergebene Wert im übergebenen Slot steht.
+     *
+     * @param value Wert
+     * @param slot  Slot
+     */
+    public void remove(Value value, int slot) {
+        RoaringBitmap slots = this.postings.get(value);
+        if (slots != null) {
+            slots.remove(slot);
+            if (slots.isEmpty()) {
+                this.postings.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Entfernt alle Einträge und macht den Index wieder verwendbar.
+     */
+    public void clear() {
+        this.postings.clear();
+        this.usable = true;
+    }
+
+    /**
+     * Liefert die Slots aller Werte, die die übergebene Bedingung erfüllen.
+     *
+     * @param predicate Bedingung
+     *
+     * @return neue Menge der passenden Slots
+     *
+     * @pre predicate != null
+     * @pre isUsable()
+     */
+    public RoaringBitmap match(Predicate<Value> predicate) {
+        assert predicate != null : "predicate is null";
+        assert this.usable : "index not usable";
+
+        if (predicate instanceof EqualsPredicate equals) {
+            RoaringBitmap slots = this.postings.get(equals.getCompareValue());
+            return slots == null ? new RoaringBitmap() : slots.copy();
+        }
+
+        RoaringBitmap result = new RoaringBitmap();
+        for (Map.Entry<Value, RoaringBitmap> entry : this.postings.entrySet()) {
+            if (predicate.test(entry.getKey())) {
+                result = result.or(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liefert den geschätzten Speicherbedarf dieses Index in Bytes, ohne die Schlüsselwerte.
+     *
+     * @return Speicherbedarf in Bytes
+     */
+    public long getSizeInBytes() {
+        long bytes = 0;
+        for (RoaringBitmap slots : this.postings.values()) {
+            bytes += slots.getSizeInBytes();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,219 @@
+package db.index;
+
+import db.value.Value;
+
+import java.util.Arrays;
+
+/**
+ * Bloom-Filter über eine Menge von Werten, etwa die Primärschlüssel einer Tabelle.
+ * <p>
+ * {@link #mightContain(Value)} liefert für jeden aufgenommenen Wert true und für andere Werte nur mit geringer
+ * Wahrscheinlichkeit (etwa 1 %, solange höchstens {@link #getCapacity()} Werte aufgenommen wurden). Ein false ist also
+ * sicher, ein true muss über den eigentlichen Index bestätigt werden. Jeder Wert setzt {@value #NUM_OF_HASHES} Bits,
+ * deren Positionen durch Double Hashing aus {@link Value#hashCode()} abgeleitet werden.
+ * <p>
+ * Werte können nicht entfernt werden. Ein Filter, der Werte enthält, die es nicht mehr gibt, bleibt korrekt, liefert
+ * aber häufiger true.
+ */
+public final class BloomFilter {
+
+    /**
+     * Anzahl der Bits pro Wert bei voller Kapazität, mindestens
+     */
+    private static final int BITS_PER_VALUE = 10;
+
+    /**
+     * Anzahl der Bits, die jeder Wert setzt
+     */
+    private static final int NUM_OF_HASHES = 7;
+
+    /**
+     * Verschiebung, die eine Bitposition in den Index ihres 64-Bit-Worts umrechnet
+     */
+    private static final int WORD_SHIFT = 6;
+
+    /**
+     * Erster Multiplikator, der die Bits des Hashwerts durchmischt (Finalisierung von MurmurHash3)
+     */
+    private static final long MIX_1 = 0xFF51AFD7ED558CCDL;
+
+    /**
+     * Zweiter Multiplikator, der die Bits des Hashwerts durchmischt (Finalisierung von MurmurHash3)
+     */
+    private static final long MIX_2 = 0xC4CEB9FE1A85EC53L;
+
+    /**
+     * Verschiebung zwischen den Multiplikationen der Finalisierung von MurmurHash3
+     */
+    private static final int MIX_SHIFT = 33;
+
+    /**
+     * Bits des Filters
+     */
+    private final long[] words;
+
+    /**
+     * Maske, die einen Hashwert auf eine Bitposition abbildet
+     */
+    private final long mask;
+
+    /**
+     * Anzahl der Werte, für die der Filter ausgelegt ist
+     */
+    private final int capacity;
+
+    /**
+     * Anzahl der aufgenommenen Werte
+     */
+    private int size;
+
+    /**
+     * Konstruktor für einen leeren Filter
+     *
+     * @param capacity Anzahl der Werte, für die der Filter ausgelegt wird
+     *
+     * @pre capacity &gt; 0
+     */
+    public BloomFilter(int capacity) {
+        assert capacity > 0 : "capacity not positive";
+
+        long bits = Math.max(Long.highestOneBit((long) capacity * BITS_PER_VALUE - 1) << 1, Long.SIZE);
+        this.words = new long[(int) (bits >>> WORD_SHIFT)];
+        this.mask = bits - 1;
+        this.capacity = capacity;
+        this.size = 0;
+    }
+
+    /**
+     * Liefert die Anzahl der Werte, für die der Filter ausgelegt ist.
+     *
+     * @return Kapazität
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Liefert die Anzahl der aufgenommenen Werte, einschließlich mehrfach aufgenommener.
+     *
+     * @return Anzahl der aufgenommenen Werte
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gibt an, ob so viele Werte aufgenommen wurden, wie der Filter ausgelegt ist. Weitere Werte erhöhen die
+     * Wahrscheinlichkeit falscher Treffer, der Filter sollte dann größer neu aufgebaut werden.
+     *
+     * @return Angabe, ob die Kapazität erreicht ist
+     */
+    public boolean isFull() {
+        return this.size >= this.capacity;
+    }
+
+    /**
+     * Nimmt einen Wert auf.
+     * <p>
+     * Diese Methode arbeitet in O(1).
+     *
+     * @param value Wert
+     *
+     * @pre value != null
+     */
+    public void add(Value value) {
+        assert value != null : "value is null";
+        this.addHash(value.hashCode());
+    }
+
+    /**
+     * Nimmt einen Wert über seinen Hashwert auf, etwa eine Zeichenkette, für die kein {@link Value} erzeugt werden
+     * soll. Abfragen müssen dann ebenfalls über {@link #mightContainHash(int)} mit demselben Hashwert erfolgen.
+     * <p>
+     * Diese Methode arbeitet in O(1).
+     *
+     * @param hashCode Hashwert des Werts
+     */
+    public void addHash(int hashCode) {
+        long hash = mix(hashCode);
+        long step = (hash >>> Integer.SIZE) | 1;
+        for (int i = 0; i < NUM_OF_HASHES; i++) {
+            long bit = hash & this.mask;
+            this.words[(int) (bit >>> WORD_SHIFT)] |= 1L << bit;
+            hash += step;
+        }
+        this.size++;
+    }
+
+    /**
+     * Gibt an, ob ein Wert aufgenommen worden sein könnte.
+     * <p>
+     * Diese Methode arbeitet in O(1).
+     *
+     * @param value Wert
+     *
+     * @return false, wenn der Wert sicher nicht aufgenommen wurde, sonst true
+     *
+     * @pre value != null
+     */
+    public boolean mightContain(Value value) {
+        assert value != null : "value is null";
+        return this.mightContainHash(value.hashCode());
+    }
+
+    /**
+     * Gibt an, ob ein Wert mit dem übergebenen Hashwert über {@link #addHash(int)} aufgenommen worden sein könnte.
+     * <p>
+     * Diese Methode arbeitet in O(1).
+     *
+     * @param hashCode Hashwert des Werts
+     *
+     * @return false, wenn der Wert sicher nicht aufgenommen wurde, sonst true
+     */
+    public boolean mightContainHash(int hashCode) {
+        long hash = mix(hashCode);
+        long step = (hash >>> Integer.SIZE) | 1;
+        for (int i = 0; i < NUM_OF_HASHES; i++) {
+            long bit = hash & this.mask;
+            if ((this.words[(int) (bit >>> WORD_SHIFT)] & (1L << bit)) == 0) {
+                return false;
+            }
+            hash += step;
+        }
+        return true;
+    }
+
+    /**
+     * Entfernt alle Werte.
+     *
+     * @post size() == 0
+     */
+    public void clear() {
+        Arrays.fill(this.words, 0);
+        this.size = 0;
+    }
+
+    /**
+     * Liefert den geschätzten Speicherbedarf dieses Filters in Bytes.
+     *
+     * @return Speicherbedarf in Bytes
+     */
+    public long getSizeInBytes() {
+        return (long) Long.BYTES * this.words.length;
+    }
+
+    /**
+     * Verteilt die Bits eines Hashwerts auf 64 Bit, sodass ähnliche Hashwerte, etwa aufeinanderfolgender Zahlen, weit
+     * auseinanderliegende Bitpositionen ergeben.
+     *
+     * @param hashCode Hashwert
+     *
+     * @return durchmischter Hashwert
+     */
+    private static long mix(int hashCode) {
+        long hash = hashCode;
+        hash = (hash ^ (hash >>> MIX_SHIFT)) * MIX_1;
+        hash = (hash ^ (hash >>> MIX_SHIFT)) * MIX_2;
+        return hash ^ (hash >>> MIX_SHIFT);
+    }
+}
@@ -0,0 +1,116 @@
+package db.index;
+
+import java.util.BitSet;
+
+/**
+ * Container eines {@link RoaringBitmap}s, der die unteren 16 Bit der Werte eines Blocks von 2^16 Werten speichert.
+ * <p>
+ * Container sind unveränderlich aus Sicht der Mengenoperationen: {@link #or(Container)}, {@link #and(Container)} und
+ * {@link #andNot(Container)} liefern neue Container. {@link #add(char)} und {@link #remove(char)} liefern den
+ * Container, der anschließend anstelle dieses Containers verwendet werden muss, da sich dabei die Darstellung ändern
+ * kann.
+ */
+abstract class Container {
+
+    /**
+     * Maximale Kardinalität, bis zu der ein {@link ArrayContainer} verwendet wird
+     */
+    static final int ARRAY_LIMIT = 4096;
+
+    /**
+     * Anzahl der Werte, die ein Container abdecken kann
+     */
+    static final int CAPACITY = 1 << 16;
+
+    /**
+     * Liefert die Anzahl der enthaltenen Werte.
+     *
+     * @return Kardinalität
+     */
+    abstract int cardinality();
+
+    /**
+     * Prüft, ob der übergebene Wert enthalten ist.
+     *
+     * @param value untere 16 Bit des Werts
+     *
+     * @return Angabe, ob der Wert enthalten ist
+     */
+    abstract boolean contains(char value);
+
+    /**
+     * Fügt den übergebenen Wert hinzu.
+     *
+     * @param value untere 16 Bit des Werts
+     *
+     * @return Container, der ab jetzt verwendet werden muss
+     */
+    abstract Container add(char value);
+
+    /**
+     * Entfernt den übergebenen Wert.
+     *
+     * @param value untere 16 Bit des Werts
+     *
+     * @return Container, der ab jetzt verwendet werden muss
+     */
+    abstract Container remove(char value);
+
+    /**
+     * Liefert die Vereinigung mit dem übergebenen Container.
+     *
+     * @param other anderer Container
+     *
+     * @return neuer Container
+     */
+    abstract Container or(Container other);
+
+    /**
+     * Liefert den Schnitt mit dem übergebenen Container.
+     *
+     * @param other anderer Container
+     *
+     * @return neuer Container
+     */
+    abstract Container and(Container other);
+
+    /**
+     * Liefert die Differenz zum übergebenen Container.
+     *
+     * @param other anderer Container
+     *
+     * @return neuer Container
+     */
+    abstract Container andNot(Container other);
+
+    /**
+     * Setzt alle enthaltenen Werte, jeweils verschoben um base, im übergebenen {@link BitSet}.
+     *
+     * @param target Ziel
+     * @param base   oberer Teil der Werte dieses Containers
+     */
+    abstract void copyTo(BitSet target, int base);
+
+    /**
+     * Liefert den kleinsten enthaltenen Wert, der größer oder gleich dem übergebenen ist.
+     *
+     * @param from untere Grenze (inklusive) als Zahl von 0 bis 2^16 - 1
+     *
+     * @return kleinster Wert oder -1, wenn es keinen gibt
+     */
+    abstract int nextValue(int from);
+
+    /**
+     * Liefert eine Kopie dieses Containers.
+     *
+     * @return Kopie
+     */
+    abstract Container copy();
+
+    /**
+     * Liefert den geschätzten Speicherbedarf dieses Containers in Bytes.
+     *
+     * @return Speicherbedarf in Bytes
+     */
+    abstract long getSizeInBytes();
+}
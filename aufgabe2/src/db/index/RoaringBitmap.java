@@ -0,0 +1,363 @@
+package db.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Komprimierte Menge nicht negativer int-Werte nach dem Vorbild von Roaring Bitmaps.
+ * <p>
+ * Die Werte werden anhand ihrer oberen 16 Bit in Blöcke aufgeteilt. Jeder nicht leere Block wird in einem
+ * {@link Container} gespeichert, der je nach Dichte ein sortiertes Array ({@link ArrayContainer}) oder ein Bitfeld
+ * ({@link BitmapContainer}) verwendet. Dünn besetzte Mengen belegen dadurch wenig Speicher, dicht besetzte lassen sich
+ * wortweise verknüpfen.
+ */
+public final class RoaringBitmap {
+
+    /**
+     * Verschiebung, die den Blockschlüssel eines Werts liefert
+     */
+    private static final int KEY_SHIFT = 16;
+
+    /**
+     * Maske der unteren 16 Bit eines Werts
+     */
+    private static final int LOW_MASK = 0xFFFF;
+
+    /**
+     * Anfangskapazität der Container-Arrays
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Sortierte Blockschlüssel, nur die ersten size Einträge sind belegt
+     */
+    private char[] keys;
+
+    /**
+     * Container zu den Blockschlüsseln
+     */
+    private Container[] containers;
+
+    /**
+     * Anzahl der belegten Blöcke
+     */
+    private int size;
+
+    /**
+     * Konstruktor für eine leere Menge
+     */
+    public RoaringBitmap() {
+        this.keys = new char[INITIAL_CAPACITY];
+        this.containers = new Container[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Erzeugt eine Menge mit allen Werten von 0 bis end - 1.
+     *
+     * @param end obere Grenze (exklusive)
+     *
+     * @return neue Menge
+     *
+     * @pre end &gt;= 0
+     */
+    public static RoaringBitmap range(int end) {
+        assert end >= 0 : "end is negative";
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int start = 0; start < end; start += Container.CAPACITY) {
+            int count = Math.min(Container.CAPACITY, end - start);
+            bitmap.appendContainer((char) (start >>> KEY_SHIFT), BitmapContainer.firstValues(count));
+        }
+        return bitmap;
+    }
+
+    /**
+     * Fügt den übergebenen Wert hinzu.
+     *
+     * @param value Wert
+     *
+     * @pre value &gt;= 0
+     */
+    public void add(int value) {
+        assert value >= 0 : "value is negative";
+        char key = (char) (value >>> KEY_SHIFT);
+        int pos = this.indexOf(key);
+        if (pos < 0) {
+            pos = -pos - 1;
+            this.insertContainer(pos, key, new ArrayContainer());
+        }
+        this.containers[pos] = this.containers[pos].add((char) (value & LOW_MASK));
+    }
+
+    /**
+     * Entfernt den übergebenen Wert.
+     *
+     * @param value Wert
+     */
+    public void remove(int value) {
+        if (value < 0) {
+            return;
+        }
+        int pos = this.indexOf((char) (value >>> KEY_SHIFT));
+        if (pos < 0) {
+            return;
+        }
+        Container container = this.containers[pos].remove((char) (value & LOW_MASK));
+        if (container.cardinality() == 0) {
+            System.arraycopy(this.keys, pos + 1, this.keys, pos, this.size - pos - 1);
+            System.arraycopy(this.containers, pos + 1, this.containers, pos, this.size - pos - 1);
+            this.size--;
+            this.containers[this.size] = null;
+        } else {
+            this.containers[pos] = container;
+        }
+    }
+
+    /**
+     * Prüft, ob der übergebene Wert enthalten ist.
+     *
+     * @param value Wert
+     *
+     * @return Angabe, ob der Wert enthalten ist
+     */
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int pos = this.indexOf((char) (value >>> KEY_SHIFT));
+        return pos >= 0 && this.containers[pos].contains((char) (value & LOW_MASK));
+    }
+
+    /**
+     * Liefert die Anzahl der enthaltenen Werte.
+     *
+     * @return Kardinalität
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < this.size; i++) {
+            cardinality += this.containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * Gibt an, ob die Menge leer ist.
+     *
+     * @return Angabe, ob die Menge leer ist
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Liefert den kleinsten enthaltenen Wert, der größer oder gleich dem übergebenen ist.
+     *
+     * @param from untere Grenze (inklusive)
+     *
+     * @return kleinster Wert oder -1, wenn es keinen gibt
+     */
+    public int nextValue(int from) {
+        int start = Math.max(from, 0);
+        char key = (char) (start >>> KEY_SHIFT);
+        int pos = this.indexOf(key);
+        int low = start & LOW_MASK;
+        if (pos < 0) {
+            pos = -pos - 1;
+            low = 0;
+        }
+        for (; pos < this.size; pos++) {
+            int value = this.containers[pos].nextValue(low);
+            if (value >= 0) {
+                return (this.keys[pos] << KEY_SHIFT) | value;
+            }
+            low = 0;
+        }
+        return -1;
+    }
+
+    /**
+     * Liefert die Vereinigung dieser mit der übergebenen Menge.
+     *
+     * @param other andere Menge
+     *
+     * @return neue Menge
+     *
+     * @pre other != null
+     */
+    public RoaringBitmap or(RoaringBitmap other) {
+        assert other != null : "other is null";
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < this.size || j < other.size) {
+            if (j == other.size || i < this.size && this.keys[i] < other.keys[j]) {
+                result.appendContainer(this.keys[i], this.containers[i].copy());
+                i++;
+            } else if (i == this.size || other.keys[j] < this.keys[i]) {
+                result.appendContainer(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.appendContainer(this.keys[i], this.containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liefert den Schnitt dieser mit der übergebenen Menge.
+     *
+     * @param other andere Menge
+     *
+     * @return neue Menge
+     *
+     * @pre other != null
+     */
+    public RoaringBitmap and(RoaringBitmap other) {
+        assert other != null : "other is null";
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < this.size && j < other.size) {
+            if (this.keys[i] < other.keys[j]) {
+                i++;
+            } else if (other.keys[j] < this.keys[i]) {
+                j++;
+            } else {
+                result.appendContainer(this.keys[i], this.containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liefert die Differenz dieser und der übergebenen Menge.
+     *
+     * @param other andere Menge
+     *
+     * @return neue Menge mit allen Werten dieser Menge, die nicht in other enthalten sind
+     *
+     * @pre other != null
+     */
+    public RoaringBitmap andNot(RoaringBitmap other) {
+        assert other != null : "other is null";
+        RoaringBitmap result = new RoaringBitmap();
+        int j = 0;
+        for (int i = 0; i < this.size; i++) {
+            while (j < other.size && other.keys[j] < this.keys[i]) {
+                j++;
+            }
+            boolean overlaps = j < other.size && other.keys[j] == this.keys[i];
+            Container container = overlaps ? this.containers[i].andNot(other.containers[j])
+                    : this.containers[i].copy();
+            result.appendContainer(this.keys[i], container);
+        }
+        return result;
+    }
+
+    /**
+     * Liefert eine Kopie dieser Menge.
+     *
+     * @return neue Menge mit denselben Werten
+     */
+    public RoaringBitmap copy() {
+        RoaringBitmap result = new RoaringBitmap();
+        for (int i = 0; i < this.size; i++) {
+            result.appendContainer(this.keys[i], this.containers[i].copy());
+        }
+        return result;
+    }
+
+    /**
+     * Liefert die enthaltenen Werte als {@link BitSet}.
+     *
+     * @return neues BitSet mit allen Werten dieser Menge
+     */
+    public BitSet toBitSet() {
+        BitSet result = new BitSet();
+        for (int i = 0; i < this.size; i++) {
+            this.containers[i].copyTo(result, this.keys[i] << KEY_SHIFT);
+        }
+        return result;
+    }
+
+    /**
+     * Liefert den geschätzten Speicherbedarf dieser Menge in Bytes.
+     *
+     * @return Speicherbedarf in Bytes
+     */
+    public long getSizeInBytes() {
+        long bytes = (long) this.keys.length * (Character.BYTES + Long.BYTES);
+        for (int i = 0; i < this.size; i++) {
+            bytes += this.containers[i].getSizeInBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof RoaringBitmap other)) {
+            return false;
+        }
+        return this.toBitSet().equals(other.toBitSet());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.toBitSet().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.toBitSet().toString();
+    }
+
+    /**
+     * Sucht die Position eines Blockschlüssels.
+     *
+     * @param key Blockschlüssel
+     *
+     * @return Position oder (-(Einfügeposition) - 1), wenn der Schlüssel nicht vorhanden ist
+     */
+    private int indexOf(char key) {
+        if (this.size > 0 && this.keys[this.size - 1] == key) {
+            return this.size - 1;
+        }
+        return Arrays.binarySearch(this.keys, 0, this.size, key);
+    }
+
+    /**
+     * Fügt einen Container an der übergebenen Position ein.
+     *
+     * @param pos       Position
+     * @param key       Blockschlüssel
+     * @param container Container
+     */
+    private void insertContainer(int pos, char key, Container container) {
+        if (this.size == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, this.keys.length * 2);
+            this.containers = Arrays.copyOf(this.containers, this.containers.length * 2);
+        }
+        System.arraycopy(this.keys, pos, this.keys, pos + 1, this.size - pos);
+        System.arraycopy(this.containers, pos, this.containers, pos + 1, this.size - pos);
+        this.keys[pos] = key;
+        this.containers[pos] = container;
+        this.size++;
+    }
+
+    /**
+     * Hängt einen nicht leeren Container hinter dem größten Blockschlüssel an. Leere Container werden verworfen.
+     *
+     * @param key       Blockschlüssel, größer als alle vorhandenen
+     * @param container Container
+     */
+    private void appendContainer(char key, Container container) {
+        if (container.cardinality() > 0) {
+            this.insertContainer(this.size, key, container);
+        }
+    }
+}
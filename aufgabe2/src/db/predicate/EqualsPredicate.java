@@ -0,0 +1,46 @@
+package db.predicate;
+
+import db.value.Value;
+
+import java.util.function.Predicate;
+
+/**
+ * Prädikat, welches prüft, ob der bei der {@link Predicate#test(Object)} übergebene Wert gemäß
+ * {@link Value#equals(Object)} gleich dem Vergleichswert ist.
+ * <p>
+ * Im Gegensatz zu {@link Predicate#isEqual(Object)} ist der Vergleichswert abfragbar. Spalten, die ihre Werte kodiert
+ * speichern, können die Bedingung dadurch direkt auf den Codes auswerten, ohne Werte zu dekodieren.
+ */
+public class EqualsPredicate implements Predicate<Value> {
+
+    /**
+     * Vergleichswert
+     */
+    private final Value compareValue;
+
+    /**
+     * Konstruktor
+     *
+     * @param compareValue Vergleichswert
+     *
+     * @pre compareValue != null
+     */
+    public EqualsPredicate(Value compareValue) {
+        assert compareValue != null : "compareValue is null";
+        this.compareValue = compareValue;
+    }
+
+    /**
+     * Liefert den Vergleichswert.
+     *
+     * @return Vergleichswert
+     */
+    public Value getCompareValue() {
+        return this.compareValue;
+    }
+
+    @Override
+    public boolean test(Value value) {
+        return this.compareValue.equals(value);
+    }
+}
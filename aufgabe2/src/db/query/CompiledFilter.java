@@ -0,0 +1,83 @@
+package db.query;
+
+import db.storage.Column;
+import db.value.Value;
+
+import java.util.BitSet;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Übersetzte Bedingung einer Anfrage zusammen mit ihren Vergleichswerten, erzeugt durch
+ * {@link QueryCompiler#compile(int[], java.util.List, boolean)}.
+ */
+public final class CompiledFilter {
+
+    /**
+     * Spezialisierte Schleife der Anfrageform
+     */
+    private final SlotFilter loop;
+
+    /**
+     * Zahlenparameter der Bedingung
+     */
+    private final double[] numbers;
+
+    /**
+     * Wertparameter der Bedingung
+     */
+    private final Value[] values;
+
+    /**
+     * Konstruktor
+     *
+     * @param loop    spezialisierte Schleife der Anfrageform
+     * @param numbers Zahlenparameter der Bedingung
+     * @param values  Wertparameter der Bedingung
+     */
+    CompiledFilter(SlotFilter loop, double[] numbers, Value[] values) {
+        this.loop = loop;
+        this.numbers = numbers;
+        this.values = values;
+    }
+
+    /**
+     * Liefert die Slots aus candidates, deren Zeilen die Bedingung erfüllen.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Slots in candidates und f(N) = N.
+     *
+     * @param columns    Spalten der Tabelle, auf deren Indizes sich die Bedingung bezieht
+     * @param candidates Slots, die geprüft werden
+     *
+     * @return neue Menge der passenden Slots
+     *
+     * @pre columns != null
+     * @pre candidates != null
+     */
+    public BitSet filter(Column[] columns, BitSet candidates) {
+        return this.filter(columns, candidates, () -> false);
+    }
+
+    /**
+     * Liefert die Slots aus candidates, deren Zeilen die Bedingung erfüllen, wie {@link #filter(Column[], BitSet)}
+     * und bricht ab, sobald cancelled true liefert. Geprüft wird nach jeweils
+     * {@link Column#CANCELLATION_CHECK_INTERVAL} Slots aus candidates.
+     *
+     * @param columns    Spalten der Tabelle, auf deren Indizes sich die Bedingung bezieht
+     * @param candidates Slots, die geprüft werden
+     * @param cancelled  Angabe, ob die Auswertung abgebrochen wurde
+     *
+     * @return neue Menge der passenden Slots
+     *
+     * @throws java.util.concurrent.CancellationException wenn die Auswertung abgebrochen wurde
+     *
+     * @pre columns != null
+     * @pre candidates != null
+     * @pre cancelled != null
+     */
+    public BitSet filter(Column[] columns, BitSet candidates, BooleanSupplier cancelled) {
+        assert columns != null : "columns is null";
+        assert candidates != null : "candidates is null";
+        assert cancelled != null : "cancelled is null";
+        return this.loop.filter(columns, this.numbers, this.values, candidates, cancelled);
+    }
+}
@@ -0,0 +1,96 @@
+package db.query;
+
+import db.storage.Column;
+import db.value.Value;
+
+/**
+ * Übersetzte Bedingung auf einer Zeile, die sich auf Spaltenindizes und Positionen in den Parameter-Arrays bezieht.
+ * <p>
+ * Die Bedingungen sind Records ohne eigene Vergleichswerte. Gleich aufgebaute Anfragen liefern dadurch gleiche
+ * (gemäß {@link Object#equals(Object)}) Bedingungen und teilen sich eine spezialisierte Schleife
+ * ({@link FilterLoop}), die Vergleichswerte werden bei jeder Ausführung als Parameter übergeben.
+ */
+sealed interface Condition {
+
+    /**
+     * Prüft die Bedingung für die Zeile im übergebenen Slot.
+     *
+     * @param columns Spalten der Tabelle
+     * @param numbers Zahlenparameter
+     * @param values  Wertparameter
+     * @param slot    Slot der Zeile
+     *
+     * @return Angabe, ob die Bedingung erfüllt ist
+     */
+    boolean test(Column[] columns, double[] numbers, Value[] values, int slot);
+
+    /**
+     * Der Wert der Spalte ist kleiner als ein Zahlenparameter.
+     *
+     * @param column Index der Spalte
+     * @param param  Position des Vergleichswerts in den Zahlenparametern
+     */
+    record LessThan(int column, int param) implements Condition {
+
+        @Override
+        public boolean test(Column[] columns, double[] numbers, Value[] values, int slot) {
+            return columns[this.column].getAsDouble(slot) < numbers[this.param];
+        }
+    }
+
+    /**
+     * Der Wert der Spalte ist größer als ein Zahlenparameter.
+     *
+     * @param column Index der Spalte
+     * @param param  Position des Vergleichswerts in den Zahlenparametern
+     */
+    record GreaterThan(int column, int param) implements Condition {
+
+        @Override
+        public boolean test(Column[] columns, double[] numbers, Value[] values, int slot) {
+            return columns[this.column].getAsDouble(slot) > numbers[this.param];
+        }
+    }
+
+    /**
+     * Der Wert der Spalte ist gemäß {@link Value#equals(Object)} gleich einem Wertparameter.
+     *
+     * @param column Index der Spalte
+     * @param param  Position des Vergleichswerts in den Wertparametern
+     */
+    record EqualTo(int column, int param) implements Condition {
+
+        @Override
+        public boolean test(Column[] columns, double[] numbers, Value[] values, int slot) {
+            return values[this.param].equals(columns[this.column].get(slot));
+        }
+    }
+
+    /**
+     * Beide Bedingungen sind erfüllt, die rechte wird nur geprüft, wenn die linke erfüllt ist.
+     *
+     * @param left  linke Bedingung
+     * @param right rechte Bedingung
+     */
+    record And(Condition left, Condition right) implements Condition {
+
+        @Override
+        public boolean test(Column[] columns, double[] numbers, Value[] values, int slot) {
+            return this.left.test(columns, numbers, values, slot) && this.right.test(columns, numbers, values, slot);
+        }
+    }
+
+    /**
+     * Mindestens eine der Bedingungen ist erfüllt, die rechte wird nur geprüft, wenn die linke nicht erfüllt ist.
+     *
+     * @param left  linke Bedingung
+     * @param right rechte Bedingung
+     */
+    record Or(Condition left, Condition right) implements Condition {
+
+        @Override
+        public boolean test(Column[] columns, double[] numbers, Value[] values, int slot) {
+            return this.left.test(columns, numbers, values, slot) || this.right.test(columns, numbers, values, slot);
+        }
+    }
+}
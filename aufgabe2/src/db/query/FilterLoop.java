@@ -0,0 +1,55 @@
+package db.query;
+
+import db.storage.Column;
+import db.value.Value;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandles;
+import java.util.BitSet;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Vorlage für spezialisierte Filterschleifen.
+ * <p>
+ * {@link QueryCompiler} lädt den Bytecode dieser Klasse für jede Anfrageform erneut als versteckte Klasse
+ * ({@code MethodHandles.Lookup#defineHiddenClassWithClassData}) und übergibt die Bedingung als Klassendaten. Jede
+ * Kopie hat dadurch eine eigene Schleife mit einer konstanten Bedingung, die der JIT-Compiler vollständig einbetten
+ * kann, statt an einer gemeinsamen Aufrufstelle viele Prädikattypen zu sehen.
+ */
+final class FilterLoop implements SlotFilter {
+
+    /**
+     * Bedingung dieser Kopie
+     */
+    private static final Condition CONDITION = loadCondition();
+
+    @Override
+    public BitSet filter(Column[] columns, double[] numbers, Value[] values, BitSet candidates,
+            BooleanSupplier cancelled) {
+        BitSet result = new BitSet();
+        int checked = 0;
+        for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+            checked++;
+            if (checked % Column.CANCELLATION_CHECK_INTERVAL == 0) {
+                Column.checkCancelled(cancelled);
+            }
+            if (CONDITION.test(columns, numbers, values, slot)) {
+                result.set(slot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liest die Bedingung aus den Klassendaten dieser Kopie.
+     *
+     * @return Bedingung
+     */
+    private static Condition loadCondition() {
+        try {
+            return MethodHandles.classData(MethodHandles.lookup(), ConstantDescs.DEFAULT_NAME, Condition.class);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("class data not accessible", e);
+        }
+    }
+}
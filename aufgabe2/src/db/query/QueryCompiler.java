@@ -0,0 +1,172 @@
+package db.query;
+
+import db.predicate.DoubleGreaterThanPredicate;
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import db.value.Value;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Übersetzt Bedingungen auf Spalten einer Tabelle in spezialisierte Filterschleifen.
+ * <p>
+ * Übersetzt werden {@link EqualsPredicate}, {@link DoubleLessThanPredicate} und {@link DoubleGreaterThanPredicate}.
+ * Ihre Vergleichswerte werden über die Getter der Prädikate ausgelesen, die Bedingungen einer Anfrage zu einer
+ * {@link Condition} zusammengesetzt. Für jede Anfrageform, also Spalten, Vergleichsarten und Verknüpfung ohne
+ * Vergleichswerte, wird einmalig eine Kopie von {@link FilterLoop} als versteckte Klasse erzeugt und
+ * zwischengespeichert. Beliebige andere Prädikate, etwa Lambdas, werden nicht übersetzt und weiterhin einzeln
+ * ausgewertet.
+ */
+public final class QueryCompiler {
+
+    /**
+     * Höchstzahl zwischengespeicherter Anfrageformen, darüber hinaus wird nicht mehr übersetzt
+     */
+    public static final int MAX_SHAPES = 256;
+
+    /**
+     * Bytecode von {@link FilterLoop} oder null, wenn er nicht geladen werden kann
+     */
+    private static final byte[] TEMPLATE = loadTemplate();
+
+    /**
+     * Spezialisierte Schleifen je Anfrageform
+     */
+    private static final Map<Condition, SlotFilter> FILTERS = new ConcurrentHashMap<>();
+
+    /**
+     * Versteckter Konstruktor
+     */
+    private QueryCompiler() {
+    }
+
+    /**
+     * Gibt an, ob die übergebene Bedingung übersetzt werden kann.
+     *
+     * @param predicate Bedingung
+     *
+     * @return Angabe, ob die Bedingung übersetzt werden kann
+     *
+     * @pre predicate != null
+     */
+    public static boolean isCompilable(Predicate<Value> predicate) {
+        assert predicate != null : "predicate is null";
+        Class<?> type = predicate.getClass();
+        return TEMPLATE != null && (type == EqualsPredicate.class || type == DoubleLessThanPredicate.class
+                || type == DoubleGreaterThanPredicate.class);
+    }
+
+    /**
+     * Übersetzt die übergebenen Bedingungen in einen Filter. Die Bedingungen werden in der übergebenen Reihenfolge
+     * geprüft, bis das Ergebnis feststeht.
+     *
+     * @param columns     Indizes der Spalten, auf die sich die Bedingungen beziehen
+     * @param predicates  Bedingungen in der Reihenfolge von columns
+     * @param conjunction true, wenn alle Bedingungen erfüllt sein müssen, false, wenn eine genügt
+     *
+     * @return Filter oder null, wenn eine Bedingung nicht übersetzt werden kann oder bereits {@link #MAX_SHAPES}
+     *         Anfrageformen übersetzt wurden
+     *
+     * @pre columns != null
+     * @pre predicates != null
+     * @pre columns und predicates müssen gleich lang und nicht leer sein
+     */
+    public static CompiledFilter compile(int[] columns, List<Predicate<Value>> predicates, boolean conjunction) {
+        assert columns != null : "columns is null";
+        assert predicates != null : "predicates is null";
+        assert columns.length == predicates.size() && columns.length > 0 : "invalid number of predicates";
+
+        double[] numbers = new double[columns.length];
+        Value[] values = new Value[columns.length];
+        Condition condition = null;
+        for (int i = columns.length - 1; i >= 0; i--) {
+            Condition single = compile(columns[i], predicates.get(i), i, numbers, values);
+            if (single == null) {
+                return null;
+            }
+            if (condition == null) {
+                condition = single;
+            } else {
+                condition = conjunction ? new Condition.And(single, condition) : new Condition.Or(single, condition);
+            }
+        }
+
+        SlotFilter loop = FILTERS.get(condition);
+        if (loop == null) {
+            if (FILTERS.size() >= MAX_SHAPES) {
+                return null;
+            }
+            loop = define(condition);
+            if (loop == null) {
+                return null;
+            }
+            SlotFilter existing = FILTERS.putIfAbsent(condition, loop);
+            loop = existing == null ? loop : existing;
+        }
+        return new CompiledFilter(loop, numbers, values);
+    }
+
+    /**
+     * Übersetzt eine einzelne Bedingung und legt ihren Vergleichswert in den Parametern ab.
+     *
+     * @param column    Index der Spalte
+     * @param predicate Bedingung
+     * @param param     Position des Vergleichswerts in den Parametern
+     * @param numbers   Zahlenparameter
+     * @param values    Wertparameter
+     *
+     * @return übersetzte Bedingung oder null, wenn sie nicht übersetzt werden kann
+     */
+    private static Condition compile(int column, Predicate<Value> predicate, int param, double[] numbers,
+            Value[] values) {
+        if (!isCompilable(predicate)) {
+            return null;
+        }
+        if (predicate instanceof EqualsPredicate equals) {
+            values[param] = equals.getCompareValue();
+            return new Condition.EqualTo(column, param);
+        }
+        if (predicate instanceof DoubleLessThanPredicate lessThan) {
+            numbers[param] = lessThan.getCompareValue();
+            return new Condition.LessThan(column, param);
+        }
+        numbers[param] = ((DoubleGreaterThanPredicate) predicate).getCompareValue();
+        return new Condition.GreaterThan(column, param);
+    }
+
+    /**
+     * Erzeugt eine Kopie von {@link FilterLoop} mit der übergebenen Bedingung.
+     *
+     * @param condition Bedingung
+     *
+     * @return neue Schleife oder null, wenn die Kopie nicht erzeugt werden kann
+     */
+    private static SlotFilter define(Condition condition) {
+        try {
+            Class<?> type = MethodHandles.lookup().defineHiddenClassWithClassData(TEMPLATE, condition, true)
+                    .lookupClass();
+            return (SlotFilter) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lädt den Bytecode von {@link FilterLoop}.
+     *
+     * @return Bytecode oder null, wenn er nicht gefunden wird
+     */
+    private static byte[] loadTemplate() {
+        try (InputStream in = QueryCompiler.class.getResourceAsStream("FilterLoop.class")) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package db.query;
+
+import db.storage.Column;
+import db.value.Value;
+
+import java.util.BitSet;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Schleife, die eine fest eingebaute Bedingung für eine Menge von Slots auswertet.
+ */
+interface SlotFilter {
+
+    /**
+     * Liefert die Slots aus candidates, deren Zeilen die Bedingung erfüllen.
+     *
+     * @param columns    Spalten der Tabelle
+     * @param numbers    Zahlenparameter der Bedingung
+     * @param values     Wertparameter der Bedingung
+     * @param candidates Slots, die geprüft werden
+     * @param cancelled  Angabe, ob die Auswertung abgebrochen wurde, geprüft nach jeweils
+     *                   {@link Column#CANCELLATION_CHECK_INTERVAL} Slots
+     *
+     * @return neue Menge der passenden Slots
+     */
+    BitSet filter(Column[] columns, double[] numbers, Value[] values, BitSet candidates, BooleanSupplier cancelled);
+}
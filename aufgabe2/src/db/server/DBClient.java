@@ -0,0 +1,489 @@
+package db.server;
+
+import db.DBTable;
+import db.WhereParameter;
+import db.storage.ValueCodec;
+import db.value.Value;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Client für einen {@link DBServer}.
+ * <p>
+ * Jede Operation gibt es in zwei Formen: Die Methoden mit dem Präfix send senden die Anfrage gepuffert und liefern
+ * sofort eine ausstehende Antwort ({@link Reply}), die übrigen warten auf das Ergebnis. Werden mehrere Anfragen
+ * gesendet, bevor die erste Antwort abgefragt wird, bearbeitet der Server sie nacheinander, ohne dass der Client
+ * zwischendurch auf Antworten warten muss. Damit sich Client und Server nicht gegenseitig beim Schreiben blockieren,
+ * ist die Größe der unbeantworteten Anfragen begrenzt; wird sie überschritten, liest der Client vor dem Senden weiterer
+ * Anfragen zunächst Antworten.
+ * <p>
+ * Ergebnistabellen werden blockweise übertragen und beim Client als neue {@link DBTable} aufgebaut. Bedingungen müssen
+ * einen abfragbaren Vergleichswert haben, siehe {@link Protocol}. Ein Client darf nur von einem Thread gleichzeitig
+ * verwendet werden.
+ */
+public final class DBClient implements AutoCloseable {
+
+    /**
+     * Verbindung zum Server
+     */
+    private final SocketChannel channel;
+
+    /**
+     * Eingabe der Verbindung
+     */
+    private final DataInputStream in;
+
+    /**
+     * Ausgabe der Verbindung
+     */
+    private final OutputStream out;
+
+    /**
+     * Puffer, in dem die aktuelle Anfrage vollständig aufgebaut wird, bevor sie gesendet wird
+     */
+    private final ByteArrayOutputStream requestBuffer;
+
+    /**
+     * Ausgabe in den Puffer der aktuellen Anfrage
+     */
+    private final DataOutputStream request;
+
+    /**
+     * Ausstehende Antworten in der Reihenfolge ihrer Anfragen
+     */
+    private final Deque<Reply<?>> pending;
+
+    /**
+     * Maximale Größe der gesendeten, aber noch nicht beantworteten Anfragen in Bytes. Sie beträgt die Hälfte des
+     * Sendepuffers der Verbindung, da das Betriebssystem darin auch Verwaltungsdaten anrechnet. Solange diese Grenze
+     * eingehalten wird, blockiert das Schreiben nie, auch wenn der Server gerade keine Anfragen liest, weil er selbst
+     * beim Schreiben einer großen Antwort darauf wartet, dass der Client liest.
+     */
+    private final int maxUnansweredBytes;
+
+    /**
+     * Größe der gesendeten, aber noch nicht beantworteten Anfragen in Bytes
+     */
+    private long unansweredBytes;
+
+    /**
+     * Konstruktor
+     *
+     * @param channel Verbindung zum Server
+     *
+     * @throws IOException wenn die Größe des Sendepuffers nicht abgefragt werden kann
+     */
+    private DBClient(SocketChannel channel) throws IOException {
+        this.channel = channel;
+        this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), Protocol.BUFFER_SIZE));
+        this.out = new BufferedOutputStream(Channels.newOutputStream(channel), Protocol.BUFFER_SIZE);
+        this.requestBuffer = new ByteArrayOutputStream();
+        this.request = new DataOutputStream(this.requestBuffer);
+        this.pending = new ArrayDeque<>();
+        this.maxUnansweredBytes = channel.getOption(StandardSocketOptions.SO_SNDBUF) / 2;
+    }
+
+    /**
+     * Baut eine Verbindung zu einem Server auf.
+     *
+     * @param address Adresse des Servers, entweder eine TCP-Adresse oder ein Unix-Domain-Socket
+     *
+     * @return verbundener Client
+     *
+     * @throws IOException wenn keine Verbindung aufgebaut werden kann
+     *
+     * @pre address != null
+     */
+    public static DBClient connect(SocketAddress address) throws IOException {
+        assert address != null : "address is null";
+        return new DBClient(SocketChannel.open(address));
+    }
+
+    /**
+     * Sendet eine Anfrage gemäß {@link DBTable#select(List, List, String)}.
+     *
+     * @param tableId     Bezeichner der Tabelle
+     * @param colIds      Spaltenbezeichner der Ergebnistabelle oder null für alle Spalten
+     * @param whereParams WHERE-Bedingungen, von denen mindestens eine erfüllt sein muss
+     * @param newTableId  Bezeichner der Ergebnistabelle
+     *
+     * @return ausstehende Ergebnistabelle
+     *
+     * @throws IOException              bei einem Fehler der Verbindung
+     * @throws IllegalArgumentException wenn eine Bedingung nicht übertragen werden kann
+     *
+     * @pre tableId != null
+     * @pre whereParams != null
+     * @pre newTableId != null
+     */
+    public Reply<DBTable> sendSelect(String tableId, List<String> colIds, List<WhereParameter> whereParams,
+            String newTableId) throws IOException {
+        assert tableId != null : "tableId is null";
+        assert whereParams != null : "whereParams is null";
+        assert newTableId != null : "newTableId is null";
+        checkTransferable(whereParams);
+
+        this.begin(Protocol.SELECT, tableId);
+        Protocol.writeStrings(this.request, colIds);
+        Protocol.writeWhereParams(this.request, whereParams);
+        Protocol.writeString(this.request, newTableId);
+        return this.send(Protocol::readTable);
+    }
+
+    /**
+     * Führt {@link DBTable#select(List, List, String)} auf dem Server aus.
+     *
+     * @param tableId     Bezeichner der Tabelle
+     * @param colIds      Spaltenbezeichner der Ergebnistabelle oder null für alle Spalten
+     * @param whereParams WHERE-Bedingungen, von denen mindestens eine erfüllt sein muss
+     * @param newTableId  Bezeichner der Ergebnistabelle
+     *
+     * @return Ergebnistabelle
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     *
+     * @pre siehe {@link #sendSelect(String, List, List, String)}
+     */
+    public DBTable select(String tableId, List<String> colIds, List<WhereParameter> whereParams, String newTableId)
+            throws IOException {
+        return this.sendSelect(tableId, colIds, whereParams, newTableId).get();
+    }
+
+    /**
+     * Sendet eine Anfrage gemäß {@link DBTable#update(String, Value, List)}.
+     *
+     * @param tableId     Bezeichner der Tabelle
+     * @param colId       Bezeichner der Spalte, deren Werte ersetzt werden
+     * @param newValue    neuer Wert
+     * @param whereParams WHERE-Bedingungen, die alle erfüllt sein müssen
+     *
+     * @return ausstehende Bestätigung
+     *
+     * @throws IOException              bei einem Fehler der Verbindung
+     * @throws IllegalArgumentException wenn eine Bedingung nicht übertragen werden kann
+     *
+     * @pre tableId != null
+     * @pre colId != null
+     * @pre newValue != null
+     * @pre whereParams != null
+     */
+    public Reply<Void> sendUpdate(String tableId, String colId, Value newValue, List<WhereParameter> whereParams)
+            throws IOException {
+        assert tableId != null : "tableId is null";
+        assert colId != null : "colId is null";
+        assert newValue != null : "newValue is null";
+        assert whereParams != null : "whereParams is null";
+        checkTransferable(whereParams);
+
+        this.begin(Protocol.UPDATE, tableId);
+        Protocol.writeString(this.request, colId);
+        ValueCodec.writeValue(this.request, newValue);
+        Protocol.writeWhereParams(this.request, whereParams);
+        return this.send(in -> null);
+    }
+
+    /**
+     * Führt {@link DBTable#update(String, Value, List)} auf dem Server aus.
+     *
+     * @param tableId     Bezeichner der Tabelle
+     * @param colId       Bezeichner der Spalte, deren Werte ersetzt werden
+     * @param newValue    neuer Wert
+     * @param whereParams WHERE-Bedingungen, die alle erfüllt sein müssen
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     *
+     * @pre siehe {@link #sendUpdate(String, String, Value, List)}
+     */
+    public void update(String tableId, String colId, Value newValue, List<WhereParameter> whereParams)
+            throws IOException {
+        this.sendUpdate(tableId, colId, newValue, whereParams).get();
+    }
+
+    /**
+     * Sendet eine Anfrage gemäß {@link DBTable#removeRows(WhereParameter)}.
+     *
+     * @param tableId    Bezeichner der Tabelle
+     * @param whereParam WHERE-Bedingung
+     *
+     * @return ausstehende Bestätigung
+     *
+     * @throws IOException              bei einem Fehler der Verbindung
+     * @throws IllegalArgumentException wenn die Bedingung nicht übertragen werden kann
+     *
+     * @pre tableId != null
+     * @pre whereParam != null
+     */
+    public Reply<Void> sendRemoveRows(String tableId, WhereParameter whereParam) throws IOException {
+        assert tableId != null : "tableId is null";
+        assert whereParam != null : "whereParam is null";
+        checkTransferable(List.of(whereParam));
+
+        this.begin(Protocol.REMOVE_ROWS, tableId);
+        Protocol.writeWhereParams(this.request, List.of(whereParam));
+        return this.send(in -> null);
+    }
+
+    /**
+     * Führt {@link DBTable#removeRows(WhereParameter)} auf dem Server aus.
+     *
+     * @param tableId    Bezeichner der Tabelle
+     * @param whereParam WHERE-Bedingung
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     *
+     * @pre siehe {@link #sendRemoveRows(String, WhereParameter)}
+     */
+    public void removeRows(String tableId, WhereParameter whereParam) throws IOException {
+        this.sendRemoveRows(tableId, whereParam).get();
+    }
+
+    /**
+     * Sendet eine Anfrage gemäß {@link DBTable#equijoin(DBTable, String, String)}.
+     *
+     * @param tableId      Bezeichner der Tabelle mit dem Fremdschlüssel
+     * @param otherTableId Bezeichner der referenzierten Tabelle
+     * @param fkColId      Bezeichner der Fremdschlüsselspalte
+     * @param newTableId   Bezeichner der Ergebnistabelle
+     *
+     * @return ausstehende Ergebnistabelle
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     *
+     * @pre tableId != null
+     * @pre otherTableId != null
+     * @pre fkColId != null
+     * @pre newTableId != null
+     */
+    public Reply<DBTable> sendEquijoin(String tableId, String otherTableId, String fkColId, String newTableId)
+            throws IOException {
+        assert tableId != null : "tableId is null";
+        assert otherTableId != null : "otherTableId is null";
+        assert fkColId != null : "fkColId is null";
+        assert newTableId != null : "newTableId is null";
+
+        this.begin(Protocol.EQUIJOIN, tableId);
+        Protocol.writeString(this.request, otherTableId);
+        Protocol.writeString(this.request, fkColId);
+        Protocol.writeString(this.request, newTableId);
+        return this.send(Protocol::readTable);
+    }
+
+    /**
+     * Führt {@link DBTable#equijoin(DBTable, String, String)} auf dem Server aus.
+     *
+     * @param tableId      Bezeichner der Tabelle mit dem Fremdschlüssel
+     * @param otherTableId Bezeichner der referenzierten Tabelle
+     * @param fkColId      Bezeichner der Fremdschlüsselspalte
+     * @param newTableId   Bezeichner der Ergebnistabelle
+     *
+     * @return Ergebnistabelle
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     *
+     * @pre siehe {@link #sendEquijoin(String, String, String, String)}
+     */
+    public DBTable equijoin(String tableId, String otherTableId, String fkColId, String newTableId)
+            throws IOException {
+        return this.sendEquijoin(tableId, otherTableId, fkColId, newTableId).get();
+    }
+
+    /**
+     * Sendet eine Anfrage gemäß {@link DBTable#appendRow(List)}.
+     *
+     * @param tableId Bezeichner der Tabelle
+     * @param row     neue Zeile
+     *
+     * @return ausstehende Bestätigung
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     *
+     * @pre tableId != null
+     * @pre row != null
+     */
+    public Reply<Void> sendAppendRow(String tableId, List<Value> row) throws IOException {
+        assert tableId != null : "tableId is null";
+        assert row != null : "row is null";
+
+        this.begin(Protocol.APPEND_ROW, tableId);
+        Protocol.writeRow(this.request, row);
+        return this.send(in -> null);
+    }
+
+    /**
+     * Führt {@link DBTable#appendRow(List)} auf dem Server aus.
+     *
+     * @param tableId Bezeichner der Tabelle
+     * @param row     neue Zeile
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     *
+     * @pre siehe {@link #sendAppendRow(String, List)}
+     */
+    public void appendRow(String tableId, List<Value> row) throws IOException {
+        this.sendAppendRow(tableId, row).get();
+    }
+
+    /**
+     * Sendet eine Anfrage gemäß {@link DBTable#getRowByPrimaryKey(Value)}.
+     *
+     * @param tableId    Bezeichner der Tabelle
+     * @param primaryKey Primärschlüssel
+     *
+     * @return ausstehende Zeile, deren Ergebnis null ist, wenn der Primärschlüssel nicht enthalten ist
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     *
+     * @pre tableId != null
+     * @pre primaryKey != null
+     */
+    public Reply<List<Value>> sendGetRowByPrimaryKey(String tableId, Value primaryKey) throws IOException {
+        assert tableId != null : "tableId is null";
+        assert primaryKey != null : "primaryKey is null";
+
+        this.begin(Protocol.GET_ROW, tableId);
+        ValueCodec.writeValue(this.request, primaryKey);
+        return this.send(Protocol::readRow);
+    }
+
+    /**
+     * Führt {@link DBTable#getRowByPrimaryKey(Value)} auf dem Server aus.
+     *
+     * @param tableId    Bezeichner der Tabelle
+     * @param primaryKey Primärschlüssel
+     *
+     * @return Zeile oder null, wenn der Primärschlüssel nicht enthalten ist
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     *
+     * @pre siehe {@link #sendGetRowByPrimaryKey(String, Value)}
+     */
+    public List<Value> getRowByPrimaryKey(String tableId, Value primaryKey) throws IOException {
+        return this.sendGetRowByPrimaryKey(tableId, primaryKey).get();
+    }
+
+    /**
+     * Liest alle ausstehenden Antworten.
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     */
+    public void sync() throws IOException {
+        this.out.flush();
+        while (!this.pending.isEmpty()) {
+            this.receiveNext();
+        }
+    }
+
+    /**
+     * Liest alle ausstehenden Antworten und schließt die Verbindung.
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     */
+    @Override
+    public void close() throws IOException {
+        try (SocketChannel toClose = this.channel) {
+            if (toClose.isOpen()) {
+                this.sync();
+            }
+        }
+    }
+
+    /**
+     * Sendet alle gepufferten Anfragen und liest Antworten, bis die übergebene Antwort vorliegt.
+     *
+     * @param reply ausstehende Antwort
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     */
+    void receiveUntil(Reply<?> reply) throws IOException {
+        this.out.flush();
+        while (!reply.isDone()) {
+            this.receiveNext();
+        }
+    }
+
+    /**
+     * Beginnt eine Anfrage, indem Operationscode und Tabellenbezeichner in den Puffer der Anfrage geschrieben werden.
+     * Die übrigen Teile der Anfrage werden anschließend in {@link #request} geschrieben und die Anfrage mit
+     * {@link #send(Reply.ResultReader)} abgeschlossen.
+     *
+     * @param opcode  Operationscode
+     * @param tableId Bezeichner der Tabelle
+     *
+     * @throws IOException bei einem Fehler beim Schreiben in den Puffer
+     */
+    private void begin(byte opcode, String tableId) throws IOException {
+        this.requestBuffer.reset();
+        this.request.writeByte(opcode);
+        Protocol.writeString(this.request, tableId);
+    }
+
+    /**
+     * Sendet die im Puffer aufgebaute Anfrage gepuffert. Würden dadurch mehr als {@link #maxUnansweredBytes} Bytes
+     * unbeantwortet ausstehen, werden zuvor die ältesten Antworten gelesen, höchstens jedoch alle. Eine einzelne
+     * Anfrage, die die Grenze allein überschreitet, wird daher erst gesendet, wenn der Server alle vorherigen
+     * beantwortet hat und nur noch liest.
+     *
+     * @param reader Leser für das Ergebnis
+     * @param <T>    Typ des Ergebnisses
+     *
+     * @return ausstehende Antwort
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     */
+    private <T> Reply<T> send(Reply.ResultReader<T> reader) throws IOException {
+        int size = this.requestBuffer.size();
+        if (!this.pending.isEmpty() && this.unansweredBytes + size > this.maxUnansweredBytes) {
+            this.out.flush();
+            while (!this.pending.isEmpty() && this.unansweredBytes + size > this.maxUnansweredBytes) {
+                this.receiveNext();
+            }
+        }
+        this.requestBuffer.writeTo(this.out);
+        this.unansweredBytes += size;
+        Reply<T> reply = new Reply<>(this, reader, size);
+        this.pending.add(reply);
+        return reply;
+    }
+
+    /**
+     * Liest die Antwort auf die älteste ausstehende Anfrage.
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     *
+     * @pre !pending.isEmpty()
+     */
+    private void receiveNext() throws IOException {
+        assert !this.pending.isEmpty() : "no pending reply";
+        Reply<?> reply = this.pending.poll();
+        reply.receive(this.in);
+        this.unansweredBytes -= reply.getRequestSize();
+    }
+
+    /**
+     * Stellt sicher, dass alle Bedingungen übertragen werden können.
+     *
+     * @param whereParams WHERE-Bedingungen
+     *
+     * @throws IllegalArgumentException wenn eine Bedingung nicht übertragen werden kann
+     */
+    private static void checkTransferable(List<WhereParameter> whereParams) {
+        for (WhereParameter whereParam : whereParams) {
+            if (!Protocol.isTransferable(whereParam.predicate())) {
+                throw new IllegalArgumentException("predicate of " + whereParam.colId() + " not transferable");
+            }
+        }
+    }
+}
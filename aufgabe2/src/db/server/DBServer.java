@@ -0,0 +1,423 @@
+package db.server;
+
+import db.DB;
+import db.DBTable;
+import db.WhereParameter;
+import db.storage.ValueCodec;
+import db.value.Value;
+import util.Util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Server, der eine {@link DB} anderen Prozessen auf demselben Rechner über eine lokale TCP-Verbindung oder einen
+ * Unix-Domain-Socket zur Verfügung stellt. Das Protokoll beschreibt {@link Protocol}, den passenden Client
+ * {@link DBClient}.
+ * <p>
+ * Jede Verbindung wird von einem eigenen Thread bearbeitet, der die Anfragen der Verbindung nacheinander liest und
+ * beantwortet. Stehen virtuelle Threads zur Verfügung (ab Java 21), werden diese verwendet, sonst Plattform-Threads.
+ * Antworten werden erst gesendet, wenn keine weitere bereits empfangene Anfrage mehr vorliegt, sodass die Antworten
+ * auf mehrere hintereinander gesendete Anfragen gemeinsam übertragen werden.
+ * <p>
+ * Die Operationen werden unter der Sperre der Datenbank ({@code synchronized (db)}) ausgeführt. Wird die Datenbank
+ * auch im eigenen Prozess verwendet, müssen Zugriffe dort ebenfalls auf ihr synchronisiert werden. Ergebnistabellen
+ * werden nach dem Freigeben der Sperre übertragen.
+ */
+public final class DBServer implements AutoCloseable {
+
+    /**
+     * Schreibt das Ergebnis einer erfolgreich ausgeführten Operation.
+     *
+     * @param <T> Typ des Ergebnisses
+     */
+    @FunctionalInterface
+    private interface ResultWriter<T> {
+
+        /**
+         * Schreibt das Ergebnis.
+         *
+         * @param out    Ausgabe
+         * @param result Ergebnis
+         *
+         * @throws IOException bei einem Fehler beim Schreiben
+         */
+        void write(DataOutputStream out, T result) throws IOException;
+    }
+
+    /**
+     * Name der Fabrikmethode für einen Executor mit einem virtuellen Thread pro Aufgabe
+     */
+    private static final String VIRTUAL_THREAD_EXECUTOR = "newVirtualThreadPerTaskExecutor";
+
+    /**
+     * Datenbank, die bereitgestellt wird
+     */
+    private final DB db;
+
+    /**
+     * Kanal, auf dem Verbindungen angenommen werden
+     */
+    private final ServerSocketChannel serverChannel;
+
+    /**
+     * Executor, der jede Verbindung in einem eigenen Thread bearbeitet
+     */
+    private final ExecutorService connectionExecutor;
+
+    /**
+     * Offene Verbindungen
+     */
+    private final Set<SocketChannel> connections;
+
+    /**
+     * Thread, der Verbindungen annimmt
+     */
+    private final Thread acceptor;
+
+    /**
+     * Konstruktor. Bindet den Server an die übergebene Adresse und nimmt sofort Verbindungen an.
+     *
+     * @param db      Datenbank, die bereitgestellt wird
+     * @param address lokale TCP-Adresse (Port 0 wählt einen freien Port) oder Pfad eines Unix-Domain-Sockets, der noch
+     *                nicht existieren darf
+     *
+     * @throws IOException wenn der Server nicht an die Adresse gebunden werden kann
+     *
+     * @pre db != null
+     * @pre address != null
+     */
+    public DBServer(DB db, SocketAddress address) throws IOException {
+        assert db != null : "db is null";
+        assert address != null : "address is null";
+
+        this.db = db;
+        this.serverChannel = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        this.serverChannel.bind(address);
+        this.connectionExecutor = newConnectionExecutor();
+        this.connections = ConcurrentHashMap.newKeySet();
+        this.acceptor = new Thread(this::accept, "DBServer-" + db.getId());
+        this.acceptor.setDaemon(true);
+        this.acceptor.start();
+    }
+
+    /**
+     * Liefert die Adresse, an die dieser Server gebunden ist. Bei TCP enthält sie den tatsächlich gewählten Port.
+     *
+     * @return Adresse des Servers
+     *
+     * @throws IOException wenn der Server bereits geschlossen wurde
+     */
+    public SocketAddress getAddress() throws IOException {
+        return this.serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Liefert die Anzahl der offenen Verbindungen.
+     *
+     * @return Anzahl der offenen Verbindungen
+     */
+    public int getNumOfConnections() {
+        return this.connections.size();
+    }
+
+    /**
+     * Beendet den Server und schließt alle offenen Verbindungen. Der Pfad eines Unix-Domain-Sockets wird entfernt.
+     *
+     * @throws IOException bei einem Fehler beim Schließen
+     */
+    @Override
+    public void close() throws IOException {
+        SocketAddress address = this.serverChannel.getLocalAddress();
+        this.serverChannel.close();
+        for (SocketChannel connection : this.connections) {
+            connection.close();
+        }
+        this.connectionExecutor.shutdown();
+        if (address instanceof UnixDomainSocketAddress unixAddress) {
+            Files.deleteIfExists(unixAddress.getPath());
+        }
+    }
+
+    /**
+     * Liefert einen Executor mit einem virtuellen Thread pro Verbindung, sofern die Laufzeitumgebung virtuelle Threads
+     * unterstützt, sonst einen mit Plattform-Threads, die nach Ende der Verbindung wiederverwendet werden.
+     *
+     * @return Executor für Verbindungen
+     */
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod(VIRTUAL_THREAD_EXECUTOR).invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Nimmt Verbindungen an, bis der Server geschlossen wird, und übergibt jede an einen eigenen Thread.
+     */
+    private void accept() {
+        try {
+            while (true) {
+                SocketChannel connection = this.serverChannel.accept();
+                this.connections.add(connection);
+                this.connectionExecutor.execute(() -> this.serve(connection));
+            }
+        } catch (IOException e) {
+            // Server wurde geschlossen
+        }
+    }
+
+    /**
+     * Liest die Anfragen einer Verbindung, bis der Client sie schließt, und beantwortet sie in ihrer Reihenfolge.
+     *
+     * @param connection Verbindung
+     */
+    private void serve(SocketChannel connection) {
+        try (connection) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(connection),
+                    Protocol.BUFFER_SIZE));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(connection),
+                    Protocol.BUFFER_SIZE));
+            for (int opcode = in.read(); opcode >= 0; opcode = in.read()) {
+                this.handle((byte) opcode, in, out);
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // Verbindung vom Client oder beim Schließen des Servers beendet oder Protokollfehler
+        } finally {
+            this.connections.remove(connection);
+        }
+    }
+
+    /**
+     * Liest eine Anfrage vollständig, führt sie aus und schreibt die Antwort.
+     * <p>
+     * Tabellen- und Spaltenbezeichner sowie die Anzahl der Werte einer Zeile werden vor der Ausführung ausdrücklich
+     * geprüft und nicht den Zusicherungen der Tabelle überlassen, da diese zur Laufzeit abgeschaltet sein können.
+     * Ungültige Anfragen werden mit {@link Protocol#ERROR} beantwortet.
+     *
+     * @param opcode Operationscode
+     * @param in     Eingabe
+     * @param out    Ausgabe
+     *
+     * @throws IOException bei einem Fehler der Verbindung oder einem unbekannten Operationscode
+     */
+    private void handle(byte opcode, DataInputStream in, DataOutputStream out) throws IOException {
+        String tableId = Protocol.readString(in);
+        switch (opcode) {
+            case Protocol.SELECT:
+                List<String> colIds = Protocol.readStrings(in);
+                List<WhereParameter> whereParams = Protocol.readWhereParams(in);
+                String newTableId = Protocol.readString(in);
+                this.respond(() -> {
+                    DBTable table = this.table(tableId);
+                    checkSelectedColumns(table, colIds);
+                    checkWhereColumns(table, whereParams);
+                    checkNewTableId(newTableId);
+                    return table.select(colIds, whereParams, newTableId);
+                }, Protocol::writeTable, out);
+                break;
+            case Protocol.UPDATE:
+                String colId = Protocol.readString(in);
+                Value newValue = ValueCodec.readValue(in);
+                List<WhereParameter> updateParams = Protocol.readWhereParams(in);
+                this.respond(() -> {
+                    DBTable table = this.table(tableId);
+                    checkColumn(table, colId);
+                    if (colId.equals(table.getPrimaryKeyColumnId())) {
+                        throw new IllegalArgumentException("primary key " + colId + " cannot be updated");
+                    }
+                    checkWhereColumns(table, updateParams);
+                    return table.update(colId, newValue, updateParams);
+                }, DBServer::writeNothing, out);
+                break;
+            case Protocol.REMOVE_ROWS:
+                List<WhereParameter> removeParams = Protocol.readWhereParams(in);
+                this.respond(() -> {
+                    DBTable table = this.table(tableId);
+                    if (removeParams.size() != 1) {
+                        throw new IllegalArgumentException("removeRows expects exactly one condition");
+                    }
+                    checkWhereColumns(table, removeParams);
+                    return table.removeRows(removeParams.get(0));
+                }, DBServer::writeNothing, out);
+                break;
+            case Protocol.EQUIJOIN:
+                String otherTableId = Protocol.readString(in);
+                String fkColId = Protocol.readString(in);
+                String joinTableId = Protocol.readString(in);
+                this.respond(() -> {
+                    DBTable table = this.table(tableId);
+                    DBTable other = this.table(otherTableId);
+                    checkColumn(table, fkColId);
+                    if (fkColId.equals(table.getPrimaryKeyColumnId())) {
+                        throw new IllegalArgumentException("foreign key " + fkColId + " is the primary key");
+                    }
+                    checkNewTableId(joinTableId);
+                    return table.equijoin(other, fkColId, joinTableId);
+                }, Protocol::writeTable, out);
+                break;
+            case Protocol.APPEND_ROW:
+                List<Value> row = Protocol.readRow(in);
+                this.respond(() -> {
+                    DBTable table = this.table(tableId);
+                    if (row.size() != table.getNumOfColumns()) {
+                        throw new IllegalArgumentException("row has " + row.size() + " values, table " + tableId
+                                + " has " + table.getNumOfColumns() + " columns");
+                    }
+                    return table.appendRow(row);
+                }, DBServer::writeNothing, out);
+                break;
+            case Protocol.GET_ROW:
+                Value primaryKey = ValueCodec.readValue(in);
+                this.respond(() -> this.table(tableId).getRowByPrimaryKey(primaryKey), Protocol::writeRow, out);
+                break;
+            default:
+                throw new IOException("unknown opcode " + opcode);
+        }
+    }
+
+    /**
+     * Führt eine Operation unter der Sperre der Datenbank aus und schreibt ihr Ergebnis nach dem Freigeben der Sperre.
+     * Kann die Operation nicht ausgeführt werden, etwa weil eine Vorbedingung verletzt ist, wird stattdessen eine
+     * Fehlermeldung geschrieben und die Verbindung bleibt nutzbar.
+     *
+     * @param operation Operation
+     * @param writer    schreibt das Ergebnis
+     * @param out       Ausgabe
+     * @param <T>       Typ des Ergebnisses
+     *
+     * @throws IOException bei einem Fehler der Verbindung
+     */
+    private <T> void respond(Supplier<T> operation, ResultWriter<T> writer, DataOutputStream out) throws IOException {
+        T result;
+        try {
+            synchronized (this.db) {
+                result = operation.get();
+            }
+        } catch (IllegalArgumentException | IllegalStateException | IndexOutOfBoundsException | AssertionError e) {
+            out.writeByte(Protocol.ERROR);
+            Protocol.writeString(out, e.getMessage() == null ? e.getClass().getName() : e.getMessage());
+            return;
+        }
+        out.writeByte(Protocol.OK);
+        writer.write(out, result);
+    }
+
+    /**
+     * Liefert die Tabelle mit dem übergebenen Bezeichner. Muss unter der Sperre der Datenbank aufgerufen werden.
+     *
+     * @param tableId Bezeichner der Tabelle
+     *
+     * @return Tabelle
+     *
+     * @throws IllegalArgumentException wenn die Datenbank keine Tabelle mit dem Bezeichner enthält
+     */
+    private DBTable table(String tableId) {
+        DBTable table = this.db.getTable(tableId);
+        if (table == null) {
+            throw new IllegalArgumentException("unknown table " + tableId);
+        }
+        return table;
+    }
+
+    /**
+     * Prüft, ob die Tabelle eine Spalte mit dem übergebenen Bezeichner hat.
+     *
+     * @param table Tabelle
+     * @param colId Spaltenbezeichner
+     *
+     * @throws IllegalArgumentException wenn die Tabelle keine solche Spalte hat
+     */
+    private static void checkColumn(DBTable table, String colId) {
+        if (colId == null || !table.hasColumn(colId)) {
+            throw new IllegalArgumentException("unknown column " + colId + " in table " + table.getId());
+        }
+    }
+
+    /**
+     * Prüft die Spaltenbezeichner einer Selektion wie die Vorbedingungen von
+     * {@link DBTable#select(List, List, String)}.
+     *
+     * @param table  Tabelle
+     * @param colIds Spaltenbezeichner oder null für alle Spalten
+     *
+     * @throws IllegalArgumentException wenn eine Spalte fehlt, doppelt angegeben ist oder der Primärschlüssel nicht
+     *                                  selektiert wird
+     */
+    private static void checkSelectedColumns(DBTable table, List<String> colIds) {
+        if (colIds == null) {
+            return;
+        }
+        for (String colId : colIds) {
+            checkColumn(table, colId);
+        }
+        if (!Util.areOnlyUniqueIdentifiers(colIds)) {
+            throw new IllegalArgumentException("duplicate columns in " + colIds);
+        }
+        if (!colIds.contains(table.getPrimaryKeyColumnId())) {
+            throw new IllegalArgumentException("primary key " + table.getPrimaryKeyColumnId() + " not selected");
+        }
+    }
+
+    /**
+     * Prüft, ob sich alle Bedingungen auf Spalten der Tabelle beziehen.
+     *
+     * @param table       Tabelle
+     * @param whereParams Bedingungen
+     *
+     * @throws IllegalArgumentException wenn sich eine Bedingung auf eine unbekannte Spalte bezieht
+     */
+    private static void checkWhereColumns(DBTable table, List<WhereParameter> whereParams) {
+        for (WhereParameter whereParam : whereParams) {
+            checkColumn(table, whereParam.colId());
+        }
+    }
+
+    /**
+     * Prüft den Bezeichner einer Tabelle, die eine Operation erzeugt.
+     *
+     * @param newTableId Tabellenbezeichner
+     *
+     * @throws IllegalArgumentException wenn der Bezeichner gemäß {@link Util#isValidIdentifier(String)} ungültig ist
+     */
+    private static void checkNewTableId(String newTableId) {
+        if (newTableId == null || !Util.isValidIdentifier(newTableId)) {
+            throw new IllegalArgumentException("invalid table id " + newTableId);
+        }
+    }
+
+    /**
+     * Schreibt kein Ergebnis, für Operationen, deren Antwort nur den Erfolg bestätigt.
+     *
+     * @param out    Ausgabe
+     * @param result Ergebnis der Operation
+     */
+    private static void writeNothing(DataOutputStream out, Object result) {
+    }
+}
@@ -0,0 +1,416 @@
+package db.server;
+
+import db.DBTable;
+import db.WhereParameter;
+import db.predicate.DoubleBetweenPredicate;
+import db.predicate.DoubleGreaterThanPredicate;
+import db.predicate.DoubleInPredicate;
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import db.storage.ValueCodec;
+import db.value.Value;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Binäres Protokoll zwischen {@link DBServer} und {@link DBClient}.
+ * <p>
+ * Eine Anfrage beginnt mit ihrem Operationscode, gefolgt von den Parametern der Operation. Jede Antwort beginnt mit
+ * {@link #OK} oder {@link #ERROR}. Auf {@link #ERROR} folgt die Fehlermeldung, auf {@link #OK} das Ergebnis der
+ * Operation. Antworten werden in der Reihenfolge der Anfragen gesendet, ein Client darf also mehrere Anfragen senden,
+ * bevor er die erste Antwort liest.
+ * <p>
+ * Tabellen werden als Kopf (Bezeichner, Primärschlüssel, Spaltenbezeichner) und anschließend in Blöcken von höchstens
+ * {@link #BATCH_SIZE} Zeilen übertragen. Jeder Block beginnt mit seiner Zeilenanzahl, ein leerer Block beendet die
+ * Tabelle.
+ * <p>
+ * Bedingungen lassen sich nur übertragen, wenn ihr Vergleichswert abfragbar ist, also für {@link EqualsPredicate},
+ * {@link DoubleGreaterThanPredicate}, {@link DoubleLessThanPredicate}, {@link DoubleBetweenPredicate} und
+ * {@link DoubleInPredicate}.
+ */
+final class Protocol {
+
+    /**
+     * Operation {@link DBTable#select(List, List, String)}
+     */
+    static final byte SELECT = 1;
+
+    /**
+     * Operation {@link DBTable#update(String, Value, List)}
+     */
+    static final byte UPDATE = 2;
+
+    /**
+     * Operation {@link DBTable#removeRows(WhereParameter)}
+     */
+    static final byte REMOVE_ROWS = 3;
+
+    /**
+     * Operation {@link DBTable#equijoin(DBTable, String, String)}
+     */
+    static final byte EQUIJOIN = 4;
+
+    /**
+     * Operation {@link DBTable#appendRow(List)}
+     */
+    static final byte APPEND_ROW = 5;
+
+    /**
+     * Operation {@link DBTable#getRowByPrimaryKey(Value)}
+     */
+    static final byte GET_ROW = 6;
+
+    /**
+     * Antwort auf eine erfolgreich ausgeführte Anfrage
+     */
+    static final byte OK = 0;
+
+    /**
+     * Antwort auf eine fehlgeschlagene Anfrage
+     */
+    static final byte ERROR = 1;
+
+    /**
+     * Maximale Anzahl der Zeilen in einem Block
+     */
+    static final int BATCH_SIZE = 256;
+
+    /**
+     * Größe der Puffer für Ein- und Ausgabe in Bytes
+     */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Kennung eines {@link EqualsPredicate}
+     */
+    private static final byte EQUALS = 1;
+
+    /**
+     * Kennung eines {@link DoubleGreaterThanPredicate}
+     */
+    private static final byte GREATER_THAN = 2;
+
+    /**
+     * Kennung eines {@link DoubleLessThanPredicate}
+     */
+    private static final byte LESS_THAN = 3;
+
+    /**
+     * Kennung eines {@link DoubleBetweenPredicate}
+     */
+    private static final byte BETWEEN = 4;
+
+    /**
+     * Kennung eines {@link DoubleInPredicate}
+     */
+    private static final byte IN = 5;
+
+    /**
+     * Versteckter Konstruktor
+     */
+    private Protocol() {
+    }
+
+    /**
+     * Gibt an, ob die übergebene Bedingung übertragen werden kann.
+     *
+     * @param predicate Bedingung
+     *
+     * @return Angabe, ob die Bedingung übertragen werden kann
+     */
+    static boolean isTransferable(Predicate<Value> predicate) {
+        Class<?> type = predicate.getClass();
+        return type == EqualsPredicate.class || type == DoubleBetweenPredicate.class || type == DoubleInPredicate.class
+                || type == DoubleGreaterThanPredicate.class || type == DoubleLessThanPredicate.class;
+    }
+
+    /**
+     * Schreibt eine Zeichenkette beliebiger Länge.
+     *
+     * @param out    Ausgabe
+     * @param string Zeichenkette
+     *
+     * @throws IOException bei einem Fehler beim Schreiben
+     */
+    static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Liest eine Zeichenkette, die mit {@link #writeString(DataOutputStream, String)} geschrieben wurde.
+     *
+     * @param in Eingabe
+     *
+     * @return Zeichenkette
+     *
+     * @throws IOException bei einem Fehler beim Lesen
+     */
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Schreibt eine Liste von Zeichenketten, die auch null sein darf.
+     *
+     * @param out     Ausgabe
+     * @param strings Zeichenketten oder null
+     *
+     * @throws IOException bei einem Fehler beim Schreiben
+     */
+    static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+        if (strings == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            writeString(out, string);
+        }
+    }
+
+    /**
+     * Liest eine Liste von Zeichenketten, die mit {@link #writeStrings(DataOutputStream, List)} geschrieben wurde.
+     *
+     * @param in Eingabe
+     *
+     * @return Zeichenketten oder null
+     *
+     * @throws IOException bei einem Fehler beim Lesen
+     */
+    static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(readString(in));
+        }
+        return strings;
+    }
+
+    /**
+     * Schreibt eine Zeile wie {@link ValueCodec#writeRow(java.io.DataOutput, List)}, die auch null sein darf.
+     *
+     * @param out Ausgabe
+     * @param row Zeile oder null
+     *
+     * @throws IOException bei einem Fehler beim Schreiben
+     */
+    static void writeRow(DataOutputStream out, List<Value> row) throws IOException {
+        if (row == null) {
+            out.writeInt(-1);
+            return;
+        }
+        ValueCodec.writeRow(out, row);
+    }
+
+    /**
+     * Liest eine Zeile, die mit {@link #writeRow(DataOutputStream, List)} geschrieben wurde.
+     *
+     * @param in Eingabe
+     *
+     * @return Zeile oder null
+     *
+     * @throws IOException bei einem Fehler beim Lesen
+     */
+    static List<Value> readRow(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<Value> row = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            row.add(ValueCodec.readValue(in));
+        }
+        return row;
+    }
+
+    /**
+     * Schreibt eine Bedingung.
+     *
+     * @param out       Ausgabe
+     * @param predicate Bedingung
+     *
+     * @throws IOException bei einem Fehler beim Schreiben
+     *
+     * @pre isTransferable(predicate)
+     */
+    static void writePredicate(DataOutputStream out, Predicate<Value> predicate) throws IOException {
+        assert isTransferable(predicate) : "predicate not transferable";
+        if (predicate instanceof EqualsPredicate equals) {
+            out.writeByte(EQUALS);
+            ValueCodec.writeValue(out, equals.getCompareValue());
+        } else if (predicate instanceof DoubleGreaterThanPredicate greaterThan) {
+            out.writeByte(GREATER_THAN);
+            out.writeDouble(greaterThan.getCompareValue());
+        } else if (predicate instanceof DoubleLessThanPredicate lessThan) {
+            out.writeByte(LESS_THAN);
+            out.writeDouble(lessThan.getCompareValue());
+        } else if (predicate instanceof DoubleBetweenPredicate between) {
+            out.writeByte(BETWEEN);
+            out.writeDouble(between.getLowerBound());
+            out.writeDouble(between.getUpperBound());
+        } else {
+            double[] compareValues = ((DoubleInPredicate) predicate).getCompareValues();
+            out.writeByte(IN);
+            out.writeInt(compareValues.length);
+            for (double compareValue : compareValues) {
+                out.writeDouble(compareValue);
+            }
+        }
+    }
+
+    /**
+     * Liest eine Bedingung, die mit {@link #writePredicate(DataOutputStream, Predicate)} geschrieben wurde.
+     *
+     * @param in Eingabe
+     *
+     * @return Bedingung
+     *
+     * @throws IOException bei einem Fehler beim Lesen oder einer unbekannten Kennung
+     */
+    static Predicate<Value> readPredicate(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case EQUALS:
+                return new EqualsPredicate(ValueCodec.readValue(in));
+            case GREATER_THAN:
+                return new DoubleGreaterThanPredicate(in.readDouble());
+            case LESS_THAN:
+                return new DoubleLessThanPredicate(in.readDouble());
+            case BETWEEN:
+                return new DoubleBetweenPredicate(in.readDouble(), in.readDouble());
+            case IN:
+                double[] compareValues = new double[in.readInt()];
+                for (int i = 0; i < compareValues.length; i++) {
+                    compareValues[i] = in.readDouble();
+                }
+                return new DoubleInPredicate(compareValues);
+            default:
+                throw new IOException("unknown predicate type " + type);
+        }
+    }
+
+    /**
+     * Schreibt eine Liste von WHERE-Bedingungen.
+     *
+     * @param out         Ausgabe
+     * @param whereParams WHERE-Bedingungen
+     *
+     * @throws IOException bei einem Fehler beim Schreiben
+     *
+     * @pre die Bedingungen aller whereParams müssen gemäß {@link #isTransferable(Predicate)} übertragbar sein
+     */
+    static void writeWhereParams(DataOutputStream out, List<WhereParameter> whereParams) throws IOException {
+        out.writeInt(whereParams.size());
+        for (WhereParameter whereParam : whereParams) {
+            writeString(out, whereParam.colId());
+            writePredicate(out, whereParam.predicate());
+        }
+    }
+
+    /**
+     * Liest eine Liste von WHERE-Bedingungen, die mit {@link #writeWhereParams(DataOutputStream, List)} geschrieben
+     * wurde.
+     *
+     * @param in Eingabe
+     *
+     * @return WHERE-Bedingungen
+     *
+     * @throws IOException bei einem Fehler beim Lesen
+     */
+    static List<WhereParameter> readWhereParams(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<WhereParameter> whereParams = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            whereParams.add(new WhereParameter(readString(in), readPredicate(in)));
+        }
+        return whereParams;
+    }
+
+    /**
+     * Schreibt eine Tabelle in Blöcken von höchstens {@link #BATCH_SIZE} Zeilen, gefolgt von einem leeren Block. Nach
+     * jedem Block wird die Ausgabe geleert, damit der Empfänger die Zeilen bereits verarbeiten kann, während weitere
+     * gesendet werden.
+     *
+     * @param out   Ausgabe
+     * @param table Tabelle
+     *
+     * @throws IOException bei einem Fehler beim Schreiben
+     */
+    static void writeTable(DataOutputStream out, DBTable table) throws IOException {
+        writeString(out, table.getId());
+        writeString(out, table.getPrimaryKeyColumnId());
+        writeStrings(out, table.getColumnIds());
+
+        List<List<Value>> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            table.forEachRow(row -> {
+                batch.add(row);
+                if (batch.size() == BATCH_SIZE) {
+                    writeBatch(out, batch);
+                }
+            });
+            if (!batch.isEmpty()) {
+                writeBatch(out, batch);
+            }
+            writeBatch(out, batch);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Liest eine Tabelle, die mit {@link #writeTable(DataOutputStream, DBTable)} geschrieben wurde.
+     *
+     * @param in Eingabe
+     *
+     * @return neue Tabelle mit den übertragenen Zeilen
+     *
+     * @throws IOException bei einem Fehler beim Lesen
+     */
+    static DBTable readTable(DataInputStream in) throws IOException {
+        String id = readString(in);
+        String primaryKeyColId = readString(in);
+        DBTable table = new DBTable(id, primaryKeyColId, readStrings(in));
+        for (int size = in.readInt(); size > 0; size = in.readInt()) {
+            for (int i = 0; i < size; i++) {
+                table.appendRow(readRow(in));
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Schreibt einen Block von Zeilen, leert die Ausgabe und anschließend den Block.
+     *
+     * @param out   Ausgabe
+     * @param batch Zeilen des Blocks
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Schreiben
+     */
+    private static void writeBatch(DataOutputStream out, List<List<Value>> batch) {
+        try {
+            out.writeInt(batch.size());
+            for (List<Value> row : batch) {
+                writeRow(out, row);
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        batch.clear();
+    }
+}
@@ -0,0 +1,17 @@
+package db.server;
+
+/**
+ * Ausnahme für eine Anfrage, die der {@link DBServer} nicht ausführen konnte, etwa weil eine Tabelle nicht existiert
+ * oder eine Vorbedingung der Operation verletzt ist. Die Verbindung bleibt dabei nutzbar.
+ */
+public final class RemoteDBException extends RuntimeException {
+
+    /**
+     * Konstruktor
+     *
+     * @param message Fehlermeldung des Servers
+     */
+    public RemoteDBException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,132 @@
+package db.server;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Ausstehende Antwort auf eine Anfrage, die ein {@link DBClient} gesendet hat.
+ * <p>
+ * Anfragen werden gepuffert gesendet, ohne auf ihre Antwort zu warten. Erst {@link #get()} sendet alle gepufferten
+ * Anfragen und liest die Antworten bis einschließlich dieser. Dadurch lassen sich viele Anfragen mit nur einem
+ * Hin- und Rückweg über die Verbindung ausführen.
+ *
+ * @param <T> Typ des Ergebnisses
+ */
+public final class Reply<T> {
+
+    /**
+     * Liest das Ergebnis einer erfolgreichen Antwort.
+     *
+     * @param <T> Typ des Ergebnisses
+     */
+    @FunctionalInterface
+    interface ResultReader<T> {
+
+        /**
+         * Liest das Ergebnis.
+         *
+         * @param in Eingabe
+         *
+         * @return Ergebnis
+         *
+         * @throws IOException bei einem Fehler beim Lesen
+         */
+        T read(DataInputStream in) throws IOException;
+    }
+
+    /**
+     * Client, über den die Anfrage gesendet wurde
+     */
+    private final DBClient client;
+
+    /**
+     * Leser für das Ergebnis
+     */
+    private final ResultReader<T> reader;
+
+    /**
+     * Größe der Anfrage in Bytes
+     */
+    private final int requestSize;
+
+    /**
+     * Angabe, ob die Antwort gelesen wurde
+     */
+    private boolean done;
+
+    /**
+     * Ergebnis einer erfolgreichen Antwort
+     */
+    private T result;
+
+    /**
+     * Fehlermeldung einer fehlgeschlagenen Antwort oder null
+     */
+    private String error;
+
+    /**
+     * Konstruktor
+     *
+     * @param client      Client, über den die Anfrage gesendet wurde
+     * @param reader      Leser für das Ergebnis
+     * @param requestSize Größe der Anfrage in Bytes
+     */
+    Reply(DBClient client, ResultReader<T> reader, int requestSize) {
+        this.client = client;
+        this.reader = reader;
+        this.requestSize = requestSize;
+    }
+
+    /**
+     * Gibt an, ob die Antwort bereits gelesen wurde.
+     *
+     * @return Angabe, ob die Antwort vorliegt
+     */
+    public boolean isDone() {
+        return this.done;
+    }
+
+    /**
+     * Liefert die Größe der Anfrage in Bytes.
+     *
+     * @return Größe der Anfrage
+     */
+    int getRequestSize() {
+        return this.requestSize;
+    }
+
+    /**
+     * Liefert das Ergebnis der Anfrage und wartet dafür gegebenenfalls auf die Antwort des Servers.
+     *
+     * @return Ergebnis der Anfrage
+     *
+     * @throws IOException       bei einem Fehler der Verbindung
+     * @throws RemoteDBException wenn der Server die Anfrage nicht ausführen konnte
+     */
+    public T get() throws IOException {
+        if (!this.done) {
+            this.client.receiveUntil(this);
+        }
+        if (this.error != null) {
+            throw new RemoteDBException(this.error);
+        }
+        return this.result;
+    }
+
+    /**
+     * Liest die Antwort auf diese Anfrage.
+     *
+     * @param in Eingabe
+     *
+     * @throws IOException bei einem Fehler beim Lesen
+     */
+    void receive(DataInputStream in) throws IOException {
+        byte status = in.readByte();
+        if (status == Protocol.OK) {
+            this.result = this.reader.read(in);
+        } else {
+            this.error = Protocol.readString(in);
+        }
+        this.done = true;
+    }
+}
@@ -0,0 +1,42 @@
+package db.slowlog;
+
+/**
+ * Art einer Tabellenoperation, die im {@link SlowOperationLog} aufgezeichnet wird.
+ */
+public enum OperationType {
+
+    /**
+     * Selektion
+     */
+    SELECT,
+
+    /**
+     * Aktualisierung
+     */
+    UPDATE,
+
+    /**
+     * Entfernen von Zeilen
+     */
+    REMOVE_ROWS,
+
+    /**
+     * Join über einen Fremdschlüssel
+     */
+    EQUIJOIN,
+
+    /**
+     * Semi-Join über einen Fremdschlüssel
+     */
+    SEMIJOIN,
+
+    /**
+     * Anti-Join über einen Fremdschlüssel
+     */
+    ANTIJOIN,
+
+    /**
+     * Erzeugen der Stringrepräsentation einer Tabelle
+     */
+    TO_STRING
+}
@@ -0,0 +1,45 @@
+package db.slowlog;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Dieser Record beschreibt eine aufgezeichnete Tabellenoperation.
+ * <p>
+ * {@link #toString()} liefert eine Zeile, wie sie in die Datei eines {@link SlowOperationLog} geschrieben wird.
+ *
+ * @param finished    Zeitpunkt, zu dem die Operation beendet wurde
+ * @param type        Art der Operation
+ * @param tableIds    unveränderliche Bezeichner der beteiligten Tabellen, zuerst die Tabelle der Operation
+ * @param columnIds   unveränderliche Bezeichner der selektierten, geänderten oder verbundenen Spalten
+ * @param conditions  unveränderliche Beschreibungen der Bedingungen als Spaltenbezeichner und Art der Bedingung
+ * @param rowsScanned Anzahl der Zeilen der Tabelle, auf der die Operation ausgeführt wurde
+ * @param rowsMatched Anzahl der Zeilen, die ausgewählt, geändert, entfernt oder verbunden wurden
+ * @param duration    Dauer der Operation
+ * @param sampled     true, wenn die Operation nicht wegen ihrer Dauer, sondern als Stichprobe aufgezeichnet wurde
+ */
+public record SlowOperation(Instant finished, OperationType type, List<String> tableIds, List<String> columnIds,
+        List<String> conditions, long rowsScanned, long rowsMatched, Duration duration, boolean sampled) {
+
+    /**
+     * Nanosekunden pro Mikrosekunde
+     */
+    private static final long NANOS_PER_MICRO = 1_000L;
+
+    /**
+     * Liefert die Beschreibung dieser Operation in einer Zeile mit durch Tabulatoren getrennten Feldern.
+     *
+     * @return Zeile ohne Zeilenumbruch
+     */
+    @Override
+    public String toString() {
+        return this.finished + "\t" + this.type + "\t" + (this.duration.toNanos() / NANOS_PER_MICRO) + "us"
+                + "\ttables=" + String.join(",", this.tableIds)
+                + "\tcolumns=" + String.join(",", this.columnIds)
+                + "\twhere=" + String.join("; ", this.conditions)
+                + "\tscanned=" + this.rowsScanned
+                + "\tmatched=" + this.rowsMatched
+                + (this.sampled ? "\tsampled" : "");
+    }
+}
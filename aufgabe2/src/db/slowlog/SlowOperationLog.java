@@ -0,0 +1,268 @@
+package db.slowlog;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Protokoll langsamer Tabellenoperationen. Aufgezeichnet wird jede Operation, die mindestens so lange dauert wie der
+ * Schwellwert, und zusätzlich ein zufälliger Anteil aller übrigen Operationen (Stichprobe), etwa um die Entwicklung
+ * der Laufzeiten zu verfolgen.
+ * <p>
+ * Die letzten Einträge werden in einem Ringpuffer fester Kapazität gehalten, ältere Einträge werden überschrieben.
+ * Optional wird jeder Eintrag außerdem als Zeile ({@link SlowOperation#toString()}) an eine Datei angehängt. Erreicht
+ * die Datei ihre Höchstgröße, wird sie zu "Name.1" umbenannt und eine neue begonnen. Ältere Dateien rücken dabei bis
+ * "Name.{@value #ROLLED_FILES}" weiter, die älteste wird gelöscht.
+ * <p>
+ * Das Protokoll wird an eine {@link db.DB} übergeben und von deren Tabellen beschrieben. Alle Methoden sind
+ * threadsicher.
+ */
+public final class SlowOperationLog implements AutoCloseable {
+
+    /**
+     * Anzahl der umbenannten Dateien, die neben der aktuellen aufbewahrt werden
+     */
+    public static final int ROLLED_FILES = 3;
+
+    /**
+     * Schwellwert in Nanosekunden
+     */
+    private final long thresholdNanos;
+
+    /**
+     * Anteil der Operationen unter dem Schwellwert, die aufgezeichnet werden
+     */
+    private final double sampleRate;
+
+    /**
+     * Ringpuffer der letzten Einträge
+     */
+    private final SlowOperation[] ring;
+
+    /**
+     * Datei, an die Einträge angehängt werden, oder null
+     */
+    private final Path file;
+
+    /**
+     * Höchstgröße der Datei in Bytes
+     */
+    private final long maxFileBytes;
+
+    /**
+     * Anzahl aller bisher aufgezeichneten Einträge
+     */
+    private long numOfRecords;
+
+    /**
+     * Geöffnete Datei oder null
+     */
+    private BufferedWriter writer;
+
+    /**
+     * Bisher in die aktuelle Datei geschriebene Bytes
+     */
+    private long fileBytes;
+
+    /**
+     * Konstruktor für ein Protokoll, das nur im Speicher geführt wird
+     *
+     * @param threshold  Mindestdauer einer Operation, ab der sie aufgezeichnet wird
+     * @param capacity   Anzahl der Einträge, die im Speicher gehalten werden
+     * @param sampleRate Anteil der Operationen unter dem Schwellwert, die zusätzlich aufgezeichnet werden, zwischen 0
+     *                   (keine) und 1 (alle)
+     *
+     * @pre threshold != null
+     * @pre !threshold.isNegative()
+     * @pre capacity &gt; 0
+     * @pre 0 &lt;= sampleRate &lt;= 1
+     */
+    public SlowOperationLog(Duration threshold, int capacity, double sampleRate) {
+        this(threshold, capacity, sampleRate, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * Konstruktor für ein Protokoll, das zusätzlich an eine Datei angehängt wird. Eine vorhandene Datei wird
+     * fortgesetzt.
+     *
+     * @param threshold    Mindestdauer einer Operation, ab der sie aufgezeichnet wird
+     * @param capacity     Anzahl der Einträge, die im Speicher gehalten werden
+     * @param sampleRate   Anteil der Operationen unter dem Schwellwert, die zusätzlich aufgezeichnet werden, zwischen
+     *                     0 (keine) und 1 (alle)
+     * @param file         Datei, an die die Einträge angehängt werden, oder null
+     * @param maxFileBytes Größe in Bytes, ab der eine neue Datei begonnen wird
+     *
+     * @throws UncheckedIOException wenn die Datei nicht geöffnet werden kann
+     *
+     * @pre threshold != null
+     * @pre !threshold.isNegative()
+     * @pre capacity &gt; 0
+     * @pre 0 &lt;= sampleRate &lt;= 1
+     * @pre maxFileBytes &gt; 0
+     */
+    public SlowOperationLog(Duration threshold, int capacity, double sampleRate, Path file, long maxFileBytes) {
+        assert threshold != null : "threshold is null";
+        assert !threshold.isNegative() : "threshold is negative";
+        assert capacity > 0 : "capacity must be positive";
+        assert sampleRate >= 0 && sampleRate <= 1 : "sampleRate out of range";
+        assert maxFileBytes > 0 : "maxFileBytes must be positive";
+
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.ring = new SlowOperation[capacity];
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        if (file != null) {
+            this.open();
+        }
+    }
+
+    /**
+     * Gibt an, ob eine Operation mit der übergebenen Dauer wegen ihrer Dauer aufgezeichnet wird.
+     *
+     * @param nanos Dauer in Nanosekunden
+     *
+     * @return Angabe, ob die Dauer den Schwellwert erreicht
+     */
+    public boolean isSlow(long nanos) {
+        return nanos >= this.thresholdNanos;
+    }
+
+    /**
+     * Entscheidet zufällig gemäß dem Stichprobenanteil, ob eine Operation unter dem Schwellwert aufgezeichnet wird.
+     *
+     * @return Angabe, ob die Operation als Stichprobe aufgezeichnet wird
+     */
+    public boolean sample() {
+        return this.sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < this.sampleRate;
+    }
+
+    /**
+     * Zeichnet eine Operation auf.
+     * <p>
+     * Diese Methode arbeitet in O(1).
+     *
+     * @param operation Operation
+     *
+     * @throws UncheckedIOException wenn der Eintrag nicht in die Datei geschrieben werden kann
+     *
+     * @pre operation != null
+     */
+    public synchronized void record(SlowOperation operation) {
+        assert operation != null : "operation is null";
+
+        this.ring[(int) (this.numOfRecords % this.ring.length)] = operation;
+        this.numOfRecords++;
+        if (this.writer != null) {
+            this.write(operation.toString());
+        }
+    }
+
+    /**
+     * Liefert die Einträge im Speicher, den ältesten zuerst.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Kapazität und f(N) = N.
+     *
+     * @return neue Liste mit höchstens capacity Einträgen
+     */
+    public synchronized List<SlowOperation> getRecords() {
+        int count = (int) Math.min(this.numOfRecords, this.ring.length);
+        List<SlowOperation> records = new ArrayList<>(count);
+        for (long i = this.numOfRecords - count; i < this.numOfRecords; i++) {
+            records.add(this.ring[(int) (i % this.ring.length)]);
+        }
+        return records;
+    }
+
+    /**
+     * Liefert die Anzahl aller bisher aufgezeichneten Einträge, einschließlich der bereits überschriebenen.
+     *
+     * @return Anzahl der Einträge
+     */
+    public synchronized long getNumOfRecords() {
+        return this.numOfRecords;
+    }
+
+    /**
+     * Schließt die Datei. Weitere Einträge werden nur noch im Speicher gehalten.
+     *
+     * @throws UncheckedIOException wenn die Datei nicht geschlossen werden kann
+     */
+    @Override
+    public synchronized void close() {
+        if (this.writer == null) {
+            return;
+        }
+        try {
+            this.writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            this.writer = null;
+        }
+    }
+
+    /**
+     * Liefert den Pfad der umbenannten Datei mit der übergebenen Nummer.
+     *
+     * @param number Nummer, 1 ist die jüngste umbenannte Datei
+     *
+     * @return Pfad der Datei
+     *
+     * @pre Das Protokoll wurde mit einer Datei erzeugt
+     */
+    public Path rolledFile(int number) {
+        assert this.file != null : "no file";
+        return this.file.resolveSibling(this.file.getFileName() + "." + number);
+    }
+
+    /**
+     * Öffnet die Datei zum Anhängen.
+     */
+    private void open() {
+        try {
+            this.writer = Files.newBufferedWriter(this.file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            this.fileBytes = Files.size(this.file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Hängt eine Zeile an die Datei an und beginnt danach eine neue Datei, wenn die Höchstgröße erreicht ist.
+     *
+     * @param line Zeile ohne Zeilenumbruch
+     */
+    private void write(String line) {
+        try {
+            this.writer.write(line);
+            this.writer.newLine();
+            this.writer.flush();
+            this.fileBytes += line.getBytes(StandardCharsets.UTF_8).length + System.lineSeparator().length();
+            if (this.fileBytes >= this.maxFileBytes) {
+                this.writer.close();
+                this.writer = null;
+                Files.deleteIfExists(this.rolledFile(ROLLED_FILES));
+                for (int number = ROLLED_FILES - 1; number >= 1; number--) {
+                    if (Files.exists(this.rolledFile(number))) {
+                        Files.move(this.rolledFile(number), this.rolledFile(number + 1));
+                    }
+                }
+                Files.move(this.file, this.rolledFile(1), StandardCopyOption.REPLACE_EXISTING);
+                this.open();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
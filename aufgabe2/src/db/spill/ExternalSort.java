@@ -0,0 +1,265 @@
+package db.spill;
+
+import db.value.BooleanValue;
+import db.value.DoubleValue;
+import db.value.NullValue;
+import db.value.StringValue;
+import db.value.Value;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Sortiert beliebig viele Zeilen mit begrenztem Speicher (externes Mergesort).
+ * <p>
+ * Zeilen werden im Speicher gesammelt, solange sie in das {@link MemoryBudget} passen. Ist es erschöpft, werden die
+ * gesammelten Zeilen sortiert als Lauf in eine temporäre Datei geschrieben und der Speicher freigegeben. Zum Schluss
+ * werden alle Läufe gleichzeitig gelesen und über eine Prioritätswarteschlange zusammengeführt, bei mehr als
+ * {@link #MAX_FAN_IN} Läufen in mehreren Durchgängen. Passen alle Zeilen in das Budget, wird keine Datei angelegt.
+ * <p>
+ * Die Sortierung ist stabil: Gleiche Zeilen werden in der Reihenfolge geliefert, in der sie hinzugefügt wurden.
+ */
+public final class ExternalSort implements AutoCloseable {
+
+    /**
+     * Maximale Anzahl von Läufen, die in einem Durchgang zusammengeführt werden
+     */
+    public static final int MAX_FAN_IN = 64;
+
+    /**
+     * Reihenfolge der Zeilen
+     */
+    private final Comparator<List<Value>> order;
+
+    /**
+     * Budget für die Zeilen im Speicher
+     */
+    private final MemoryBudget budget;
+
+    /**
+     * Zeilen im Speicher, die noch keinem Lauf angehören
+     */
+    private final List<List<Value>> buffer;
+
+    /**
+     * Sortierte Läufe in der Reihenfolge, in der sie geschrieben wurden
+     */
+    private final List<SpillFile> runs;
+
+    /**
+     * Für die Zeilen im Speicher reservierte Bytes
+     */
+    private long bufferedBytes;
+
+    /**
+     * Konstruktor
+     *
+     * @param order  Reihenfolge der Zeilen
+     * @param budget Budget für die Zeilen im Speicher
+     *
+     * @pre order != null
+     * @pre budget != null
+     */
+    public ExternalSort(Comparator<List<Value>> order, MemoryBudget budget) {
+        assert order != null : "order is null";
+        assert budget != null : "budget is null";
+        this.order = order;
+        this.budget = budget;
+        this.buffer = new ArrayList<>();
+        this.runs = new ArrayList<>();
+    }
+
+    /**
+     * Liefert eine Reihenfolge von Zeilen nach den Werten in den Spalten mit den übergebenen Indizes, zuerst nach der
+     * ersten Spalte, bei Gleichheit nach der zweiten usw. Werte werden gemäß {@link #compareValues(Value, Value)}
+     * verglichen.
+     *
+     * @param indexes Indizes der Spalten
+     *
+     * @return Reihenfolge der Zeilen
+     *
+     * @pre indexes != null
+     */
+    public static Comparator<List<Value>> byColumns(int... indexes) {
+        assert indexes != null : "indexes is null";
+        int[] columns = indexes.clone();
+        return (a, b) -> {
+            for (int index : columns) {
+                int result = compareValues(a.get(index), b.get(index));
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Vergleicht zwei Werte. {@link NullValue#NULL} ist kleiner als alle Wahrheitswerte, diese kleiner als alle Zahlen
+     * und diese kleiner als alle Zeichenketten. Werte gleicher Art werden in ihrer natürlichen Ordnung verglichen.
+     *
+     * @param a erster Wert
+     * @param b zweiter Wert
+     *
+     * @return negative Zahl, 0 oder positive Zahl, wenn a kleiner, gleich oder größer als b ist
+     */
+    public static int compareValues(Value a, Value b) {
+        int rankA = rank(a);
+        int rankB = rank(b);
+        if (rankA != rankB) {
+            return Integer.compare(rankA, rankB);
+        }
+        if (a instanceof BooleanValue) {
+            return Boolean.compare(a.getAsBoolean(), b.getAsBoolean());
+        } else if (a instanceof DoubleValue) {
+            return Double.compare(a.getAsDouble(), b.getAsDouble());
+        } else if (a instanceof StringValue) {
+            return a.getAsString().compareTo(b.getAsString());
+        }
+        return 0;
+    }
+
+    /**
+     * Liefert die Anzahl der bisher ausgelagerten Läufe.
+     *
+     * @return Anzahl der Läufe
+     */
+    public int getNumOfRuns() {
+        return this.runs.size();
+    }
+
+    /**
+     * Fügt eine Zeile hinzu. Passt sie nicht mehr in das Budget, werden zuvor die gesammelten Zeilen als Lauf
+     * ausgelagert.
+     *
+     * @param row Zeile
+     *
+     * @pre row != null
+     */
+    public void add(List<Value> row) {
+        assert row != null : "row is null";
+        long size = MemoryBudget.estimateSize(row);
+        if (!this.budget.tryReserve(size)) {
+            this.spill();
+            this.budget.reserve(size);
+        }
+        this.buffer.add(row);
+        this.bufferedBytes += size;
+    }
+
+    /**
+     * Übergibt alle hinzugefügten Zeilen in sortierter Reihenfolge an die übergebene Aktion und gibt danach Speicher
+     * und temporäre Dateien frei.
+     *
+     * @param action Aktion, die für jede Zeile ausgeführt wird
+     *
+     * @pre action != null
+     */
+    public void finish(Consumer<List<Value>> action) {
+        assert action != null : "action is null";
+        try {
+            if (this.runs.isEmpty()) {
+                this.buffer.sort(this.order);
+                this.buffer.forEach(action);
+                return;
+            }
+            this.spill();
+            while (this.runs.size() > MAX_FAN_IN) {
+                List<SpillFile> group = new ArrayList<>(this.runs.subList(0, MAX_FAN_IN));
+                SpillFile merged = new SpillFile(this.budget);
+                this.runs.add(MAX_FAN_IN, merged);
+                this.merge(group, merged::append);
+            }
+            this.merge(new ArrayList<>(this.runs), action);
+        } finally {
+            this.close();
+        }
+    }
+
+    /**
+     * Gibt Speicher und temporäre Dateien frei, ohne die Zeilen zu liefern.
+     */
+    @Override
+    public void close() {
+        this.buffer.clear();
+        this.budget.release(this.bufferedBytes);
+        this.bufferedBytes = 0;
+        for (SpillFile run : this.runs) {
+            run.close();
+        }
+        this.runs.clear();
+    }
+
+    /**
+     * Liefert den Rang der Art eines Werts in der Reihenfolge von {@link #compareValues(Value, Value)}.
+     *
+     * @param value Wert
+     *
+     * @return Rang
+     */
+    private static int rank(Value value) {
+        if (value instanceof BooleanValue) {
+            return 1;
+        } else if (value instanceof DoubleValue) {
+            return 2;
+        } else if (value instanceof StringValue) {
+            return 3;
+        }
+        return 0;
+    }
+
+    /**
+     * Schreibt die Zeilen im Speicher sortiert als neuen Lauf und gibt ihren Speicher frei.
+     */
+    private void spill() {
+        if (this.buffer.isEmpty()) {
+            return;
+        }
+        this.buffer.sort(this.order);
+        SpillFile run = new SpillFile(this.budget);
+        this.runs.add(run);
+        for (List<Value> row : this.buffer) {
+            run.append(row);
+        }
+        this.buffer.clear();
+        this.budget.release(this.bufferedBytes);
+        this.bufferedBytes = 0;
+    }
+
+    /**
+     * Führt die übergebenen Läufe zusammen und schließt sie. Bei gleichen Zeilen wird die aus dem früheren Lauf zuerst
+     * geliefert.
+     *
+     * @param group  Läufe in der Reihenfolge, in der sie geschrieben wurden
+     * @param action Aktion, die für jede Zeile in sortierter Reihenfolge ausgeführt wird
+     */
+    private void merge(List<SpillFile> group, Consumer<List<Value>> action) {
+        List<SpillFile.Reader> readers = new ArrayList<>(group.size());
+        List<List<Value>> heads = new ArrayList<>(group.size());
+        Comparator<Integer> byHead = Comparator.<Integer, List<Value>>comparing(heads::get, this.order)
+                .thenComparing(Comparator.naturalOrder());
+        PriorityQueue<Integer> queue = new PriorityQueue<>(byHead);
+        for (int i = 0; i < group.size(); i++) {
+            readers.add(group.get(i).read());
+            heads.add(readers.get(i).next());
+            if (heads.get(i) != null) {
+                queue.add(i);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int run = queue.poll();
+            action.accept(heads.get(run));
+            heads.set(run, readers.get(run).next());
+            if (heads.get(run) != null) {
+                queue.add(run);
+            }
+        }
+        for (SpillFile file : group) {
+            file.close();
+        }
+        this.runs.removeAll(group);
+    }
+}
@@ -0,0 +1,285 @@
+package db.spill;
+
+import db.value.NullValue;
+import db.value.Value;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Hash Join mit begrenztem Speicher (Grace Hash Join).
+ * <p>
+ * Zuerst werden alle Zeilen der Build-Seite mit ihrem Join-Schlüssel übergeben ({@link #build(Value, List)}), danach
+ * die Zeilen der Probe-Seite ({@link #probe(Value, List, BiConsumer)}). Solange die Build-Seite in das
+ * {@link MemoryBudget} passt, liegt sie in einer Hashtabelle und jede Probe-Zeile wird sofort mit ihren Partnern
+ * geliefert. Reicht das Budget nicht, werden beide Seiten anhand des Hashwerts ihres Schlüssels auf
+ * {@link #NUM_OF_PARTITIONS} temporäre Dateien verteilt und erst in {@link #finish(BiConsumer)} partitionsweise
+ * verbunden. Passt auch eine Partition nicht in das Budget, wird sie anhand weiterer Bits des Hashwerts erneut
+ * aufgeteilt, höchstens {@link #MAX_DEPTH} Mal. Partitionen, deren Zeilen alle denselben Schlüssel haben, können
+ * nicht weiter aufgeteilt werden und werden zuletzt auch über das Budget hinaus im Speicher verbunden.
+ * <p>
+ * Schlüssel werden gemäß {@link Value#equals(Object)} verglichen, {@link NullValue#NULL} passt zu keinem Schlüssel.
+ * Solange nicht ausgelagert wurde, werden die Paare in der Reihenfolge der Probe-Zeilen geliefert, sonst
+ * partitionsweise.
+ */
+public final class GraceHashJoin implements AutoCloseable {
+
+    /**
+     * Anzahl der Partitionen, auf die eine Seite beim Auslagern verteilt wird
+     */
+    public static final int NUM_OF_PARTITIONS = 16;
+
+    /**
+     * Maximale Anzahl, wie oft eine Partition erneut aufgeteilt wird
+     */
+    public static final int MAX_DEPTH = 3;
+
+    /**
+     * Anzahl der Bits des Hashwerts, die eine Partition bestimmen
+     */
+    private static final int PARTITION_BITS = Integer.numberOfTrailingZeros(NUM_OF_PARTITIONS);
+
+    /**
+     * Multiplikator, der die Bits des Hashwerts eines Schlüssels verteilt
+     */
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    /**
+     * Budget für die Build-Seite im Speicher
+     */
+    private final MemoryBudget budget;
+
+    /**
+     * Anzahl der Aufteilungen, die zu diesem Join geführt haben
+     */
+    private final int depth;
+
+    /**
+     * Zeilen der Build-Seite nach ihrem Schlüssel, solange nicht ausgelagert wurde
+     */
+    private final Map<Value, List<List<Value>>> table;
+
+    /**
+     * Partitionen der Build-Seite oder null, solange nicht ausgelagert wurde
+     */
+    private SpillFile[] buildPartitions;
+
+    /**
+     * Partitionen der Probe-Seite oder null, solange nicht ausgelagert wurde
+     */
+    private SpillFile[] probePartitions;
+
+    /**
+     * Für die Hashtabelle reservierte Bytes
+     */
+    private long reservedBytes;
+
+    /**
+     * Konstruktor
+     *
+     * @param budget Budget für die Build-Seite im Speicher
+     *
+     * @pre budget != null
+     */
+    public GraceHashJoin(MemoryBudget budget) {
+        this(budget, 0);
+    }
+
+    /**
+     * Konstruktor für den Join einer Partition.
+     *
+     * @param budget Budget für die Build-Seite im Speicher
+     * @param depth  Anzahl der Aufteilungen, die zu diesem Join geführt haben
+     */
+    private GraceHashJoin(MemoryBudget budget, int depth) {
+        assert budget != null : "budget is null";
+        this.budget = budget;
+        this.depth = depth;
+        this.table = new HashMap<>();
+    }
+
+    /**
+     * Gibt an, ob die Build-Seite ausgelagert wurde.
+     *
+     * @return Angabe, ob ausgelagert wurde
+     */
+    public boolean isSpilled() {
+        return this.buildPartitions != null;
+    }
+
+    /**
+     * Fügt eine Zeile der Build-Seite hinzu.
+     *
+     * @param key Join-Schlüssel der Zeile
+     * @param row Zeile
+     *
+     * @pre key != null
+     * @pre row != null
+     * @pre Es wurde noch keine Zeile der Probe-Seite übergeben
+     */
+    public void build(Value key, List<Value> row) {
+        assert key != null : "key is null";
+        assert row != null : "row is null";
+        assert this.probePartitions == null : "probe already started";
+        if (key instanceof NullValue) {
+            return;
+        }
+        if (!this.isSpilled()) {
+            long size = MemoryBudget.estimateSize(row);
+            boolean reserved = this.budget.tryReserve(size);
+            if (!reserved && this.depth == MAX_DEPTH) {
+                this.budget.reserve(size);
+                reserved = true;
+            }
+            if (reserved) {
+                this.reservedBytes += size;
+                this.table.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+                return;
+            }
+            this.spillBuildSide();
+        }
+        this.buildPartitions[this.partitionOf(key)].append(keyed(key, row));
+    }
+
+    /**
+     * Verbindet eine Zeile der Probe-Seite mit allen Zeilen der Build-Seite mit gleichem Schlüssel. Wurde ausgelagert,
+     * wird die Zeile erst in {@link #finish(BiConsumer)} verbunden.
+     *
+     * @param key    Join-Schlüssel der Zeile
+     * @param row    Zeile
+     * @param action Aktion, die für jedes Paar aus Probe- und Build-Zeile ausgeführt wird
+     *
+     * @pre key != null
+     * @pre row != null
+     * @pre action != null
+     */
+    public void probe(Value key, List<Value> row, BiConsumer<List<Value>, List<Value>> action) {
+        assert key != null : "key is null";
+        assert row != null : "row is null";
+        assert action != null : "action is null";
+        if (key instanceof NullValue) {
+            return;
+        }
+        if (!this.isSpilled()) {
+            for (List<Value> match : this.table.getOrDefault(key, List.of())) {
+                action.accept(row, match);
+            }
+            return;
+        }
+        if (this.probePartitions == null) {
+            this.probePartitions = new SpillFile[NUM_OF_PARTITIONS];
+            for (int i = 0; i < NUM_OF_PARTITIONS; i++) {
+                this.probePartitions[i] = new SpillFile(this.budget);
+            }
+        }
+        this.probePartitions[this.partitionOf(key)].append(keyed(key, row));
+    }
+
+    /**
+     * Verbindet die ausgelagerten Partitionen und gibt danach Speicher und temporäre Dateien frei.
+     *
+     * @param action Aktion, die für jedes Paar aus Probe- und Build-Zeile ausgeführt wird
+     *
+     * @pre action != null
+     */
+    public void finish(BiConsumer<List<Value>, List<Value>> action) {
+        assert action != null : "action is null";
+        try {
+            if (this.probePartitions == null) {
+                return;
+            }
+            for (int i = 0; i < NUM_OF_PARTITIONS; i++) {
+                try (GraceHashJoin partition = new GraceHashJoin(this.budget, this.depth + 1)) {
+                    SpillFile.Reader build = this.buildPartitions[i].read();
+                    for (List<Value> row = build.next(); row != null; row = build.next()) {
+                        partition.build(row.remove(0), row);
+                    }
+                    this.buildPartitions[i].close();
+                    SpillFile.Reader probe = this.probePartitions[i].read();
+                    for (List<Value> row = probe.next(); row != null; row = probe.next()) {
+                        partition.probe(row.remove(0), row, action);
+                    }
+                    this.probePartitions[i].close();
+                    partition.finish(action);
+                }
+            }
+        } finally {
+            this.close();
+        }
+    }
+
+    /**
+     * Gibt Speicher und temporäre Dateien frei.
+     */
+    @Override
+    public void close() {
+        this.table.clear();
+        this.budget.release(this.reservedBytes);
+        this.reservedBytes = 0;
+        closeAll(this.buildPartitions);
+        closeAll(this.probePartitions);
+    }
+
+    /**
+     * Verteilt die Hashtabelle auf die Partitionen der Build-Seite und gibt ihren Speicher frei.
+     */
+    private void spillBuildSide() {
+        this.buildPartitions = new SpillFile[NUM_OF_PARTITIONS];
+        for (int i = 0; i < NUM_OF_PARTITIONS; i++) {
+            this.buildPartitions[i] = new SpillFile(this.budget);
+        }
+        for (Map.Entry<Value, List<List<Value>>> entry : this.table.entrySet()) {
+            SpillFile partition = this.buildPartitions[this.partitionOf(entry.getKey())];
+            for (List<Value> row : entry.getValue()) {
+                partition.append(keyed(entry.getKey(), row));
+            }
+        }
+        this.table.clear();
+        this.budget.release(this.reservedBytes);
+        this.reservedBytes = 0;
+    }
+
+    /**
+     * Liefert die Partition eines Schlüssels. Jede Aufteilungsebene verwendet andere Bits des Hashwerts.
+     *
+     * @param key Schlüssel
+     *
+     * @return Nummer der Partition
+     */
+    private int partitionOf(Value key) {
+        int hash = key.hashCode();
+        int mixed = (hash ^ (hash >>> Short.SIZE)) * HASH_MULTIPLIER;
+        return (mixed >>> (Integer.SIZE - PARTITION_BITS * (this.depth + 1))) & (NUM_OF_PARTITIONS - 1);
+    }
+
+    /**
+     * Liefert eine neue Zeile mit dem Schlüssel vor den Werten der übergebenen Zeile.
+     *
+     * @param key Schlüssel
+     * @param row Zeile
+     *
+     * @return Zeile mit Schlüssel
+     */
+    private static List<Value> keyed(Value key, List<Value> row) {
+        List<Value> keyed = new ArrayList<>(row.size() + 1);
+        keyed.add(key);
+        keyed.addAll(row);
+        return keyed;
+    }
+
+    /**
+     * Schließt alle übergebenen Dateien.
+     *
+     * @param files Dateien oder null
+     */
+    private static void closeAll(SpillFile[] files) {
+        if (files != null) {
+            for (SpillFile file : files) {
+                file.close();
+            }
+        }
+    }
+}
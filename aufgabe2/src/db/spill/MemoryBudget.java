@@ -0,0 +1,207 @@
+package db.spill;
+
+import db.storage.Column;
+import db.value.Value;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Speicherbudget für Operatoren, die ihre Zwischenergebnisse auf die Festplatte auslagern können
+ * ({@link ExternalSort}, {@link GraceHashJoin}).
+ * <p>
+ * Operatoren reservieren für jede Zeile, die sie im Speicher halten, deren geschätzte Größe
+ * ({@link #estimateSize(List)}). Passt eine Zeile nicht mehr in das Budget, lagern sie Zeilen in temporäre Dateien im
+ * angegebenen Verzeichnis aus und geben den Speicher wieder frei. Mehrere Operatoren dürfen sich ein Budget teilen,
+ * auch aus verschiedenen Threads.
+ */
+public final class MemoryBudget {
+
+    /**
+     * Geschätzte Größe einer Zeile ohne ihre Werte in Bytes (Liste und Array)
+     */
+    private static final int ROW_OVERHEAD = 56;
+
+    /**
+     * Maximale Anzahl Bytes, die gleichzeitig reserviert sein dürfen
+     */
+    private final long maxBytes;
+
+    /**
+     * Verzeichnis für temporäre Dateien
+     */
+    private final Path tempDirectory;
+
+    /**
+     * Aktuell reservierte Bytes
+     */
+    private long usedBytes;
+
+    /**
+     * Höchste Anzahl gleichzeitig reservierter Bytes
+     */
+    private long peakBytes;
+
+    /**
+     * Anzahl aller ausgelagerten Bytes
+     */
+    private long spilledBytes;
+
+    /**
+     * Anzahl aller angelegten temporären Dateien
+     */
+    private int numOfSpillFiles;
+
+    /**
+     * Konstruktor für ein Budget, das temporäre Dateien im Standardverzeichnis (java.io.tmpdir) anlegt.
+     *
+     * @param maxBytes maximale Anzahl Bytes, die gleichzeitig reserviert sein dürfen
+     *
+     * @pre maxBytes &gt; 0
+     */
+    public MemoryBudget(long maxBytes) {
+        this(maxBytes, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Konstruktor
+     *
+     * @param maxBytes      maximale Anzahl Bytes, die gleichzeitig reserviert sein dürfen
+     * @param tempDirectory existierendes Verzeichnis für temporäre Dateien
+     *
+     * @pre maxBytes &gt; 0
+     * @pre tempDirectory != null
+     */
+    public MemoryBudget(long maxBytes, Path tempDirectory) {
+        assert maxBytes > 0 : "maxBytes must be positive";
+        assert tempDirectory != null : "tempDirectory is null";
+        this.maxBytes = maxBytes;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Schätzt den Speicherbedarf einer Zeile auf dem Java-Heap.
+     *
+     * @param row Zeile
+     *
+     * @return geschätzte Größe in Bytes
+     *
+     * @pre row != null
+     */
+    public static long estimateSize(List<Value> row) {
+        assert row != null : "row is null";
+        long size = ROW_OVERHEAD;
+        for (Value value : row) {
+            size += Column.estimateSize(value);
+        }
+        return size;
+    }
+
+    /**
+     * Liefert die maximale Anzahl Bytes, die gleichzeitig reserviert sein dürfen.
+     *
+     * @return Budget in Bytes
+     */
+    public long getMaxBytes() {
+        return this.maxBytes;
+    }
+
+    /**
+     * Liefert das Verzeichnis für temporäre Dateien.
+     *
+     * @return Verzeichnis
+     */
+    public Path getTempDirectory() {
+        return this.tempDirectory;
+    }
+
+    /**
+     * Liefert die Anzahl der aktuell reservierten Bytes.
+     *
+     * @return reservierte Bytes
+     */
+    public synchronized long getUsedBytes() {
+        return this.usedBytes;
+    }
+
+    /**
+     * Liefert die höchste Anzahl gleichzeitig reservierter Bytes.
+     *
+     * @return höchste Anzahl reservierter Bytes
+     */
+    public synchronized long getPeakBytes() {
+        return this.peakBytes;
+    }
+
+    /**
+     * Liefert die Anzahl aller Bytes, die in temporäre Dateien ausgelagert wurden.
+     *
+     * @return ausgelagerte Bytes
+     */
+    public synchronized long getSpilledBytes() {
+        return this.spilledBytes;
+    }
+
+    /**
+     * Liefert die Anzahl aller temporären Dateien, die angelegt wurden.
+     *
+     * @return Anzahl der temporären Dateien
+     */
+    public synchronized int getNumOfSpillFiles() {
+        return this.numOfSpillFiles;
+    }
+
+    /**
+     * Reserviert die übergebene Anzahl Bytes, sofern sie noch in das Budget passt.
+     *
+     * @param bytes Anzahl Bytes
+     *
+     * @return Angabe, ob die Bytes reserviert wurden
+     *
+     * @pre bytes &gt;= 0
+     */
+    public synchronized boolean tryReserve(long bytes) {
+        assert bytes >= 0 : "bytes must not be negative";
+        if (this.usedBytes + bytes > this.maxBytes) {
+            return false;
+        }
+        this.reserve(bytes);
+        return true;
+    }
+
+    /**
+     * Reserviert die übergebene Anzahl Bytes auch über das Budget hinaus, etwa für eine einzelne Zeile, die größer als
+     * das ganze Budget ist.
+     *
+     * @param bytes Anzahl Bytes
+     *
+     * @pre bytes &gt;= 0
+     */
+    public synchronized void reserve(long bytes) {
+        assert bytes >= 0 : "bytes must not be negative";
+        this.usedBytes += bytes;
+        this.peakBytes = Math.max(this.peakBytes, this.usedBytes);
+    }
+
+    /**
+     * Gibt reservierte Bytes wieder frei.
+     *
+     * @param bytes Anzahl Bytes
+     *
+     * @pre 0 &lt;= bytes &lt;= getUsedBytes()
+     */
+    public synchronized void release(long bytes) {
+        assert bytes >= 0 && bytes <= this.usedBytes : "bytes out of range";
+        this.usedBytes -= bytes;
+    }
+
+    /**
+     * Vermerkt eine temporäre Datei mit der übergebenen Größe.
+     *
+     * @param bytes Größe der Datei in Bytes
+     */
+    synchronized void recordSpill(long bytes) {
+        this.spilledBytes += bytes;
+        this.numOfSpillFiles++;
+    }
+}
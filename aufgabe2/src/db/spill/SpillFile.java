@@ -0,0 +1,182 @@
+package db.spill;
+
+import db.storage.ValueCodec;
+import db.value.Value;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Temporäre Datei, in die Zeilen nacheinander geschrieben und danach in derselben Reihenfolge wieder gelesen werden.
+ * <p>
+ * Die Datei wird über einen {@link FileChannel} mit gepufferten Strömen beschrieben und gelesen und beim Schließen
+ * gelöscht. Die Zeilen werden gemäß {@link ValueCodec} dargestellt.
+ */
+final class SpillFile implements AutoCloseable {
+
+    /**
+     * Größe der Puffer zum Schreiben und Lesen in Bytes
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Budget, in dem die Größe der Datei vermerkt wird
+     */
+    private final MemoryBudget budget;
+
+    /**
+     * Kanal der Datei
+     */
+    private final FileChannel channel;
+
+    /**
+     * Ausgabe, solange geschrieben wird, sonst null
+     */
+    private DataOutputStream out;
+
+    /**
+     * Anzahl der geschriebenen Zeilen
+     */
+    private long numOfRows;
+
+    /**
+     * Konstruktor. Legt eine leere temporäre Datei im Verzeichnis des Budgets an.
+     *
+     * @param budget Budget, in dem die Größe der Datei vermerkt wird
+     *
+     * @throws UncheckedIOException wenn die Datei nicht angelegt werden kann
+     */
+    SpillFile(MemoryBudget budget) {
+        this.budget = budget;
+        try {
+            this.channel = FileChannel.open(Files.createTempFile(budget.getTempDirectory(), "spill", ".rows"),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(this.channel),
+                BUFFER_SIZE));
+    }
+
+    /**
+     * Liefert die Anzahl der geschriebenen Zeilen.
+     *
+     * @return Anzahl der Zeilen
+     */
+    long getNumOfRows() {
+        return this.numOfRows;
+    }
+
+    /**
+     * Hängt eine Zeile an.
+     *
+     * @param row Zeile
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Schreiben
+     *
+     * @pre Es wurde noch nicht gelesen
+     */
+    void append(List<Value> row) {
+        assert this.out != null : "file already read";
+        try {
+            ValueCodec.writeRow(this.out, row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.numOfRows++;
+    }
+
+    /**
+     * Beendet das Schreiben und liest alle Zeilen in der Reihenfolge, in der sie geschrieben wurden. Die Datei kann
+     * danach nicht mehr beschrieben werden.
+     *
+     * @return Leser für die Zeilen
+     *
+     * @throws UncheckedIOException bei einem Fehler beim Schreiben
+     */
+    Reader read() {
+        try {
+            if (this.out != null) {
+                this.out.flush();
+                this.out = null;
+                this.budget.recordSpill(this.channel.size());
+            }
+            this.channel.position(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Reader(new DataInputStream(new BufferedInputStream(Channels.newInputStream(this.channel),
+                BUFFER_SIZE)), this.numOfRows);
+    }
+
+    /**
+     * Schließt und löscht die Datei.
+     */
+    @Override
+    public void close() {
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Liest die Zeilen einer {@link SpillFile} nacheinander.
+     */
+    static final class Reader {
+
+        /**
+         * Eingabe
+         */
+        private final DataInputStream in;
+
+        /**
+         * Anzahl der noch nicht gelesenen Zeilen
+         */
+        private long remaining;
+
+        /**
+         * Konstruktor
+         *
+         * @param in        Eingabe am Anfang der Datei
+         * @param numOfRows Anzahl der Zeilen in der Datei
+         */
+        private Reader(DataInputStream in, long numOfRows) {
+            this.in = in;
+            this.remaining = numOfRows;
+        }
+
+        /**
+         * Liest die nächste Zeile.
+         *
+         * @return nächste Zeile oder null, wenn alle Zeilen gelesen wurden
+         *
+         * @throws UncheckedIOException bei einem Fehler beim Lesen
+         */
+        List<Value> next() {
+            if (this.remaining == 0) {
+                return null;
+            }
+            try {
+                List<Value> row = ValueCodec.readRow(this.in);
+                this.remaining--;
+                return row;
+            } catch (EOFException e) {
+                throw new UncheckedIOException("spill file truncated", e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package db.storage;
+
+import db.value.StringValue;
+import db.value.Value;
+
+import java.util.BitSet;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Diese Klasse repräsentiert die Werte einer Spalte einer Datenbanktabelle.
+ * <p>
+ * Die Werte werden über ihren Zeilenplatz (Slot) angesprochen. Die Slots einer Spalte sind lückenlos von 0 bis
+ * {@link #size()} - 1 belegt und entsprechen der Reihenfolge, in der die Zeilen angehängt wurden. Alle Spalten einer
+ * Tabelle haben stets dieselbe Größe.
+ * <p>
+ * Unterklassen dürfen ihre Werte beliebig kodiert ablegen. Sie müssen lediglich beim Lesen gleiche (gemäß
+ * {@link Value#equals(Object)}) Werte liefern, die vorher gespeichert wurden.
+ */
+public abstract class Column {
+
+    /**
+     * Anzahl der geprüften Slots, nach denen eine abbrechbare Auswertung jeweils prüft, ob sie abgebrochen wurde
+     */
+    public static final int CANCELLATION_CHECK_INTERVAL = 4096;
+
+    /**
+     * Geschätzte Größe eines Objekt- oder Array-Kopfs in Bytes
+     */
+    static final int HEADER_BYTES = 16;
+
+    /**
+     * Geschätzte Größe einer Referenz in Bytes
+     */
+    static final int REFERENCE_BYTES = Integer.BYTES;
+
+    /**
+     * Geschätzte Größe eines Eintrags einer {@link java.util.HashMap} mit Integer-Wert in Bytes, ohne den Schlüssel
+     */
+    static final int MAP_ENTRY_BYTES = 48;
+
+    /**
+     * Geschätzte Größe eines Werts ohne Zeichenkette in Bytes
+     */
+    private static final int VALUE_BYTES = 24;
+
+    /**
+     * Geschätzte Größe einer Zeichenkette ohne ihre Zeichen in Bytes
+     */
+    private static final int STRING_BYTES = 40;
+
+    /**
+     * Erzeugt eine leere Spalte, deren Darstellung zum Typ des übergebenen Werts passt.
+     *
+     * @param value erster Wert, der in der Spalte gespeichert werden soll
+     *
+     * @return leere Spalte, die den Wert aufnehmen kann
+     */
+    public static Column forValue(Value value) {
+        StringColumn stringColumn = new StringColumn();
+        if (stringColumn.accepts(value)) {
+            return stringColumn;
+        }
+        DoubleColumn doubleColumn = new DoubleColumn();
+        return doubleColumn.accepts(value) ? doubleColumn : new ValueColumn();
+    }
+
+    /**
+     * Schätzt den Speicherbedarf eines Werts auf dem Java-Heap.
+     *
+     * @param value Wert
+     *
+     * @return geschätzte Größe in Bytes
+     *
+     * @pre value != null
+     */
+    public static long estimateSize(Value value) {
+        assert value != null : "value is null";
+        return value instanceof StringValue ? VALUE_BYTES + estimateSize(value.getAsString()) : VALUE_BYTES;
+    }
+
+    /**
+     * Schätzt den Speicherbedarf einer Zeichenkette auf dem Java-Heap.
+     *
+     * @param string Zeichenkette
+     *
+     * @return geschätzte Größe in Bytes
+     */
+    static long estimateSize(String string) {
+        return STRING_BYTES + (long) Character.BYTES * string.length();
+    }
+
+    /**
+     * Liefert die Anzahl der belegten Slots dieser Spalte.
+     *
+     * @return Anzahl der belegten Slots
+     */
+    public abstract int size();
+
+    /**
+     * Liefert den Wert im übergebenen Slot.
+     *
+     * @param slot Slot
+     *
+     * @return Wert im Slot
+     *
+     * @pre 0 &lt;= slot &lt; size()
+     */
+    public abstract Value get(int slot);
+
+    /**
+     * Gibt an, ob diese Spalte den übergebenen Wert in ihrer Darstellung speichern kann.
+     *
+     * @param value Wert
+     *
+     * @return Angabe, ob der Wert gespeichert werden kann
+     */
+    public abstract boolean accepts(Value value);
+
+    /**
+     * Hängt den übergebenen Wert in einem neuen Slot an.
+     *
+     * @param value Wert
+     *
+     * @pre accepts(value)
+     */
+    public abstract void append(Value value);
+
+    /**
+     * Ersetzt den Wert im übergebenen Slot.
+     *
+     * @param slot  Slot
+     * @param value neuer Wert
+     *
+     * @pre 0 &lt;= slot &lt; size()
+     * @pre accepts(value)
+     */
+    public abstract void set(int slot, Value value);
+
+    /**
+     * Behält nur die Slots, die in keep gesetzt sind, und schiebt sie unter Beibehaltung ihrer Reihenfolge lückenlos
+     * an den Anfang.
+     *
+     * @param keep Slots, die erhalten bleiben
+     *
+     * @pre keep != null
+     */
+    public abstract void compact(BitSet keep);
+
+    /**
+     * Entfernt alle Werte aus dieser Spalte.
+     *
+     * @post size() == 0
+     */
+    public abstract void clear();
+
+    /**
+     * Liefert den geschätzten Speicherbedarf dieser Spalte in Bytes, einschließlich reservierter, aber unbelegter
+     * Kapazität und des Speichers außerhalb des Java-Heaps.
+     * <p>
+     * Diese Methode arbeitet in O(1).
+     *
+     * @return Speicherbedarf in Bytes
+     */
+    public abstract long getSizeInBytes();
+
+    /**
+     * Gibt nicht benötigte Kapazität frei, etwa nachdem viele Slots entfernt wurden.
+     */
+    public void trimToSize() {
+    }
+
+    /**
+     * Liefert die Zeichenkettendarstellung des Werts im übergebenen Slot, ohne zwingend ein {@link Value}-Objekt zu
+     * erzeugen.
+     *
+     * @param slot Slot
+     *
+     * @return Zeichenkettendarstellung gemäß {@link Value#toString()}
+     *
+     * @pre 0 &lt;= slot &lt; size()
+     */
+    public String getAsDisplayString(int slot) {
+        return this.get(slot).toString();
+    }
+
+    /**
+     * Liefert den Wert im übergebenen Slot als Gleitkommazahl, ohne zwingend ein {@link Value}-Objekt zu erzeugen.
+     *
+     * @param slot Slot
+     *
+     * @return Wert gemäß {@link Value#getAsDouble()}
+     *
+     * @pre 0 &lt;= slot &lt; size()
+     */
+    public double getAsDouble(int slot) {
+        return this.get(slot).getAsDouble();
+    }
+
+    /**
+     * Gibt an, ob {@link #match(Predicate, BitSet)} Bedingungen effizienter auswertet als ein zeilenweiser Zugriff
+     * über {@link #get(int)}, etwa weil jede Bedingung nur einmal pro unterschiedlichem Wert geprüft wird.
+     *
+     * @return Angabe, ob Bedingungen spaltenweise ausgewertet werden sollen
+     */
+    public boolean prefersColumnarMatch() {
+        return false;
+    }
+
+    /**
+     * Liefert die Slots aus candidates, deren Wert die übergebene Bedingung erfüllt. Die Bedingung wird dabei nur für
+     * Werte aus candidates ausgewertet.
+     *
+     * @param predicate  Bedingung
+     * @param candidates Slots, die geprüft werden
+     *
+     * @return neue Menge der Slots, deren Wert die Bedingung erfüllt
+     *
+     * @pre predicate != null
+     * @pre candidates != null
+     */
+    public final BitSet match(Predicate<Value> predicate, BitSet candidates) {
+        return this.match(predicate, candidates, () -> false);
+    }
+
+    /**
+     * Liefert die Slots aus candidates, deren Wert die übergebene Bedingung erfüllt, wie
+     * {@link #match(Predicate, BitSet)} und bricht ab, sobald cancelled true liefert. Geprüft wird nach jeweils
+     * {@link #CANCELLATION_CHECK_INTERVAL} Slots aus candidates.
+     *
+     * @param predicate  Bedingung
+     * @param candidates Slots, die geprüft werden
+     * @param cancelled  Angabe, ob die Auswertung abgebrochen wurde
+     *
+     * @return neue Menge der Slots, deren Wert die Bedingung erfüllt
+     *
+     * @throws CancellationException wenn die Auswertung abgebrochen wurde
+     *
+     * @pre predicate != null
+     * @pre candidates != null
+     * @pre cancelled != null
+     */
+    public BitSet match(Predicate<Value> predicate, BitSet candidates, BooleanSupplier cancelled) {
+        assert predicate != null : "predicate is null";
+        assert candidates != null : "candidates is null";
+        assert cancelled != null : "cancelled is null";
+
+        BitSet result = new BitSet(this.size());
+        int checked = 0;
+        for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+            checked++;
+            if (checked % CANCELLATION_CHECK_INTERVAL == 0) {
+                checkCancelled(cancelled);
+            }
+            if (predicate.test(this.get(slot))) {
+                result.set(slot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liefert eine unabhängige Spalte mit denselben Werten, etwa bevor eine Spalte geändert wird, die sich mehrere
+     * Tabellen teilen. Die Standardimplementierung kopiert die Werte in eine {@link ValueColumn}, Unterklassen
+     * behalten ihre Darstellung bei.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der belegten Slots und f(N) = N.
+     *
+     * @return neue Spalte mit denselben Werten
+     */
+    public Column copy() {
+        ValueColumn column = new ValueColumn();
+        for (int slot = 0; slot < this.size(); slot++) {
+            column.append(this.get(slot));
+        }
+        return column;
+    }
+
+    /**
+     * Liefert eine Spalte mit denselben Werten, die jeden beliebigen Wert speichern kann.
+     *
+     * @return Spalte, deren {@link #accepts(Value)} für jeden Wert true liefert
+     */
+    public Column toValueColumn() {
+        ValueColumn column = new ValueColumn();
+        for (int slot = 0; slot < this.size(); slot++) {
+            column.append(this.get(slot));
+        }
+        return column;
+    }
+
+    /**
+     * Bricht eine Operation ab, wenn cancelled true liefert.
+     *
+     * @param cancelled Angabe, ob die Operation abgebrochen wurde
+     *
+     * @throws CancellationException wenn die Operation abgebrochen wurde
+     */
+    public static void checkCancelled(BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("operation cancelled");
+        }
+    }
+}
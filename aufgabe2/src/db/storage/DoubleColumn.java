@@ -0,0 +1,205 @@
+package db.storage;
+
+import db.predicate.DoubleBetweenPredicate;
+import db.predicate.DoubleGreaterThanPredicate;
+import db.predicate.DoubleInPredicate;
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import db.value.DoubleValue;
+import db.value.Value;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Spalte, die ausschließlich {@link DoubleValue}s speichert und diese als zusammenhängendes double-Array ablegt.
+ * <p>
+ * Vergleiche mit {@link DoubleGreaterThanPredicate}, {@link DoubleLessThanPredicate}, {@link EqualsPredicate},
+ * {@link DoubleBetweenPredicate} und {@link DoubleInPredicate} werden ohne {@link DoubleValue}-Objekte über das ganze
+ * Array ausgeführt und liefern direkt eine Bitmap. Wurde die vektorisierte Implementierung übersetzt
+ * ({@code ant -Dvector=true}) und ist das Modul jdk.incubator.vector verfügbar, verwenden diese Vergleiche
+ * SIMD-Befehle, sonst eine skalare Schleife ohne wertabhängige Verzweigungen.
+ */
+public final class DoubleColumn extends Column {
+
+    /**
+     * Verschiebung, die eine Position in den Index ihres 64-Bit-Worts umrechnet
+     */
+    static final int WORD_SHIFT = 6;
+
+    /**
+     * Anfangskapazität des Werte-Arrays
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Mindestverhältnis von Zeilen zu Kandidaten, ab dem Kandidaten einzeln statt das ganze Array geprüft werden
+     */
+    private static final int SPARSE_RATIO = 64;
+
+    /**
+     * Implementierung der Vergleichsoperationen
+     */
+    private static final DoubleKernel KERNEL = DoubleKernel.create();
+
+    /**
+     * Werte, nur die ersten size Einträge sind belegt
+     */
+    private double[] values;
+
+    /**
+     * Anzahl der belegten Slots
+     */
+    private int size;
+
+    /**
+     * Konstruktor
+     */
+    public DoubleColumn() {
+        this.values = new double[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Gibt an, ob Vergleiche mit SIMD-Befehlen ausgeführt werden.
+     *
+     * @return Angabe, ob die vektorisierte Implementierung verwendet wird
+     */
+    public static boolean isVectorized() {
+        return !(KERNEL instanceof ScalarDoubleKernel);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Value get(int slot) {
+        return new DoubleValue(this.getAsDouble(slot));
+    }
+
+    @Override
+    public double getAsDouble(int slot) {
+        assert slot >= 0 && slot < this.size : "slot out of range";
+        return this.values[slot];
+    }
+
+    @Override
+    public boolean accepts(Value value) {
+        return value != null && value.getClass() == DoubleValue.class;
+    }
+
+    @Override
+    public void append(Value value) {
+        assert this.accepts(value) : "value not accepted";
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.values.length * 2);
+        }
+        this.values[this.size++] = value.getAsDouble();
+    }
+
+    @Override
+    public void set(int slot, Value value) {
+        assert slot >= 0 && slot < this.size : "slot out of range";
+        assert this.accepts(value) : "value not accepted";
+        this.values[slot] = value.getAsDouble();
+    }
+
+    @Override
+    public void compact(BitSet keep) {
+        assert keep != null : "keep is null";
+        int target = 0;
+        for (int slot = keep.nextSetBit(0); slot >= 0 && slot < this.size; slot = keep.nextSetBit(slot + 1)) {
+            this.values[target++] = this.values[slot];
+        }
+        this.size = target;
+    }
+
+    @Override
+    public void clear() {
+        this.size = 0;
+    }
+
+    @Override
+    public void trimToSize() {
+        this.values = Arrays.copyOf(this.values, Math.max(this.size, INITIAL_CAPACITY));
+    }
+
+    @Override
+    public Column copy() {
+        DoubleColumn copy = new DoubleColumn();
+        copy.values = Arrays.copyOf(this.values, this.values.length);
+        copy.size = this.size;
+        return copy;
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return HEADER_BYTES + (long) Double.BYTES * this.values.length;
+    }
+
+    @Override
+    public boolean prefersColumnarMatch() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Werden die meisten Slots geprüft, vergleicht diese Methode alle Zahlen der Spalte in einem Durchlauf. Ob
+     * abgebrochen wurde, wird dann nur davor geprüft.
+     */
+    @Override
+    public BitSet match(Predicate<Value> predicate, BitSet candidates, BooleanSupplier cancelled) {
+        assert predicate != null : "predicate is null";
+        assert candidates != null : "candidates is null";
+        assert cancelled != null : "cancelled is null";
+
+        if (candidates.isEmpty() || (long) candidates.cardinality() * SPARSE_RATIO < this.size) {
+            return super.match(predicate, candidates, cancelled);
+        }
+        checkCancelled(cancelled);
+        long[] words = new long[(this.size + Long.SIZE - 1) >>> WORD_SHIFT];
+        if (!this.select(predicate, words)) {
+            return super.match(predicate, candidates, cancelled);
+        }
+        BitSet result = BitSet.valueOf(words);
+        result.and(candidates);
+        return result;
+    }
+
+    /**
+     * Markiert alle Slots, deren Wert die übergebene Bedingung erfüllt, sofern sie direkt auf den Zahlen ausgewertet
+     * werden kann.
+     *
+     * @param predicate Bedingung
+     * @param words     Bitmap für alle Slots
+     *
+     * @return Angabe, ob die Bedingung ausgewertet wurde
+     */
+    private boolean select(Predicate<Value> predicate, long[] words) {
+        Class<?> type = predicate.getClass();
+        if (type == DoubleGreaterThanPredicate.class) {
+            KERNEL.greaterThan(this.values, this.size, ((DoubleGreaterThanPredicate) predicate).getCompareValue(),
+                    words);
+        } else if (type == DoubleLessThanPredicate.class) {
+            KERNEL.lessThan(this.values, this.size, ((DoubleLessThanPredicate) predicate).getCompareValue(), words);
+        } else if (type == EqualsPredicate.class) {
+            Value compareValue = ((EqualsPredicate) predicate).getCompareValue();
+            if (compareValue instanceof DoubleValue) {
+                KERNEL.equalTo(this.values, this.size, compareValue.getAsDouble(), words);
+            }
+        } else if (type == DoubleBetweenPredicate.class) {
+            DoubleBetweenPredicate between = (DoubleBetweenPredicate) predicate;
+            KERNEL.between(this.values, this.size, between.getLowerBound(), between.getUpperBound(), words);
+        } else if (type == DoubleInPredicate.class) {
+            KERNEL.in(this.values, this.size, ((DoubleInPredicate) predicate).getCompareValues(), words);
+        } else {
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,82 @@
+package db.storage;
+
+/**
+ * Vergleichsoperationen auf einem zusammenhängenden double-Array, die ihr Ergebnis als Bitmap liefern.
+ * <p>
+ * Alle Operationen setzen in words das Bit i (Bit i % 64 von words[i / 64]) für jede Position i &lt; size, deren Wert
+ * die Bedingung erfüllt. Bereits gesetzte Bits bleiben erhalten. Verglichen wird wie in Java mit primitiven doubles,
+ * NaN erfüllt also keine Bedingung.
+ */
+interface DoubleKernel {
+
+    /**
+     * Name der Klasse mit der vektorisierten Implementierung, die nur mit dem Modul jdk.incubator.vector übersetzt
+     * wird
+     */
+    String VECTOR_KERNEL = "db.storage.VectorDoubleKernel";
+
+    /**
+     * Liefert die vektorisierte Implementierung, sofern sie übersetzt wurde und das Modul jdk.incubator.vector zur
+     * Laufzeit verfügbar ist, sonst die skalare Implementierung.
+     *
+     * @return Implementierung der Vergleichsoperationen
+     */
+    static DoubleKernel create() {
+        try {
+            return (DoubleKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarDoubleKernel();
+        }
+    }
+
+    /**
+     * Markiert alle Werte größer als bound.
+     *
+     * @param values Werte
+     * @param size   Anzahl der belegten Werte
+     * @param bound  Vergleichswert
+     * @param words  Bitmap mit mindestens (size + 63) / 64 Wörtern
+     */
+    void greaterThan(double[] values, int size, double bound, long[] words);
+
+    /**
+     * Markiert alle Werte kleiner als bound.
+     *
+     * @param values Werte
+     * @param size   Anzahl der belegten Werte
+     * @param bound  Vergleichswert
+     * @param words  Bitmap mit mindestens (size + 63) / 64 Wörtern
+     */
+    void lessThan(double[] values, int size, double bound, long[] words);
+
+    /**
+     * Markiert alle Werte gleich value.
+     *
+     * @param values Werte
+     * @param size   Anzahl der belegten Werte
+     * @param value  Vergleichswert
+     * @param words  Bitmap mit mindestens (size + 63) / 64 Wörtern
+     */
+    void equalTo(double[] values, int size, double value, long[] words);
+
+    /**
+     * Markiert alle Werte zwischen lower und upper (jeweils einschließlich).
+     *
+     * @param values Werte
+     * @param size   Anzahl der belegten Werte
+     * @param lower  untere Grenze
+     * @param upper  obere Grenze
+     * @param words  Bitmap mit mindestens (size + 63) / 64 Wörtern
+     */
+    void between(double[] values, int size, double lower, double upper, long[] words);
+
+    /**
+     * Markiert alle Werte, die einem der Vergleichswerte gleich sind.
+     *
+     * @param values        Werte
+     * @param size          Anzahl der belegten Werte
+     * @param compareValues Vergleichswerte
+     * @param words         Bitmap mit mindestens (size + 63) / 64 Wörtern
+     */
+    void in(double[] values, int size, double[] compareValues, long[] words);
+}
@@ -0,0 +1,395 @@
+package db.storage;
+
+import db.index.BloomFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unveränderliches, sortiertes Wörterbuch für Zeichenketten mit Präfixkompression (Front Coding).
+ * <p>
+ * Die Zeichenketten werden UTF-8-kodiert und nach ihren Bytes (vorzeichenlos) sortiert in Blöcken zu
+ * {@link #BLOCK_SIZE} Einträgen abgelegt. Der erste Eintrag eines Blocks wird vollständig gespeichert, jeder weitere
+ * nur als Länge des gemeinsamen Präfixes mit seinem Vorgänger und dem restlichen Suffix. Der Code einer Zeichenkette
+ * ist ihre Position in der Sortierung. Ein {@link BloomFilter} über die Einträge beantwortet die meisten Suchen nach
+ * fehlenden Zeichenketten, etwa beim Anhängen neuer Werte, ohne Blöcke zu lesen.
+ */
+final class FrontCodedDictionary {
+
+    /**
+     * Anzahl der Einträge pro Block
+     */
+    static final int BLOCK_SIZE = 16;
+
+    /**
+     * Bits mit Nutzdaten pro Byte einer variabel langen Zahl
+     */
+    private static final int VARINT_SHIFT = 7;
+
+    /**
+     * Maske der Nutzdaten eines Bytes einer variabel langen Zahl
+     */
+    private static final int VARINT_MASK = 0x7F;
+
+    /**
+     * Markierung für ein folgendes Byte einer variabel langen Zahl
+     */
+    private static final int VARINT_CONTINUE = 0x80;
+
+    /**
+     * Kodierte Blöcke
+     */
+    private final byte[] data;
+
+    /**
+     * Startposition jedes Blocks in data
+     */
+    private final int[] blockOffsets;
+
+    /**
+     * Anzahl der Einträge
+     */
+    private final int size;
+
+    /**
+     * Länge des längsten Eintrags in Bytes
+     */
+    private final int maxLength;
+
+    /**
+     * Bloom-Filter über die Hashwerte aller Einträge, der die meisten Suchen nach fehlenden Zeichenketten beantwortet,
+     * ohne Blöcke zu lesen
+     */
+    private final BloomFilter filter;
+
+    /**
+     * Konstruktor
+     *
+     * @param values Zeichenketten, die aufgenommen werden sollen (ohne Duplikate)
+     * @param codes  Array, in das an Position i der Code von values.get(i) geschrieben wird
+     *
+     * @pre values != null
+     * @pre codes != null
+     * @pre codes.length &gt;= values.size()
+     */
+    FrontCodedDictionary(List<String> values, int[] codes) {
+        assert values != null : "values is null";
+        assert codes != null : "codes is null";
+        assert codes.length >= values.size() : "codes too short";
+
+        byte[][] unsorted = new byte[values.size()][];
+        Integer[] order = new Integer[values.size()];
+        int longest = 0;
+        this.filter = new BloomFilter(Math.max(values.size(), 1));
+        for (int i = 0; i < unsorted.length; i++) {
+            this.filter.addHash(values.get(i).hashCode());
+            unsorted[i] = values.get(i).getBytes(StandardCharsets.UTF_8);
+            order[i] = i;
+            longest = Math.max(longest, unsorted[i].length);
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(unsorted[a], unsorted[b]));
+        byte[][] encoded = new byte[unsorted.length][];
+        for (int code = 0; code < order.length; code++) {
+            encoded[code] = unsorted[order[code]];
+            codes[order[code]] = code;
+        }
+
+        this.size = encoded.length;
+        this.maxLength = longest;
+        this.blockOffsets = new int[(this.size + BLOCK_SIZE - 1) / BLOCK_SIZE];
+
+        ByteSink sink = new ByteSink();
+        for (int i = 0; i < this.size; i++) {
+            if (i % BLOCK_SIZE == 0) {
+                this.blockOffsets[i / BLOCK_SIZE] = sink.length;
+                sink.writeVarint(encoded[i].length);
+                sink.write(encoded[i], 0, encoded[i].length);
+            } else {
+                int prefix = Arrays.mismatch(encoded[i - 1], encoded[i]);
+                assert prefix >= 0 : "duplicate value";
+                sink.writeVarint(prefix);
+                sink.writeVarint(encoded[i].length - prefix);
+                sink.write(encoded[i], prefix, encoded[i].length - prefix);
+            }
+        }
+        this.data = Arrays.copyOf(sink.bytes, sink.length);
+    }
+
+    /**
+     * Liefert die Anzahl der Einträge.
+     *
+     * @return Anzahl der Einträge
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Liefert den belegten Speicher der kodierten Einträge und des Bloom-Filters in Bytes.
+     *
+     * @return Größe der kodierten Einträge und des Bloom-Filters in Bytes
+     */
+    long getEncodedSize() {
+        return this.data.length + this.filter.getSizeInBytes();
+    }
+
+    /**
+     * Liefert die Zeichenkette mit dem übergebenen Code.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = {@link #BLOCK_SIZE} und f(N) = N.
+     *
+     * @param code Code
+     *
+     * @return Zeichenkette
+     *
+     * @pre 0 &lt;= code &lt; size()
+     */
+    String get(int code) {
+        assert code >= 0 && code < this.size : "code out of range";
+
+        byte[] buffer = new byte[this.maxLength];
+        int length = this.decode(code / BLOCK_SIZE, code % BLOCK_SIZE, buffer);
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Liefert alle Einträge in der Reihenfolge ihrer Codes. Die Blöcke werden dabei einmal vorwärts gelesen.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Einträge und f(N) = N.
+     *
+     * @return neues Array, das an Position i den Eintrag mit dem Code i enthält
+     */
+    String[] toArray() {
+        String[] values = new String[this.size];
+        byte[] buffer = new byte[this.maxLength];
+        int pos = 0;
+        for (int i = 0; i < this.size; i++) {
+            int prefix = 0;
+            if (i % BLOCK_SIZE != 0) {
+                prefix = readVarint(this.data, pos);
+                pos += varintLength(prefix);
+            }
+            int suffix = readVarint(this.data, pos);
+            pos += varintLength(suffix);
+            System.arraycopy(this.data, pos, buffer, prefix, suffix);
+            pos += suffix;
+            values[i] = new String(buffer, 0, prefix + suffix, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    /**
+     * Liefert den Code der übergebenen Zeichenkette.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Einträge und f(N) = log(N). Fehlende Zeichenketten
+     * werden meist schon vom Bloom-Filter in O(1) erkannt.
+     *
+     * @param value Zeichenkette
+     *
+     * @return Code oder -1, wenn die Zeichenkette nicht enthalten ist
+     *
+     * @pre value != null
+     */
+    int indexOf(String value) {
+        assert value != null : "value is null";
+        if (!this.filter.mightContainHash(value.hashCode())) {
+            return -1;
+        }
+
+        byte[] target = value.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = this.blockOffsets.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (this.compareHead(mid, target) <= 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return this.indexOf(low, target);
+    }
+
+    /**
+     * Sucht target in einem Block. Der Block wird einmal vorwärts gelesen, ohne Einträge zu dekodieren: Zu jedem
+     * Eintrag ist nur bekannt, wie viele Bytes er mit target gemeinsam hat. Ein Eintrag, der mit seinem Vorgänger mehr
+     * Bytes teilt als der Vorgänger mit target, ist wie dieser kleiner als target; teilt er weniger, ist er größer.
+     * Nur bei Gleichheit werden die Bytes seines Suffixes verglichen.
+     *
+     * @param block  Block
+     * @param target UTF-8-Bytes der gesuchten Zeichenkette
+     *
+     * @return Code oder -1, wenn die Zeichenkette nicht im Block enthalten ist
+     */
+    private int indexOf(int block, byte[] target) {
+        int pos = this.blockOffsets[block];
+        int entries = Math.min(BLOCK_SIZE, this.size - block * BLOCK_SIZE);
+        int matched = 0;
+        for (int i = 0; i < entries; i++) {
+            int prefix = 0;
+            if (i > 0) {
+                prefix = readVarint(this.data, pos);
+                pos += varintLength(prefix);
+            }
+            int suffix = readVarint(this.data, pos);
+            pos += varintLength(suffix);
+            if (prefix < matched) {
+                return -1;
+            }
+            if (prefix == matched) {
+                int mismatch = Arrays.mismatch(this.data, pos, pos + suffix, target, prefix, target.length);
+                if (mismatch < 0) {
+                    return block * BLOCK_SIZE + i;
+                }
+                matched = prefix + mismatch;
+                if (mismatch < suffix && (matched == target.length
+                        || Byte.compareUnsigned(this.data[pos + mismatch], target[matched]) > 0)) {
+                    return -1;
+                }
+            }
+            pos += suffix;
+        }
+        return -1;
+    }
+
+    /**
+     * Vergleicht den ersten Eintrag des übergebenen Blocks mit target.
+     *
+     * @param block  Block
+     * @param target UTF-8-Bytes der gesuchten Zeichenkette
+     *
+     * @return Vergleichsergebnis gemäß {@link Arrays#compareUnsigned(byte[], byte[])}
+     */
+    private int compareHead(int block, byte[] target) {
+        int pos = this.blockOffsets[block];
+        int length = readVarint(this.data, pos);
+        pos += varintLength(length);
+        return Arrays.compareUnsigned(this.data, pos, pos + length, target, 0, target.length);
+    }
+
+    /**
+     * Dekodiert einen Eintrag eines Blocks in den übergebenen Puffer.
+     *
+     * @param block  Block
+     * @param entry  Position des Eintrags im Block
+     * @param buffer Puffer, der groß genug für den längsten Eintrag ist
+     *
+     * @return Länge des dekodierten Eintrags in Bytes
+     */
+    private int decode(int block, int entry, byte[] buffer) {
+        int pos = this.blockOffsets[block];
+        int length = readVarint(this.data, pos);
+        pos += varintLength(length);
+        System.arraycopy(this.data, pos, buffer, 0, length);
+        pos += length;
+
+        for (int i = 1; i <= entry; i++) {
+            int prefix = readVarint(this.data, pos);
+            pos += varintLength(prefix);
+            int suffix = readVarint(this.data, pos);
+            pos += varintLength(suffix);
+            System.arraycopy(this.data, pos, buffer, prefix, suffix);
+            pos += suffix;
+            length = prefix + suffix;
+        }
+        return length;
+    }
+
+    /**
+     * Liest eine variabel lange Zahl.
+     *
+     * @param data Bytes
+     * @param pos  Startposition
+     *
+     * @return gelesene Zahl
+     */
+    private static int readVarint(byte[] data, int pos) {
+        int result = 0;
+        int shift = 0;
+        int current;
+        do {
+            current = data[pos++];
+            result |= (current & VARINT_MASK) << shift;
+            shift += VARINT_SHIFT;
+        } while ((current & VARINT_CONTINUE) != 0);
+        return result;
+    }
+
+    /**
+     * Liefert die Anzahl der Bytes, die die übergebene Zahl als variabel lange Zahl belegt.
+     *
+     * @param value nicht negative Zahl
+     *
+     * @return Anzahl Bytes
+     */
+    private static int varintLength(int value) {
+        int length = 1;
+        int remaining = value >>> VARINT_SHIFT;
+        while (remaining != 0) {
+            length++;
+            remaining >>>= VARINT_SHIFT;
+        }
+        return length;
+    }
+
+    /**
+     * Wachsender Puffer für den Aufbau der kodierten Blöcke.
+     */
+    private static final class ByteSink {
+
+        /**
+         * Anfangskapazität
+         */
+        private static final int INITIAL_CAPACITY = 64;
+
+        /**
+         * Geschriebene Bytes, nur die ersten length Einträge sind belegt
+         */
+        private byte[] bytes = new byte[INITIAL_CAPACITY];
+
+        /**
+         * Anzahl der geschriebenen Bytes
+         */
+        private int length;
+
+        /**
+         * Schreibt einen Ausschnitt der übergebenen Bytes.
+         *
+         * @param source Quelle
+         * @param offset Startposition in der Quelle
+         * @param count  Anzahl Bytes
+         */
+        void write(byte[] source, int offset, int count) {
+            this.ensureCapacity(count);
+            System.arraycopy(source, offset, this.bytes, this.length, count);
+            this.length += count;
+        }
+
+        /**
+         * Schreibt eine nicht negative Zahl mit variabler Länge.
+         *
+         * @param value Zahl
+         */
+        void writeVarint(int value) {
+            this.ensureCapacity(varintLength(value));
+            int remaining = value;
+            while ((remaining & ~VARINT_MASK) != 0) {
+                this.bytes[this.length++] = (byte) ((remaining & VARINT_MASK) | VARINT_CONTINUE);
+                remaining >>>= VARINT_SHIFT;
+            }
+            this.bytes[this.length++] = (byte) remaining;
+        }
+
+        /**
+         * Vergrößert den Puffer, sodass weitere count Bytes Platz haben.
+         *
+         * @param count Anzahl zusätzlicher Bytes
+         */
+        private void ensureCapacity(int count) {
+            if (this.length + count > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.length + count));
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package db.storage;
+
+import db.value.Value;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Primärschlüsselindex auf dem Java-Heap auf Basis einer {@link HashMap}.
+ */
+public final class HeapPrimaryKeyIndex implements PrimaryKeyIndex {
+
+    /**
+     * Slots je Primärschlüssel
+     */
+    private Map<Value, Integer> slots;
+
+    /**
+     * Konstruktor für einen leeren Index
+     */
+    public HeapPrimaryKeyIndex() {
+        this.slots = new HashMap<>();
+    }
+
+    /**
+     * Liefert einen unabhängigen Index mit denselben Einträgen.
+     * <p>
+     * Diese Methode arbeitet in O(f(N)), dabei ist N = Anzahl der Einträge und f(N) = N.
+     *
+     * @return neuer Index mit denselben Einträgen
+     */
+    public HeapPrimaryKeyIndex copy() {
+        HeapPrimaryKeyIndex copy = new HeapPrimaryKeyIndex();
+        copy.slots = new HashMap<>(this.slots);
+        return copy;
+    }
+
+    @Override
+    public int get(Value key) {
+        Integer slot = this.slots.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    @Override
+    public void put(Value key, int slot) {
+        this.slots.put(key, slot);
+    }
+
+    @Override
+    public int size() {
+        return this.slots.size();
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return (long) (Column.MAP_ENTRY_BYTES + Column.REFERENCE_BYTES) * this.slots.size();
+    }
+
+    @Override
+    public void remap(SlotRemapping remapping) {
+        Iterator<Map.Entry<Value, Integer>> iterator = this.slots.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Value, Integer> entry = iterator.next();
+            int newSlot = remapping.newSlot(entry.getValue());
+            if (newSlot < 0) {
+                iterator.remove();
+            } else {
+                entry.setValue(newSlot);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.slots = new HashMap<>();
+    }
+
+    @Override
+    public void trimToSize() {
+        this.slots = new HashMap<>(this.slots);
+    }
+}
@@ -0,0 +1,129 @@
+package db.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Speicherbereich außerhalb des Java-Heaps für Zeichenketten variabler Länge.
+ * <p>
+ * Zeichenketten werden UTF-8-kodiert mit vorangestellter Länge hintereinander in direkte {@link ByteBuffer} geschrieben
+ * und über eine long-Adresse aus Blocknummer und Position im Block angesprochen. Einmal geschriebene Einträge werden
+ * nicht einzeln freigegeben; nicht mehr benötigter Platz wird erst durch Umkopieren in eine neue Arena zurückgewonnen.
+ * Jeder neue Block ist doppelt so groß wie der vorige, höchstens aber {@link OffHeapMemory#CHUNK_SIZE} Bytes groß,
+ * sofern kein einzelner Eintrag mehr Platz braucht.
+ */
+final class OffHeapArena {
+
+    /**
+     * Verschiebung der Blocknummer in einer Adresse
+     */
+    private static final int CHUNK_INDEX_SHIFT = 32;
+
+    /**
+     * Maske der Position im Block in einer Adresse
+     */
+    private static final long OFFSET_MASK = 0xFFFF_FFFFL;
+
+    /**
+     * Blöcke
+     */
+    private final List<ByteBuffer> chunks;
+
+    /**
+     * Schreibposition im letzten Block
+     */
+    private int position;
+
+    /**
+     * Anzahl der insgesamt geschriebenen Bytes
+     */
+    private long usedBytes;
+
+    /**
+     * Konstruktor für eine leere Arena
+     */
+    OffHeapArena() {
+        this.chunks = new ArrayList<>();
+        this.position = 0;
+        this.usedBytes = 0;
+    }
+
+    /**
+     * Liefert die Anzahl der geschriebenen Bytes einschließlich nicht mehr benötigter Einträge.
+     *
+     * @return geschriebene Bytes
+     */
+    long getUsedBytes() {
+        return this.usedBytes;
+    }
+
+    /**
+     * Liefert die Anzahl der reservierten Bytes.
+     *
+     * @return reservierte Bytes
+     */
+    long getReservedBytes() {
+        long bytes = 0;
+        for (ByteBuffer chunk : this.chunks) {
+            bytes += chunk.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Schreibt die übergebene Zeichenkette in die Arena.
+     *
+     * @param value Zeichenkette
+     *
+     * @return Adresse des Eintrags
+     */
+    long store(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int recordSize = Integer.BYTES + bytes.length;
+
+        ByteBuffer chunk = this.chunks.isEmpty() ? null : this.chunks.get(this.chunks.size() - 1);
+        if (chunk == null || chunk.capacity() - this.position < recordSize) {
+            int size = chunk == null ? OffHeapMemory.MIN_CHUNK_SIZE
+                    : Math.min(chunk.capacity(), OffHeapMemory.CHUNK_SIZE / 2) * 2;
+            chunk = ByteBuffer.allocateDirect(Math.max(size, recordSize));
+            this.chunks.add(chunk);
+            this.position = 0;
+        }
+
+        long address = ((long) (this.chunks.size() - 1) << CHUNK_INDEX_SHIFT) | this.position;
+        chunk.putInt(this.position, bytes.length);
+        chunk.put(this.position + Integer.BYTES, bytes);
+        this.position += recordSize;
+        this.usedBytes += recordSize;
+        return address;
+    }
+
+    /**
+     * Liest die Zeichenkette an der übergebenen Adresse.
+     *
+     * @param address Adresse aus {@link #store(String)}
+     *
+     * @return Zeichenkette
+     */
+    String load(long address) {
+        ByteBuffer chunk = this.chunks.get((int) (address >>> CHUNK_INDEX_SHIFT));
+        int offset = (int) (address & OFFSET_MASK);
+        byte[] bytes = new byte[chunk.getInt(offset)];
+        chunk.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Liefert die Größe des Eintrags an der übergebenen Adresse in Bytes.
+     *
+     * @param address Adresse aus {@link #store(String)}
+     *
+     * @return Größe des Eintrags einschließlich Längenangabe
+     */
+    int recordSize(long address) {
+        ByteBuffer chunk = this.chunks.get((int) (address >>> CHUNK_INDEX_SHIFT));
+        return Integer.BYTES + chunk.getInt((int) (address & OFFSET_MASK));
+    }
+}
@@ -0,0 +1,236 @@
+package db.storage;
+
+import db.value.BooleanValue;
+import db.value.DoubleValue;
+import db.value.StringValue;
+import db.value.Value;
+
+import java.util.BitSet;
+
+/**
+ * Spalte, die ihre Werte außerhalb des Java-Heaps speichert.
+ * <p>
+ * Jeder Slot belegt ein Typ-Byte und acht Bytes Nutzdaten: die Bits eines {@link DoubleValue}s, 0 oder 1 für einen
+ * {@link BooleanValue} oder die Adresse eines {@link StringValue}s in einer {@link OffHeapArena}. Die Spalte kann
+ * dadurch Werte dieser drei Typen gemischt aufnehmen. Auf dem Heap liegen nur wenige Verwaltungsobjekte pro
+ * Megabyte gespeicherter Daten, {@link Value}-Objekte werden erst beim Lesen erzeugt.
+ */
+public final class OffHeapColumn extends Column {
+
+    /**
+     * Typ-Byte eines {@link DoubleValue}s
+     */
+    private static final byte DOUBLE_TAG = 1;
+
+    /**
+     * Typ-Byte eines {@link BooleanValue}s
+     */
+    private static final byte BOOLEAN_TAG = 2;
+
+    /**
+     * Typ-Byte eines {@link StringValue}s
+     */
+    private static final byte STRING_TAG = 3;
+
+    /**
+     * Typ-Bytes der Slots
+     */
+    private OffHeapMemory tags;
+
+    /**
+     * Nutzdaten der Slots
+     */
+    private OffHeapMemory payloads;
+
+    /**
+     * Zeichenketten
+     */
+    private OffHeapArena arena;
+
+    /**
+     * Bytes der Einträge in {@link #arena}, die durch Überschreiben nicht mehr verwendet werden
+     */
+    private long deadStringBytes;
+
+    /**
+     * Anzahl der belegten Slots
+     */
+    private int size;
+
+    /**
+     * Konstruktor
+     */
+    public OffHeapColumn() {
+        this.tags = new OffHeapMemory();
+        this.payloads = new OffHeapMemory();
+        this.arena = new OffHeapArena();
+        this.deadStringBytes = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Liefert die Anzahl der außerhalb des Heaps reservierten Bytes.
+     *
+     * @return reservierte Bytes
+     */
+    public long getOffHeapBytes() {
+        return this.tags.capacity() + this.payloads.capacity() + this.arena.getReservedBytes();
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return this.getOffHeapBytes();
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Value get(int slot) {
+        assert slot >= 0 && slot < this.size : "slot out of range";
+        long payload = this.payloads.getLong((long) slot * Long.BYTES);
+        return switch (this.tags.getByte(slot)) {
+            case DOUBLE_TAG -> new DoubleValue(Double.longBitsToDouble(payload));
+            case BOOLEAN_TAG -> new BooleanValue(payload != 0);
+            case STRING_TAG -> new StringValue(this.arena.load(payload));
+            default -> throw new IllegalStateException("corrupt tag in slot " + slot);
+        };
+    }
+
+    @Override
+    public double getAsDouble(int slot) {
+        assert slot >= 0 && slot < this.size : "slot out of range";
+        if (this.tags.getByte(slot) == DOUBLE_TAG) {
+            return Double.longBitsToDouble(this.payloads.getLong((long) slot * Long.BYTES));
+        }
+        return this.get(slot).getAsDouble();
+    }
+
+    @Override
+    public String getAsDisplayString(int slot) {
+        assert slot >= 0 && slot < this.size : "slot out of range";
+        if (this.tags.getByte(slot) == STRING_TAG) {
+            return this.arena.load(this.payloads.getLong((long) slot * Long.BYTES));
+        }
+        return this.get(slot).toString();
+    }
+
+    @Override
+    public boolean accepts(Value value) {
+        return value != null && (value.getClass() == DoubleValue.class || value.getClass() == BooleanValue.class
+                || value.getClass() == StringValue.class);
+    }
+
+    @Override
+    public void append(Value value) {
+        this.tags.ensureCapacity(this.size + 1L);
+        this.payloads.ensureCapacity((this.size + 1L) * Long.BYTES);
+        this.size++;
+        this.write(this.size - 1, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Der Eintrag einer überschriebenen Zeichenkette bleibt in der Arena liegen. Übersteigen diese toten Bytes die
+     * noch verwendeten, werden die verwendeten Zeichenketten in eine neue Arena umkopiert. Diese Methode arbeitet
+     * daher amortisiert in O(1).
+     */
+    @Override
+    public void set(int slot, Value value) {
+        assert slot >= 0 && slot < this.size : "slot out of range";
+        assert this.accepts(value) : "value not accepted";
+
+        if (this.tags.getByte(slot) == STRING_TAG) {
+            this.deadStringBytes += this.arena.recordSize(this.payloads.getLong((long) slot * Long.BYTES));
+        }
+        this.write(slot, value);
+        if (this.deadStringBytes > Math.max(this.arena.getUsedBytes() - this.deadStringBytes,
+                OffHeapMemory.CHUNK_SIZE)) {
+            this.compactArena();
+        }
+    }
+
+    /**
+     * Schreibt den übergebenen Wert in den übergebenen Slot, ohne dessen bisherigen Inhalt zu beachten.
+     *
+     * @param slot Slot
+     * @param value Wert
+     *
+     * @pre 0 &lt;= slot &lt; size()
+     * @pre accepts(value)
+     */
+    private void write(int slot, Value value) {
+        byte tag;
+        long payload;
+        if (value instanceof DoubleValue) {
+            tag = DOUBLE_TAG;
+            payload = Double.doubleToRawLongBits(value.getAsDouble());
+        } else if (value instanceof BooleanValue) {
+            tag = BOOLEAN_TAG;
+            payload = value.getAsBoolean() ? 1 : 0;
+        } else {
+            tag = STRING_TAG;
+            payload = this.arena.store(value.getAsString());
+        }
+        this.tags.putByte(slot, tag);
+        this.payloads.putLong((long) slot * Long.BYTES, payload);
+    }
+
+    @Override
+    public void compact(BitSet keep) {
+        assert keep != null : "keep is null";
+        int target = 0;
+        long liveStringBytes = 0;
+        for (int slot = keep.nextSetBit(0); slot >= 0 && slot < this.size; slot = keep.nextSetBit(slot + 1)) {
+            byte tag = this.tags.getByte(slot);
+            long payload = this.payloads.getLong((long) slot * Long.BYTES);
+            if (tag == STRING_TAG) {
+                liveStringBytes += this.arena.recordSize(payload);
+            }
+            this.tags.putByte(target, tag);
+            this.payloads.putLong((long) target * Long.BYTES, payload);
+            target++;
+        }
+        this.size = target;
+
+        this.deadStringBytes = this.arena.getUsedBytes() - liveStringBytes;
+        if (this.deadStringBytes > Math.max(liveStringBytes, OffHeapMemory.CHUNK_SIZE)) {
+            this.compactArena();
+        }
+    }
+
+    @Override
+    public void trimToSize() {
+        this.tags.trimTo(this.size);
+        this.payloads.trimTo((long) this.size * Long.BYTES);
+    }
+
+    @Override
+    public void clear() {
+        this.tags.release();
+        this.payloads.release();
+        this.tags = new OffHeapMemory();
+        this.payloads = new OffHeapMemory();
+        this.arena = new OffHeapArena();
+        this.deadStringBytes = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Kopiert alle noch verwendeten Zeichenketten in eine neue Arena und gibt die alte frei.
+     */
+    private void compactArena() {
+        OffHeapArena newArena = new OffHeapArena();
+        for (int slot = 0; slot < this.size; slot++) {
+            if (this.tags.getByte(slot) == STRING_TAG) {
+                long pos = (long) slot * Long.BYTES;
+                this.payloads.putLong(pos, newArena.store(this.arena.load(this.payloads.getLong(pos))));
+            }
+        }
+        this.arena = newArena;
+        this.deadStringBytes = 0;
+    }
+}
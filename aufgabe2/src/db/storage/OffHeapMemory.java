@@ -0,0 +1,215 @@
+package db.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wachsender Speicherbereich außerhalb des Java-Heaps für Werte fester Breite.
+ * <p>
+ * Der Speicher besteht aus direkten {@link ByteBuffer}n zu je {@link #CHUNK_SIZE} Bytes und wird über long-Positionen
+ * adressiert. Werte fester Breite müssen an ihrer Breite ausgerichtet abgelegt werden und liegen dadurch nie über zwei
+ * Blöcken. Auf dem Heap liegt nur ein Objekt pro Block, unabhängig davon, wie viele Werte gespeichert sind.
+ * <p>
+ * Solange ein Block genügt, wächst er ab {@link #MIN_CHUNK_SIZE} Bytes durch Verdoppeln und Umkopieren, sodass kleine
+ * Spalten und Indizes, etwa in Ergebnissen von Anfragen, nicht je einen ganzen Block außerhalb des Heaps belegen.
+ */
+final class OffHeapMemory {
+
+    /**
+     * Zweierlogarithmus der Blockgröße
+     */
+    static final int CHUNK_SHIFT = 20;
+
+    /**
+     * Größe eines Blocks in Bytes
+     */
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    /**
+     * Größe, mit der der erste Block mindestens angelegt wird, in Bytes
+     */
+    static final int MIN_CHUNK_SIZE = 256;
+
+    /**
+     * Maske der Position innerhalb eines Blocks
+     */
+    private static final long OFFSET_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Blöcke
+     */
+    private final List<ByteBuffer> chunks;
+
+    /**
+     * Konstruktor für einen leeren Speicherbereich
+     */
+    OffHeapMemory() {
+        this.chunks = new ArrayList<>();
+    }
+
+    /**
+     * Liefert die Anzahl der reservierten Bytes.
+     *
+     * @return Kapazität in Bytes
+     */
+    long capacity() {
+        if (this.chunks.isEmpty()) {
+            return 0;
+        }
+        return (long) (this.chunks.size() - 1) * CHUNK_SIZE + this.chunks.get(this.chunks.size() - 1).capacity();
+    }
+
+    /**
+     * Reserviert weitere Blöcke, bis mindestens bytes Bytes adressierbar sind.
+     *
+     * @param bytes benötigte Kapazität in Bytes
+     */
+    void ensureCapacity(long bytes) {
+        long capacity = this.capacity();
+        if (capacity >= bytes) {
+            return;
+        }
+        if (capacity < CHUNK_SIZE) {
+            long size = Math.max(capacity, MIN_CHUNK_SIZE);
+            while (size < Math.min(bytes, CHUNK_SIZE)) {
+                size *= 2;
+            }
+            this.resizeFirstChunk((int) size);
+        }
+        while (this.capacity() < bytes) {
+            this.chunks.add(ByteBuffer.allocateDirect(CHUNK_SIZE).order(ByteOrder.nativeOrder()));
+        }
+    }
+
+    /**
+     * Gibt alle Blöcke frei, die für die ersten bytes Bytes nicht benötigt werden.
+     *
+     * @param bytes weiterhin benötigte Kapazität in Bytes
+     */
+    void trimTo(long bytes) {
+        long needed = (bytes + CHUNK_SIZE - 1) >>> CHUNK_SHIFT;
+        while (this.chunks.size() > needed) {
+            this.chunks.remove(this.chunks.size() - 1);
+        }
+        if (this.chunks.size() == 1) {
+            long size = MIN_CHUNK_SIZE;
+            while (size < bytes) {
+                size *= 2;
+            }
+            if (size < this.chunks.get(0).capacity()) {
+                this.resizeFirstChunk((int) size);
+            }
+        }
+    }
+
+    /**
+     * Gibt alle Blöcke frei, sodass sie bei der nächsten Speicherbereinigung zurückgegeben werden können.
+     */
+    void release() {
+        this.chunks.clear();
+    }
+
+    /**
+     * Liest ein Byte.
+     *
+     * @param pos Position
+     *
+     * @return gelesener Wert
+     */
+    byte getByte(long pos) {
+        return this.chunk(pos).get(offset(pos));
+    }
+
+    /**
+     * Schreibt ein Byte.
+     *
+     * @param pos   Position
+     * @param value Wert
+     */
+    void putByte(long pos, byte value) {
+        this.chunk(pos).put(offset(pos), value);
+    }
+
+    /**
+     * Liest einen int-Wert.
+     *
+     * @param pos an vier Bytes ausgerichtete Position
+     *
+     * @return gelesener Wert
+     */
+    int getInt(long pos) {
+        return this.chunk(pos).getInt(offset(pos));
+    }
+
+    /**
+     * Schreibt einen int-Wert.
+     *
+     * @param pos   an vier Bytes ausgerichtete Position
+     * @param value Wert
+     */
+    void putInt(long pos, int value) {
+        this.chunk(pos).putInt(offset(pos), value);
+    }
+
+    /**
+     * Liest einen long-Wert.
+     *
+     * @param pos an acht Bytes ausgerichtete Position
+     *
+     * @return gelesener Wert
+     */
+    long getLong(long pos) {
+        return this.chunk(pos).getLong(offset(pos));
+    }
+
+    /**
+     * Schreibt einen long-Wert.
+     *
+     * @param pos   an acht Bytes ausgerichtete Position
+     * @param value Wert
+     */
+    void putLong(long pos, long value) {
+        this.chunk(pos).putLong(offset(pos), value);
+    }
+
+    /**
+     * Ersetzt den ersten Block durch einen Block der übergebenen Größe und kopiert seinen Inhalt, soweit er
+     * hineinpasst. Gibt es noch keinen Block, wird er angelegt.
+     *
+     * @param size Größe des neuen Blocks in Bytes, höchstens {@link #CHUNK_SIZE}
+     */
+    private void resizeFirstChunk(int size) {
+        ByteBuffer chunk = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+        if (this.chunks.isEmpty()) {
+            this.chunks.add(chunk);
+        } else {
+            ByteBuffer old = this.chunks.get(0);
+            chunk.put(0, old, 0, Math.min(old.capacity(), size));
+            this.chunks.set(0, chunk);
+        }
+    }
+
+    /**
+     * Liefert den Block, in dem die übergebene Position liegt.
+     *
+     * @param pos Position
+     *
+     * @return Block
+     */
+    private ByteBuffer chunk(long pos) {
+        return this.chunks.get((int) (pos >>> CHUNK_SHIFT));
+    }
+
+    /**
+     * Liefert die Position innerhalb eines Blocks.
+     *
+     * @param pos Position
+     *
+     * @return Position im Block
+     */
+    private static int offset(long pos) {
+        return (int) (pos & OFFSET_MASK);
+    }
+}
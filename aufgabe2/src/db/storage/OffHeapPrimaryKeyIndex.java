@@ -0,0 +1,213 @@
+package db.storage;
+
+import db.value.Value;
+
+import java.util.function.IntFunction;
+
+/**
+ * Primärschlüsselindex außerhalb des Java-Heaps.
+ * <p>
+ * Der Index ist eine Hashtabelle mit offener Adressierung und linearer Sondierung. Jeder Eintrag belegt acht Bytes:
+ * den Hashwert des Schlüssels und den Slot der Zeile plus eins (0 markiert einen freien Eintrag). Die Schlüssel selbst
+ * werden nicht gespeichert, sondern zum Vergleich über den Slot aus der Primärschlüsselspalte gelesen.
+ */
+public final class OffHeapPrimaryKeyIndex implements PrimaryKeyIndex {
+
+    /**
+     * Anfangsanzahl der Einträge, muss eine Zweierpotenz sein
+     */
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    /**
+     * Größe eines Eintrags in Bytes
+     */
+    private static final int ENTRY_SIZE = 2 * Integer.BYTES;
+
+    /**
+     * Maximale Belegung der Tabelle in Viertel
+     */
+    private static final int MAX_LOAD_QUARTERS = 3;
+
+    /**
+     * Anzahl Viertel einer vollständig belegten Tabelle
+     */
+    private static final int QUARTERS = 4;
+
+    /**
+     * Verschiebung für das Mischen der Hashwerte
+     */
+    private static final int SPREAD_SHIFT = 16;
+
+    /**
+     * Liefert den Primärschlüssel der Zeile in einem Slot
+     */
+    private final IntFunction<Value> keyAt;
+
+    /**
+     * Einträge
+     */
+    private OffHeapMemory table;
+
+    /**
+     * Anzahl der Einträge in der Tabelle, Zweierpotenz
+     */
+    private int capacity;
+
+    /**
+     * Anzahl der belegten Einträge
+     */
+    private int size;
+
+    /**
+     * Konstruktor
+     *
+     * @param keyAt Funktion, die den Primärschlüssel der Zeile in einem Slot liefert
+     *
+     * @pre keyAt != null
+     */
+    public OffHeapPrimaryKeyIndex(IntFunction<Value> keyAt) {
+        assert keyAt != null : "keyAt is null";
+        this.keyAt = keyAt;
+        this.allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public int get(Value key) {
+        int entry = this.find(key, spread(key.hashCode()));
+        return entry < 0 ? -1 : this.table.getInt((long) entry * ENTRY_SIZE + Integer.BYTES) - 1;
+    }
+
+    @Override
+    public void put(Value key, int slot) {
+        int hash = spread(key.hashCode());
+        int entry = this.find(key, hash);
+        if (entry >= 0) {
+            this.table.putInt((long) entry * ENTRY_SIZE + Integer.BYTES, slot + 1);
+            return;
+        }
+
+        if ((this.size + 1L) * QUARTERS > (long) this.capacity * MAX_LOAD_QUARTERS) {
+            this.resize(this.capacity * 2, null);
+        }
+        this.insert(hash, slot);
+        this.size++;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return (long) ENTRY_SIZE * this.capacity;
+    }
+
+    @Override
+    public void remap(SlotRemapping remapping) {
+        this.resize(this.capacity, remapping);
+    }
+
+    @Override
+    public void clear() {
+        this.table.release();
+        this.allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public void trimToSize() {
+        int newCapacity = INITIAL_CAPACITY;
+        while ((long) this.size * QUARTERS > (long) newCapacity * MAX_LOAD_QUARTERS) {
+            newCapacity *= 2;
+        }
+        if (newCapacity < this.capacity) {
+            this.resize(newCapacity, null);
+        }
+    }
+
+    /**
+     * Sucht den Eintrag des übergebenen Schlüssels.
+     *
+     * @param key  Schlüssel
+     * @param hash gemischter Hashwert des Schlüssels
+     *
+     * @return Position des Eintrags oder -1, wenn der Schlüssel nicht enthalten ist
+     */
+    private int find(Value key, int hash) {
+        int mask = this.capacity - 1;
+        int i = hash & mask;
+        int storedSlot = this.table.getInt((long) i * ENTRY_SIZE + Integer.BYTES) - 1;
+        while (storedSlot >= 0) {
+            if (this.table.getInt((long) i * ENTRY_SIZE) == hash && key.equals(this.keyAt.apply(storedSlot))) {
+                return i;
+            }
+            i = (i + 1) & mask;
+            storedSlot = this.table.getInt((long) i * ENTRY_SIZE + Integer.BYTES) - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Legt eine leere Tabelle an.
+     *
+     * @param newCapacity Anzahl der Einträge, Zweierpotenz
+     */
+    private void allocate(int newCapacity) {
+        this.table = new OffHeapMemory();
+        this.table.ensureCapacity((long) newCapacity * ENTRY_SIZE);
+        this.capacity = newCapacity;
+        this.size = 0;
+    }
+
+    /**
+     * Überträgt alle Einträge in eine neue Tabelle. Die Hashwerte werden dabei aus der alten Tabelle übernommen, die
+     * Schlüssel also nicht erneut gelesen.
+     *
+     * @param newCapacity Anzahl der Einträge der neuen Tabelle, Zweierpotenz
+     * @param remapping   Zuordnung alter zu neuen Slots oder null, wenn die Slots unverändert bleiben
+     */
+    private void resize(int newCapacity, SlotRemapping remapping) {
+        OffHeapMemory oldTable = this.table;
+        int oldCapacity = this.capacity;
+        this.allocate(newCapacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            long pos = (long) i * ENTRY_SIZE;
+            int slot = oldTable.getInt(pos + Integer.BYTES) - 1;
+            if (slot >= 0 && remapping != null) {
+                slot = remapping.newSlot(slot);
+            }
+            if (slot >= 0) {
+                this.insert(oldTable.getInt(pos), slot);
+                this.size++;
+            }
+        }
+        oldTable.release();
+    }
+
+    /**
+     * Schreibt einen Eintrag an die erste freie Position ab seiner Hashposition.
+     *
+     * @param hash Hashwert des Schlüssels
+     * @param slot Slot
+     */
+    private void insert(int hash, int slot) {
+        int mask = this.capacity - 1;
+        int i = hash & mask;
+        while (this.table.getInt((long) i * ENTRY_SIZE + Integer.BYTES) != 0) {
+            i = (i + 1) & mask;
+        }
+        this.table.putInt((long) i * ENTRY_SIZE, hash);
+        this.table.putInt((long) i * ENTRY_SIZE + Integer.BYTES, slot + 1);
+    }
+
+    /**
+     * Mischt die oberen Bits eines Hashwerts in die unteren.
+     *
+     * @param hash Hashwert
+     *
+     * @return gemischter Hashwert
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> SPREAD_SHIFT);
+    }
+}
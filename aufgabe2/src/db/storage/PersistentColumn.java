@@ -0,0 +1,250 @@
+package db.storage;
+
+import db.value.Value;
+
+import java.util.BitSet;
+
+/**
+ * Spalte, die ihre Werte in einem persistenten Vektor ablegt: einem Trie mit 32 Einträgen pro Knoten, dessen Blätter
+ * die Werte in Slot-Reihenfolge enthalten.
+ * <p>
+ * {@link #fork()} liefert in O(1) eine unabhängige Spalte mit denselben Werten, die sich alle Knoten mit dieser Spalte
+ * teilt. Jeder Knoten gehört der Spalte, die ihn erzeugt hat, und darf nur von ihr verändert werden. Ändert eine
+ * Spalte einen geteilten Knoten, kopiert sie stattdessen den Pfad von der Wurzel bis zu diesem Knoten, sodass
+ * {@link #append(Value)} und {@link #set(int, Value)} höchstens O(log32(N)) Knoten kopieren. Knoten, die nach dem
+ * letzten {@link #fork()} erzeugt wurden, werden ohne Kopie verändert.
+ */
+public final class PersistentColumn extends Column {
+
+    /**
+     * Anzahl der Bits des Slots, die den Eintrag innerhalb eines Knotens bestimmen
+     */
+    private static final int BITS = 5;
+
+    /**
+     * Anzahl der Einträge eines Knotens
+     */
+    private static final int WIDTH = 1 << BITS;
+
+    /**
+     * Maske für den Eintrag innerhalb eines Knotens
+     */
+    private static final int MASK = WIDTH - 1;
+
+    /**
+     * Knoten des Tries. Innere Knoten enthalten Knoten, Blätter Werte.
+     */
+    private static final class Node {
+
+        /**
+         * Besitzer, der diesen Knoten ohne Kopie verändern darf
+         */
+        private final Object owner;
+
+        /**
+         * Einträge dieses Knotens
+         */
+        private final Object[] entries;
+
+        /**
+         * Konstruktor für einen leeren Knoten
+         *
+         * @param owner Besitzer des Knotens
+         */
+        private Node(Object owner) {
+            this.owner = owner;
+            this.entries = new Object[WIDTH];
+        }
+
+        /**
+         * Konstruktor für die Kopie eines Knotens
+         *
+         * @param owner  Besitzer der Kopie
+         * @param source kopierter Knoten
+         */
+        private Node(Object owner, Node source) {
+            this.owner = owner;
+            this.entries = source.entries.clone();
+        }
+    }
+
+    /**
+     * Besitzer der Knoten, die diese Spalte ohne Kopie verändern darf
+     */
+    private Object owner;
+
+    /**
+     * Wurzel des Tries
+     */
+    private Node root;
+
+    /**
+     * Anzahl der Bits, um die ein Slot für den Eintrag in der Wurzel verschoben wird, 0 wenn die Wurzel ein Blatt ist
+     */
+    private int shift;
+
+    /**
+     * Anzahl der belegten Slots
+     */
+    private int size;
+
+    /**
+     * Geschätzter Speicherbedarf der gespeicherten Werte in Bytes
+     */
+    private long valueBytes;
+
+    /**
+     * Konstruktor
+     */
+    public PersistentColumn() {
+        this.owner = new Object();
+        this.root = new Node(this.owner);
+        this.shift = 0;
+        this.size = 0;
+        this.valueBytes = 0;
+    }
+
+    /**
+     * Konstruktor für eine Spalte, die sich den Trie mit einer anderen teilt.
+     *
+     * @param source Spalte, deren Werte übernommen werden
+     */
+    private PersistentColumn(PersistentColumn source) {
+        this.owner = new Object();
+        this.root = source.root;
+        this.shift = source.shift;
+        this.size = source.size;
+        this.valueBytes = source.valueBytes;
+    }
+
+    /**
+     * Liefert eine unabhängige Spalte mit denselben Werten. Beide Spalten teilen sich danach alle bisherigen Knoten;
+     * Änderungen einer Spalte sind in der anderen nicht sichtbar.
+     * <p>
+     * Diese Methode arbeitet in O(1).
+     *
+     * @return neue Spalte mit denselben Werten
+     */
+    public PersistentColumn fork() {
+        this.owner = new Object();
+        return new PersistentColumn(this);
+    }
+
+    @Override
+    public Column copy() {
+        return this.fork();
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Value get(int slot) {
+        assert slot >= 0 && slot < this.size : "slot out of range";
+        Node node = this.root;
+        for (int level = this.shift; level > 0; level -= BITS) {
+            node = (Node) node.entries[(slot >>> level) & MASK];
+        }
+        return (Value) node.entries[slot & MASK];
+    }
+
+    @Override
+    public boolean accepts(Value value) {
+        return true;
+    }
+
+    @Override
+    public void append(Value value) {
+        if (this.size == 1L << (this.shift + BITS)) {
+            Node newRoot = new Node(this.owner);
+            newRoot.entries[0] = this.root;
+            this.root = newRoot;
+            this.shift += BITS;
+        }
+        this.root = this.store(this.root, this.shift, this.size, value);
+        this.size++;
+        this.valueBytes += estimateSize(value);
+    }
+
+    @Override
+    public void set(int slot, Value value) {
+        assert slot >= 0 && slot < this.size : "slot out of range";
+        this.valueBytes += estimateSize(value) - estimateSize(this.get(slot));
+        this.root = this.store(this.root, this.shift, slot, value);
+    }
+
+    @Override
+    public void compact(BitSet keep) {
+        assert keep != null : "keep is null";
+        PersistentColumn kept = new PersistentColumn();
+        for (int slot = keep.nextSetBit(0); slot >= 0 && slot < this.size; slot = keep.nextSetBit(slot + 1)) {
+            kept.append(this.get(slot));
+        }
+        this.owner = kept.owner;
+        this.root = kept.root;
+        this.shift = kept.shift;
+        this.size = kept.size;
+        this.valueBytes = kept.valueBytes;
+    }
+
+    @Override
+    public void clear() {
+        this.root = new Node(this.owner);
+        this.shift = 0;
+        this.size = 0;
+        this.valueBytes = 0;
+    }
+
+    /**
+     * Liefert den geschätzten Speicherbedarf dieser Spalte. Knoten und Werte, die mit anderen Spalten geteilt werden,
+     * werden vollständig mitgezählt.
+     * <p>
+     * Diese Methode arbeitet in O(log(N)), dabei ist N = Anzahl der belegten Slots.
+     *
+     * @return Speicherbedarf in Bytes
+     */
+    @Override
+    public long getSizeInBytes() {
+        long numOfNodes = 1;
+        for (long n = this.size; n > 1; n = (n + MASK) >>> BITS) {
+            numOfNodes += (n + MASK) >>> BITS;
+        }
+        return numOfNodes * (HEADER_BYTES + (long) REFERENCE_BYTES * WIDTH) + this.valueBytes;
+    }
+
+    @Override
+    public Column toValueColumn() {
+        return this;
+    }
+
+    /**
+     * Speichert einen Wert im übergebenen Slot des Teilbaums. Knoten auf dem Pfad, die nicht dieser Spalte gehören,
+     * werden kopiert, fehlende Knoten angelegt.
+     *
+     * @param node  Wurzel des Teilbaums oder null, wenn er noch nicht existiert
+     * @param level Verschiebung für den Eintrag in node
+     * @param slot  Slot
+     * @param value Wert
+     *
+     * @return Wurzel des Teilbaums, die dieser Spalte gehört
+     */
+    private Node store(Node node, int level, int slot, Value value) {
+        Node editable;
+        if (node == null) {
+            editable = new Node(this.owner);
+        } else if (node.owner == this.owner) {
+            editable = node;
+        } else {
+            editable = new Node(this.owner, node);
+        }
+        int index = (slot >>> level) & MASK;
+        if (level == 0) {
+            editable.entries[index] = value;
+        } else {
+            editable.entries[index] = this.store((Node) editable.entries[index], level - BITS, slot, value);
+        }
+        return editable;
+    }
+}
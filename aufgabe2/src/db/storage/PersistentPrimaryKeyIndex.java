@@ -0,0 +1,293 @@
+package db.storage;
+
+import db.value.Value;
+
+/**
+ * Primärschlüsselindex als persistenter Hash-Trie (hash array mapped trie): Jeder Knoten verzweigt anhand von fünf
+ * Bits des Hashwerts und speichert nur die belegten Einträge, die über eine Bitmap gefunden werden.
+ * <p>
+ * Wie bei {@link PersistentColumn} liefert {@link #fork()} in O(1) einen unabhängigen Index, der sich alle Knoten mit
+ * diesem teilt, und Änderungen kopieren nur die Knoten auf dem Pfad zum geänderten Eintrag, die nicht diesem Index
+ * gehören. Schlüssel, deren Hashwerte in allen 32 Bits übereinstimmen, werden in einem Kollisionsknoten linear
+ * durchsucht.
+ */
+public final class PersistentPrimaryKeyIndex implements PrimaryKeyIndex {
+
+    /**
+     * Anzahl der Bits des Hashwerts pro Ebene
+     */
+    private static final int BITS = 5;
+
+    /**
+     * Maske für die Bits einer Ebene
+     */
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * Geschätzter Speicherbedarf eines Eintrags einschließlich seines Anteils an den Knoten in Bytes
+     */
+    private static final int ENTRY_BYTES = 16;
+
+    /**
+     * Knoten des Tries. Ein Eintrag ist entweder ein Schlüssel mit seinem Slot oder ein Kindknoten.
+     */
+    private static final class Node {
+
+        /**
+         * Besitzer, der diesen Knoten ohne Kopie verändern darf
+         */
+        private final Object owner;
+
+        /**
+         * Belegte Positionen dieses Knotens, bei einem Kollisionsknoten 0
+         */
+        private int bitmap;
+
+        /**
+         * Schlüssel ({@link Value}) oder Kindknoten ({@link Node}) in der Reihenfolge ihrer Positionen
+         */
+        private Object[] entries;
+
+        /**
+         * Slots der Schlüssel, für Kindknoten ohne Bedeutung
+         */
+        private int[] slots;
+
+        /**
+         * Konstruktor für einen leeren Knoten
+         *
+         * @param owner Besitzer des Knotens
+         */
+        private Node(Object owner) {
+            this.owner = owner;
+            this.bitmap = 0;
+            this.entries = new Object[0];
+            this.slots = new int[0];
+        }
+
+        /**
+         * Konstruktor für die Kopie eines Knotens
+         *
+         * @param owner  Besitzer der Kopie
+         * @param source kopierter Knoten
+         */
+        private Node(Object owner, Node source) {
+            this.owner = owner;
+            this.bitmap = source.bitmap;
+            this.entries = source.entries.clone();
+            this.slots = source.slots.clone();
+        }
+
+        /**
+         * Fügt an der übergebenen Stelle einen Eintrag ein.
+         *
+         * @param index Stelle in entries
+         * @param entry Schlüssel oder Kindknoten
+         * @param slot  Slot des Schlüssels
+         */
+        private void insert(int index, Object entry, int slot) {
+            Object[] newEntries = new Object[this.entries.length + 1];
+            int[] newSlots = new int[this.slots.length + 1];
+            System.arraycopy(this.entries, 0, newEntries, 0, index);
+            System.arraycopy(this.slots, 0, newSlots, 0, index);
+            newEntries[index] = entry;
+            newSlots[index] = slot;
+            System.arraycopy(this.entries, index, newEntries, index + 1, this.entries.length - index);
+            System.arraycopy(this.slots, index, newSlots, index + 1, this.slots.length - index);
+            this.entries = newEntries;
+            this.slots = newSlots;
+        }
+    }
+
+    /**
+     * Besitzer der Knoten, die dieser Index ohne Kopie verändern darf
+     */
+    private Object owner;
+
+    /**
+     * Wurzel des Tries
+     */
+    private Node root;
+
+    /**
+     * Anzahl der Schlüssel
+     */
+    private int size;
+
+    /**
+     * Konstruktor
+     */
+    public PersistentPrimaryKeyIndex() {
+        this.owner = new Object();
+        this.root = new Node(this.owner);
+        this.size = 0;
+    }
+
+    /**
+     * Konstruktor für einen Index, der sich den Trie mit einem anderen teilt.
+     *
+     * @param source Index, dessen Einträge übernommen werden
+     */
+    private PersistentPrimaryKeyIndex(PersistentPrimaryKeyIndex source) {
+        this.owner = new Object();
+        this.root = source.root;
+        this.size = source.size;
+    }
+
+    /**
+     * Liefert einen unabhängigen Index mit denselben Einträgen. Beide Indizes teilen sich danach alle bisherigen
+     * Knoten; Änderungen eines Index sind im anderen nicht sichtbar.
+     * <p>
+     * Diese Methode arbeitet in O(1).
+     *
+     * @return neuer Index mit denselben Einträgen
+     */
+    public PersistentPrimaryKeyIndex fork() {
+        this.owner = new Object();
+        return new PersistentPrimaryKeyIndex(this);
+    }
+
+    @Override
+    public int get(Value key) {
+        int hash = hash(key);
+        Node node = this.root;
+        for (int shift = 0; shift < Integer.SIZE; shift += BITS) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) {
+                return -1;
+            }
+            int index = Integer.bitCount(node.bitmap & (bit - 1));
+            Object entry = node.entries[index];
+            if (!(entry instanceof Node)) {
+                return key.equals(entry) ? node.slots[index] : -1;
+            }
+            node = (Node) entry;
+        }
+        for (int i = 0; i < node.entries.length; i++) {
+            if (key.equals(node.entries[i])) {
+                return node.slots[i];
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void put(Value key, int slot) {
+        this.root = this.put(this.root, 0, hash(key), key, slot);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return (long) ENTRY_BYTES * this.size;
+    }
+
+    @Override
+    public void remap(SlotRemapping remapping) {
+        PersistentPrimaryKeyIndex remapped = new PersistentPrimaryKeyIndex();
+        this.remap(this.root, remapping, remapped);
+        this.owner = remapped.owner;
+        this.root = remapped.root;
+        this.size = remapped.size;
+    }
+
+    @Override
+    public void clear() {
+        this.root = new Node(this.owner);
+        this.size = 0;
+    }
+
+    @Override
+    public void trimToSize() {
+    }
+
+    /**
+     * Verteilt die Bits des Hashwerts eines Schlüssels, sodass auch die unteren Ebenen die oberen Bits nutzen.
+     *
+     * @param key Schlüssel
+     *
+     * @return Hashwert
+     */
+    private static int hash(Value key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> (Integer.SIZE / 2));
+    }
+
+    /**
+     * Liefert einen Knoten, den dieser Index verändern darf: den übergebenen Knoten selbst oder eine Kopie.
+     *
+     * @param node Knoten
+     *
+     * @return veränderbarer Knoten mit denselben Einträgen
+     */
+    private Node editable(Node node) {
+        return node.owner == this.owner ? node : new Node(this.owner, node);
+    }
+
+    /**
+     * Trägt einen Schlüssel mit seinem Slot in den Teilbaum ein oder ersetzt den Slot eines vorhandenen Schlüssels.
+     *
+     * @param node  Wurzel des Teilbaums
+     * @param shift Verschiebung des Hashwerts für node
+     * @param hash  Hashwert des Schlüssels
+     * @param key   Schlüssel
+     * @param slot  Slot
+     *
+     * @return Wurzel des Teilbaums, die diesem Index gehört
+     */
+    private Node put(Node node, int shift, int hash, Value key, int slot) {
+        Node editable = this.editable(node);
+        if (shift >= Integer.SIZE) {
+            for (int i = 0; i < editable.entries.length; i++) {
+                if (key.equals(editable.entries[i])) {
+                    editable.slots[i] = slot;
+                    return editable;
+                }
+            }
+            editable.insert(editable.entries.length, key, slot);
+            this.size++;
+            return editable;
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int index = Integer.bitCount(editable.bitmap & (bit - 1));
+        if ((editable.bitmap & bit) == 0) {
+            editable.insert(index, key, slot);
+            editable.bitmap |= bit;
+            this.size++;
+        } else if (editable.entries[index] instanceof Node) {
+            editable.entries[index] = this.put((Node) editable.entries[index], shift + BITS, hash, key, slot);
+        } else if (key.equals(editable.entries[index])) {
+            editable.slots[index] = slot;
+        } else {
+            Value other = (Value) editable.entries[index];
+            Node child = this.put(new Node(this.owner), shift + BITS, hash(other), other, editable.slots[index]);
+            editable.entries[index] = this.put(child, shift + BITS, hash, key, slot);
+            this.size--;
+        }
+        return editable;
+    }
+
+    /**
+     * Trägt alle Schlüssel des Teilbaums mit ihren neuen Slots in den übergebenen Index ein.
+     *
+     * @param node      Wurzel des Teilbaums
+     * @param remapping Zuordnung der alten zu den neuen Slots
+     * @param target    Index, der die Schlüssel aufnimmt
+     */
+    private void remap(Node node, SlotRemapping remapping, PersistentPrimaryKeyIndex target) {
+        for (int i = 0; i < node.entries.length; i++) {
+            if (node.entries[i] instanceof Node) {
+                this.remap((Node) node.entries[i], remapping, target);
+            } else {
+                int newSlot = remapping.newSlot(node.slots[i]);
+                if (newSlot >= 0) {
+                    target.put((Value) node.entries[i], newSlot);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package db.storage;
+
+import db.value.Value;
+
+/**
+ * Index, der Primärschlüsselwerte den Slots ihrer Zeilen zuordnet.
+ */
+public interface PrimaryKeyIndex {
+
+    /**
+     * Liefert den Slot der Zeile mit dem übergebenen Primärschlüssel.
+     *
+     * @param key Primärschlüssel
+     *
+     * @return Slot oder -1, wenn der Primärschlüssel nicht enthalten ist
+     */
+    int get(Value key);
+
+    /**
+     * Ordnet dem übergebenen Primärschlüssel einen Slot zu. Eine vorhandene Zuordnung wird ersetzt.
+     *
+     * @param key  Primärschlüssel
+     * @param slot Slot
+     */
+    void put(Value key, int slot);
+
+    /**
+     * Liefert die Anzahl der enthaltenen Primärschlüssel.
+     *
+     * @return Anzahl der Primärschlüssel
+     */
+    int size();
+
+    /**
+     * Liefert den geschätzten Speicherbedarf dieses Index in Bytes, ohne die Schlüsselwerte selbst.
+     *
+     * @return Speicherbedarf in Bytes
+     */
+    long getSizeInBytes();
+
+    /**
+     * Passt alle Slots an, nachdem Zeilen entfernt wurden. Primärschlüssel entfernter Zeilen werden dabei entfernt.
+     *
+     * @param remapping Zuordnung alter zu neuen Slots
+     */
+    void remap(SlotRemapping remapping);
+
+    /**
+     * Entfernt alle Primärschlüssel.
+     */
+    void clear();
+
+    /**
+     * Gibt nicht benötigte Kapazität frei, etwa nachdem viele Zeilen entfernt wurden.
+     */
+    void trimToSize();
+}
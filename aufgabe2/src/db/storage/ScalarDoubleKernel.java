@@ -0,0 +1,43 @@
+package db.storage;
+
+/**
+ * Skalare Implementierung der Vergleichsoperationen. Die Schleifen verzweigen nicht abhängig von den Werten, sodass
+ * der JIT-Compiler sie ohne Sprungvorhersage übersetzen kann.
+ */
+final class ScalarDoubleKernel implements DoubleKernel {
+
+    @Override
+    public void greaterThan(double[] values, int size, double bound, long[] words) {
+        for (int i = 0; i < size; i++) {
+            words[i >>> DoubleColumn.WORD_SHIFT] |= (values[i] > bound ? 1L : 0L) << i;
+        }
+    }
+
+    @Override
+    public void lessThan(double[] values, int size, double bound, long[] words) {
+        for (int i = 0; i < size; i++) {
+            words[i >>> DoubleColumn.WORD_SHIFT] |= (values[i] < bound ? 1L : 0L) << i;
+        }
+    }
+
+    @Override
+    public void equalTo(double[] values, int size, double value, long[] words) {
+        for (int i = 0; i < size; i++) {
+            words[i >>> DoubleColumn.WORD_SHIFT] |= (values[i] == value ? 1L : 0L) << i;
+        }
+    }
+
+    @Override
+    public void between(double[] values, int size, double lower, double upper, long[] words) {
+        for (int i = 0; i < size; i++) {
+            words[i >>> DoubleColumn.WORD_SHIFT] |= (values[i] >= lower & values[i] <= upper ? 1L : 0L) << i;
+        }
+    }
+
+    @Override
+    public void in(double[] values, int size, double[] compareValues, long[] words) {
+        for (double compareValue : compareValues) {
+            this.equalTo(values, size, compareValue, words);
+        }
+    }
+}
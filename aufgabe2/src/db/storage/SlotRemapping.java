@@ -0,0 +1,79 @@
+package db.storage;
+
+import java.util.BitSet;
+
+/**
+ * Zuordnung alter zu neuen Slots, nachdem Zeilen entfernt und die übrigen lückenlos nachgerückt wurden.
+ * <p>
+ * Statt eines int-Arrays pro Zeile wird nur pro 64 Slots die Anzahl der davor entfernten Slots gespeichert. Der neue
+ * Slot ergibt sich daraus und den entfernten Slots im selben Wort.
+ */
+public final class SlotRemapping {
+
+    /**
+     * Zweierlogarithmus der Anzahl Slots pro Wort
+     */
+    private static final int WORD_SHIFT = 6;
+
+    /**
+     * Entfernte Slots als Bitwörter
+     */
+    private final long[] words;
+
+    /**
+     * Anzahl der entfernten Slots vor jedem Wort
+     */
+    private final int[] removedBefore;
+
+    /**
+     * Anzahl der verbleibenden Slots
+     */
+    private final int numOfRemaining;
+
+    /**
+     * Konstruktor
+     *
+     * @param removed    entfernte Slots
+     * @param numOfSlots Anzahl der Slots vor dem Entfernen
+     *
+     * @pre removed != null
+     */
+    public SlotRemapping(BitSet removed, int numOfSlots) {
+        assert removed != null : "removed is null";
+        this.words = removed.get(0, numOfSlots).toLongArray();
+        this.removedBefore = new int[(numOfSlots >>> WORD_SHIFT) + 1];
+        int count = 0;
+        for (int i = 0; i < this.removedBefore.length; i++) {
+            this.removedBefore[i] = count;
+            if (i < this.words.length) {
+                count += Long.bitCount(this.words[i]);
+            }
+        }
+        this.numOfRemaining = numOfSlots - count;
+    }
+
+    /**
+     * Liefert die Anzahl der verbleibenden Slots.
+     *
+     * @return Anzahl der verbleibenden Slots
+     */
+    public int getNumOfRemaining() {
+        return this.numOfRemaining;
+    }
+
+    /**
+     * Liefert den neuen Slot zum übergebenen alten Slot.
+     *
+     * @param slot alter Slot
+     *
+     * @return neuer Slot oder -1, wenn der Slot entfernt wurde
+     */
+    public int newSlot(int slot) {
+        int word = slot >>> WORD_SHIFT;
+        long bits = word < this.words.length ? this.words[word] : 0;
+        if ((bits & (1L << slot)) != 0) {
+            return -1;
+        }
+        return slot - this.removedBefore[word] - Long.bitCount(bits & ((1L << slot) - 1));
+    }
+}
@@ -0,0 +1,82 @@
+package db.storage;
+
+import db.value.Value;
+
+import java.util.function.IntFunction;
+
+/**
+ * Speicherart der Zeilen einer Datenbanktabelle.
+ */
+public enum StorageMode {
+
+    /**
+     * Spalten und Primärschlüsselindex liegen auf dem Java-Heap. Zeichenketten werden mit einem Wörterbuch
+     * komprimiert ({@link StringColumn}), Zahlen in einem double-Array gespeichert ({@link DoubleColumn}).
+     */
+    HEAP {
+        @Override
+        public Column createColumn(Value firstValue) {
+            return Column.forValue(firstValue);
+        }
+
+        @Override
+        public PrimaryKeyIndex createPrimaryKeyIndex(IntFunction<Value> keyAt) {
+            return new HeapPrimaryKeyIndex();
+        }
+    },
+
+    /**
+     * Spalten ({@link OffHeapColumn}) und Primärschlüsselindex ({@link OffHeapPrimaryKeyIndex}) liegen außerhalb des
+     * Java-Heaps. Heap-Größe und Dauer der Speicherbereinigung hängen dadurch nicht von der Zeilenanzahl ab. Werte
+     * anderer Typen als {@link db.value.DoubleValue}, {@link db.value.BooleanValue} und {@link db.value.StringValue}
+     * werden in Spalten auf dem Heap gespeichert.
+     */
+    OFF_HEAP {
+        @Override
+        public Column createColumn(Value firstValue) {
+            OffHeapColumn column = new OffHeapColumn();
+            return column.accepts(firstValue) ? column : new ValueColumn();
+        }
+
+        @Override
+        public PrimaryKeyIndex createPrimaryKeyIndex(IntFunction<Value> keyAt) {
+            return new OffHeapPrimaryKeyIndex(keyAt);
+        }
+    },
+
+    /**
+     * Spalten ({@link PersistentColumn}) und Primärschlüsselindex ({@link PersistentPrimaryKeyIndex}) sind persistente
+     * Datenstrukturen mit geteilten Knoten. Kopien einer Tabelle ({@link db.DBTable#copy(String)}) entstehen dadurch
+     * in O(1) bezogen auf die Zeilenanzahl, Änderungen kopieren nur die betroffenen Pfade. Zeichenketten und Zahlen
+     * werden dafür nicht komprimiert, sondern als {@link Value}-Objekte gespeichert.
+     */
+    PERSISTENT {
+        @Override
+        public Column createColumn(Value firstValue) {
+            return new PersistentColumn();
+        }
+
+        @Override
+        public PrimaryKeyIndex createPrimaryKeyIndex(IntFunction<Value> keyAt) {
+            return new PersistentPrimaryKeyIndex();
+        }
+    };
+
+    /**
+     * Erzeugt eine leere Spalte, deren Darstellung zu dieser Speicherart und dem übergebenen Wert passt.
+     *
+     * @param firstValue erster Wert, der in der Spalte gespeichert werden soll
+     *
+     * @return leere Spalte, die den Wert aufnehmen kann
+     */
+    public abstract Column createColumn(Value firstValue);
+
+    /**
+     * Erzeugt einen leeren Primärschlüsselindex dieser Speicherart.
+     *
+     * @param keyAt Funktion, die den Primärschlüssel der Zeile in einem Slot liefert
+     *
+     * @return leerer Primärschlüsselindex
+     */
+    public abstract PrimaryKeyIndex createPrimaryKeyIndex(IntFunction<Value> keyAt);
+}
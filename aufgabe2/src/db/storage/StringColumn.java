@@ -0,0 +1,384 @@
+package db.storage;
+
+import db.predicate.EqualsPredicate;
+import db.value.StringValue;
+import db.value.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Spalte, die ausschließlich {@link StringValue}s speichert und diese komprimiert als int-Codes ablegt.
+ * <p>
+ * Jede unterschiedliche Zeichenkette wird nur einmal in einem Wörterbuch gespeichert, jede Zeile nur ihren Code. Die
+ * Darstellung des Wörterbuchs passt sich der beobachteten Kardinalität an:
+ * <ul>
+ * <li>Bei wenigen unterschiedlichen Werten werden sie in der Reihenfolge ihres ersten Auftretens in einer Liste mit
+ * Hash-Index gehalten.</li>
+ * <li>Sind fast alle Werte unterschiedlich, wird das Wörterbuch sortiert und mit Präfixkompression
+ * ({@link FrontCodedDictionary}) gespeichert. Neue Zeichenketten werden bis zur nächsten Neukodierung in einer
+ * kleinen Liste mit Hash-Index nachgehalten.</li>
+ * </ul>
+ * Bedingungen werden höchstens einmal pro unterschiedlichem Wert ausgewertet, Gleichheitsbedingungen
+ * ({@link EqualsPredicate}) direkt auf den Codes. {@link StringValue}-Objekte werden erst beim Lesen erzeugt.
+ */
+public final class StringColumn extends Column {
+
+    /**
+     * Anfangskapazität des Code-Arrays
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Anzahl unterschiedlicher Werte, bis zu der stets ein unsortiertes Wörterbuch verwendet wird
+     */
+    private static final int LOW_CARDINALITY_LIMIT = 4096;
+
+    /**
+     * Mindestverhältnis von sortiertem Wörterbuch zu nachgehaltenen Werten, bevor neu kodiert wird
+     */
+    private static final int DELTA_RATIO = 4;
+
+    /**
+     * Markierung für eine noch nicht ausgewertete Bedingung
+     */
+    private static final byte UNKNOWN = 0;
+
+    /**
+     * Markierung für eine erfüllte Bedingung
+     */
+    private static final byte MATCH = 1;
+
+    /**
+     * Markierung für eine nicht erfüllte Bedingung
+     */
+    private static final byte NO_MATCH = 2;
+
+    /**
+     * Codes der Werte, nur die ersten size Einträge sind belegt
+     */
+    private int[] codes;
+
+    /**
+     * Anzahl der belegten Slots
+     */
+    private int size;
+
+    /**
+     * Sortiertes Wörterbuch für die Codes 0 bis sorted.size() - 1 oder null, solange unsortiert kodiert wird
+     */
+    private FrontCodedDictionary sorted;
+
+    /**
+     * Unsortiert gespeicherte Zeichenketten, ihr Code ist die Position plus die Größe des sortierten Wörterbuchs
+     */
+    private final List<String> appended;
+
+    /**
+     * Zuordnung der unsortiert gespeicherten Zeichenketten zu ihren Codes
+     */
+    private final Map<String, Integer> appendedCodes;
+
+    /**
+     * Anzahl der Zeichen aller unsortiert nachgehaltenen Zeichenketten
+     */
+    private long appendedChars;
+
+    /**
+     * Konstruktor
+     */
+    public StringColumn() {
+        this.codes = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.sorted = null;
+        this.appended = new ArrayList<>();
+        this.appendedCodes = new HashMap<>();
+    }
+
+    /**
+     * Liefert die Anzahl der Einträge im Wörterbuch. Das Wörterbuch kann auch Werte enthalten, die nach Änderungen
+     * nicht mehr verwendet werden.
+     *
+     * @return Anzahl der Einträge im Wörterbuch
+     */
+    public int getDictionarySize() {
+        return this.sortedSize() + this.appended.size();
+    }
+
+    /**
+     * Gibt an, ob das Wörterbuch aktuell sortiert und präfixkomprimiert gespeichert ist.
+     *
+     * @return Angabe, ob Front Coding verwendet wird
+     */
+    public boolean isFrontCoded() {
+        return this.sorted != null;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Value get(int slot) {
+        return new StringValue(this.getAsDisplayString(slot));
+    }
+
+    @Override
+    public String getAsDisplayString(int slot) {
+        assert slot >= 0 && slot < this.size : "slot out of range";
+        return this.decode(this.codes[slot]);
+    }
+
+    @Override
+    public boolean accepts(Value value) {
+        return value != null && value.getClass() == StringValue.class;
+    }
+
+    @Override
+    public void append(Value value) {
+        assert this.accepts(value) : "value not accepted";
+        if (this.size == this.codes.length) {
+            this.codes = Arrays.copyOf(this.codes, this.codes.length * 2);
+        }
+        this.codes[this.size++] = this.encode(value.getAsString());
+        this.adaptDictionary();
+    }
+
+    @Override
+    public void set(int slot, Value value) {
+        assert slot >= 0 && slot < this.size : "slot out of range";
+        assert this.accepts(value) : "value not accepted";
+        this.codes[slot] = this.encode(value.getAsString());
+        this.adaptDictionary();
+    }
+
+    @Override
+    public void compact(BitSet keep) {
+        assert keep != null : "keep is null";
+        int target = 0;
+        for (int slot = keep.nextSetBit(0); slot >= 0 && slot < this.size; slot = keep.nextSetBit(slot + 1)) {
+            this.codes[target++] = this.codes[slot];
+        }
+        this.size = target;
+        if (this.getDictionarySize() > this.size) {
+            this.reencode();
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.size = 0;
+        this.sorted = null;
+        this.appended.clear();
+        this.appendedCodes.clear();
+        this.appendedChars = 0;
+    }
+
+    @Override
+    public Column copy() {
+        StringColumn copy = new StringColumn();
+        copy.codes = Arrays.copyOf(this.codes, this.codes.length);
+        copy.size = this.size;
+        copy.sorted = this.sorted;
+        copy.appended.addAll(this.appended);
+        copy.appendedCodes.putAll(this.appendedCodes);
+        copy.appendedChars = this.appendedChars;
+        return copy;
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        long bytes = HEADER_BYTES + (long) Integer.BYTES * this.codes.length;
+        if (this.sorted != null) {
+            bytes += HEADER_BYTES + this.sorted.getEncodedSize();
+        }
+        long perAppended = estimateSize("") + REFERENCE_BYTES + MAP_ENTRY_BYTES;
+        return bytes + perAppended * this.appended.size() + (long) Character.BYTES * this.appendedChars;
+    }
+
+    @Override
+    public void trimToSize() {
+        this.codes = Arrays.copyOf(this.codes, Math.max(this.size, INITIAL_CAPACITY));
+        if (this.appended.size() > 0 && this.getDictionarySize() > this.size) {
+            this.reencode();
+        }
+    }
+
+    @Override
+    public boolean prefersColumnarMatch() {
+        return true;
+    }
+
+    @Override
+    public BitSet match(Predicate<Value> predicate, BitSet candidates, BooleanSupplier cancelled) {
+        assert predicate != null : "predicate is null";
+        assert candidates != null : "candidates is null";
+        assert cancelled != null : "cancelled is null";
+
+        BitSet result = new BitSet(this.size);
+        if (predicate instanceof EqualsPredicate equals) {
+            Value compareValue = equals.getCompareValue();
+            int code = compareValue instanceof StringValue ? this.lookup(compareValue.getAsString()) : -1;
+            if (code >= 0) {
+                int checked = 0;
+                for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                    checked++;
+                    if (checked % CANCELLATION_CHECK_INTERVAL == 0) {
+                        checkCancelled(cancelled);
+                    }
+                    if (this.codes[slot] == code) {
+                        result.set(slot);
+                    }
+                }
+            }
+            return result;
+        }
+
+        byte[] decisions = new byte[this.getDictionarySize()];
+        int checked = 0;
+        for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+            checked++;
+            if (checked % CANCELLATION_CHECK_INTERVAL == 0) {
+                checkCancelled(cancelled);
+            }
+            int code = this.codes[slot];
+            if (decisions[code] == UNKNOWN) {
+                decisions[code] = predicate.test(new StringValue(this.decode(code))) ? MATCH : NO_MATCH;
+            }
+            if (decisions[code] == MATCH) {
+                result.set(slot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liefert die Anzahl der Einträge im sortierten Wörterbuch.
+     *
+     * @return Anzahl der sortierten Einträge oder 0, wenn unsortiert kodiert wird
+     */
+    private int sortedSize() {
+        return this.sorted == null ? 0 : this.sorted.size();
+    }
+
+    /**
+     * Liefert die Zeichenkette zu einem Code.
+     *
+     * @param code Code
+     *
+     * @return Zeichenkette
+     */
+    private String decode(int code) {
+        int sortedSize = this.sortedSize();
+        return code < sortedSize ? this.sorted.get(code) : this.appended.get(code - sortedSize);
+    }
+
+    /**
+     * Liefert den Code einer Zeichenkette, ohne sie aufzunehmen.
+     *
+     * @param value Zeichenkette
+     *
+     * @return Code oder -1, wenn die Zeichenkette nicht im Wörterbuch steht
+     */
+    private int lookup(String value) {
+        Integer code = this.appendedCodes.get(value);
+        if (code != null) {
+            return code + this.sortedSize();
+        }
+        return this.sorted == null ? -1 : this.sorted.indexOf(value);
+    }
+
+    /**
+     * Liefert den Code einer Zeichenkette und nimmt sie bei Bedarf in das Wörterbuch auf.
+     *
+     * @param value Zeichenkette
+     *
+     * @return Code
+     */
+    private int encode(String value) {
+        int code = this.lookup(value);
+        if (code >= 0) {
+            return code;
+        }
+
+        this.appendedCodes.put(value, this.appended.size());
+        this.appended.add(value);
+        this.appendedChars += value.length();
+        return this.sortedSize() + this.appended.size() - 1;
+    }
+
+    /**
+     * Prüft, ob die Darstellung des Wörterbuchs zur beobachteten Kardinalität passt, und kodiert die Spalte
+     * gegebenenfalls neu. Die Prüfung erfolgt erst, wenn genügend neue Werte unsortiert nachgehalten werden, sodass die
+     * Kosten des Neukodierens amortisiert werden.
+     */
+    private void adaptDictionary() {
+        int threshold = Math.max(LOW_CARDINALITY_LIMIT, this.sortedSize() / DELTA_RATIO);
+        if (this.appended.size() > threshold && this.isHighCardinality(this.getDictionarySize(), this.size)) {
+            this.reencode();
+        }
+    }
+
+    /**
+     * Gibt an, ob eine Spalte mit den übergebenen Größen als hochkardinal gilt.
+     *
+     * @param distinct Anzahl unterschiedlicher Werte
+     * @param rows     Anzahl der Zeilen
+     *
+     * @return Angabe, ob sortiert mit Präfixkompression kodiert werden soll
+     */
+    private boolean isHighCardinality(int distinct, int rows) {
+        return distinct > LOW_CARDINALITY_LIMIT && distinct * 2L > rows;
+    }
+
+    /**
+     * Baut das Wörterbuch aus den aktuell verwendeten Codes neu auf, wählt dabei anhand der Kardinalität die
+     * Darstellung und schreibt alle Codes um.
+     */
+    private void reencode() {
+        int dictionarySize = this.getDictionarySize();
+        BitSet used = new BitSet(dictionarySize);
+        for (int slot = 0; slot < this.size; slot++) {
+            used.set(this.codes[slot]);
+        }
+
+        String[] sortedValues = this.sorted == null ? new String[0] : this.sorted.toArray();
+        List<String> values = new ArrayList<>(used.cardinality());
+        for (int code = used.nextSetBit(0); code >= 0; code = used.nextSetBit(code + 1)) {
+            values.add(code < sortedValues.length ? sortedValues[code] : this.appended.get(code - sortedValues.length));
+        }
+
+        int[] mapping = new int[dictionarySize];
+        this.appended.clear();
+        this.appendedCodes.clear();
+        this.appendedChars = 0;
+        if (this.isHighCardinality(values.size(), this.size)) {
+            int[] sortedCodes = new int[values.size()];
+            this.sorted = new FrontCodedDictionary(values, sortedCodes);
+            int index = 0;
+            for (int code = used.nextSetBit(0); code >= 0; code = used.nextSetBit(code + 1)) {
+                mapping[code] = sortedCodes[index++];
+            }
+        } else {
+            this.sorted = null;
+            int index = 0;
+            for (int code = used.nextSetBit(0); code >= 0; code = used.nextSetBit(code + 1)) {
+                this.appendedCodes.put(values.get(index), index);
+                this.appended.add(values.get(index));
+                this.appendedChars += values.get(index).length();
+                mapping[code] = index++;
+            }
+        }
+
+        for (int slot = 0; slot < this.size; slot++) {
+            this.codes[slot] = mapping[this.codes[slot]];
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package db.storage;
+
+import db.value.BooleanValue;
+import db.value.DoubleValue;
+import db.value.NullValue;
+import db.value.StringValue;
+import db.value.Value;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binäre Darstellung von Werten und Zeilen für Dateien und das Protokoll von db.server.
+ * <p>
+ * Jeder Wert beginnt mit einer Kennung seiner Art, Zeichenketten folgen als Länge und UTF-8-Bytes, sodass auch
+ * Zeichenketten mit mehr als 65535 Bytes gespeichert werden können. Da {@link Value} nur die Unterklassen aus db.value
+ * haben kann, lässt sich jeder Wert darstellen.
+ */
+public final class ValueCodec {
+
+    /**
+     * Kennung für {@link NullValue}
+     */
+    private static final byte NULL_VALUE = 0;
+
+    /**
+     * Kennung für {@link StringValue}
+     */
+    private static final byte STRING_VALUE = 1;
+
+    /**
+     * Kennung für {@link DoubleValue}
+     */
+    private static final byte DOUBLE_VALUE = 2;
+
+    /**
+     * Kennung für {@link BooleanValue}
+     */
+    private static final byte BOOLEAN_VALUE = 3;
+
+    /**
+     * Versteckter Konstruktor
+     */
+    private ValueCodec() {
+    }
+
+    /**
+     * Schreibt einen Wert.
+     *
+     * @param out   Ausgabe
+     * @param value Wert
+     *
+     * @throws IOException bei einem Fehler beim Schreiben
+     */
+    public static void writeValue(DataOutput out, Value value) throws IOException {
+        if (value instanceof StringValue) {
+            byte[] bytes = value.getAsString().getBytes(StandardCharsets.UTF_8);
+            out.writeByte(STRING_VALUE);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof DoubleValue) {
+            out.writeByte(DOUBLE_VALUE);
+            out.writeDouble(value.getAsDouble());
+        } else if (value instanceof BooleanValue) {
+            out.writeByte(BOOLEAN_VALUE);
+            out.writeBoolean(value.getAsBoolean());
+        } else {
+            out.writeByte(NULL_VALUE);
+        }
+    }
+
+    /**
+     * Liest einen Wert, der mit {@link #writeValue(DataOutput, Value)} geschrieben wurde.
+     *
+     * @param in Eingabe
+     *
+     * @return Wert
+     *
+     * @throws IOException bei einem Fehler beim Lesen oder einer unbekannten Kennung
+     */
+    public static Value readValue(DataInput in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL_VALUE:
+                return NullValue.NULL;
+            case STRING_VALUE:
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return new StringValue(new String(bytes, StandardCharsets.UTF_8));
+            case DOUBLE_VALUE:
+                return new DoubleValue(in.readDouble());
+            case BOOLEAN_VALUE:
+                return new BooleanValue(in.readBoolean());
+            default:
+                throw new IOException("unknown value type " + type);
+        }
+    }
+
+    /**
+     * Schreibt eine Zeile als Anzahl ihrer Werte, gefolgt von den Werten.
+     *
+     * @param out Ausgabe
+     * @param row Zeile
+     *
+     * @throws IOException bei einem Fehler beim Schreiben
+     */
+    public static void writeRow(DataOutput out, List<Value> row) throws IOException {
+        out.writeInt(row.size());
+        for (Value value : row) {
+            writeValue(out, value);
+        }
+    }
+
+    /**
+     * Liest eine Zeile, die mit {@link #writeRow(DataOutput, List)} geschrieben wurde.
+     *
+     * @param in Eingabe
+     *
+     * @return neue Zeile
+     *
+     * @throws IOException bei einem Fehler beim Lesen
+     */
+    public static List<Value> readRow(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<Value> row = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            row.add(readValue(in));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,116 @@
+package db.storage;
+
+import db.value.Value;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Spalte, die ihre Werte unverändert als {@link Value}-Objekte speichert. Sie kann Werte beliebigen Typs aufnehmen.
+ */
+public final class ValueColumn extends Column {
+
+    /**
+     * Anfangskapazität des Werte-Arrays
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Werte, nur die ersten size Einträge sind belegt
+     */
+    private Value[] values;
+
+    /**
+     * Anzahl der belegten Slots
+     */
+    private int size;
+
+    /**
+     * Geschätzter Speicherbedarf der belegten Werte in Bytes
+     */
+    private long valueBytes;
+
+    /**
+     * Konstruktor
+     */
+    public ValueColumn() {
+        this.values = new Value[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Value get(int slot) {
+        assert slot >= 0 && slot < this.size : "slot out of range";
+        return this.values[slot];
+    }
+
+    @Override
+    public boolean accepts(Value value) {
+        return true;
+    }
+
+    @Override
+    public void append(Value value) {
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.values.length * 2);
+        }
+        this.values[this.size++] = value;
+        this.valueBytes += estimateSize(value);
+    }
+
+    @Override
+    public void set(int slot, Value value) {
+        assert slot >= 0 && slot < this.size : "slot out of range";
+        this.valueBytes += estimateSize(value) - estimateSize(this.values[slot]);
+        this.values[slot] = value;
+    }
+
+    @Override
+    public void compact(BitSet keep) {
+        assert keep != null : "keep is null";
+        int target = 0;
+        this.valueBytes = 0;
+        for (int slot = keep.nextSetBit(0); slot >= 0 && slot < this.size; slot = keep.nextSetBit(slot + 1)) {
+            this.valueBytes += estimateSize(this.values[slot]);
+            this.values[target++] = this.values[slot];
+        }
+        Arrays.fill(this.values, target, this.size, null);
+        this.size = target;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.values, 0, this.size, null);
+        this.size = 0;
+        this.valueBytes = 0;
+    }
+
+    @Override
+    public Column copy() {
+        ValueColumn copy = new ValueColumn();
+        copy.values = Arrays.copyOf(this.values, this.values.length);
+        copy.size = this.size;
+        copy.valueBytes = this.valueBytes;
+        return copy;
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return HEADER_BYTES + (long) REFERENCE_BYTES * this.values.length + this.valueBytes;
+    }
+
+    @Override
+    public void trimToSize() {
+        this.values = Arrays.copyOf(this.values, Math.max(this.size, INITIAL_CAPACITY));
+    }
+
+    @Override
+    public Column toValueColumn() {
+        return this;
+    }
+}
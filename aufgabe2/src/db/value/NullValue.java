@@ -0,0 +1,36 @@
+package db.value;
+
+/**
+ * Diese Klasse repräsentiert einen fehlenden Wert, etwa die Spalten einer Tabelle, zu der bei einem Outer Join keine
+ * passende Zeile existiert.
+ * <p>
+ * Ein fehlender Wert ist nur zu sich selbst gleich. Bei Joins stimmt er jedoch mit keinem Wert überein.
+ */
+public final class NullValue extends Value {
+
+    /**
+     * Einzige Instanz
+     */
+    public static final NullValue NULL = new NullValue();
+
+    /**
+     * Versteckter Konstruktor
+     */
+    private NullValue() {
+    }
+
+    @Override
+    public String toString() {
+        return "NULL";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof NullValue;
+    }
+
+    @Override
+    public int hashCode() {
+        return 0;
+    }
+}
@@ -0,0 +1,175 @@
+package db;
+
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import db.value.NullValue;
+import db.value.Value;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests für den Export und das Einblenden von Tabellen im IPC-Format von Apache Arrow
+ */
+@Timeout(10)
+public class ArrowFileTests {
+
+    /**
+     * Erzeugt eine Tabelle mit Zahlen, Wahrheitswerten, Zeichenketten und fehlenden Werten, in der einige Zeilen nur
+     * als gelöscht markiert sind.
+     *
+     * @return Tabelle
+     */
+    private static DBTable createTable() {
+        DBTable table = new DBTable("Tee", "ID", List.of("ID", "Name", "Bio", "Preis"));
+        table.setDeletionMode(DeletionMode.DEFERRED);
+        for (int i = 0; i < 300; i++) {
+            List<Value> row = cVs(i, "Sorte " + i % 7, i % 3 == 0, i * 0.25);
+            if (i % 10 == 0) {
+                row.set(3, NullValue.NULL);
+            }
+            if (i % 11 == 0) {
+                row.set(2, NullValue.NULL);
+            }
+            table.appendRow(row);
+        }
+        table.removeRows(new WhereParameter("ID", new DoubleLessThanPredicate(5)));
+        return table;
+    }
+
+    @Test
+    public void test_fileRoundTrip() throws IOException {
+        DBTable table = createTable();
+        Path file = Files.createTempDirectory("arrow").resolve("Kopie.arrow");
+        table.writeArrow(file);
+
+        DBTable read = DBTable.readArrow(file);
+        assertEquals("Tee", read.getId(), "id from metadata");
+        assertEquals("ID", read.getPrimaryKeyColumnId(), "primary key from metadata");
+        assertEquals(table.getColumnIds(), read.getColumnIds(), "columns");
+        assertEquals(295, read.getNumOfRows(), "deleted rows not exported");
+        assertEquals(table.toString(), read.toString(), "content");
+        assertEquals(table.getRowByPrimaryKey(cV(20)), read.getRowByPrimaryKey(cV(20)), "row with missing price");
+        assertEquals(NullValue.NULL, read.getValueByPrimaryKey(cV(33), "Bio"), "missing boolean");
+
+        DBTable selected = read.select(List.of("ID", "Preis"),
+                List.of(new WhereParameter("Name", new EqualsPredicate(cV("Sorte 3")))), "Auswahl");
+        DBTable expected = table.select(List.of("ID", "Preis"),
+                List.of(new WhereParameter("Name", new EqualsPredicate(cV("Sorte 3")))), "Auswahl");
+        assertEquals(expected.toString(), selected.toString(), "select on dictionary codes");
+    }
+
+    @Test
+    public void test_streamRoundTrip() throws IOException {
+        DBTable table = new DBTable("Kaffee", "Name", List.of("Name", "Herkunft"));
+        table.appendRow(cVs("Mokka", "Jemen"));
+        table.appendRow(cVs("Kona", "Hawaii"));
+        table.appendRow(cVs("Java", "Jemen"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        table.writeArrowStream(out);
+        byte[] bytes = out.toByteArray();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(-1, buffer.getInt(0), "continuation marker");
+        assertEquals(0, (buffer.getInt(4) + 8) % 8, "aligned metadata");
+        assertEquals(-1, buffer.getInt(bytes.length - 8), "end-of-stream marker");
+        assertEquals(0, buffer.getInt(bytes.length - 4), "end-of-stream length");
+
+        Path file = Files.createTempDirectory("arrow").resolve("Kaffee.arrows");
+        Files.write(file, bytes);
+        DBTable read = DBTable.readArrow(file);
+        assertEquals(table.toString(), read.toString(), "content");
+        assertEquals(cVs("Kona", "Hawaii"), read.getRowByPrimaryKey(cV("Kona")), "row by primary key");
+    }
+
+    @Test
+    public void test_fileLayout() throws IOException {
+        Path file = Files.createTempDirectory("arrow").resolve("Tee.arrow");
+        createTable().writeArrow(file);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals("ARROW1", new String(bytes, 0, 6, StandardCharsets.US_ASCII), "leading magic");
+        assertEquals("ARROW1", new String(bytes, bytes.length - 6, 6, StandardCharsets.US_ASCII), "trailing magic");
+        int footerLength = buffer.getInt(bytes.length - 10);
+        int footerStart = bytes.length - 10 - footerLength;
+        assertTrue(footerLength > 0 && footerStart > 8, "footer inside file");
+        assertEquals(-1, buffer.getInt(footerStart - 8), "end-of-stream before footer");
+        assertEquals(-1, buffer.getInt(8), "schema message after magic");
+    }
+
+    @Test
+    public void test_mappedColumnsCopiedOnWrite() throws IOException {
+        DBTable table = createTable();
+        Path file = Files.createTempDirectory("arrow").resolve("Tee.arrow");
+        table.writeArrow(file);
+        DBTable read = DBTable.readArrow(file);
+        DBTable other = DBTable.readArrow(file);
+
+        read.update("Name", cV("Grün"), List.of(new WhereParameter("ID", new DoubleLessThanPredicate(12))));
+        read.update("Preis", cV(1.5), List.of(new WhereParameter("ID", new EqualsPredicate(cV(10)))));
+        read.appendRow(cVs(1000, "Neu", true, 9.5));
+        read.removeRows(new WhereParameter("ID", new EqualsPredicate(cV(20))));
+        table.update("Name", cV("Grün"), List.of(new WhereParameter("ID", new DoubleLessThanPredicate(12))));
+        table.update("Preis", cV(1.5), List.of(new WhereParameter("ID", new EqualsPredicate(cV(10)))));
+        table.appendRow(cVs(1000, "Neu", true, 9.5));
+        table.removeRows(new WhereParameter("ID", new EqualsPredicate(cV(20))));
+        assertEquals(table.toString(), read.toString(), "changes applied");
+        assertEquals(cVs(1000, "Neu", true, 9.5), read.getRowByPrimaryKey(cV(1000)), "appended row");
+
+        assertEquals(createTable().toString(), other.toString(), "second mapping unchanged");
+        assertEquals(createTable().toString(), DBTable.readArrow(file).toString(), "file unchanged");
+
+        read.removeAllRows();
+        assertEquals(0, read.getNumOfRows(), "emptied");
+        read.appendRow(cVs(1, "Eins", false, 1.0));
+        assertEquals(cVs(1, "Eins", false, 1.0), read.getRowByPrimaryKey(cV(1)), "row after emptying");
+    }
+
+    @Test
+    public void test_emptyTable() throws IOException {
+        DBTable table = new DBTable("Leer", "ID", List.of("ID", "Name"));
+        Path file = Files.createTempDirectory("arrow").resolve("Leer.arrow");
+        table.writeArrow(file);
+        DBTable read = DBTable.readArrow(file);
+        assertEquals(0, read.getNumOfRows(), "no rows");
+        assertEquals(table.getColumnIds(), read.getColumnIds(), "columns");
+        read.appendRow(cVs(1, "Eins"));
+        assertEquals(cVs(1, "Eins"), read.getRowByPrimaryKey(cV(1)), "append to empty import");
+    }
+
+    @Test
+    public void test_unsupportedInput() throws IOException {
+        DBTable mixed = new DBTable("Gemischt", "ID", List.of("ID", "Wert"));
+        mixed.appendRow(cVs(1, "eins"));
+        mixed.appendRow(cVs(2, 2));
+        Path directory = Files.createTempDirectory("arrow");
+        assertThrows(IllegalArgumentException.class, () -> mixed.writeArrow(directory.resolve("Gemischt.arrow")),
+                "mixed value types");
+
+        Path text = directory.resolve("Text.arrow");
+        Files.writeString(text, "ID,Name\n1,Tee\n");
+        assertThrows(UncheckedIOException.class, () -> DBTable.readArrow(text), "not an Arrow file");
+
+        Path truncated = directory.resolve("Kurz.arrow");
+        createTable().writeArrow(truncated);
+        Files.write(truncated, Arrays.copyOf(Files.readAllBytes(truncated), 64));
+        assertThrows(UncheckedIOException.class, () -> DBTable.readArrow(truncated), "truncated file");
+    }
+}
@@ -0,0 +1,183 @@
+package db;
+
+import db.predicate.DoubleLessThanPredicate;
+import db.storage.Column;
+import db.value.Value;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests für die asynchrone Schnittstelle
+ */
+@Timeout(10)
+public class AsyncTests {
+
+    /**
+     * Erzeugt eine Datenbank mit einer Tee- und einer Kategorie-Tabelle.
+     *
+     * @param rows Anzahl der Zeilen der Tee-Tabelle
+     *
+     * @return Datenbank
+     */
+    private static DB createDB(int rows) {
+        DB db = new DB("TassenFreudenDB");
+        DBTable tee = new DBTable("Tee", "ID", List.of("ID", "Name", "KategorieID"));
+        for (int i = 0; i < rows; i++) {
+            tee.appendRow(cVs(i, "Tee " + i, i % 3 + 1));
+        }
+        DBTable kategorie = new DBTable("Kategorie", "ID", List.of("ID", "Beschreibung"));
+        kategorie.appendRow(cVs(1, "Grüner Tee"));
+        kategorie.appendRow(cVs(2, "Schwarzer Tee"));
+        kategorie.appendRow(cVs(3, "Kräutertee"));
+        db.addTable(tee);
+        db.addTable(kategorie);
+        return db;
+    }
+
+    @Test
+    public void test_selectAndEquijoin() throws InterruptedException, ExecutionException {
+        DB db = createDB(10_000);
+        ExecutorService executor = AsyncDB.newPlatformExecutor(2);
+        AsyncDB async = new AsyncDB(db, executor);
+        List<WhereParameter> whereParams = List.of(new WhereParameter("ID", new DoubleLessThanPredicate(100)));
+
+        CompletableFuture<DBTable> selected = async.select("Tee", List.of("ID", "Name"), whereParams, "Auswahl");
+        CompletableFuture<DBTable> joined = async.equijoin("Tee", "Kategorie", "KategorieID", "TeeMitKategorie");
+        assertEquals(db.getTable("Tee").select(List.of("ID", "Name"), whereParams, "Auswahl").toString(),
+                selected.get().toString(), "select");
+        assertEquals(db.getTable("Tee").equijoin(db.getTable("Kategorie"), "KategorieID", "TeeMitKategorie")
+                .toString(), joined.get().toString(), "equijoin");
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> async.select("Bestellung", null, List.of(), "Auswahl").get(), "unknown table");
+        assertTrue(failure.getCause() instanceof IllegalArgumentException, "cause of failure");
+        executor.shutdown();
+    }
+
+    @Test
+    public void test_cancellation() throws InterruptedException, ExecutionException {
+        DB db = createDB(10_000);
+        DBTable tee = db.getTable("Tee");
+        AtomicInteger tested = new AtomicInteger();
+        assertThrows(CancellationException.class, () -> tee.executeSelect(new int[] {0}, new int[] {1},
+                List.of(value -> tested.incrementAndGet() > 0), "Auswahl", () -> tested.get() > 0),
+                "select stops when cancelled");
+        assertTrue(tested.get() <= Column.CANCELLATION_CHECK_INTERVAL, "conditions checked for " + tested.get()
+                + " rows after cancellation");
+        AtomicInteger checks = new AtomicInteger();
+        assertThrows(CancellationException.class, () -> tee.equijoin(db.getTable("Kategorie"), "KategorieID",
+                "TeeMitKategorie", () -> checks.incrementAndGet() > 0), "equijoin stops when cancelled");
+        assertEquals(1, checks.get(), "equijoin checks regularly");
+
+        ExecutorService executor = AsyncDB.newPlatformExecutor(1);
+        AsyncDB async = new AsyncDB(db, executor);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        Predicate<Value> blocking = value -> {
+            started.countDown();
+            try {
+                cancelled.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        };
+        CompletableFuture<DBTable> slow = async.select("Tee", null, List.of(new WhereParameter("Name", blocking)),
+                "Alle");
+        started.await();
+        assertTrue(slow.cancel(true), "future cancelled");
+        cancelled.countDown();
+        assertThrows(CancellationException.class, slow::join, "cancelled future");
+        assertEquals(3, async.select("Kategorie", null, List.of(), "Kopie").get().getNumOfRows(),
+                "executor free again after cancellation");
+        executor.shutdown();
+    }
+
+    @Test
+    public void test_selectRowsBackPressure() throws InterruptedException {
+        DB db = createDB(1_000);
+        ExecutorService executor = AsyncDB.newVirtualThreadExecutor();
+        AsyncDB async = new AsyncDB(db, executor);
+
+        List<List<List<Value>>> batches = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        async.selectRows("Tee", List.of("ID"), List.of(), 64).subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(List<List<Value>> batch) {
+                batches.add(batch);
+                this.subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS), "stream completed");
+        assertEquals(16, batches.size(), "number of batches");
+        assertEquals(64, batches.get(0).size(), "full batch");
+        assertEquals(List.of(cV(999)), batches.get(15).get(39), "last row");
+
+        List<List<List<Value>>> received = new ArrayList<>();
+        List<Flow.Subscription> subscriptions = new ArrayList<>();
+        CountDownLatch first = new CountDownLatch(1);
+        async.selectRows("Tee", null, List.of(), 10).subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriptions.add(subscription);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(List<List<Value>> batch) {
+                received.add(batch);
+                first.countDown();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        assertTrue(first.await(5, TimeUnit.SECONDS), "first batch delivered");
+        Thread.sleep(100);
+        assertEquals(1, received.size(), "no batch delivered without demand");
+        subscriptions.get(0).cancel();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS), "selection ends after cancel");
+    }
+}
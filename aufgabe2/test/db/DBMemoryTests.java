@@ -0,0 +1,145 @@
+package db;
+
+import db.predicate.EqualsPredicate;
+import db.value.Value;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests für Speicherbedarf und Auslagern von Tabellen
+ */
+@Timeout(10)
+public class DBMemoryTests {
+
+    /**
+     * Erzeugt eine Tabelle mit der übergebenen Anzahl an Zeilen.
+     *
+     * @param id        Bezeichner der Tabelle
+     * @param numOfRows Anzahl der Zeilen
+     *
+     * @return Tabelle
+     */
+    private static DBTable createTable(String id, int numOfRows) {
+        DBTable table = new DBTable(id, "ID", List.of("ID", "Name", "Koffein"));
+        for (int i = 0; i < numOfRows; i++) {
+            table.appendRow(cVs(i, "Tee " + i, i % 2 == 0));
+        }
+        return table;
+    }
+
+    @Test
+    public void test_sizeGrowsWithRows() {
+        DBTable table = createTable("Tee", 0);
+        long empty = table.getSizeInBytes();
+        for (int i = 0; i < 1_000; i++) {
+            table.appendRow(cVs(i, "Tee " + i, true));
+        }
+        long filled = table.getSizeInBytes();
+        assertTrue(filled > empty + 1_000 * Double.BYTES, "rows counted");
+        table.createBitmapIndex("Koffein");
+        assertTrue(table.getSizeInBytes() > filled, "index counted");
+        table.removeAllRows();
+        assertTrue(table.getSizeInBytes() < filled, "removed rows released");
+    }
+
+    @Test
+    public void test_leastRecentlyUsedTableEvictedAndReloaded() throws IOException {
+        Path directory = Files.createTempDirectory("dbmemory");
+        DB db = new DB("TeeDB");
+        db.addTable(createTable("A", 1_000));
+        db.addTable(createTable("B", 1_000));
+        db.addTable(createTable("C", 1_000));
+        db.getTable("A").createBitmapIndex("Koffein");
+        long tableSize = db.getTable("B").getSizeInBytes();
+        List<Value> expectedRow = db.getTable("A").getRowByPrimaryKey(cV(7));
+        String expectedTable = db.getTable("A").toString();
+
+        db.setMemoryBudget(2 * tableSize + tableSize / 2, directory);
+        assertFalse(db.isResident("C"), "least recently used table evicted");
+        assertTrue(db.isResident("A") && db.isResident("B"), "recently used tables resident");
+        assertTrue(Files.exists(directory.resolve("C.table")), "table file written");
+        assertTrue(db.getMemoryUsage() <= db.getMemoryBudget(), "budget kept");
+        assertTrue(db.hasTable("C"), "evicted table still exists");
+        assertEquals(List.of("A", "B", "C"), db.getTableIds(), "table ids");
+
+        DBTable reloaded = db.getTable("C");
+        assertEquals(1_000, reloaded.getNumOfRows(), "rows reloaded");
+        assertTrue(db.isResident("C"), "reloaded table resident");
+        assertFalse(db.isResident("B"), "next least recently used table evicted");
+        db.getTable("B");
+        assertFalse(db.isResident("A"), "table with index evicted");
+
+        DBTable a = db.getTable("A");
+        assertEquals(3, db.getNumOfReloads(), "reloads");
+        assertEquals(4, db.getNumOfEvictions(), "evictions");
+        assertEquals(expectedRow, a.getRowByPrimaryKey(cV(7)), "row restored");
+        assertTrue(a.hasBitmapIndex("Koffein"), "index restored");
+        assertEquals(expectedTable, a.toString(), "table restored");
+        assertFalse(db.getEvictionTime().isNegative() || db.getReloadTime().isZero(), "times recorded");
+
+        db.removeAllTables();
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count(), "table files deleted");
+        }
+    }
+
+    @Test
+    public void test_evictedReferenceRejectsWrites() throws IOException {
+        Path directory = Files.createTempDirectory("dbmemory");
+        DB db = new DB("TeeDB");
+        db.addTable(createTable("A", 1_000));
+        db.addTable(createTable("B", 1_000));
+        DBTable a = db.getTable("A");
+        db.setMemoryBudget(a.getSizeInBytes() + a.getSizeInBytes() / 2, directory);
+        db.getTable("B");
+        assertFalse(db.isResident("A"), "table evicted");
+
+        assertThrows(IllegalStateException.class, () -> a.appendRow(cVs(1_000, "Neu", true)), "append rejected");
+        assertThrows(IllegalStateException.class, () -> a.update("Name", cV("Neu"), List.of()), "update rejected");
+        assertThrows(IllegalStateException.class, a::removeAllRows, "removal rejected");
+        assertThrows(IllegalStateException.class, () -> a.explainUpdate("Name", cV("Neu"), List.of(), true),
+                "analyzed update rejected");
+        assertThrows(IllegalStateException.class,
+                () -> a.explainRemoveRows(new WhereParameter("ID", new EqualsPredicate(cV(7))), true),
+                "analyzed removal rejected");
+        assertEquals(cVs(7, "Tee 7", false), a.getRowByPrimaryKey(cV(7)), "evicted state still readable");
+
+        DBTable reloaded = db.getTable("A");
+        assertEquals(1_000, reloaded.getNumOfRows(), "no write lost or applied to the evicted object");
+        reloaded.appendRow(cVs(1_000, "Neu", true));
+        assertEquals(1_001, db.getTable("A").getNumOfRows(), "writes through the reloaded table kept");
+        assertTrue(db.getMemoryUsage() <= db.getMemoryBudget(), "budget kept");
+    }
+
+    @Test
+    public void test_tablesWithViewsStayResident() throws IOException {
+        Path directory = Files.createTempDirectory("dbmemory");
+        DB db = new DB("TeeDB");
+        db.addTable(createTable("A", 1_000));
+        db.createMaterializedView("Koffeinhaltig", ViewDefinition.select("A", List.of("ID", "Name"),
+                List.of(new WhereParameter("Koffein", new EqualsPredicate(cV(true))))));
+        db.addTable(createTable("B", 1_000));
+
+        db.setMemoryBudget(0, directory);
+        assertTrue(db.isResident("A"), "base table pinned");
+        assertTrue(db.isResident("Koffeinhaltig"), "view pinned");
+        assertFalse(db.isResident("B"), "unpinned table evicted");
+
+        db.getTable("A").appendRow(cVs(1_000, "Neu", true));
+        assertEquals(501, db.getTable("Koffeinhaltig").getNumOfRows(), "view maintained");
+        db.removeTable("B");
+        assertFalse(Files.exists(directory.resolve("B.table")), "table file deleted");
+    }
+}
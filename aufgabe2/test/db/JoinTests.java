@@ -0,0 +1,122 @@
+package db;
+
+import db.value.NullValue;
+import db.value.Value;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests für Hash Joins
+ */
+@Timeout(10)
+public class JoinTests {
+
+    @Test
+    public void test_hashJoinTypes() {
+        final DBTable tee = new DBTable("Tee", "ID", List.of("ID", "Name", "Land"));
+        tee.appendRow(cVs(1, "Sencha", "Japan"));
+        tee.appendRow(cVs(2, "Darjeeling", "Indien"));
+        tee.appendRow(cVs(3, "Gyokuro", "Japan"));
+        tee.appendRow(cVs(4, "Rooibos", "Südafrika"));
+        final DBTable haendler = new DBTable("Haendler", "ID", List.of("ID", "Land"));
+        haendler.appendRow(cVs(10, "Japan"));
+        haendler.appendRow(cVs(11, "Indien"));
+        haendler.appendRow(cVs(12, "Japan"));
+
+        DBTable inner = tee.hashJoin(haendler, "Land", "Land", JoinType.INNER, "Angebot");
+        assertEquals(List.of("Nr", "Tee_ID", "Tee_Name", "Tee_Land", "Haendler_ID", "Haendler_Land"),
+                inner.getColumnIds(), "column ids");
+        assertEquals(5, inner.getNumOfRows(), "inner join rows");
+        assertEquals(cVs(2, 1, "Sencha", "Japan", 12, "Japan"), inner.getRowByPrimaryKey(cV(2)), "row order");
+        assertEquals(cVs(5, 3, "Gyokuro", "Japan", 12, "Japan"), inner.getRowByPrimaryKey(cV(5)), "last row");
+
+        DBTable outer = tee.hashJoin(haendler, "Land", "Land", JoinType.LEFT_OUTER, "Angebot");
+        assertEquals(6, outer.getNumOfRows(), "left outer join rows");
+        assertEquals(NullValue.NULL, outer.getValueByPrimaryKey(cV(6), "Haendler_ID"), "missing partner");
+
+        DBTable semi = tee.hashJoin(haendler, "Land", "Land", JoinType.SEMI, "Lieferbar");
+        assertEquals("Tee_ID", semi.getPrimaryKeyColumnId(), "semi join keeps primary key");
+        assertEquals(3, semi.getNumOfRows(), "semi join rows");
+        DBTable anti = tee.hashJoin(haendler, "Land", "Land", JoinType.ANTI, "Fehlend");
+        assertEquals(List.of(cVs(4, "Rooibos", "Südafrika")), List.of(anti.getRowByPrimaryKey(cV(4))), "anti join");
+        assertEquals(1, anti.getNumOfRows(), "anti join rows");
+
+        DBTable reversed = haendler.hashJoin(tee, "Land", "Land", JoinType.INNER, "Angebot");
+        assertEquals(cVs(1, 10, "Japan", 1, "Sencha", "Japan"), reversed.getRowByPrimaryKey(cV(1)),
+                "build side does not change row order");
+    }
+
+    @Test
+    public void test_multiWayJoin() {
+        final DBTable verkauf = new DBTable("Verkauf", "ID", List.of("ID", "TeeID", "KundeID"));
+        final DBTable tee = new DBTable("Tee", "ID", List.of("ID", "KategorieID"));
+        final DBTable kategorie = new DBTable("Kategorie", "ID", List.of("ID", "Name"));
+        final DBTable kunde = new DBTable("Kunde", "ID", List.of("ID", "Name"));
+        final DBTable gesperrt = new DBTable("Gesperrt", "KundeID", List.of("KundeID"));
+        for (int i = 0; i < 1000; i++) {
+            verkauf.appendRow(cVs(i, i % 10, i % 100));
+        }
+        for (int i = 0; i < 10; i++) {
+            tee.appendRow(cVs(i, i % 3));
+        }
+        kategorie.appendRow(cVs(0, "Grün"));
+        kategorie.appendRow(cVs(1, "Schwarz"));
+        for (int i = 0; i < 100; i++) {
+            kunde.appendRow(cVs(i, "Kunde " + i));
+        }
+        gesperrt.appendRow(cVs(5));
+
+        HashJoin join = new HashJoin(verkauf)
+                .join(verkauf, "KundeID", kunde, "ID", JoinType.INNER)
+                .join(verkauf, "TeeID", tee, "ID", JoinType.INNER)
+                .join(tee, "KategorieID", kategorie, "ID", JoinType.LEFT_OUTER)
+                .join(verkauf, "KundeID", gesperrt, "KundeID", JoinType.ANTI);
+        assertEquals(List.of("Gesperrt", "Tee", "Kunde", "Kategorie"), join.getJoinOrder(), "join order");
+
+        DBTable result = join.execute("Bericht");
+        assertEquals("Verkauf_ID", result.getPrimaryKeyColumnId(), "primary key of base table");
+        assertEquals(List.of("Verkauf_ID", "Verkauf_TeeID", "Verkauf_KundeID", "Kunde_ID", "Kunde_Name", "Tee_ID",
+                "Tee_KategorieID", "Kategorie_ID", "Kategorie_Name"), result.getColumnIds(), "column ids");
+        assertEquals(990, result.getNumOfRows(), "anti join removes blocked customer");
+        List<Value> expected = new ArrayList<>(cVs(12, 2, 12, 12, "Kunde 12", 2, 2));
+        expected.add(NullValue.NULL);
+        expected.add(NullValue.NULL);
+        assertEquals(expected, result.getRowByPrimaryKey(cV(12)), "row with missing category");
+        assertEquals(cV("Schwarz"), result.getValueByPrimaryKey(cV(7), "Kategorie_Name"), "category name");
+    }
+
+    @Test
+    public void test_semiAndAntijoin() {
+        final DBTable tee = new DBTable("Tee", "ID", List.of("ID", "Name", "KategorieID"));
+        tee.appendRow(cVs(1, "Sencha", 10));
+        tee.appendRow(cVs(2, "Assam", 20));
+        tee.appendRow(cVs(3, "Gyokuro", 10));
+        tee.appendRow(List.of(cV(4), cV("Mate"), NullValue.NULL));
+        tee.appendRow(cVs(5, "Rooibos", 30));
+        final DBTable kategorie = new DBTable("Kategorie", "ID", List.of("ID", "Name"));
+        kategorie.appendRow(cVs(10, "Grün"));
+        kategorie.appendRow(cVs(20, "Schwarz"));
+
+        for (int run = 0; run < 2; run++) {
+            DBTable semi = tee.semijoin(kategorie, "KategorieID", "Kategorisiert");
+            assertEquals(List.of("ID", "Name", "KategorieID"), semi.getColumnIds(), "schema kept");
+            assertEquals("ID", semi.getPrimaryKeyColumnId(), "primary key kept");
+            assertEquals(3, semi.getNumOfRows(), "semi join rows");
+            assertEquals(cVs(3, "Gyokuro", 10), semi.getRowByPrimaryKey(cV(3)), "semi join row");
+
+            DBTable anti = tee.antijoin(kategorie, "KategorieID", "Unkategorisiert");
+            assertEquals(2, anti.getNumOfRows(), "anti join rows");
+            assertEquals(cVs(5, "Rooibos", 30), anti.getRowByPrimaryKey(cV(5)), "dangling reference");
+            assertEquals(NullValue.NULL, anti.getValueByPrimaryKey(cV(4), "KategorieID"), "null reference");
+
+            kategorie.createPrimaryKeyFilter();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package db;
+
+import db.predicate.DoubleGreaterThanPredicate;
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import db.value.Value;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests für materialisierte Sichten
+ */
+@Timeout(10)
+public class MaterializedViewTests {
+
+    /**
+     * Erzeugt eine Datenbank mit einer Tee- und einer Kategorie-Tabelle.
+     *
+     * @return Datenbank
+     */
+    private static DB createDB() {
+        DB db = new DB("TassenFreudenDB");
+        DBTable tee = new DBTable("Tee", "ID", List.of("ID", "Name", "KategorieID", "Preis"));
+        for (int i = 0; i < 200; i++) {
+            tee.appendRow(cVs(i, "Tee " + i, i % 4 + 1, i % 10));
+        }
+        DBTable kategorie = new DBTable("Kategorie", "ID", List.of("ID", "Beschreibung"));
+        kategorie.appendRow(cVs(1, "Grüner Tee"));
+        kategorie.appendRow(cVs(2, "Schwarzer Tee"));
+        kategorie.appendRow(cVs(3, "Kräutertee"));
+        db.addTable(tee);
+        db.addTable(kategorie);
+        return db;
+    }
+
+    /**
+     * Liefert alle Zeilen einer Tabelle nach ihrem Primärschlüssel.
+     *
+     * @param table Tabelle
+     *
+     * @return Zeilen nach Primärschlüssel
+     */
+    private static Map<Value, List<Value>> rowsOf(DBTable table) {
+        int pkIndex = table.getColumnIds().indexOf(table.getPrimaryKeyColumnId());
+        Map<Value, List<Value>> rows = new HashMap<>();
+        table.forEachRow(row -> rows.put(row.get(pkIndex), row));
+        return rows;
+    }
+
+    @Test
+    public void test_selectViewFollowsChanges() {
+        DB db = createDB();
+        DBTable tee = db.getTable("Tee");
+        List<WhereParameter> whereParams = List.of(new WhereParameter("Preis", new DoubleLessThanPredicate(3)),
+                new WhereParameter("KategorieID", new EqualsPredicate(cV(4))));
+        DBTable view = db.createMaterializedView("GuenstigerTee",
+                ViewDefinition.select("Tee", List.of("ID", "Name", "Preis"), whereParams));
+        assertTrue(db.isMaterializedView("GuenstigerTee"), "view registered");
+        assertEquals(List.of("ID", "Name", "Preis"), view.getColumnIds(), "projected columns");
+
+        tee.appendRow(cVs(1_000, "Neu", 1, 1));
+        tee.appendRow(cVs(1_001, "Teuer", 1, 9));
+        tee.update("Preis", cV(0), List.of(new WhereParameter("ID", new EqualsPredicate(cV(5)))));
+        tee.update("Preis", cV(8), List.of(new WhereParameter("ID", new EqualsPredicate(cV(1)))));
+        tee.update("Name", cV("Umbenannt"), List.of(new WhereParameter("ID", new EqualsPredicate(cV(2)))));
+        tee.removeRows(new WhereParameter("ID", new DoubleGreaterThanPredicate(150)));
+
+        assertEquals(rowsOf(tee.select(List.of("ID", "Name", "Preis"), whereParams, "Neu")), rowsOf(view),
+                "view equals recomputed select");
+        assertEquals(cVs(2, "Umbenannt", 2), view.getRowByPrimaryKey(cV(2)), "updated row");
+
+        tee.removeAllRows();
+        assertEquals(0, view.getNumOfRows(), "view emptied");
+    }
+
+    @Test
+    public void test_joinViewFollowsChanges() {
+        DB db = createDB();
+        DBTable tee = db.getTable("Tee");
+        DBTable kategorie = db.getTable("Kategorie");
+        DBTable view = db.createMaterializedView("TeeMitKategorie",
+                ViewDefinition.equijoin("Tee", "Kategorie", "KategorieID"));
+        assertEquals(150, view.getNumOfRows(), "initial join");
+
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            int id = random.nextInt(300);
+            switch (random.nextInt(5)) {
+                case 0:
+                    tee.appendRow(cVs(id, "Tee " + id, random.nextInt(5) + 1, random.nextInt(10)));
+                    break;
+                case 1:
+                    tee.update("KategorieID", cV(random.nextInt(5) + 1),
+                            List.of(new WhereParameter("ID", new EqualsPredicate(cV(id)))));
+                    break;
+                case 2:
+                    tee.removeRows(new WhereParameter("ID", new EqualsPredicate(cV(id))));
+                    break;
+                case 3:
+                    kategorie.update("Beschreibung", cV("Sorte " + i),
+                            List.of(new WhereParameter("ID", new EqualsPredicate(cV(id % 5 + 1)))));
+                    break;
+                default:
+                    if (kategorie.getRowByPrimaryKey(cV(id % 5 + 1)) == null) {
+                        kategorie.appendRow(cVs(id % 5 + 1, "Kategorie " + i));
+                    } else {
+                        kategorie.removeRows(new WhereParameter("ID", new EqualsPredicate(cV(id % 5 + 1))));
+                    }
+            }
+            if (i % 50 == 0) {
+                assertEquals(rowsOf(tee.equijoin(kategorie, "KategorieID", "Neu")), rowsOf(view),
+                        "view equals recomputed join after " + i + " changes");
+            }
+        }
+        assertEquals(rowsOf(tee.equijoin(kategorie, "KategorieID", "Neu")), rowsOf(view),
+                "view equals recomputed join");
+
+        kategorie.removeAllRows();
+        assertEquals(0, view.getNumOfRows(), "view emptied");
+    }
+
+    @Test
+    public void test_removeView() {
+        DB db = createDB();
+        DBTable tee = db.getTable("Tee");
+        DBTable view = db.createMaterializedView("AlleTees", ViewDefinition.select("Tee", null, List.of()));
+        assertEquals(200, view.getNumOfRows(), "all rows");
+
+        db.removeTable("AlleTees");
+        tee.appendRow(cVs(1_000, "Neu", 1, 1));
+        assertFalse(db.isMaterializedView("AlleTees"), "view removed");
+        assertEquals(200, view.getNumOfRows(), "removed view no longer maintained");
+    }
+}
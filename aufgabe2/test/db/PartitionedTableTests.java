@@ -0,0 +1,115 @@
+package db;
+
+import db.predicate.DoubleGreaterThanPredicate;
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import db.value.Value;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests für partitionierte Tabellen
+ */
+@Timeout(10)
+public class PartitionedTableTests {
+
+    /**
+     * Liefert alle Zeilen einer Tabelle nach ihrem Primärschlüssel.
+     *
+     * @param table Tabelle
+     *
+     * @return Zeilen nach Primärschlüssel
+     */
+    private static Map<Value, List<Value>> rowsOf(DBTable table) {
+        Map<Value, List<Value>> rows = new HashMap<>();
+        table.forEachRow(row -> rows.put(row.get(0), row));
+        return rows;
+    }
+
+    @Test
+    public void test_operationsMatchSingleTable() {
+        List<String> colIds = List.of("ID", "Name", "KategorieID");
+        PartitionedTable partitioned = new PartitionedTable("Tee", "ID", colIds, 4);
+        DBTable single = new DBTable("Tee", "ID", colIds);
+        for (int i = 0; i < 10_000; i++) {
+            partitioned.appendRow(cVs(i, "Tee " + i, i % 3 + 1));
+            single.appendRow(cVs(i, "Tee " + i, i % 3 + 1));
+        }
+        partitioned.appendRow(cVs(5, "Doppelt", 1));
+        assertEquals(10_000, partitioned.getNumOfRows(), "duplicate primary key ignored");
+
+        List<WhereParameter> update = List.of(new WhereParameter("KategorieID", new EqualsPredicate(cV(2))));
+        partitioned.update("Name", cV("Schwarz"), update);
+        single.update("Name", cV("Schwarz"), update);
+        WhereParameter remove = new WhereParameter("ID", new DoubleGreaterThanPredicate(7_999));
+        partitioned.removeRows(remove);
+        single.removeRows(remove);
+
+        List<WhereParameter> select = List.of(new WhereParameter("ID", new DoubleLessThanPredicate(100)),
+                new WhereParameter("KategorieID", new EqualsPredicate(cV(3))));
+        DBTable expected = single.select(List.of("ID", "Name"), select, "Ergebnis");
+        DBTable actual = partitioned.select(List.of("ID", "Name"), select, "Ergebnis");
+        assertEquals(expected.getColumnIds(), actual.getColumnIds(), "columns");
+        assertEquals(rowsOf(expected), rowsOf(actual), "rows");
+        assertEquals(cVs(4, "Schwarz", 2), partitioned.getRowByPrimaryKey(cV(4)), "row by primary key");
+        assertNull(partitioned.getRowByPrimaryKey(cV(9_000)), "removed row");
+
+        partitioned.removeAllRows();
+        assertEquals(0, partitioned.getNumOfRows(), "all rows removed");
+    }
+
+    @Test
+    public void test_rowOrderAndDistribution() {
+        PartitionedTable table = new PartitionedTable("Tee", "ID", List.of("ID", "Name"), 8);
+        for (int i = 0; i < 8_000; i++) {
+            table.appendRow(cVs(i, "Tee " + i));
+        }
+        int[] rowsPerPartition = new int[table.getNumOfPartitions()];
+        List<Integer> partitionsInOrder = new ArrayList<>();
+        List<Double> idsInOrder = new ArrayList<>();
+        table.select(null, List.of(), "Alle").forEachRow(row -> {
+            partitionsInOrder.add(table.partitionOf(row.get(0)));
+            idsInOrder.add(row.get(0).getAsDouble());
+            rowsPerPartition[table.partitionOf(row.get(0))]++;
+        });
+        for (int i = 1; i < partitionsInOrder.size(); i++) {
+            assertTrue(partitionsInOrder.get(i - 1) < partitionsInOrder.get(i)
+                    || partitionsInOrder.get(i - 1).equals(partitionsInOrder.get(i))
+                    && idsInOrder.get(i - 1) < idsInOrder.get(i), "rows ordered by partition, then insertion");
+        }
+        for (int rows : rowsPerPartition) {
+            assertTrue(rows > 500 && rows < 1_500, "rows spread across partitions");
+        }
+    }
+
+    @Test
+    public void test_concurrentAppends() throws InterruptedException {
+        PartitionedTable table = new PartitionedTable("Tee", "ID", List.of("ID", "Name"), 4);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t * 5_000;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    table.appendRow(cVs(offset + i, "Tee"));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(20_000, table.getNumOfRows(), "all rows appended");
+    }
+}
@@ -0,0 +1,79 @@
+package db;
+
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import db.slowlog.SlowOperationLog;
+import db.value.Value;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests für vorbereitete Anweisungen
+ */
+@Timeout(10)
+public class PreparedTests {
+
+    /**
+     * Führt vorbereitete Anweisungen auf einer Tabelle einer Datenbank aus und vergleicht das Ergebnis mit denselben
+     * Operationen ohne Vorbereitung.
+     *
+     * @param log Protokoll langsamer Operationen der Datenbank oder null
+     */
+    private static void checkPreparedStatements(SlowOperationLog log) {
+        final DBTable table = new DBTable("Tee", "ID", List.of("ID", "Name", "KategorieID", "Bestand"));
+        final DBTable reference = new DBTable("Tee", "ID", List.of("ID", "Name", "KategorieID", "Bestand"));
+        for (DBTable t : List.of(table, reference)) {
+            for (int i = 0; i < 100; i++) {
+                t.appendRow(cVs(i, "Tee " + i, i % 5, 10));
+            }
+        }
+        DB db = new DB("TeeDB");
+        db.addTable(table);
+        db.setSlowOperationLog(log);
+
+        PreparedSelect select = table.prepareSelect(List.of("ID", "Name"), List.of("KategorieID", "ID"), "Auswahl");
+        PreparedUpdate update = table.prepareUpdate("Bestand", List.of("KategorieID"));
+        PreparedRemove remove = table.prepareRemove("ID");
+
+        for (int category = 0; category < 5; category++) {
+            List<Predicate<Value>> where = List.of(new EqualsPredicate(cV(category)),
+                    new DoubleLessThanPredicate(3));
+            List<WhereParameter> whereParams = List.of(new WhereParameter("KategorieID", where.get(0)),
+                    new WhereParameter("ID", where.get(1)));
+            assertEquals(reference.select(List.of("ID", "Name"), whereParams, "Auswahl").toString(),
+                    select.execute(where).toString(), "select with bound predicates");
+
+            update.execute(cV(category), List.of(new EqualsPredicate(cV(category))));
+            reference.update("Bestand", cV(category), List.of(new WhereParameter("KategorieID",
+                    new EqualsPredicate(cV(category)))));
+        }
+        assertEquals(reference.toString(), table.toString(), "same content after updates");
+        assertEquals(100, select.execute(List.of()).getNumOfRows(), "select without predicates");
+
+        remove.execute(new DoubleLessThanPredicate(50));
+        remove.execute(new EqualsPredicate(cV(99)));
+        assertEquals(49, table.getNumOfRows(), "rows after prepared remove");
+        assertEquals(cV(3), table.getValueByPrimaryKey(cV(58), "Bestand"), "updated value kept");
+    }
+
+    @Test
+    public void test_preparedStatements() {
+        checkPreparedStatements(null);
+    }
+
+    @Test
+    public void test_preparedStatementsWithSlowOperationLog() {
+        SlowOperationLog log = new SlowOperationLog(Duration.ZERO, 32, 0);
+        checkPreparedStatements(log);
+        assertEquals(14, log.getNumOfRecords(), "every execution and the rendering recorded");
+        assertEquals(List.of(), log.getRecords().get(11).conditions(), "select without predicates");
+    }
+}
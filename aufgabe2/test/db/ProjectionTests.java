@@ -0,0 +1,135 @@
+package db;
+
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import db.storage.StorageMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static db.TeaTables.teaTable;
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests der Projektionen, die sich Spalten mit ihrer Quelle teilen
+ */
+@Timeout(10)
+public class ProjectionTests {
+
+    /**
+     * Erzeugt die erwartete Projektion auf Name und ID durch Anhängen aller Zeilen.
+     *
+     * @param rows Anzahl der Zeilen
+     *
+     * @return Tabelle mit Name und ID
+     */
+    private static DBTable expectedProjection(int rows) {
+        DBTable table = new DBTable("Projektion", "ID", List.of("Name", "ID"));
+        for (int i = 0; i < rows; i++) {
+            table.appendRow(cVs("Tee " + i, i));
+        }
+        return table;
+    }
+
+    /**
+     * Liefert die bisher im aktuellen Thread allozierten Bytes.
+     *
+     * @return allozierte Bytes oder -1, wenn die Laufzeitumgebung sie nicht erfasst
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    @Test
+    public void test_projectionRemapsColumns() {
+        DBTable table = teaTable(1_000, StorageMode.HEAP);
+        DBTable projection = table.select(List.of("Name", "ID"), List.of(), "Projektion");
+
+        assertEquals(List.of("Name", "ID"), projection.getColumnIds(), "column order");
+        assertEquals(expectedProjection(1_000).toString(), projection.toString(), "content");
+        assertEquals(cVs("Tee 7", 7), projection.getRowByPrimaryKey(cV(7)), "lookup");
+    }
+
+    @Test
+    public void test_sourceChangesNotVisible() {
+        DBTable table = teaTable(1_000, StorageMode.HEAP);
+        DBTable projection = table.select(List.of("Name", "ID"), List.of(), "Projektion");
+
+        table.update("Name", cV("Günstig"), List.of(new WhereParameter("Preis", new DoubleLessThanPredicate(3))));
+        table.appendRow(cVs(5_000, "Neu", "Japan", 1));
+        table.removeRows(new WhereParameter("Herkunft", new EqualsPredicate(cV("Indien"))));
+
+        assertEquals(expectedProjection(1_000).toString(), projection.toString(), "projection unchanged");
+        assertNull(projection.getRowByPrimaryKey(cV(5_000)), "appended row not in projection");
+        assertEquals(501, table.getNumOfRows(), "source rows");
+        assertEquals(cV("Günstig"), table.getValueByPrimaryKey(cV(2), "Name"), "source updated");
+    }
+
+    @Test
+    public void test_projectionChangesNotVisible() {
+        DBTable table = teaTable(1_000, StorageMode.HEAP);
+        String before = table.toString();
+        DBTable projection = table.select(List.of("Name", "ID"), List.of(), "Projektion");
+        DBTable cleared = table.select(List.of("ID", "Preis"), List.of(), "Geleert");
+
+        projection.update("Name", cV("Anders"), List.of());
+        projection.appendRow(cVs("Neu", 5_000));
+        projection.removeRows(new WhereParameter("ID", new DoubleLessThanPredicate(100)));
+        cleared.removeAllRows();
+
+        assertEquals(before, table.toString(), "source unchanged");
+        assertEquals(901, projection.getNumOfRows(), "projection rows");
+        assertEquals(cVs("Anders", 500), projection.getRowByPrimaryKey(cV(500)), "projection updated");
+        assertEquals(0, cleared.getNumOfRows(), "projection cleared");
+        assertEquals(cVs(3, "Tee 3", "Indien", 3), table.getRowByPrimaryKey(cV(3)), "source lookup");
+    }
+
+    @Test
+    public void test_projectionDoesNotCopy() {
+        DBTable table = teaTable(5_000, StorageMode.HEAP);
+        table.select(List.of("Name", "ID"), List.of(), "Projektion");
+
+        long before = allocatedBytes();
+        DBTable projection = table.select(List.of("Name", "ID"), List.of(), "Projektion");
+        long allocated = allocatedBytes() - before;
+        if (before >= 0) {
+            assertTrue(allocated < table.getNumOfRows(), "less than one byte per row: " + allocated);
+        }
+        assertEquals(5_000, projection.getNumOfRows(), "rows");
+    }
+
+    @Test
+    public void test_deletedRowsAreCopied() {
+        DBTable table = teaTable(100, StorageMode.HEAP);
+        table.setDeletionMode(DeletionMode.DEFERRED);
+        table.removeRows(new WhereParameter("ID", new DoubleLessThanPredicate(10)));
+        DBTable projection = table.select(List.of("Name", "ID"), List.of(), "Projektion");
+
+        assertEquals(90, projection.getNumOfRows(), "rows");
+        assertEquals(0, projection.getNumOfDeletedRows(), "no deleted rows");
+        assertNull(projection.getRowByPrimaryKey(cV(3)), "deleted row not projected");
+    }
+
+    @Test
+    public void test_persistentProjection() {
+        DBTable table = teaTable(1_000, StorageMode.PERSISTENT);
+        DBTable projection = table.select(List.of("Name", "ID"), List.of(), "Projektion");
+        table.update("Name", cV("Günstig"), List.of());
+        projection.appendRow(cVs("Neu", 5_000));
+
+        assertEquals(StorageMode.PERSISTENT, projection.getStorageMode(), "storage mode");
+        assertEquals(cVs("Tee 1", 1), projection.getRowByPrimaryKey(cV(1)), "projection unchanged");
+        assertNull(table.getRowByPrimaryKey(cV(5_000)), "source unchanged");
+        assertEquals(1_001, projection.getNumOfRows(), "projection rows");
+    }
+}
@@ -0,0 +1,103 @@
+package db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests für gespeicherte Zustände und verzögertes Laden von Tabellen
+ */
+@Timeout(10)
+public class SnapshotTests {
+
+    /**
+     * Erzeugt eine Datenbank mit der übergebenen Anzahl an Tabellen.
+     *
+     * @param numOfTables Anzahl der Tabellen
+     *
+     * @return Datenbank
+     */
+    private static DB createDB(int numOfTables) {
+        DB db = new DB("TeeDB");
+        for (int t = 0; t < numOfTables; t++) {
+            DBTable table = new DBTable("Tee" + t, "ID", List.of("ID", "Name", "Preis"));
+            for (int i = 0; i < 500; i++) {
+                table.appendRow(cVs(i, "Tee " + i, i * 0.5 + t));
+            }
+            db.addTable(table);
+        }
+        return db;
+    }
+
+    @Test
+    public void test_tablesLoadedOnFirstAccess() throws IOException {
+        Path directory = Files.createTempDirectory("snapshot");
+        DB original = createDB(20);
+        original.getTable("Tee3").createBitmapIndex("Preis");
+        original.saveSnapshot(directory);
+
+        DB db = DB.openSnapshot(directory);
+        assertEquals("TeeDB", db.getId(), "id");
+        assertEquals(original.getTableIds(), db.getTableIds(), "catalog");
+        assertTrue(db.hasTable("Tee7"), "table known before loading");
+        assertFalse(db.isResident("Tee7"), "table not loaded");
+        assertEquals(0, db.getNumOfReloads(), "nothing loaded");
+
+        DBTable table = db.getTable("Tee3");
+        assertTrue(db.isResident("Tee3"), "table loaded");
+        assertEquals(1, db.getNumOfReloads(), "one table loaded");
+        assertEquals(original.getTable("Tee3").toString(), table.toString(), "table content");
+        assertTrue(table.hasBitmapIndex("Preis"), "index restored");
+        assertEquals(cVs(7, "Tee 7", 6.5), table.getRowByPrimaryKey(cV(7)), "row");
+        assertEquals(original.toString(), db.toString(), "database content");
+        assertFalse(db.isResident("Tee4"), "toString does not load tables");
+        assertNull(db.getTable("Kaffee"), "unknown table");
+    }
+
+    @Test
+    public void test_warmUpLoadsInParallel() throws IOException {
+        Path directory = Files.createTempDirectory("snapshot");
+        createDB(40).saveSnapshot(directory);
+        DB db = DB.openSnapshot(directory);
+
+        List<String> warmUp = List.of("Tee1", "Tee2", "Tee3", "Tee4", "Tee5", "Tee6", "Tee7", "Tee8");
+        var future = db.warmUp(warmUp);
+        DBTable concurrent = db.getTable("Tee5");
+        future.join();
+        for (String tableId : warmUp) {
+            assertTrue(db.isResident(tableId), tableId + " loaded");
+        }
+        assertEquals(warmUp.size(), db.getNumOfReloads(), "each table loaded once");
+        assertTrue(concurrent == db.getTable("Tee5"), "same table object");
+        assertFalse(db.isResident("Tee9"), "other tables not loaded");
+    }
+
+    @Test
+    public void test_snapshotOfPartiallyLoadedDB() throws IOException {
+        Path directory = Files.createTempDirectory("snapshot");
+        Path copy = Files.createTempDirectory("snapshot");
+        DB original = createDB(5);
+        original.saveSnapshot(directory);
+
+        DB db = DB.openSnapshot(directory);
+        db.getTable("Tee0").appendRow(cVs(1_000, "Neu", 1));
+        db.removeTable("Tee1");
+        db.saveSnapshot(copy);
+
+        DB reopened = DB.openSnapshot(copy);
+        assertEquals(List.of("Tee0", "Tee2", "Tee3", "Tee4"), reopened.getTableIds(), "catalog");
+        assertEquals(501, reopened.getTable("Tee0").getNumOfRows(), "changes saved");
+        assertEquals(original.getTable("Tee4").toString(), reopened.getTable("Tee4").toString(), "copied table");
+    }
+}
@@ -0,0 +1,47 @@
+package db;
+
+import db.storage.StorageMode;
+
+import java.util.List;
+
+import static db.TestUtils.cVs;
+
+/**
+ * Diese Klasse stellt die Tee-Tabelle zur Verfügung, die mehrere Tests als Ausgangsdaten verwenden.
+ */
+public final class TeaTables {
+
+    /**
+     * Konstruktor
+     */
+    private TeaTables() {
+    }
+
+    /**
+     * Erzeugt eine Tabelle mit Tees auf dem Heap.
+     *
+     * @param rows Anzahl der Zeilen
+     *
+     * @return Tabelle wie {@link #teaTable(int, StorageMode)}
+     */
+    public static DBTable teaTable(int rows) {
+        return teaTable(rows, StorageMode.HEAP);
+    }
+
+    /**
+     * Erzeugt eine Tabelle "Tee" mit den Spalten ID, Name, Herkunft und Preis. Zeile i hat die ID i, den Namen
+     * "Tee i", die Herkunft China für gerade und Indien für ungerade i und den Preis i % 100.
+     *
+     * @param rows        Anzahl der Zeilen
+     * @param storageMode Speicherart
+     *
+     * @return Tabelle mit rows Zeilen
+     */
+    public static DBTable teaTable(int rows, StorageMode storageMode) {
+        DBTable table = new DBTable("Tee", "ID", List.of("ID", "Name", "Herkunft", "Preis"), storageMode);
+        for (int i = 0; i < rows; i++) {
+            table.appendRow(cVs(i, "Tee " + i, i % 2 == 0 ? "China" : "Indien", i % 100));
+        }
+        return table;
+    }
+}
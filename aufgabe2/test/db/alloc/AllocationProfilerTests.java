@@ -0,0 +1,108 @@
+package db.alloc;
+
+import db.DBTable;
+import db.TeaTables;
+import db.WhereParameter;
+import db.predicate.DoubleLessThanPredicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static db.TestUtils.cV;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests des Allokationsprofilers und Allokationsbudgets der wichtigsten Tabellenoperationen
+ * <p>
+ * Tests, die Java Flight Recorder starten, laufen nur mit der Systemeigenschaft alloc.jfr=true
+ * ({@code ant test -Dalloc.jfr=true}).
+ */
+@Timeout(10)
+public class AllocationProfilerTests {
+
+    /**
+     * Systemeigenschaft, die die Tests mit Java Flight Recorder einschaltet
+     */
+    private static final String JFR_PROPERTY = "alloc.jfr";
+
+    /**
+     * Anzahl der Zeilen der Testtabelle
+     */
+    private static final int ROWS = 2_000;
+
+    /**
+     * Hält allozierte Objekte fest, damit der JIT-Compiler ihre Allokation nicht entfernt
+     */
+    private static Object sink;
+
+    /**
+     * Führt eine Operation einige Male aus und profiliert anschließend eine Ausführung.
+     *
+     * @param operator  Bezeichnung der Operation
+     * @param operation Operation, die die Anzahl der bearbeiteten Zeilen liefert
+     *
+     * @return Profil der Operation
+     */
+    private static AllocationProfile warmAndProfile(String operator, LongSupplier operation) {
+        for (int i = 0; i < 3; i++) {
+            operation.getAsLong();
+        }
+        return AllocationProfiler.profile(operator, operation);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = JFR_PROPERTY, matches = "true")
+    public void test_profileMeasuresBytesAndSites() {
+        AllocationProfile profile = AllocationProfiler.profile("array", () -> {
+            sink = new long[1 << 20];
+            return 1 << 20;
+        });
+
+        assertEquals("array", profile.getOperator(), "operator");
+        assertEquals(1 << 20, profile.getRows(), "rows");
+        if (profile.getAllocatedBytes() >= 0) {
+            assertTrue(profile.getAllocatedBytes() >= 8L << 20, "array counted");
+            assertTrue(profile.bytesPerRow() >= 8, "bytes per row");
+        }
+        assertTrue(profile.getSites().stream().anyMatch(site -> "[J".equals(site.objectClass())
+                && site.site().contains("AllocationProfilerTests")), "site of array");
+        assertTrue(profile.getSites().stream().noneMatch(site -> site.site().startsWith("jdk.jfr.")),
+                "allocations of the recorder not attributed");
+    }
+
+    @Test
+    public void test_budgetExceeded() {
+        AllocationProfile profile = new AllocationProfile("array", 1, 8L << 20,
+                List.of(new AllocationSite("db.Tee.array:1", "[J", 8L << 20, 1)));
+
+        AssertionError error = assertThrows(AssertionError.class, () -> profile.assertBytesPerRowAtMost(1),
+                "over budget");
+        assertTrue(error.getMessage().startsWith("array allocated"), "message names operator");
+        profile.assertObjectsPerRowAtMost(1_000);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = JFR_PROPERTY, matches = "true")
+    public void test_hotPathBudgets() {
+        DBTable table = TeaTables.teaTable(ROWS);
+        List<WhereParameter> cheap = List.of(new WhereParameter("Preis", new DoubleLessThanPredicate(50)));
+
+        warmAndProfile("select", () -> table.select(List.of("Name", "ID"), cheap, "Auswahl").getNumOfRows())
+                .assertBytesPerRowAtMost(4_096);
+        warmAndProfile("update", () -> {
+            table.update("Herkunft", cV("Japan"), cheap);
+            return ROWS / 2;
+        }).assertBytesPerRowAtMost(512);
+        warmAndProfile("getRowByPrimaryKey", () -> {
+            for (int i = 0; i < ROWS; i++) {
+                sink = table.getRowByPrimaryKey(cV(i));
+            }
+            return ROWS;
+        }).assertBytesPerRowAtMost(1_024);
+    }
+}
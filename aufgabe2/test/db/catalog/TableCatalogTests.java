@@ -0,0 +1,96 @@
+package db.catalog;
+
+import db.DB;
+import db.DBTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests für den Tabellenkatalog
+ */
+@Timeout(10)
+public class TableCatalogTests {
+
+    @Test
+    public void test_rangeAndPrefixViews() {
+        TableCatalog<Integer> catalog = new TableCatalog<>();
+        for (String id : List.of("Bestellung", "Tee_Kategorie", "Tee_Sorte", "Verkauf", "Tee")) {
+            assertTrue(catalog.register(id, id.length()), "registered " + id);
+        }
+        assertFalse(catalog.register("Tee", 0), "duplicate rejected");
+        assertEquals(5, catalog.size(), "size");
+
+        NavigableSet<String> tee = catalog.idsWithPrefix("Tee_");
+        assertEquals(List.of("Tee_Kategorie", "Tee_Sorte"), List.copyOf(tee), "prefix");
+        assertEquals(List.of("Tee", "Tee_Kategorie", "Tee_Sorte"), List.copyOf(catalog.idsBetween("T", "V")), "range");
+        assertEquals("Tee", catalog.firstIdWithPrefix("Te"), "first with prefix");
+        assertNull(catalog.firstIdWithPrefix("Kaffee"), "no match");
+
+        catalog.register("Tee_Aroma", 1);
+        assertEquals(List.of("Tee_Aroma", "Tee_Kategorie", "Tee_Sorte"), List.copyOf(tee), "view is live");
+        assertEquals(Integer.valueOf(1), catalog.remove("Tee_Aroma"), "removed entry");
+        assertNull(catalog.remove("Tee_Aroma"), "already removed");
+        assertEquals(5, catalog.size(), "size after remove");
+    }
+
+    @Test
+    public void test_tenantNamespaces() {
+        TableCatalog<Integer> catalog = new TableCatalog<>();
+        catalog.register(TableCatalog.qualify("acme", "Kunden"), 1);
+        catalog.register(TableCatalog.qualify("acme", "Bestellung"), 2);
+        catalog.register(TableCatalog.qualify("acme_eu", "Kunden"), 3);
+        catalog.register(TableCatalog.qualify("acm", "Kunden"), 4);
+
+        assertEquals(List.of("acme__Bestellung", "acme__Kunden"), List.copyOf(catalog.idsOfTenant("acme")),
+                "tenant tables");
+        assertEquals(List.of("acme_eu__Kunden"), List.copyOf(catalog.idsOfTenant("acme_eu")), "other tenant");
+    }
+
+    @Test
+    public void test_concurrentRegistrationAndRemoval() {
+        TableCatalog<Integer> catalog = new TableCatalog<>();
+        IntStream.range(0, 20_000).parallel().forEach(i -> catalog.register("T" + i, i));
+        assertEquals(20_000, catalog.size(), "all registered");
+        IntStream.range(0, 20_000).parallel().forEach(i -> {
+            if (i % 2 == 0) {
+                catalog.remove("T" + i);
+            }
+        });
+        assertEquals(10_000, catalog.size(), "half removed");
+        assertEquals(10_000, catalog.ids().size(), "view size");
+    }
+
+    @Test
+    public void test_dbWithManyTables() {
+        DB db = new DB("Mandanten");
+        for (int tenant = 0; tenant < 2_000; tenant++) {
+            for (String entity : List.of("Kunden", "Bestellung", "Artikel", "Lager")) {
+                String id = TableCatalog.qualify("t" + tenant, entity);
+                db.addTable(new DBTable(id, "ID", List.of("ID", "Name")));
+            }
+        }
+        assertEquals(8_000, db.getNumOfTables(), "tables");
+
+        for (int tenant = 0; tenant < 2_000; tenant += 97) {
+            assertEquals(4, db.getTableIdViewOfTenant("t" + tenant).size(), "tenant " + tenant);
+            assertEquals("t" + tenant + "__Artikel", db.getFirstTableWithPrefix("t" + tenant + "__").getId(),
+                    "first table of tenant " + tenant);
+        }
+        assertEquals(List.of("t123__Artikel", "t123__Bestellung"), db.getTableIdsBetween("t123__A", "t123__K"),
+                "range");
+
+        db.removeTable("t123__Lager");
+        assertFalse(db.hasTable("t123__Lager"), "removed");
+        assertEquals(3, db.getTableIdViewOfTenant("t123").size(), "view reflects removal");
+        assertEquals(7_999, db.getTableIdView().size(), "all ids");
+    }
+}
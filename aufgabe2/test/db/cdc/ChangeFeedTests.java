@@ -0,0 +1,121 @@
+package db.cdc;
+
+import db.DBTable;
+import db.DeletionMode;
+import db.WhereParameter;
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests für den Änderungsstrom von Tabellen
+ */
+@Timeout(10)
+public class ChangeFeedTests {
+
+    @Test
+    public void test_changeEvents() throws InterruptedException {
+        DBTable tee = new DBTable("Tee", "ID", List.of("ID", "Name", "KategorieID"));
+        tee.appendRow(cVs(1, "Sencha", 1));
+
+        List<ChangeEvent> events = new CopyOnWriteArrayList<>();
+        CountDownLatch received = new CountDownLatch(6);
+        ChangeSubscription subscription = tee.subscribeChanges(batch -> {
+            events.addAll(batch);
+            batch.forEach(event -> received.countDown());
+        });
+        tee.appendRow(cVs(2, "Darjeeling", 2));
+        tee.appendRow(cVs(3, "Rooibos", 3));
+        tee.update("Name", cV("Gyokuro"), List.of(new WhereParameter("ID", new EqualsPredicate(cV(1)))));
+        tee.setDeletionMode(DeletionMode.DEFERRED);
+        tee.removeRows(new WhereParameter("ID", new DoubleLessThanPredicate(3)));
+        tee.removeAllRows();
+        assertTrue(received.await(5, TimeUnit.SECONDS), "all events delivered");
+        subscription.close();
+
+        assertEquals(List.of(ChangeType.APPEND, ChangeType.APPEND, ChangeType.UPDATE, ChangeType.REMOVE,
+                ChangeType.REMOVE, ChangeType.REMOVE_ALL), events.stream().map(ChangeEvent::type).toList(), "types");
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), events.stream().map(ChangeEvent::sequence).toList(),
+                "sequence numbers");
+        assertNull(events.get(0).before(), "append has no before image");
+        assertEquals(cVs(2, "Darjeeling", 2), events.get(0).after(), "appended row");
+        assertEquals(cVs(1, "Sencha", 1), events.get(2).before(), "row before update");
+        assertEquals(cVs(1, "Gyokuro", 1), events.get(2).after(), "row after update");
+        assertEquals(cV(2), events.get(4).primaryKey(), "removed primary key");
+        assertEquals(cVs(2, "Darjeeling", 2), events.get(4).before(), "removed row");
+        assertEquals("Tee", events.get(5).tableId(), "table id");
+        assertEquals(6, subscription.getDeliveredEvents(), "delivered events");
+    }
+
+    @Test
+    public void test_batchesAndLatency() throws InterruptedException {
+        DBTable tee = new DBTable("Tee", "ID", List.of("ID", "Name"));
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        CountDownLatch received = new CountDownLatch(250);
+        ChangeSubscription subscription = tee.subscribeChanges(batch -> {
+            batchSizes.add(batch.size());
+            batch.forEach(event -> received.countDown());
+        }, 100, Duration.ofMillis(50), 256);
+        for (int i = 0; i < 250; i++) {
+            tee.appendRow(cVs(i, "Tee " + i));
+        }
+        assertTrue(received.await(5, TimeUnit.SECONDS), "incomplete batch delivered after latency");
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 100), "batch size respected");
+        assertEquals(0, subscription.getLag(), "no lag after delivery");
+        subscription.close();
+
+        tee.appendRow(cVs(1_000, "Nach dem Abmelden"));
+        assertEquals(250, batchSizes.stream().mapToInt(Integer::intValue).sum(), "no events after close");
+    }
+
+    @Test
+    public void test_slowSubscriberDropsEvents() throws InterruptedException {
+        DBTable tee = new DBTable("Tee", "ID", List.of("ID", "Name"));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong reportedDrops = new AtomicLong();
+        ChangeSubscription subscription = tee.subscribeChanges(new ChangeListener() {
+            @Override
+            public void onChanges(List<ChangeEvent> events) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onEventsDropped(long count) {
+                reportedDrops.addAndGet(count);
+            }
+        }, 4, Duration.ofMillis(1), 16);
+
+        for (int i = 0; i < 10_000; i++) {
+            tee.appendRow(cVs(i, "Tee " + i));
+        }
+        assertEquals(10_000, tee.getNumOfRows(), "writer not blocked by slow subscriber");
+        assertTrue(subscription.getDroppedEvents() > 0, "events dropped");
+        assertTrue(subscription.getLag() <= 16, "lag bounded by capacity");
+
+        release.countDown();
+        subscription.close();
+        while (subscription.getLag() > 0 || reportedDrops.get() < subscription.getDroppedEvents()) {
+            Thread.sleep(1);
+        }
+        assertEquals(10_000, subscription.getDroppedEvents() + subscription.getDeliveredEvents(),
+                "every event either delivered or dropped");
+    }
+}
@@ -0,0 +1,143 @@
+package db.explain;
+
+import db.DBTable;
+import db.TeaTables;
+import db.WhereParameter;
+import db.predicate.DoubleGreaterThanPredicate;
+import db.predicate.EqualsPredicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests der Ausführungspläne (EXPLAIN und EXPLAIN ANALYZE)
+ */
+@Timeout(10)
+public class ExplainTests {
+
+    /**
+     * Erzeugt eine Tabelle mit Tees, deren Spalte Herkunft einen Bitmap-Index hat.
+     *
+     * @return Tabelle mit 100 Zeilen
+     */
+    private static DBTable teaTable() {
+        DBTable table = TeaTables.teaTable(100);
+        table.createBitmapIndex("Herkunft");
+        return table;
+    }
+
+    @Test
+    public void test_explainSelectDoesNotExecute() {
+        DBTable table = teaTable();
+        QueryPlan plan = table.explainSelect(List.of("ID", "Name"),
+                List.of(new WhereParameter("Herkunft", new EqualsPredicate(cV("China"))),
+                        new WhereParameter("Preis", new DoubleGreaterThanPredicate(90))), "Auswahl", false);
+
+        assertNull(plan.getResult(), "not executed");
+        PlanNode root = plan.getRoot();
+        assertEquals(PlanNode.SELECT, root.getOperator(), "root");
+        assertFalse(root.isAnalyzed(), "no metrics");
+        PlanNode filter = root.getChildren().get(0);
+        assertEquals(PlanNode.FILTER, filter.getOperator(), "filter");
+        assertEquals(PlanNode.INDEX_SCAN, filter.getChildren().get(0).getOperator(), "index used");
+        assertEquals("Herkunft: EqualsPredicate", filter.getChildren().get(0).getDetail(), "index detail");
+        assertEquals(PlanNode.COLUMN_SCAN, filter.getChildren().get(1).getOperator(), "price scanned");
+        assertEquals("Preis: DoubleGreaterThanPredicate (spaltenweise)", filter.getChildren().get(1).getDetail(),
+                "scan detail");
+        assertEquals(PlanNode.MATERIALIZE, root.getChildren().get(1).getOperator(), "materialize");
+        assertEquals(-1, filter.getChildren().get(1).getChecks(), "no checks");
+    }
+
+    @Test
+    public void test_explainAnalyzeSelect() {
+        DBTable table = teaTable();
+        QueryPlan plan = table.explainSelect(null,
+                List.of(new WhereParameter("Herkunft", new EqualsPredicate(cV("China"))),
+                        new WhereParameter("Preis", new DoubleGreaterThanPredicate(90))), "Auswahl", true);
+
+        DBTable expected = table.select(null,
+                List.of(new WhereParameter("Herkunft", new EqualsPredicate(cV("China"))),
+                        new WhereParameter("Preis", new DoubleGreaterThanPredicate(90))), "Auswahl");
+        assertEquals(expected.toString(), plan.getResult().toString(), "same result as select");
+
+        PlanNode root = plan.getRoot();
+        assertEquals(100, root.getRowsIn(), "rows in");
+        assertEquals(55, root.getRowsOut(), "rows out");
+        assertTrue(root.getWallNanos() >= 0, "time measured");
+        PlanNode index = root.getChildren().get(0).getChildren().get(0);
+        assertEquals(50, index.getRowsOut(), "index matches");
+        assertEquals(0, index.getChecks(), "index checks no rows");
+        PlanNode scan = root.getChildren().get(0).getChildren().get(1);
+        assertEquals(50, scan.getRowsIn(), "only rows not matched by index scanned");
+        assertEquals(50, scan.getChecks(), "checked rows");
+        assertEquals(5, scan.getRowsOut(), "odd prices above 90");
+        assertEquals(55, root.getChildren().get(1).getRowsOut(), "materialized");
+    }
+
+    @Test
+    public void test_explainAnalyzeUpdateAndRemove() {
+        DBTable table = teaTable();
+        QueryPlan update = table.explainUpdate("Name", cV("teuer"),
+                List.of(new WhereParameter("Preis", new DoubleGreaterThanPredicate(89))), true);
+        assertTrue(table == update.getResult(), "update result");
+        assertEquals(10, update.getRoot().getRowsOut(), "updated rows");
+        assertEquals(PlanNode.WRITE, update.getRoot().getChildren().get(1).getOperator(), "write step");
+        assertEquals(cV("teuer"), table.getValueByPrimaryKey(cV(95), "Name"), "update executed");
+
+        QueryPlan plan = table.explainRemoveRows(new WhereParameter("Name", v -> v.equals(cV("teuer"))), false);
+        assertEquals("Name: Lambda (spaltenweise)",
+                plan.getRoot().getChildren().get(0).getChildren().get(0).getDetail(), "lambda scanned");
+        assertEquals(100, table.getNumOfRows(), "not removed");
+
+        QueryPlan remove = table.explainRemoveRows(new WhereParameter("Name", new EqualsPredicate(cV("teuer"))),
+                true);
+        assertEquals(10, remove.getRoot().getRowsOut(), "removed rows");
+        assertEquals(90, table.getNumOfRows(), "removed");
+    }
+
+    @Test
+    public void test_explainAnalyzeEquijoin() {
+        DBTable origin = new DBTable("Land", "Name", List.of("Name", "Kontinent"));
+        origin.appendRow(cVs("China", "Asien"));
+        DBTable table = new DBTable("Tee", "ID", List.of("ID", "Herkunft"));
+        table.appendRow(cVs(1, "China"));
+        table.appendRow(cVs(2, "Kenia"));
+        table.appendRow(cVs(3, "China"));
+
+        QueryPlan plan = table.explainEquijoin(origin, "Herkunft", "Join", true);
+        assertEquals(2, plan.getResult().getNumOfRows(), "joined rows");
+        PlanNode lookup = plan.getRoot().getChildren().get(1);
+        assertEquals(PlanNode.PRIMARY_KEY_LOOKUP, lookup.getOperator(), "lookup");
+        assertEquals(3, lookup.getChecks(), "lookups");
+        assertEquals(2, lookup.getRowsOut(), "hits");
+        assertEquals(-1, lookup.getWallNanos(), "interleaved step not timed");
+    }
+
+    @Test
+    public void test_planAsTable() {
+        DBTable table = new DBTable("Tee", "ID", List.of("ID", "Name"));
+        table.appendRow(cVs(1, "Assam"));
+        String plan = table.explainSelect(null, List.of(), "Kopie", false).toString();
+
+        String expected = "Tabellenbezeichner: Plan\n"
+                + "Primärschlüssel: Schritt\n"
+                + "\n"
+                + "| Schritt | Operator | Details      | ZeilenEin | ZeilenAus | Geprueft | ZeitMikros "
+                + "| AllokiertBytes |\n"
+                + "|---------|----------|--------------|-----------|-----------|----------|------------"
+                + "|----------------|\n"
+                + "| 1       | Select   | Tee -> Kopie | NULL      | NULL      | NULL     | NULL       "
+                + "| NULL           |\n"
+                + "| 2       | -> Fork  | Kopie        | NULL      | NULL      | NULL     | NULL       "
+                + "| NULL           |\n";
+        assertEquals(expected, plan, "plan table");
+    }
+}
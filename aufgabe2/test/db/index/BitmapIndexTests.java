@@ -0,0 +1,77 @@
+package db.index;
+
+import db.DBTable;
+import db.WhereParameter;
+import db.predicate.EqualsPredicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests der Bitmap-Indizes
+ */
+@Timeout(10)
+public class BitmapIndexTests {
+
+    @Test
+    public void test_roaringBitmapContainers() {
+        RoaringBitmap even = new RoaringBitmap();
+        RoaringBitmap dense = RoaringBitmap.range(200_000);
+        for (int i = 0; i < 200_000; i += 2) {
+            even.add(i);
+        }
+
+        assertEquals(100_000, even.cardinality(), "even values");
+        assertEquals(200_000, dense.cardinality(), "range");
+        assertEquals(100_000, dense.andNot(even).cardinality(), "odd values");
+        assertEquals(even, dense.and(even), "and");
+        assertEquals(dense, dense.or(even), "or");
+        assertTrue(even.contains(131_072), "contains");
+        assertFalse(even.contains(131_073), "does not contain");
+
+        even.remove(131_072);
+        assertEquals(131_074, even.nextValue(131_071), "next value after remove");
+        assertEquals(-1, even.nextValue(200_000), "no next value");
+    }
+
+    @Test
+    public void test_selectAndUpdateWithBitmapIndex() {
+        final DBTable categoryTable = new DBTable("Kategorie", "ID", List.of("ID", "Beschreibung", "EnthaeltKoffein"));
+        categoryTable.appendRow(cVs(1, "Grüner Tee", true));
+        categoryTable.appendRow(cVs(2, "Schwarzer Tee", true));
+        categoryTable.createBitmapIndex("EnthaeltKoffein");
+        categoryTable.appendRow(cVs(3, "Kräutertee", false));
+        assertTrue(categoryTable.hasBitmapIndex("EnthaeltKoffein"), "index created");
+
+        categoryTable.update("Beschreibung", cV("Koffeinfrei"),
+                List.of(new WhereParameter("EnthaeltKoffein", new EqualsPredicate(cV(false)))));
+        categoryTable.update("EnthaeltKoffein", cV(false),
+                List.of(new WhereParameter("ID", Predicate.isEqual(cV(2)))));
+
+        DBTable selected = categoryTable.select(null,
+                List.of(new WhereParameter("EnthaeltKoffein", Predicate.isEqual(cV(false)))), "Koffeinfrei");
+
+        String expected = """
+                Tabellenbezeichner: Koffeinfrei
+                Primärschlüssel: ID
+                
+                | ID | Beschreibung  | EnthaeltKoffein |
+                |----|---------------|-----------------|
+                | 2  | Schwarzer Tee | false           |
+                | 3  | Koffeinfrei   | false           |
+                """;
+        assertEquals(expected, selected.toString(), "select via bitmap index");
+
+        categoryTable.removeRows(new WhereParameter("EnthaeltKoffein", new EqualsPredicate(cV(true))));
+        assertEquals(2, categoryTable.getNumOfRows(), "rows after removeRows via bitmap index");
+        assertEquals(cV(false), categoryTable.getValueByPrimaryKey(cV(3), "EnthaeltKoffein"), "index rebuilt");
+    }
+}
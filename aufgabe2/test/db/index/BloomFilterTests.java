@@ -0,0 +1,95 @@
+package db.index;
+
+import db.DBTable;
+import db.WhereParameter;
+import db.predicate.DoubleLessThanPredicate;
+import db.value.DoubleValue;
+import db.value.StringValue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests der Bloom-Filter und ihrer Pflege als Filter über die Primärschlüssel einer Tabelle
+ */
+@Timeout(10)
+public class BloomFilterTests {
+
+    @Test
+    public void test_noFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(new DoubleValue(i));
+            filter.add(new StringValue("Tee " + i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(new DoubleValue(i)), "number " + i);
+            assertTrue(filter.mightContain(new StringValue("Tee " + i)), "string " + i);
+        }
+        assertEquals(20_000, filter.size(), "size");
+        assertTrue(filter.isFull(), "full");
+    }
+
+    @Test
+    public void test_falsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(new DoubleValue(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain(new DoubleValue(i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 3_000, "false positive rate " + falsePositives / 1_000.0 + " %");
+
+        filter.clear();
+        assertEquals(0, filter.size(), "cleared size");
+        assertFalse(filter.mightContain(new DoubleValue(1)), "cleared");
+    }
+
+    @Test
+    public void test_tableFilterMaintained() {
+        DBTable table = new DBTable("Kategorie", "ID", List.of("ID", "Name"));
+        table.appendRow(cVs(1, "Grün"));
+        table.createPrimaryKeyFilter();
+        long withoutRows = table.getSizeInBytes();
+        for (int i = 2; i <= 5_000; i++) {
+            table.appendRow(cVs(i, "Kategorie " + i));
+        }
+        DBTable orders = new DBTable("Bestellung", "Nr", List.of("Nr", "KategorieID"));
+        for (int i = 0; i < 6_000; i++) {
+            orders.appendRow(cVs(i, i + 1));
+        }
+
+        assertTrue(table.hasPrimaryKeyFilter(), "filter exists");
+        assertTrue(table.getSizeInBytes() > withoutRows, "filter grows");
+        assertEquals(5_000, orders.semijoin(table, "KategorieID", "Gefunden").getNumOfRows(), "appended keys found");
+
+        table.removeRows(new WhereParameter("ID", new DoubleLessThanPredicate(1_001)));
+        assertEquals(4_000, orders.semijoin(table, "KategorieID", "Gefunden").getNumOfRows(), "removed keys");
+        assertEquals(2_000, orders.antijoin(table, "KategorieID", "Fehlend").getNumOfRows(), "removed keys missing");
+
+        table.removeAllRows();
+        table.appendRow(cVs(7, "Schwarz"));
+        DBTable found = orders.semijoin(table, "KategorieID", "Gefunden");
+        assertEquals(1, found.getNumOfRows(), "after removing all rows");
+        assertEquals(cVs(6, 7), found.getRowByPrimaryKey(cV(6)), "remaining partner");
+
+        DBTable copy = table.copy("Kopie");
+        assertFalse(copy.hasPrimaryKeyFilter(), "copy without filter");
+        table.dropPrimaryKeyFilter();
+        assertFalse(table.hasPrimaryKeyFilter(), "dropped");
+        assertEquals(1, orders.semijoin(table, "KategorieID", "Gefunden").getNumOfRows(), "without filter");
+    }
+}
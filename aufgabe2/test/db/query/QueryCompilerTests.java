@@ -0,0 +1,88 @@
+package db.query;
+
+import db.DBTable;
+import db.WhereParameter;
+import db.predicate.DoubleGreaterThanPredicate;
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import db.storage.Column;
+import db.storage.ValueColumn;
+import db.value.Value;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests für übersetzte Bedingungen
+ */
+@Timeout(10)
+public class QueryCompilerTests {
+
+    @Test
+    public void test_compiledFilter() {
+        Column[] columns = {new ValueColumn(), new ValueColumn()};
+        for (int i = 0; i < 100; i++) {
+            columns[0].append(cV(i));
+            columns[1].append(cV(i % 2 == 0));
+        }
+        BitSet all = new BitSet();
+        all.set(0, 100);
+
+        for (int limit = 10; limit <= 50; limit += 20) {
+            List<Predicate<Value>> predicates = List.of(new DoubleGreaterThanPredicate(5),
+                    new DoubleLessThanPredicate(limit), new EqualsPredicate(cV(true)));
+            CompiledFilter conjunction = QueryCompiler.compile(new int[] {0, 0, 1}, predicates, true);
+            assertNotNull(conjunction, "known predicates are compiled");
+            BitSet expected = new BitSet();
+            for (int i = 6; i < limit; i += 2) {
+                expected.set(i);
+            }
+            assertEquals(expected, conjunction.filter(columns, all), "conjunction with limit " + limit);
+        }
+
+        CompiledFilter disjunction = QueryCompiler.compile(new int[] {0, 0},
+                List.of(new DoubleLessThanPredicate(2), new DoubleGreaterThanPredicate(97)), false);
+        BitSet expected = new BitSet();
+        expected.set(0, 2);
+        expected.set(98, 100);
+        assertEquals(expected, disjunction.filter(columns, all), "disjunction");
+
+        assertFalse(QueryCompiler.isCompilable(value -> true), "lambdas are interpreted");
+        assertNull(QueryCompiler.compile(new int[] {0}, List.of(Predicate.isEqual(cV(1))), true), "no lambda");
+    }
+
+    @Test
+    public void test_mixedConditionsInTable() {
+        final DBTable table = new DBTable("Tee", "ID", List.of("ID", "Name", "Preis", "Bio"));
+        for (int i = 0; i < 1000; i++) {
+            table.appendRow(cVs(i, "Tee " + (i % 10), i % 50, i % 3 == 0));
+        }
+
+        List<WhereParameter> where = List.of(new WhereParameter("Preis", new DoubleLessThanPredicate(10)),
+                new WhereParameter("Name", new EqualsPredicate(cV("Tee 4"))),
+                new WhereParameter("Bio", value -> value.getAsBoolean()));
+        table.update("Preis", cV(-1), where);
+        int expected = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (i % 50 < 10 && i % 10 == 4 && i % 3 == 0) {
+                expected++;
+            }
+        }
+        assertEquals(expected, table.select(null, List.of(new WhereParameter("Preis", new EqualsPredicate(cV(-1)))),
+                "Billig").getNumOfRows(), "update with compiled, columnar and interpreted conditions");
+        assertEquals(240, table.select(null, List.of(
+                new WhereParameter("Preis", new DoubleLessThanPredicate(10)),
+                new WhereParameter("Preis", new DoubleGreaterThanPredicate(47))), "Rand").getNumOfRows(),
+                "select with compiled disjunction");
+    }
+}
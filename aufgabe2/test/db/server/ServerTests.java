@@ -0,0 +1,158 @@
+package db.server;
+
+import db.DB;
+import db.DBTable;
+import db.WhereParameter;
+import db.predicate.DoubleBetweenPredicate;
+import db.predicate.DoubleGreaterThanPredicate;
+import db.predicate.EqualsPredicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests für Server und Client
+ */
+@Timeout(10)
+public class ServerTests {
+
+    /**
+     * Erzeugt eine Datenbank mit einer leeren Tee-Tabelle und einer gefüllten Kategorie-Tabelle.
+     *
+     * @return Datenbank
+     */
+    private static DB createDB() {
+        DB db = new DB("TassenFreudenDB");
+        db.addTable(new DBTable("Tee", "ID", List.of("ID", "Name", "KategorieID", "Preis")));
+        DBTable kategorie = new DBTable("Kategorie", "ID", List.of("ID", "Beschreibung"));
+        kategorie.appendRow(cVs(1, "Grüner Tee"));
+        kategorie.appendRow(cVs(2, "Schwarzer Tee"));
+        kategorie.appendRow(cVs(3, "Kräutertee"));
+        db.addTable(kategorie);
+        return db;
+    }
+
+    @Test
+    public void test_pipelinedOperations() throws IOException {
+        DB db = createDB();
+        try (DBServer server = new DBServer(db, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             DBClient client = DBClient.connect(server.getAddress())) {
+            List<Reply<Void>> appended = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                appended.add(client.sendAppendRow("Tee", cVs(i, "Tee " + i, i % 3 + 1, i % 50)));
+            }
+            client.sync();
+            assertEquals(2_000, db.getTable("Tee").getNumOfRows(), "all pipelined rows appended");
+            assertFalse(appended.stream().anyMatch(reply -> !reply.isDone()), "all replies received");
+
+            List<WhereParameter> expensive = List.of(new WhereParameter("Preis", new DoubleGreaterThanPredicate(44)));
+            DBTable remote = client.select("Tee", List.of("ID", "Name", "Preis"), expensive, "Teuer");
+            assertEquals(db.getTable("Tee").select(List.of("ID", "Name", "Preis"), expensive, "Teuer").toString(),
+                    remote.toString(), "select streamed in batches");
+
+            client.update("Tee", "Name", cV("Sencha"), List.of(new WhereParameter("ID", new EqualsPredicate(cV(7)))));
+            assertEquals(cVs(7, "Sencha", 2, 7), client.getRowByPrimaryKey("Tee", cV(7)), "lookup after update");
+            assertNull(client.getRowByPrimaryKey("Tee", cV(-1)), "missing primary key");
+
+            client.removeRows("Tee", new WhereParameter("ID", new DoubleBetweenPredicate(100, 1_999)));
+            DBTable joined = client.equijoin("Tee", "Kategorie", "KategorieID", "TeeMitKategorie");
+            assertEquals(db.getTable("Tee").equijoin(db.getTable("Kategorie"), "KategorieID", "TeeMitKategorie")
+                    .toString(), joined.toString(), "equijoin");
+            assertEquals(100, joined.getNumOfRows(), "rows after removeRows");
+        }
+    }
+
+    @Test
+    public void test_pipelinedWritesBehindLargeSelect() throws IOException {
+        DB db = createDB();
+        String description = "Kräutertee".repeat(1_000);
+        for (int i = 4; i < 1_000; i++) {
+            db.getTable("Kategorie").appendRow(cVs(i, description));
+        }
+        try (DBServer server = new DBServer(db, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             DBClient client = DBClient.connect(server.getAddress())) {
+            Reply<DBTable> all = client.sendSelect("Kategorie", null, List.of(), "Alle");
+            List<Reply<Void>> appended = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                appended.add(client.sendAppendRow("Tee", cVs(i, description, i % 3 + 1, i % 50)));
+            }
+            assertEquals(999, all.get().getNumOfRows(), "large result complete");
+            client.sync();
+            assertFalse(appended.stream().anyMatch(reply -> !reply.isDone()), "all replies received");
+            assertEquals(1_000, db.getTable("Tee").getNumOfRows(), "all pipelined rows appended");
+        }
+    }
+
+    @Test
+    public void test_errorsAndUnixDomainSocket() throws IOException {
+        DB db = createDB();
+        Path socket = Files.createTempDirectory("dbserver").resolve("db.sock");
+        try (DBServer server = new DBServer(db, UnixDomainSocketAddress.of(socket));
+             DBClient client = DBClient.connect(server.getAddress())) {
+            Reply<List<db.value.Value>> missing = client.sendGetRowByPrimaryKey("Bestellung", cV(1));
+            Reply<List<db.value.Value>> found = client.sendGetRowByPrimaryKey("Kategorie", cV(3));
+            assertThrows(RemoteDBException.class, missing::get, "unknown table");
+            assertEquals(cVs(3, "Kräutertee"), found.get(), "connection usable after error");
+
+            assertThrows(IllegalArgumentException.class, () -> client.sendSelect("Kategorie", null,
+                    List.of(new WhereParameter("ID", Predicate.isEqual(cV(1)))), "Auswahl"),
+                    "lambda predicates cannot be sent");
+            assertEquals(3, client.select("Kategorie", null, List.of(), "Alle").getNumOfRows(), "select all");
+        }
+        assertFalse(Files.exists(socket), "socket file removed on close");
+    }
+
+    @Test
+    public void test_invalidRequestsAnswered() throws IOException {
+        DB db = createDB();
+        try (DBServer server = new DBServer(db, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             DBClient client = DBClient.connect(server.getAddress())) {
+            List<WhereParameter> unknown = List.of(new WhereParameter("Farbe", new EqualsPredicate(cV("Grün"))));
+            assertRejected("unknown column Farbe", client.sendSelect("Kategorie", List.of("ID", "Farbe"), List.of(),
+                    "Auswahl"));
+            assertRejected("primary key ID not selected", client.sendSelect("Kategorie", List.of("Beschreibung"),
+                    List.of(), "Auswahl"));
+            assertRejected("unknown column Farbe", client.sendSelect("Kategorie", null, unknown, "Auswahl"));
+            assertRejected("invalid table id 1Auswahl", client.sendSelect("Kategorie", null, List.of(), "1Auswahl"));
+            assertRejected("unknown column Farbe", client.sendUpdate("Kategorie", "Farbe", cV("Grün"), List.of()));
+            assertRejected("primary key ID", client.sendUpdate("Kategorie", "ID", cV(7), List.of()));
+            assertRejected("unknown column Farbe", client.sendRemoveRows("Kategorie", unknown.get(0)));
+            assertRejected("unknown column Farbe", client.sendEquijoin("Tee", "Kategorie", "Farbe", "Verbund"));
+            assertRejected("unknown table Bestellung", client.sendEquijoin("Tee", "Bestellung", "KategorieID",
+                    "Verbund"));
+            assertRejected("row has 2 values", client.sendAppendRow("Tee", cVs(1, "Sencha")));
+
+            assertEquals(3, client.select("Kategorie", null, List.of(), "Alle").getNumOfRows(),
+                    "connection usable after errors");
+            assertEquals(0, db.getTable("Tee").getNumOfRows(), "nothing appended");
+        }
+    }
+
+    /**
+     * Prüft, ob der Server eine Anfrage mit einer Fehlermeldung abgelehnt hat.
+     *
+     * @param expected Anfang der erwarteten Fehlermeldung
+     * @param reply    Antwort auf die Anfrage
+     */
+    private static void assertRejected(String expected, Reply<?> reply) {
+        RemoteDBException error = assertThrows(RemoteDBException.class, reply::get, expected);
+        assertTrue(error.getMessage().startsWith(expected), "message: " + error.getMessage());
+    }
+}
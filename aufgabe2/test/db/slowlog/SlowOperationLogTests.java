@@ -0,0 +1,156 @@
+package db.slowlog;
+
+import db.DB;
+import db.DBTable;
+import db.WhereParameter;
+import db.predicate.DoubleGreaterThanPredicate;
+import db.predicate.EqualsPredicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests des Protokolls langsamer Operationen
+ */
+@Timeout(10)
+public class SlowOperationLogTests {
+
+    /**
+     * Erzeugt eine Datenbank mit einer Tabelle mit Tees und einer Tabelle mit Ländern.
+     *
+     * @return Datenbank
+     */
+    private static DB teaDB() {
+        DB db = new DB("TeeDB");
+        DBTable origin = new DBTable("Land", "Name", List.of("Name", "Kontinent"));
+        origin.appendRow(cVs("China", "Asien"));
+        origin.appendRow(cVs("Indien", "Asien"));
+        DBTable tea = new DBTable("Tee", "ID", List.of("ID", "Name", "Herkunft", "Preis"));
+        for (int i = 0; i < 20; i++) {
+            tea.appendRow(cVs(i, "Tee " + i, i % 2 == 0 ? "China" : "Indien", i));
+        }
+        db.addTable(origin);
+        db.addTable(tea);
+        return db;
+    }
+
+    @Test
+    public void test_recordOperationsAboveThreshold() {
+        DB db = teaDB();
+        SlowOperationLog log = new SlowOperationLog(Duration.ZERO, 16, 0);
+        db.setSlowOperationLog(log);
+        DBTable tea = db.getTable("Tee");
+
+        tea.select(List.of("ID", "Name"), List.of(new WhereParameter("Preis", new DoubleGreaterThanPredicate(14))),
+                "Teuer");
+        tea.update("Name", cV("günstig"), List.of(new WhereParameter("Preis", v -> v.getAsDouble() < 2)));
+        tea.equijoin(db.getTable("Land"), "Herkunft", "Join");
+        tea.removeRows(new WhereParameter("Herkunft", new EqualsPredicate(cV("China"))));
+        String unused = tea.toString();
+
+        List<SlowOperation> records = log.getRecords();
+        assertEquals(5, records.size(), "all operations recorded");
+        SlowOperation select = records.get(0);
+        assertEquals(OperationType.SELECT, select.type(), "select");
+        assertEquals(List.of("Tee"), select.tableIds(), "table");
+        assertEquals(List.of("ID", "Name"), select.columnIds(), "columns");
+        assertEquals(List.of("Preis: DoubleGreaterThanPredicate"), select.conditions(), "condition");
+        assertEquals(20, select.rowsScanned(), "scanned");
+        assertEquals(5, select.rowsMatched(), "matched");
+        assertFalse(select.sampled(), "slow, not sampled");
+
+        assertEquals(List.of("Preis: Lambda"), records.get(1).conditions(), "lambda condition");
+        assertEquals(2, records.get(1).rowsMatched(), "updated");
+        assertEquals(List.of("Tee", "Land"), records.get(2).tableIds(), "join tables");
+        assertEquals(20, records.get(2).rowsMatched(), "joined");
+        assertEquals(10, records.get(3).rowsMatched(), "removed");
+        assertEquals(OperationType.TO_STRING, records.get(4).type(), "to string");
+        assertEquals(10, records.get(4).rowsScanned(), "rows rendered");
+        assertTrue(unused.startsWith("Tabellenbezeichner: Tee"), "result unchanged");
+    }
+
+    @Test
+    public void test_recordExplainAnalyzedWrites() {
+        DB db = teaDB();
+        SlowOperationLog log = new SlowOperationLog(Duration.ZERO, 16, 0);
+        db.setSlowOperationLog(log);
+        DBTable tea = db.getTable("Tee");
+
+        tea.explainUpdate("Name", cV("teuer"), List.of(new WhereParameter("Preis", new DoubleGreaterThanPredicate(14))),
+                false);
+        assertEquals(0, log.getNumOfRecords(), "plan only not recorded");
+        tea.explainUpdate("Name", cV("teuer"), List.of(new WhereParameter("Preis", new DoubleGreaterThanPredicate(14))),
+                true);
+        tea.explainRemoveRows(new WhereParameter("Herkunft", new EqualsPredicate(cV("China"))), true);
+
+        List<SlowOperation> records = log.getRecords();
+        assertEquals(2, records.size(), "analyzed writes recorded");
+        assertEquals(OperationType.UPDATE, records.get(0).type(), "update");
+        assertEquals(5, records.get(0).rowsMatched(), "updated");
+        assertEquals(OperationType.REMOVE_ROWS, records.get(1).type(), "remove");
+        assertEquals(10, records.get(1).rowsMatched(), "removed");
+    }
+
+    @Test
+    public void test_ringKeepsNewestAndSampling() {
+        DB db = teaDB();
+        SlowOperationLog log = new SlowOperationLog(Duration.ofHours(1), 2, 1);
+        db.setSlowOperationLog(log);
+        DBTable tea = db.getTable("Tee");
+        for (int i = 0; i < 5; i++) {
+            tea.select(null, List.of(), "Kopie" + i);
+        }
+
+        assertEquals(5, log.getNumOfRecords(), "all sampled");
+        List<SlowOperation> records = log.getRecords();
+        assertEquals(2, records.size(), "bounded");
+        assertTrue(records.get(0).sampled(), "sampled");
+        assertEquals(20, records.get(1).rowsMatched(), "newest last");
+
+        SlowOperationLog quiet = new SlowOperationLog(Duration.ofHours(1), 2, 0);
+        db.setSlowOperationLog(quiet);
+        tea.select(null, List.of(), "Kopie");
+        assertEquals(0, quiet.getNumOfRecords(), "fast operations not recorded");
+
+        db.removeTable("Tee");
+        db.setSlowOperationLog(log);
+        tea.select(null, List.of(), "Kopie");
+        assertEquals(5, log.getNumOfRecords(), "removed table not recorded");
+    }
+
+    @Test
+    public void test_rollingFile() throws IOException {
+        Path directory = Files.createTempDirectory("slowlog");
+        Path file = directory.resolve("slow.log");
+        DB db = teaDB();
+        try (SlowOperationLog log = new SlowOperationLog(Duration.ZERO, 4, 0, file, 1)) {
+            db.setSlowOperationLog(log);
+            DBTable tea = db.getTable("Tee");
+            for (int i = 0; i < 5; i++) {
+                tea.select(null, List.of(), "Kopie" + i);
+            }
+            assertTrue(Files.exists(log.rolledFile(1)), "rolled");
+            assertTrue(Files.exists(log.rolledFile(SlowOperationLog.ROLLED_FILES)), "oldest kept");
+            assertFalse(Files.exists(log.rolledFile(SlowOperationLog.ROLLED_FILES + 1)), "older deleted");
+            String line = Files.readString(log.rolledFile(1)).trim();
+            assertTrue(line.contains("\tSELECT\t"), "type");
+            assertTrue(line.contains("\ttables=Tee\t"), "table");
+            assertTrue(line.endsWith("\tscanned=20\tmatched=20"), "counts");
+        }
+        for (int number = 0; number <= SlowOperationLog.ROLLED_FILES; number++) {
+            Files.deleteIfExists(number == 0 ? file : directory.resolve("slow.log." + number));
+        }
+        Files.delete(directory);
+    }
+}
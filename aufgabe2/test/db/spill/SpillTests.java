@@ -0,0 +1,132 @@
+package db.spill;
+
+import db.DBTable;
+import db.value.Value;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests für das Auslagern von Sortierung und Join auf die Festplatte
+ */
+@Timeout(10)
+public class SpillTests {
+
+    /**
+     * Budget, das nur wenige hundert Zeilen aufnimmt
+     */
+    private static final long SMALL_BUDGET = 32 * 1024;
+
+    /**
+     * Budget, das alle Zeilen aufnimmt
+     */
+    private static final long LARGE_BUDGET = 1L << 30;
+
+    /**
+     * Liefert die Zeilen als sortierte Liste ihrer Darstellungen, um Ergebnisse unabhängig von ihrer Reihenfolge zu
+     * vergleichen.
+     *
+     * @param rows Zeilen
+     *
+     * @return sortierte Darstellungen
+     */
+    private static List<String> sorted(List<List<Value>> rows) {
+        List<String> strings = new ArrayList<>();
+        for (List<Value> row : rows) {
+            strings.add(row.toString());
+        }
+        strings.sort(Comparator.naturalOrder());
+        return strings;
+    }
+
+    @Test
+    public void test_externalSort() {
+        DBTable tee = new DBTable("Tee", "ID", List.of("ID", "Name", "Preis"));
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            tee.appendRow(cVs(i, "Tee " + random.nextInt(1_000), random.nextInt(50)));
+        }
+        MemoryBudget budget = new MemoryBudget(SMALL_BUDGET);
+        List<List<Value>> rows = new ArrayList<>();
+        tee.sortedRows(List.of("Preis", "Name"), budget, rows::add);
+
+        List<List<Value>> expected = new ArrayList<>();
+        tee.forEachRow(expected::add);
+        expected.sort(ExternalSort.byColumns(2, 1));
+        assertEquals(expected, rows, "sorted and stable");
+        assertTrue(budget.getNumOfSpillFiles() > ExternalSort.MAX_FAN_IN, "runs merged in several passes");
+        assertTrue(budget.getPeakBytes() <= 2 * SMALL_BUDGET, "memory bounded by budget");
+        assertEquals(0, budget.getUsedBytes(), "memory released");
+    }
+
+    @Test
+    public void test_graceHashJoin() {
+        DBTable bestellung = new DBTable("Bestellung", "ID", List.of("ID", "TeeID", "Menge"));
+        DBTable tee = new DBTable("Tee", "ID", List.of("ID", "Name"));
+        for (int i = 0; i < 5_000; i++) {
+            tee.appendRow(cVs(i, "Tee " + i));
+        }
+        for (int i = 0; i < 8_000; i++) {
+            bestellung.appendRow(cVs(i, i % 6_000, i % 7));
+        }
+
+        MemoryBudget small = new MemoryBudget(SMALL_BUDGET);
+        List<List<Value>> spilled = new ArrayList<>();
+        bestellung.hashJoinRows(tee, "TeeID", "ID", small, spilled::add);
+        MemoryBudget large = new MemoryBudget(LARGE_BUDGET);
+        List<List<Value>> inMemory = new ArrayList<>();
+        bestellung.hashJoinRows(tee, "TeeID", "ID", large, inMemory::add);
+
+        assertEquals(7_000, inMemory.size(), "matching rows");
+        assertEquals(cVs(0, 0, 0, 0, "Tee 0"), inMemory.get(0), "columns of this table first");
+        assertEquals(sorted(inMemory), sorted(spilled), "same result with and without spilling");
+        assertTrue(small.getNumOfSpillFiles() > 0, "spilled with small budget");
+        assertEquals(0, large.getNumOfSpillFiles(), "no spill with large budget");
+        assertEquals(0, small.getUsedBytes(), "memory released");
+    }
+
+    @Test
+    public void test_graceHashJoinWithSkewedKeys() {
+        MemoryBudget budget = new MemoryBudget(SMALL_BUDGET);
+        List<List<Value>> pairs = new ArrayList<>();
+        try (GraceHashJoin join = new GraceHashJoin(budget)) {
+            for (int i = 0; i < 2_000; i++) {
+                join.build(cVs(1).get(0), cVs(i, "Build " + i));
+            }
+            assertTrue(join.isSpilled(), "build side spilled");
+            for (int i = 0; i < 3; i++) {
+                join.probe(cVs(1).get(0), cVs(i), (probe, build) -> pairs.add(build));
+                join.probe(cVs(2).get(0), cVs(i), (probe, build) -> pairs.add(build));
+            }
+            join.finish((probe, build) -> pairs.add(build));
+        }
+        assertEquals(6_000, pairs.size(), "every probe row joined with every build row");
+        assertEquals(0, budget.getUsedBytes(), "memory released");
+    }
+
+    @Test
+    public void test_equijoinRows() {
+        DBTable tee = new DBTable("Tee", "ID", List.of("ID", "Name", "KategorieID"));
+        DBTable kategorie = new DBTable("Kategorie", "ID", List.of("ID", "Beschreibung"));
+        kategorie.appendRow(cVs(1, "Grüner Tee"));
+        kategorie.appendRow(cVs(2, "Schwarzer Tee"));
+        for (int i = 0; i < 1_000; i++) {
+            tee.appendRow(cVs(i, "Tee " + i, i % 3 + 1));
+        }
+        List<List<Value>> streamed = new ArrayList<>();
+        tee.equijoinRows(kategorie, "KategorieID", streamed::add);
+        List<List<Value>> expected = new ArrayList<>();
+        tee.equijoin(kategorie, "KategorieID", "Ergebnis").forEachRow(expected::add);
+        assertEquals(expected, streamed, "same rows in same order as equijoin");
+        assertFalse(streamed.isEmpty(), "rows joined");
+    }
+}
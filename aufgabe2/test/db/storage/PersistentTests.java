@@ -0,0 +1,128 @@
+package db.storage;
+
+import db.DBTable;
+import db.DeletionMode;
+import db.WhereParameter;
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import db.value.Value;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests für persistente Spalten, Indizes und Tabellenkopien
+ */
+@Timeout(10)
+public class PersistentTests {
+
+    @Test
+    public void test_forkedColumnsAreIndependent() {
+        PersistentColumn column = new PersistentColumn();
+        List<Value> expected = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            column.append(cV(i));
+            expected.add(cV(i));
+        }
+        PersistentColumn fork = column.fork();
+        column.set(5, cV("geändert"));
+        column.append(cV("neu"));
+        fork.set(39_999, cV("Kopie"));
+
+        assertEquals(cV("geändert"), column.get(5), "changed in original");
+        assertEquals(cV(5), fork.get(5), "fork unchanged");
+        assertEquals(40_001, column.size(), "original size");
+        assertEquals(40_000, fork.size(), "fork size");
+        assertEquals(cV(39_999), column.get(39_999), "original unchanged");
+        assertEquals(cV("Kopie"), fork.get(39_999), "changed in fork");
+
+        BitSet keep = new BitSet();
+        keep.set(0, 40_000, true);
+        keep.clear(0, 10);
+        fork.compact(keep);
+        assertEquals(cV(10), fork.get(0), "compacted fork");
+        assertEquals(cV(0), column.get(0), "original not compacted");
+        for (int i = 10; i < 39_999; i++) {
+            assertEquals(expected.get(i), fork.get(i - 10), "value " + i);
+        }
+    }
+
+    @Test
+    public void test_forkedIndexesAreIndependent() {
+        PersistentPrimaryKeyIndex index = new PersistentPrimaryKeyIndex();
+        for (int i = 0; i < 50_000; i++) {
+            index.put(cV("Key" + i), i);
+        }
+        PersistentPrimaryKeyIndex fork = index.fork();
+        index.put(cV("Key7"), 100);
+        fork.put(cV("Neu"), 50_000);
+
+        assertEquals(100, index.get(cV("Key7")), "updated in original");
+        assertEquals(7, fork.get(cV("Key7")), "fork unchanged");
+        assertEquals(-1, index.get(cV("Neu")), "not in original");
+        assertEquals(50_000, fork.get(cV("Neu")), "added to fork");
+        assertEquals(50_000, index.size(), "original size");
+        assertEquals(50_001, fork.size(), "fork size");
+        for (int i = 0; i < 50_000; i += 7) {
+            assertEquals(i == 7 ? 100 : i, index.get(cV("Key" + i)), "key " + i);
+        }
+    }
+
+    @Test
+    public void test_tableCopies() {
+        DBTable table = new DBTable("Tee", "ID", List.of("ID", "Name", "Preis"), StorageMode.PERSISTENT);
+        DBTable heap = new DBTable("Tee", "ID", List.of("ID", "Name", "Preis"));
+        for (int i = 0; i < 5_000; i++) {
+            table.appendRow(cVs(i, "Tee " + i, i % 10));
+            heap.appendRow(cVs(i, "Tee " + i, i % 10));
+        }
+        String before = table.toString();
+        DBTable snapshot = table.snapshot();
+        DBTable copy = table.select(null, List.of(), "Kopie");
+        assertEquals(heap.toString(), before, "same content as heap table");
+
+        List<WhereParameter> cheap = List.of(new WhereParameter("Preis", new DoubleLessThanPredicate(3)));
+        table.update("Name", cV("Günstig"), cheap);
+        table.removeRows(new WhereParameter("Preis", new EqualsPredicate(cV(9))));
+        table.appendRow(cVs(10_000, "Neu", 1));
+        copy.removeAllRows();
+
+        assertEquals(before, snapshot.toString(), "snapshot unchanged");
+        assertEquals(5_000, snapshot.getNumOfRows(), "snapshot rows");
+        assertEquals(4_501, table.getNumOfRows(), "table rows");
+        assertEquals(cV("Günstig"), table.getValueByPrimaryKey(cV(12), "Name"), "table updated");
+        assertEquals(cV("Tee 12"), snapshot.getValueByPrimaryKey(cV(12), "Name"), "snapshot value");
+        assertNull(snapshot.getRowByPrimaryKey(cV(10_000)), "appended row not in snapshot");
+        assertEquals(0, copy.getNumOfRows(), "copy cleared");
+
+        heap.update("Name", cV("Günstig"), cheap);
+        heap.removeRows(new WhereParameter("Preis", new EqualsPredicate(cV(9))));
+        heap.appendRow(cVs(10_000, "Neu", 1));
+        assertEquals(heap.toString(), table.toString(), "same semantics as heap table");
+    }
+
+    @Test
+    public void test_copyKeepsDeletedRowsHidden() {
+        DBTable table = new DBTable("Tee", "ID", List.of("ID", "Name"), StorageMode.PERSISTENT);
+        table.setDeletionMode(DeletionMode.DEFERRED);
+        for (int i = 0; i < 100; i++) {
+            table.appendRow(cVs(i, "Tee " + i));
+        }
+        table.removeRows(new WhereParameter("ID", new DoubleLessThanPredicate(10)));
+        DBTable copy = table.copy("Kopie");
+        assertEquals(90, copy.getNumOfRows(), "rows");
+        assertEquals(DeletionMode.DEFERRED, copy.getDeletionMode(), "deletion mode");
+        assertNull(copy.getRowByPrimaryKey(cV(3)), "deleted row hidden");
+        copy.compact();
+        assertEquals(cVs(10, "Tee 10"), copy.getRowByPrimaryKey(cV(10)), "row after compaction");
+        assertEquals(10, table.getNumOfDeletedRows(), "original still marked");
+    }
+}
@@ -0,0 +1,207 @@
+package db.storage;
+
+import db.DBTable;
+import db.DeletionMode;
+import db.WhereParameter;
+import db.predicate.DoubleBetweenPredicate;
+import db.predicate.DoubleGreaterThanPredicate;
+import db.predicate.DoubleInPredicate;
+import db.predicate.DoubleLessThanPredicate;
+import db.predicate.EqualsPredicate;
+import db.value.DoubleValue;
+import db.value.StringValue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static db.TestUtils.cV;
+import static db.TestUtils.cVs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests der Spaltenspeicher
+ */
+@Timeout(10)
+public class StorageTests {
+
+    @Test
+    public void test_stringColumnLowCardinality() {
+        StringColumn column = new StringColumn();
+        String[] countries = {"Japan", "Indien", "Großbritannien", "Südafrika"};
+        for (int i = 0; i < 10_000; i++) {
+            column.append(new StringValue(countries[i % countries.length]));
+        }
+
+        assertFalse(column.isFrontCoded(), "low cardinality uses plain dictionary");
+        assertEquals(4, column.getDictionarySize(), "one entry per distinct value");
+        assertEquals(new StringValue("Indien"), column.get(5), "decoded value");
+
+        BitSet all = new BitSet();
+        all.set(0, column.size());
+        BitSet matches = column.match(new EqualsPredicate(new StringValue("Japan")), all);
+        assertEquals(2_500, matches.cardinality(), "equality on codes");
+        assertEquals(0, column.match(new EqualsPredicate(new DoubleValue(1)), all).cardinality(),
+                "other value type never matches");
+    }
+
+    @Test
+    public void test_stringColumnFrontCoding() {
+        StringColumn column = new StringColumn();
+        for (int i = 0; i < 20_000; i++) {
+            column.append(new StringValue("Tee_" + i));
+        }
+
+        assertTrue(column.isFrontCoded(), "high cardinality uses front coding");
+        assertEquals("Tee_12345", column.getAsDisplayString(12_345), "decoded value");
+
+        column.set(7, new StringValue("Sencha"));
+        assertEquals(new StringValue("Sencha"), column.get(7), "updated value");
+
+        BitSet all = new BitSet();
+        all.set(0, column.size());
+        Predicate<db.value.Value> isEqual = Predicate.isEqual(new StringValue("Tee_19999"));
+        assertEquals(19_999, column.match(isEqual, all).nextSetBit(0), "generic predicate per code");
+
+        BitSet keep = new BitSet();
+        keep.set(0, 10);
+        column.compact(keep);
+        assertEquals(10, column.size(), "size after compaction");
+        assertFalse(column.isFrontCoded(), "low cardinality after compaction");
+        assertEquals("Sencha", column.getAsDisplayString(7), "value after compaction");
+        assertEquals("Tee_9", column.getAsDisplayString(9), "value after compaction");
+    }
+
+    @Test
+    public void test_offHeapTable() {
+        List<String> colIds = List.of("ID", "Name", "Herkunftsland", "KategorieID", "Bio");
+        final DBTable heap = new DBTable("Tee", "ID", colIds);
+        final DBTable offHeap = new DBTable("Tee", "ID", colIds, StorageMode.OFF_HEAP);
+        for (DBTable table : List.of(heap, offHeap)) {
+            for (int i = 0; i < 300; i++) {
+                table.appendRow(cVs(i, "Tee " + i, i % 2 == 0 ? "Japan" : "Indien", i % 7, i % 3 == 0));
+            }
+            table.appendRow(cVs(42, "Duplikat", "Japan", 1, true));
+            table.removeRows(new WhereParameter("ID", new DoubleLessThanPredicate(290)));
+            table.update("Name", cV("Sencha"), List.of(new WhereParameter("ID", Predicate.isEqual(cV(295)))));
+            table.appendRow(cVs("X1", "Mixed", 1, 2, false));
+        }
+
+        assertEquals(11, offHeap.getNumOfRows(), "rows after removeRows");
+        assertEquals(heap.toString(), offHeap.toString(), "same content as heap table");
+        assertEquals(cVs(295, "Sencha", "Indien", 295 % 7, false), offHeap.getRowByPrimaryKey(cV(295)),
+                "lookup by primary key");
+        assertEquals(cV(1), offHeap.getValueByPrimaryKey(cV("X1"), "Herkunftsland"), "lookup by string key");
+        assertEquals(StorageMode.OFF_HEAP,
+                offHeap.select(null, List.of(), "Kopie").getStorageMode(), "select keeps storage mode");
+    }
+
+    @Test
+    public void test_smallOffHeapResultsReserveLittleMemory() {
+        DBTable table = new DBTable("Tee", "ID", List.of("ID", "Name", "Preis"), StorageMode.OFF_HEAP);
+        for (int i = 0; i < 300; i++) {
+            table.appendRow(cVs(i, "Tee " + i, i * 0.5));
+        }
+        DBTable result = table.select(List.of("ID", "Name"),
+                List.of(new WhereParameter("ID", new DoubleLessThanPredicate(10))), "Auswahl");
+
+        assertEquals(StorageMode.OFF_HEAP, result.getStorageMode(), "storage mode kept");
+        assertEquals(cVs(7, "Tee 7"), result.getRowByPrimaryKey(cV(7)), "row in result");
+        assertTrue(result.getSizeInBytes() < OffHeapMemory.CHUNK_SIZE,
+                "no full chunk per column: " + result.getSizeInBytes());
+        assertTrue(table.getSizeInBytes() > result.getSizeInBytes(), "source reserves more than the result");
+    }
+
+    @Test
+    public void test_offHeapUpdatesReuseArena() {
+        OffHeapColumn column = new OffHeapColumn();
+        String padding = "x".repeat(100);
+        for (int i = 0; i < 1_000; i++) {
+            column.append(new StringValue(padding + i));
+        }
+        long initial = column.getSizeInBytes();
+
+        for (int round = 0; round < 100; round++) {
+            for (int slot = 0; slot < column.size(); slot++) {
+                column.set(slot, new StringValue(round + padding + slot));
+            }
+        }
+        assertTrue(column.getSizeInBytes() <= initial + 2L * OffHeapMemory.CHUNK_SIZE,
+                "overwritten strings reclaimed: " + column.getSizeInBytes());
+        assertEquals(new StringValue(99 + padding + 123), column.get(123), "value after reclaiming");
+
+        column.set(5, new DoubleValue(5));
+        assertEquals(new DoubleValue(5), column.get(5), "string replaced by number");
+    }
+
+    @Test
+    public void test_deferredDeletion() {
+        List<String> colIds = List.of("ID", "Name", "KategorieID");
+        for (StorageMode mode : StorageMode.values()) {
+            final DBTable immediate = new DBTable("Tee", "ID", colIds, mode);
+            final DBTable deferred = new DBTable("Tee", "ID", colIds, mode);
+            deferred.setDeletionMode(DeletionMode.DEFERRED);
+            deferred.setCompactionThreshold(0.5);
+            for (DBTable table : List.of(immediate, deferred)) {
+                for (int i = 0; i < 200; i++) {
+                    table.appendRow(cVs(i, "Tee " + i, i % 4));
+                }
+                table.createBitmapIndex("KategorieID");
+                table.removeRows(new WhereParameter("KategorieID", Predicate.isEqual(cV(0))));
+            }
+
+            assertEquals(50, deferred.getNumOfDeletedRows(), "rows only marked");
+            assertEquals(immediate.toString(), deferred.toString(), "marked rows are hidden");
+            assertEquals(null, deferred.getRowByPrimaryKey(cV(4)), "marked row not found");
+            assertEquals(0, deferred.select(null, List.of(new WhereParameter("KategorieID",
+                    Predicate.isEqual(cV(0)))), "Leer").getNumOfRows(), "marked rows not selected");
+
+            deferred.appendRow(cVs(4, "Neu", 1));
+            immediate.appendRow(cVs(4, "Neu", 1));
+            assertEquals(cVs(4, "Neu", 1), deferred.getRowByPrimaryKey(cV(4)), "key reusable after deletion");
+
+            for (DBTable table : List.of(immediate, deferred)) {
+                table.removeRows(new WhereParameter("KategorieID", Predicate.isEqual(cV(1))));
+            }
+            assertEquals(0, deferred.getNumOfDeletedRows(), "compacted above threshold");
+            assertEquals(immediate.toString(), deferred.toString(), "same content after compaction");
+            assertEquals(cV("Tee 7"), deferred.getValueByPrimaryKey(cV(7), "Name"), "lookup after compaction");
+        }
+    }
+
+    @Test
+    public void test_doubleColumnFilter() {
+        DoubleColumn column = new DoubleColumn();
+        for (int i = 0; i < 1_003; i++) {
+            column.append(new DoubleValue(i % 100));
+        }
+        List<Predicate<db.value.Value>> predicates = List.of(new DoubleGreaterThanPredicate(89.5),
+                new DoubleLessThanPredicate(3), new EqualsPredicate(new DoubleValue(42)),
+                new DoubleBetweenPredicate(10, 19), new DoubleInPredicate(1, 2, 99, 1_000),
+                new EqualsPredicate(new StringValue("42")));
+        int[] expected = {100, 33, 10, 100, 32, 0};
+
+        BitSet all = new BitSet();
+        all.set(0, column.size());
+        BitSet sparse = new BitSet();
+        sparse.set(2);
+        sparse.set(1_002);
+        for (int i = 0; i < predicates.size(); i++) {
+            Predicate<db.value.Value> predicate = predicates.get(i);
+            BitSet matches = column.match(predicate, all);
+            assertEquals(expected[i], matches.cardinality(), predicate + " on whole column");
+            for (int slot = 0; slot < column.size(); slot++) {
+                assertEquals(predicate.test(column.get(slot)), matches.get(slot), predicate + " at slot " + slot);
+            }
+            assertEquals(column.match(predicate, all).get(2), column.match(predicate, sparse).get(2),
+                    predicate + " on few candidates");
+        }
+
+        assertTrue(Column.forValue(new DoubleValue(1)) instanceof DoubleColumn, "double values use double column");
+        assertFalse(column.accepts(new StringValue("1")), "other value type rejected");
+    }
+}